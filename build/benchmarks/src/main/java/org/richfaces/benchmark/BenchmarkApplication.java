@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.faces.application.Application;
+import javax.faces.application.ApplicationWrapper;
+import javax.faces.application.ProjectStage;
+import javax.faces.context.FacesContext;
+
+/**
+ * Minimal {@link Application} for benchmarks: a fixed project stage and an expression evaluator that resolves
+ * <code>#{a4jSkin.*}</code> and <code>#{richSkin.*}</code> references against the given skin parameters and leaves any
+ * other expression as its literal body; everything else is unsupported.
+ */
+public class BenchmarkApplication extends ApplicationWrapper {
+
+    private static final String EXPRESSION_START = "#{";
+    private static final String[] SKIN_PREFIXES = { "a4jSkin.", "richSkin." };
+
+    private final ProjectStage projectStage;
+    private final Map<String, String> skinParameters;
+
+    public BenchmarkApplication(ProjectStage projectStage, Map<String, String> skinParameters) {
+        this.projectStage = projectStage;
+        this.skinParameters = new HashMap<String, String>(skinParameters);
+    }
+
+    @Override
+    public Application getWrapped() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ProjectStage getProjectStage() {
+        return projectStage;
+    }
+
+    @Override
+    public <T> T evaluateExpressionGet(FacesContext context, String expression, Class<? extends T> expectedType) {
+        StringBuilder result = new StringBuilder(expression.length());
+        int from = 0;
+        int start;
+        while ((start = expression.indexOf(EXPRESSION_START, from)) >= 0) {
+            int end = expression.indexOf('}', start);
+            if (end < 0) {
+                break;
+            }
+            result.append(expression, from, start);
+            result.append(resolve(expression.substring(start + EXPRESSION_START.length(), end)));
+            from = end + 1;
+        }
+        result.append(expression, from, expression.length());
+        return expectedType.cast(result.toString());
+    }
+
+    private String resolve(String reference) {
+        for (String prefix : SKIN_PREFIXES) {
+            if (reference.startsWith(prefix)) {
+                String value = skinParameters.get(reference.substring(prefix.length()));
+                return value != null ? value : "";
+            }
+        }
+        return reference;
+    }
+}
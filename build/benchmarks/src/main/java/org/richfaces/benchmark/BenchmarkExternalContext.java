@@ -0,0 +1,321 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.faces.context.ExternalContext;
+
+/**
+ * Minimal {@link ExternalContext} for benchmarks: in-memory scope maps, request parameters and headers, identity URL
+ * encoding, response headers and a response body that is counted and discarded; the rest of the servlet environment is
+ * unsupported.
+ */
+public class BenchmarkExternalContext extends ExternalContext {
+
+    private final Map<String, Object> applicationMap = new HashMap<String, Object>();
+    private final Map<String, Object> sessionMap = new HashMap<String, Object>();
+    private final Map<String, Object> requestMap = new HashMap<String, Object>();
+    private final Map<String, String> requestParameterMap = new HashMap<String, String>();
+    private final Map<String, String> requestHeaderMap = new HashMap<String, String>();
+    private final Map<String, String> initParameterMap = new HashMap<String, String>();
+    private String requestContextPath = "/app";
+    private String requestPathInfo;
+    private String requestServletPath = "/faces";
+    private final Map<String, String> responseHeaderMap = new HashMap<String, String>();
+    private final CountingOutputStream responseOutputStream = new CountingOutputStream();
+    private String responseContentType;
+    private int responseStatus;
+
+    @Override
+    public Map<String, Object> getApplicationMap() {
+        return applicationMap;
+    }
+
+    @Override
+    public Map<String, Object> getSessionMap() {
+        return sessionMap;
+    }
+
+    @Override
+    public Map<String, Object> getRequestMap() {
+        return requestMap;
+    }
+
+    @Override
+    public Map<String, String> getRequestParameterMap() {
+        return requestParameterMap;
+    }
+
+    @Override
+    public Iterator<String> getRequestParameterNames() {
+        return requestParameterMap.keySet().iterator();
+    }
+
+    @Override
+    public Map<String, String[]> getRequestParameterValuesMap() {
+        Map<String, String[]> result = new HashMap<String, String[]>();
+        for (Map.Entry<String, String> entry : requestParameterMap.entrySet()) {
+            result.put(entry.getKey(), new String[] { entry.getValue() });
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, String> getRequestHeaderMap() {
+        return requestHeaderMap;
+    }
+
+    @Override
+    public Map<String, String[]> getRequestHeaderValuesMap() {
+        Map<String, String[]> result = new HashMap<String, String[]>();
+        for (Map.Entry<String, String> entry : requestHeaderMap.entrySet()) {
+            result.put(entry.getKey(), new String[] { entry.getValue() });
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getRequestCookieMap() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public String getInitParameter(String name) {
+        return initParameterMap.get(name);
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Map getInitParameterMap() {
+        return initParameterMap;
+    }
+
+    @Override
+    public String getRequestContextPath() {
+        return requestContextPath;
+    }
+
+    public void setRequestContextPath(String requestContextPath) {
+        this.requestContextPath = requestContextPath;
+    }
+
+    @Override
+    public String getRequestPathInfo() {
+        return requestPathInfo;
+    }
+
+    public void setRequestPathInfo(String requestPathInfo) {
+        this.requestPathInfo = requestPathInfo;
+    }
+
+    @Override
+    public String getRequestServletPath() {
+        return requestServletPath;
+    }
+
+    public void setRequestServletPath(String requestServletPath) {
+        this.requestServletPath = requestServletPath;
+    }
+
+    @Override
+    public Locale getRequestLocale() {
+        return Locale.ENGLISH;
+    }
+
+    @Override
+    public Iterator<Locale> getRequestLocales() {
+        return Collections.singletonList(Locale.ENGLISH).iterator();
+    }
+
+    @Override
+    public String encodeActionURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeNamespace(String name) {
+        return name;
+    }
+
+    @Override
+    public String encodeResourceURL(String url) {
+        return url;
+    }
+
+    @Override
+    public void log(String message) {
+    }
+
+    @Override
+    public void log(String message, Throwable exception) {
+    }
+
+    @Override
+    public Object getSession(boolean create) {
+        return null;
+    }
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public Object getContext() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object getRequest() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object getResponse() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void dispatch(String path) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void redirect(String url) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public URL getResource(String path) {
+        return null;
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String path) {
+        return null;
+    }
+
+    @Override
+    public Set<String> getResourcePaths(String path) {
+        return Collections.emptySet();
+    }
+
+    public Map<String, String> getResponseHeaderMap() {
+        return responseHeaderMap;
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        responseHeaderMap.put(name, value);
+    }
+
+    @Override
+    public void addResponseHeader(String name, String value) {
+        responseHeaderMap.put(name, value);
+    }
+
+    @Override
+    public void setResponseContentLength(int length) {
+        responseHeaderMap.put("Content-Length", String.valueOf(length));
+    }
+
+    @Override
+    public String getResponseContentType() {
+        return responseContentType;
+    }
+
+    @Override
+    public void setResponseContentType(String contentType) {
+        this.responseContentType = contentType;
+    }
+
+    @Override
+    public String getResponseCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+
+    @Override
+    public void setResponseStatus(int statusCode) {
+        this.responseStatus = statusCode;
+    }
+
+    @Override
+    public OutputStream getResponseOutputStream() {
+        return responseOutputStream;
+    }
+
+    /**
+     * Returns the number of bytes written to the response body since the last reset and clears the response state.
+     */
+    public long resetResponse() {
+        long count = responseOutputStream.count;
+        responseOutputStream.count = 0;
+        responseHeaderMap.clear();
+        responseContentType = null;
+        responseStatus = 0;
+        return count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
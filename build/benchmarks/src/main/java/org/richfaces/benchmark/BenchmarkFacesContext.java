@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.faces.application.Application;
+import javax.faces.application.FacesMessage;
+import javax.faces.application.FacesMessage.Severity;
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.faces.context.ResponseStream;
+import javax.faces.context.ResponseWriter;
+import javax.faces.render.RenderKit;
+
+/**
+ * Minimal {@link FacesContext} for benchmarks: keeps the attributes, view root and response writer over a
+ * {@link BenchmarkExternalContext}, everything else is left unsupported so that a benchmark touching it fails loudly
+ * instead of measuring a mock.
+ */
+public class BenchmarkFacesContext extends FacesContext {
+
+    private final Map<Object, Object> attributes = new HashMap<Object, Object>();
+    private UIViewRoot viewRoot;
+    private ResponseWriter responseWriter;
+    private Application application;
+    private ExternalContext externalContext = new BenchmarkExternalContext();
+
+    public BenchmarkFacesContext() {
+        setCurrentInstance(this);
+    }
+
+    @Override
+    public Map<Object, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public Application getApplication() {
+        if (application == null) {
+            throw new UnsupportedOperationException();
+        }
+        return application;
+    }
+
+    public void setApplication(Application application) {
+        this.application = application;
+    }
+
+    @Override
+    public ExternalContext getExternalContext() {
+        return externalContext;
+    }
+
+    public void setExternalContext(ExternalContext externalContext) {
+        this.externalContext = externalContext;
+    }
+
+    @Override
+    public UIViewRoot getViewRoot() {
+        return viewRoot;
+    }
+
+    @Override
+    public void setViewRoot(UIViewRoot root) {
+        this.viewRoot = root;
+    }
+
+    @Override
+    public ResponseWriter getResponseWriter() {
+        return responseWriter;
+    }
+
+    @Override
+    public void setResponseWriter(ResponseWriter responseWriter) {
+        this.responseWriter = responseWriter;
+    }
+
+    @Override
+    public Iterator<String> getClientIdsWithMessages() {
+        return Collections.<String>emptyList().iterator();
+    }
+
+    @Override
+    public Severity getMaximumSeverity() {
+        return null;
+    }
+
+    @Override
+    public Iterator<FacesMessage> getMessages() {
+        return Collections.<FacesMessage>emptyList().iterator();
+    }
+
+    @Override
+    public Iterator<FacesMessage> getMessages(String clientId) {
+        return Collections.<FacesMessage>emptyList().iterator();
+    }
+
+    @Override
+    public void addMessage(String clientId, FacesMessage message) {
+    }
+
+    @Override
+    public RenderKit getRenderKit() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean getRenderResponse() {
+        return false;
+    }
+
+    @Override
+    public boolean getResponseComplete() {
+        return false;
+    }
+
+    @Override
+    public ResponseStream getResponseStream() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setResponseStream(ResponseStream responseStream) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void renderResponse() {
+    }
+
+    @Override
+    public void responseComplete() {
+    }
+
+    @Override
+    public void release() {
+        attributes.clear();
+        setCurrentInstance(null);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.faces.application.Resource;
+import javax.faces.context.FacesContext;
+
+/**
+ * {@link Resource} serving fixed content and response headers from memory, used as the source of the resources the
+ * benchmarks compile or cache.
+ */
+public class BenchmarkResource extends Resource {
+
+    private final byte[] content;
+    private final Map<String, String> responseHeaders = new HashMap<String, String>();
+
+    public BenchmarkResource(String libraryName, String resourceName, String contentType, byte[] content) {
+        this.content = content;
+        setLibraryName(libraryName);
+        setResourceName(resourceName);
+        setContentType(contentType);
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public Map<String, String> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public String getRequestPath() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public URL getURL() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean userAgentNeedsUpdate(FacesContext context) {
+        return true;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.faces.component.UIComponent;
+import javax.faces.context.ResponseWriter;
+
+/**
+ * Markup-only {@link ResponseWriter} appending to an in-memory buffer, without escaping, so that benchmarks measure the
+ * renderers rather than the writer.
+ */
+public class BenchmarkResponseWriter extends ResponseWriter {
+
+    private final StringBuilder buffer = new StringBuilder(4096);
+    private final String contentType;
+    private boolean startTagOpen;
+
+    public BenchmarkResponseWriter() {
+        this("text/html");
+    }
+
+    public BenchmarkResponseWriter(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Returns the length of the markup written since the last reset and clears the buffer.
+     */
+    public int reset() {
+        int length = buffer.length();
+        buffer.setLength(0);
+        startTagOpen = false;
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public void flush() throws IOException {
+        closeStartTag();
+    }
+
+    @Override
+    public void startDocument() throws IOException {
+    }
+
+    @Override
+    public void endDocument() throws IOException {
+        closeStartTag();
+    }
+
+    @Override
+    public void startElement(String name, UIComponent component) throws IOException {
+        closeStartTag();
+        buffer.append('<').append(name);
+        startTagOpen = true;
+    }
+
+    @Override
+    public void endElement(String name) throws IOException {
+        closeStartTag();
+        buffer.append("</").append(name).append('>');
+    }
+
+    @Override
+    public void writeAttribute(String name, Object value, String property) throws IOException {
+        buffer.append(' ').append(name).append("=\"").append(value).append('"');
+    }
+
+    @Override
+    public void writeURIAttribute(String name, Object value, String property) throws IOException {
+        writeAttribute(name, value, property);
+    }
+
+    @Override
+    public void writeComment(Object comment) throws IOException {
+        closeStartTag();
+        buffer.append("<!--").append(comment).append("-->");
+    }
+
+    @Override
+    public void writeText(Object text, String property) throws IOException {
+        closeStartTag();
+        buffer.append(text);
+    }
+
+    @Override
+    public void writeText(char[] text, int off, int len) throws IOException {
+        closeStartTag();
+        buffer.append(text, off, len);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        closeStartTag();
+        buffer.append(cbuf, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeStartTag();
+    }
+
+    @Override
+    public ResponseWriter cloneWithWriter(Writer writer) {
+        return new BenchmarkResponseWriter(contentType);
+    }
+
+    private void closeStartTag() {
+        if (startTagOpen) {
+            buffer.append('>');
+            startTagOpen = false;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.cache;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.richfaces.cache.lru.LRUMapCache;
+
+/**
+ * Measures {@link LRUMapCache} as the resource cache uses it: a cache of the default resource cache size, looked up by
+ * resource keys with a skewed distribution (a few resources of every page are requested far more often than the rest),
+ * from one and from several threads. With more keys than the cache capacity lookups start to miss and puts evict.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LRUMapCacheBenchmark {
+
+    private static final int CAPACITY = 512;
+    private static final int SEQUENCE_LENGTH = 4096;
+
+    @Param({ "256", "2048" })
+    private int keys;
+
+    private LRUMapCache cache;
+    private String[] resourceKeys;
+    private int[] sequence;
+    private Date expired;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next(int[] sequence) {
+            if (next == sequence.length) {
+                next = 0;
+            }
+            return sequence[next++];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        expired = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        cache = new LRUMapCache(CAPACITY);
+        cache.start();
+
+        resourceKeys = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            resourceKeys[i] = "org.richfaces/resource" + i + ".js?ln=org.richfaces&v=4.5.18";
+            cache.put(resourceKeys[i], "content of " + resourceKeys[i], expired);
+        }
+
+        // squaring a uniform variable favours the low indices the way page-wide resources are favoured
+        Random random = new Random(42);
+        sequence = new int[SEQUENCE_LENGTH];
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            double uniform = random.nextDouble();
+            sequence[i] = (int) (uniform * uniform * keys);
+        }
+    }
+
+    @Benchmark
+    public Object get(Cursor cursor) {
+        return cache.get(resourceKeys[cursor.next(sequence)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getContended(Cursor cursor) {
+        return cache.get(resourceKeys[cursor.next(sequence)]);
+    }
+
+    @Benchmark
+    public Object getOrPut(Cursor cursor) {
+        String key = resourceKeys[cursor.next(sequence)];
+        Object value = cache.get(key);
+        if (value == null) {
+            value = key;
+            cache.put(key, value, expired);
+        }
+        return value;
+    }
+}
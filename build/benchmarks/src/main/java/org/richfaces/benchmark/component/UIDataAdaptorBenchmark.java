@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.faces.component.html.HtmlInputText;
+import javax.faces.component.html.HtmlOutputText;
+import javax.faces.convert.IntegerConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.richfaces.benchmark.BenchmarkFacesContext;
+import org.richfaces.component.UIDataAdaptor;
+import org.richfaces.component.UIRepeat;
+
+/**
+ * Measures {@link UIDataAdaptor#setRowKey(javax.faces.context.FacesContext, Object)}, done for every row in every phase
+ * an iteration component takes part in: saving the state of the editable children of the previous row, selecting the row
+ * in the model, exposing it as the iteration variable and restoring the children state of the new row. The component is
+ * an a4j:repeat over all rows with a text and two inputs per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UIDataAdaptorBenchmark {
+
+    @Param({ "100", "1000" })
+    private int rows;
+
+    private BenchmarkFacesContext facesContext;
+    private UIRepeat repeat;
+
+    @Setup
+    public void setUp() {
+        facesContext = new BenchmarkFacesContext();
+
+        List<String> items = new ArrayList<String>(rows);
+        for (int i = 0; i < rows; i++) {
+            items.add("Item " + i);
+        }
+
+        repeat = new UIRepeat();
+        repeat.setId("repeat");
+        repeat.setRendererType(null);
+        repeat.setVar("item");
+        repeat.setValue(items);
+        // the converter an application creates for the integer row keys of a sequence
+        repeat.setRowKeyConverter(new IntegerConverter());
+
+        HtmlOutputText label = new HtmlOutputText();
+        label.setId("label");
+        label.setRendererType(null);
+        repeat.getChildren().add(label);
+
+        for (String id : new String[] { "quantity", "note" }) {
+            HtmlInputText input = new HtmlInputText();
+            input.setId(id);
+            input.setRendererType(null);
+            repeat.getChildren().add(input);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        facesContext.release();
+    }
+
+    @Benchmark
+    public int iterateRows() {
+        int selected = 0;
+        for (int i = 0; i < rows; i++) {
+            repeat.setRowKey(facesContext, Integer.valueOf(i));
+            if (repeat.isRowAvailable()) {
+                selected++;
+            }
+        }
+        repeat.setRowKey(facesContext, null);
+        return selected;
+    }
+}
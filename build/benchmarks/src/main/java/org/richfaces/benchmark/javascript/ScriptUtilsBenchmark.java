@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.javascript;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.ajax4jsf.javascript.JSFunctionDefinition;
+import org.ajax4jsf.javascript.ScriptUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ScriptUtils#toScript(Object)} and {@link ScriptUtils#appendScript(Appendable, Object)}: the options of
+ * a typical component (nested ajax options, an event handler, strings in need of escaping) and a data payload of the
+ * given number of rows, once as maps and once as beans serialized through their properties.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptUtilsBenchmark {
+
+    @Param({ "10", "1000" })
+    private int rows;
+
+    private Map<String, Object> options;
+    private List<Map<String, Object>> mapRows;
+    private List<RowBean> beanRows;
+    private StringBuilder buffer;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> ajaxOptions = new LinkedHashMap<String, Object>();
+        ajaxOptions.put("incId", "1");
+        ajaxOptions.put("render", "form:table form:messages");
+        ajaxOptions.put("status", "form:status");
+        ajaxOptions.put("queueId", "defaultQueue");
+
+        options = new LinkedHashMap<String, Object>();
+        options.put("ajaxEventOption", ajaxOptions);
+        options.put("mode", "ajax");
+        options.put("showButton", Boolean.TRUE);
+        options.put("minChars", Integer.valueOf(2));
+        options.put("tokens", ", \t\"'");
+        options.put("onbegin", new JSFunctionDefinition("event").addToBody("return confirm('Proceed with \"save\"?');"));
+
+        mapRows = new ArrayList<Map<String, Object>>(rows);
+        beanRows = new ArrayList<RowBean>(rows);
+        for (int i = 0; i < rows; i++) {
+            RowBean bean = new RowBean(i);
+            beanRows.add(bean);
+
+            Map<String, Object> row = new LinkedHashMap<String, Object>();
+            row.put("id", Integer.valueOf(bean.getId()));
+            row.put("name", bean.getName());
+            row.put("description", bean.getDescription());
+            row.put("price", Double.valueOf(bean.getPrice()));
+            row.put("available", Boolean.valueOf(bean.isAvailable()));
+            row.put("created", bean.getCreated());
+            mapRows.add(row);
+        }
+
+        buffer = new StringBuilder(rows * 128);
+    }
+
+    @Benchmark
+    public String componentOptions() {
+        return ScriptUtils.toScript(options);
+    }
+
+    @Benchmark
+    public String mapRows() {
+        return ScriptUtils.toScript(mapRows);
+    }
+
+    @Benchmark
+    public String beanRows() {
+        return ScriptUtils.toScript(beanRows);
+    }
+
+    @Benchmark
+    public int appendMapRows() throws IOException {
+        buffer.setLength(0);
+        ScriptUtils.appendScript(buffer, mapRows);
+        return buffer.length();
+    }
+
+    public static final class RowBean {
+
+        private final int id;
+        private final String name;
+        private final String description;
+        private final double price;
+        private final boolean available;
+        private final Date created;
+
+        RowBean(int id) {
+            this.id = id;
+            this.name = "Item #" + id;
+            this.description = "A \"quoted\" <description> of item " + id + " spanning\na second line";
+            this.price = id * 1.25;
+            this.available = id % 3 != 0;
+            this.created = new Date(1400000000000L + id * 60000L);
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+    }
+}
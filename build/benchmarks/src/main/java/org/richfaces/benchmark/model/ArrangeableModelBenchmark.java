@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.faces.model.ListDataModel;
+
+import org.ajax4jsf.model.SequenceDataModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.richfaces.benchmark.BenchmarkFacesContext;
+import org.richfaces.component.SortOrder;
+import org.richfaces.model.ArrangeableModel;
+import org.richfaces.model.ArrangeableState;
+import org.richfaces.model.ArrangeableStateDefaultImpl;
+import org.richfaces.model.Filter;
+import org.richfaces.model.FilterField;
+import org.richfaces.model.SortField;
+
+/**
+ * Measures {@link ArrangeableModel#arrange(javax.faces.context.FacesContext, ArrangeableState)}, the filtering and
+ * sorting a data table does on every request with the filter or sort state set: collecting the row keys of the original
+ * model, filtering them by category and sorting them by name and price. Filters and comparators are given as objects,
+ * so that the benchmark measures the model rather than expression evaluation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrangeableModelBenchmark {
+
+    private static final String[] CATEGORIES = { "books", "music", "video", "games", "software" };
+
+    @Param({ "1000", "10000" })
+    private int rows;
+
+    private BenchmarkFacesContext facesContext;
+    private ArrangeableModel model;
+    private ArrangeableState filterState;
+    private ArrangeableState sortState;
+    private ArrangeableState filterAndSortState;
+
+    @Setup
+    public void setUp() {
+        facesContext = new BenchmarkFacesContext();
+
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<Item>(rows);
+        for (int i = 0; i < rows; i++) {
+            items.add(new Item("Item " + Integer.toString(random.nextInt(rows * 10), Character.MAX_RADIX),
+                CATEGORIES[random.nextInt(CATEGORIES.length)], random.nextInt(100000) / 100.0));
+        }
+        model = new ArrangeableModel(new SequenceDataModel<Item>(new ListDataModel<Item>(items)), "item", "filterValue");
+
+        List<FilterField> filterFields = Collections.singletonList(new FilterField(null, new Filter<Item>() {
+            public boolean accept(Item item) {
+                return "music".equals(item.category) || "video".equals(item.category);
+            }
+        }, null));
+        List<SortField> sortFields = Arrays.asList(new SortField(null, new Comparator<Item>() {
+            public int compare(Item o1, Item o2) {
+                return o1.name.compareToIgnoreCase(o2.name);
+            }
+        }, SortOrder.ascending), new SortField(null, new Comparator<Item>() {
+            public int compare(Item o1, Item o2) {
+                return Double.compare(o1.price, o2.price);
+            }
+        }, SortOrder.descending));
+
+        filterState = new ArrangeableStateDefaultImpl(filterFields, null, Locale.ENGLISH);
+        sortState = new ArrangeableStateDefaultImpl(null, sortFields, Locale.ENGLISH);
+        filterAndSortState = new ArrangeableStateDefaultImpl(filterFields, sortFields, Locale.ENGLISH);
+    }
+
+    @TearDown
+    public void tearDown() {
+        facesContext.release();
+    }
+
+    @Benchmark
+    public int filter() {
+        model.arrange(facesContext, filterState);
+        return model.getRowCount();
+    }
+
+    @Benchmark
+    public int sort() {
+        model.arrange(facesContext, sortState);
+        return model.getRowCount();
+    }
+
+    @Benchmark
+    public int filterAndSort() {
+        model.arrange(facesContext, filterAndSortState);
+        return model.getRowCount();
+    }
+
+    private static final class Item {
+
+        private final String name;
+        private final String category;
+        private final double price;
+
+        Item(String name, String category, double price) {
+            this.name = name;
+            this.category = category;
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.renderkit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import javax.faces.component.html.HtmlCommandLink;
+import javax.faces.component.html.HtmlOutputText;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.richfaces.benchmark.BenchmarkFacesContext;
+import org.richfaces.benchmark.BenchmarkResponseWriter;
+import org.richfaces.renderkit.ComponentAttribute;
+import org.richfaces.renderkit.RenderKitUtils;
+import org.richfaces.renderkit.RenderKitUtils.Attributes;
+
+/**
+ * Renders the pass-through attributes of a typical rich:dataTable cell: the cell element itself (all event handlers,
+ * only a style class set) and a command link inside of it (a few attributes set), once through the compiled
+ * {@link Attributes} plan and once as a plain attributes collection, as they were rendered before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassThroughAttributesBenchmark {
+
+    private static final Attributes CELL_ATTRIBUTES = RenderKitUtils.attributes().generic("class", "styleClass")
+        .generic("style", "style").generic("title", "title").generic("lang", "lang").generic("dir", "dir")
+        .generic("onclick", "onclick", "click").generic("ondblclick", "ondblclick", "dblclick")
+        .generic("onmousedown", "onmousedown", "mousedown").generic("onmouseup", "onmouseup", "mouseup")
+        .generic("onmouseover", "onmouseover", "mouseover").generic("onmousemove", "onmousemove", "mousemove")
+        .generic("onmouseout", "onmouseout", "mouseout").generic("onkeypress", "onkeypress", "keypress")
+        .generic("onkeydown", "onkeydown", "keydown").generic("onkeyup", "onkeyup", "keyup");
+
+    private static final Attributes LINK_ATTRIBUTES = RenderKitUtils.attributes().generic("class", "styleClass")
+        .generic("style", "style").generic("title", "title").generic("lang", "lang").generic("dir", "dir")
+        .generic("accesskey", "accesskey").generic("tabindex", "tabindex").generic("rel", "rel").generic("rev", "rev")
+        .generic("target", "target").generic("type", "type").uri("href", "href").bool("disabled", "disabled")
+        .generic("onclick", "onclick", "click", "action").generic("ondblclick", "ondblclick", "dblclick")
+        .generic("onmouseover", "onmouseover", "mouseover").generic("onmouseout", "onmouseout", "mouseout")
+        .generic("onfocus", "onfocus", "focus").generic("onblur", "onblur", "blur");
+
+    private BenchmarkFacesContext facesContext;
+    private BenchmarkResponseWriter responseWriter;
+    private HtmlOutputText cell;
+    private HtmlCommandLink link;
+    private Collection<ComponentAttribute> cellAttributesCollection;
+    private Collection<ComponentAttribute> linkAttributesCollection;
+
+    @Setup
+    public void setUp() {
+        facesContext = new BenchmarkFacesContext();
+        responseWriter = new BenchmarkResponseWriter();
+        facesContext.setResponseWriter(responseWriter);
+
+        cell = new HtmlOutputText();
+        cell.setStyleClass("rf-dt-c");
+
+        link = new HtmlCommandLink();
+        link.setStyleClass("row-link");
+        link.setTitle("Show details");
+        link.setOnclick("return confirm('Show details?')");
+        link.getAttributes().put("href", "#");
+
+        cellAttributesCollection = new ArrayList<ComponentAttribute>(CELL_ATTRIBUTES);
+        linkAttributesCollection = new ArrayList<ComponentAttribute>(LINK_ATTRIBUTES);
+    }
+
+    @TearDown
+    public void tearDown() {
+        facesContext.release();
+    }
+
+    @Benchmark
+    public int compiledPlan() throws IOException {
+        responseWriter.startElement("td", cell);
+        CELL_ATTRIBUTES.render(facesContext, cell);
+        responseWriter.startElement("a", link);
+        LINK_ATTRIBUTES.render(facesContext, link);
+        responseWriter.endElement("a");
+        responseWriter.endElement("td");
+        return responseWriter.reset();
+    }
+
+    @Benchmark
+    public int attributesCollection() throws IOException {
+        responseWriter.startElement("td", cell);
+        RenderKitUtils.renderPassThroughAttributes(facesContext, cell, cellAttributesCollection);
+        responseWriter.startElement("a", link);
+        RenderKitUtils.renderPassThroughAttributes(facesContext, link, linkAttributesCollection);
+        responseWriter.endElement("a");
+        responseWriter.endElement("td");
+        return responseWriter.reset();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.request;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.richfaces.exception.FileUploadException;
+import org.richfaces.model.UploadedFile;
+import org.richfaces.request.MultipartRequestParser;
+
+/**
+ * Measures {@link MultipartRequestParser#parse()} on a file upload request as rich:fileUpload sends it: the form fields
+ * of a JSF form and one file of the given size, kept in memory. The request is a proxy serving only the content type,
+ * encoding and body the parser reads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultipartRequestParserBenchmark {
+
+    private static final String BOUNDARY = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+
+    @Param({ "16384", "1048576" })
+    private int fileSize;
+
+    private HttpServletRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        final byte[] body = createBody();
+        request = (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+            new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    String name = method.getName();
+                    if ("getContentType".equals(name)) {
+                        return "multipart/form-data; boundary=" + BOUNDARY;
+                    }
+                    if ("getCharacterEncoding".equals(name)) {
+                        return "UTF-8";
+                    }
+                    if ("getContentLength".equals(name)) {
+                        return body.length;
+                    }
+                    if ("getInputStream".equals(name)) {
+                        return new ByteArrayServletInputStream(body);
+                    }
+                    throw new UnsupportedOperationException(name);
+                }
+            });
+    }
+
+    @Benchmark
+    public long parse() throws FileUploadException {
+        MultipartRequestParser parser = new MultipartRequestParser(request, false, null);
+        parser.parse();
+        long size = parser.getParameters().size();
+        for (UploadedFile uploadedFile : parser.getUploadedFiles()) {
+            size += uploadedFile.getSize();
+        }
+        return size;
+    }
+
+    private byte[] createBody() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(fileSize + 1024);
+        appendField(body, "form", "form");
+        appendField(body, "javax.faces.ViewState", "-2754427474123487215:7530385208431432316");
+        appendField(body, "javax.faces.partial.ajax", "true");
+        appendField(body, "javax.faces.source", "form:upload");
+        appendField(body, "org.richfaces.ajax.component", "form:upload");
+
+        append(body, "--" + BOUNDARY + "\r\n");
+        append(body, "Content-Disposition: form-data; name=\"form:upload\"; filename=\"report.pdf\"\r\n");
+        append(body, "Content-Type: application/pdf\r\n\r\n");
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        body.write(content);
+        append(body, "\r\n--" + BOUNDARY + "--\r\n");
+        return body.toByteArray();
+    }
+
+    private static void appendField(ByteArrayOutputStream body, String name, String value) throws IOException {
+        append(body, "--" + BOUNDARY + "\r\n");
+        append(body, "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n");
+        append(body, value + "\r\n");
+    }
+
+    private static void append(ByteArrayOutputStream body, String text) throws IOException {
+        body.write(text.getBytes("UTF-8"));
+    }
+
+    private static final class ByteArrayServletInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream stream;
+
+        ByteArrayServletInputStream(byte[] content) {
+            this.stream = new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public int read() {
+            return stream.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return stream.read(b, off, len);
+        }
+    }
+}
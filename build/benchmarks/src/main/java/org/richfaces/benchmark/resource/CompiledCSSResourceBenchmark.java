@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.faces.application.ProjectStage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.richfaces.benchmark.BenchmarkApplication;
+import org.richfaces.benchmark.BenchmarkFacesContext;
+import org.richfaces.benchmark.BenchmarkResource;
+import org.richfaces.resource.CompiledCSSResource;
+
+/**
+ * Measures {@link CompiledCSSResource#getInputStream()}, the compilation of a skinned stylesheet (.ecss) done when a
+ * resource is requested and not yet cached: parsing, visiting every declaration and resolving skin references. The
+ * stylesheets are the ones shipped with the rich components, the skin parameters are those of the blueSky skin.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledCSSResourceBenchmark {
+
+    private static final String STYLESHEETS_LOCATION = "META-INF/resources/org.richfaces/";
+    private static final String SKIN_FILE = "META-INF/skins/blueSky.skin.properties";
+
+    @Param({ "datatable.ecss", "calendar.ecss" })
+    private String stylesheet;
+
+    private BenchmarkFacesContext facesContext;
+    private CompiledCSSResource resource;
+    private final byte[] buffer = new byte[8192];
+
+    @Setup
+    public void setUp() throws IOException {
+        facesContext = new BenchmarkFacesContext();
+        facesContext.setApplication(new BenchmarkApplication(ProjectStage.Production, loadSkinParameters()));
+
+        resource = new CompiledCSSResource(new BenchmarkResource("org.richfaces", stylesheet, "text/css",
+            readResource(STYLESHEETS_LOCATION + stylesheet)));
+        resource.setLibraryName("org.richfaces");
+        resource.setResourceName(stylesheet);
+    }
+
+    @TearDown
+    public void tearDown() {
+        facesContext.release();
+    }
+
+    @Benchmark
+    public int compile() throws IOException {
+        InputStream stream = resource.getInputStream();
+        try {
+            int length = 0;
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                length += read;
+            }
+            return length;
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static Map<String, String> loadSkinParameters() throws IOException {
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(readResource(SKIN_FILE)));
+        Map<String, String> parameters = new HashMap<String, String>();
+        for (String name : properties.stringPropertyNames()) {
+            parameters.put(name, properties.getProperty(name));
+        }
+        return parameters;
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        InputStream stream = CompiledCSSResourceBenchmark.class.getClassLoader().getResourceAsStream(name);
+        if (stream == null) {
+            throw new IOException("Resource " + name + " was not found");
+        }
+        try {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                result.write(buffer, 0, read);
+            }
+            return result.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+}
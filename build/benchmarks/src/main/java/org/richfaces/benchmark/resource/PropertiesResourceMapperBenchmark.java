@@ -0,0 +1,260 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.resource;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.faces.context.FacesContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.richfaces.application.CoreConfiguration;
+import org.richfaces.application.Module;
+import org.richfaces.application.ServiceTracker;
+import org.richfaces.application.ServicesFactory;
+import org.richfaces.application.ServicesFactoryImpl;
+import org.richfaces.application.configuration.ConfigurationService;
+import org.richfaces.benchmark.BenchmarkFacesContext;
+import org.richfaces.resource.ResourceKey;
+import org.richfaces.resource.mapping.PropertiesResourceMapper;
+import org.richfaces.resource.mapping.ResourceMappingConfiguration;
+import org.richfaces.resource.mapping.ResourcePath;
+import org.richfaces.skin.Skin;
+import org.richfaces.skin.SkinFactory;
+import org.richfaces.skin.Theme;
+
+/**
+ * Measures {@link PropertiesResourceMapper#getAggregatedResources(ResourcePath)}, the lookup done for every mapped
+ * (packed) resource rendered into a page, against a scan over all mappings as it was done before the inverse index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertiesResourceMapperBenchmark {
+
+    private static final String MAPPING_FILE = "META-INF/richfaces/benchmark-resource-mappings.properties";
+    private static final String LOCATION = "/app/org.richfaces.resources/javax.faces.resource/";
+    private static final int RESOURCES_PER_PACK = 20;
+
+    @Param({ "100", "1000" })
+    private int mappings;
+
+    private ClassLoader originalClassLoader;
+    private File mappingRoot;
+    private FacesContext facesContext;
+    private PropertiesResourceMapper mapper;
+    private List<ResourceKey> resourceKeys;
+    private List<ResourcePath> resourcePaths;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        mappingRoot = createMappingFile();
+        originalClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[] { mappingRoot.toURI().toURL() },
+            PropertiesResourceMapperBenchmark.class.getClassLoader()));
+
+        ServicesFactoryImpl servicesFactory = new ServicesFactoryImpl();
+        ServiceTracker.setFactory(servicesFactory);
+        servicesFactory.init(Collections.<Module>singletonList(new Module() {
+            public void configure(ServicesFactory factory) {
+                factory.setInstance(ConfigurationService.class, createConfigurationService());
+                factory.setInstance(SkinFactory.class, new BenchmarkSkinFactory(createSkin("blueSky")));
+                factory.setInstance(ResourceMappingConfiguration.class, new ResourceMappingConfiguration());
+            }
+        }));
+
+        facesContext = new BenchmarkFacesContext();
+        // the location is evaluated once per request and cached in the context attributes
+        facesContext.getAttributes().put(ResourceMappingConfiguration.class.getName() + ".location", LOCATION);
+
+        mapper = new PropertiesResourceMapper();
+        mapper.init();
+
+        Set<ResourcePath> paths = new HashSet<ResourcePath>();
+        for (ResourceKey resourceKey : resourceKeys) {
+            paths.add(mapper.mapResource(resourceKey).getResourcePath(facesContext));
+        }
+        resourcePaths = new ArrayList<ResourcePath>(paths);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mapper.release();
+        facesContext.release();
+        ServiceTracker.release();
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+        new File(mappingRoot, MAPPING_FILE).delete();
+    }
+
+    @Benchmark
+    public Set<ResourceKey> aggregatedResources() {
+        return mapper.getAggregatedResources(nextPath());
+    }
+
+    @Benchmark
+    public Set<ResourceKey> scanAllMappings() {
+        ResourcePath resourcePath = nextPath();
+        Set<ResourceKey> result = new HashSet<ResourceKey>();
+        for (ResourceKey resourceKey : resourceKeys) {
+            if (mapper.mapResource(resourceKey).getResourcePath(facesContext).equals(resourcePath)) {
+                result.add(resourceKey);
+            }
+        }
+        return result;
+    }
+
+    private ResourcePath nextPath() {
+        if (next == resourcePaths.size()) {
+            next = 0;
+        }
+        return resourcePaths.get(next++);
+    }
+
+    /**
+     * Writes a mapping resembling an optimizer output: most resources packed into a few files, every tenth skin-dependent
+     * and every twentieth served from an external location.
+     */
+    private File createMappingFile() throws IOException {
+        Properties properties = new Properties();
+        resourceKeys = new ArrayList<ResourceKey>(mappings);
+        for (int i = 0; i < mappings; i++) {
+            String pack = "pack" + (i / RESOURCES_PER_PACK);
+            String location;
+            ResourceKey resourceKey;
+            if (i % 20 == 0) {
+                resourceKey = ResourceKey.create("org.richfaces:external" + i + ".js");
+                location = "http://cdn.example.com/" + pack + ".js";
+            } else if (i % 10 == 0) {
+                resourceKey = ResourceKey.create("org.richfaces:skinned" + i + ".ecss");
+                location = "%skin%/" + pack + ".css";
+            } else {
+                resourceKey = ResourceKey.create("org.richfaces:resource" + i + ".js");
+                location = "packed/" + pack + ".js";
+            }
+            resourceKeys.add(resourceKey);
+            properties.setProperty(resourceKey.toString(), location);
+        }
+
+        File root = File.createTempFile("richfaces-mapping", "");
+        root.delete();
+        File file = new File(root, MAPPING_FILE);
+        file.getParentFile().mkdirs();
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            properties.store(stream, null);
+        } finally {
+            stream.close();
+        }
+        return root;
+    }
+
+    private static ConfigurationService createConfigurationService() {
+        return (ConfigurationService) Proxy.newProxyInstance(ConfigurationService.class.getClassLoader(),
+            new Class<?>[] { ConfigurationService.class }, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    Object key = args[1];
+                    if (key == CoreConfiguration.Items.resourceMappingFile) {
+                        return MAPPING_FILE;
+                    }
+                    if (method.getReturnType() == Boolean.class) {
+                        return Boolean.FALSE;
+                    }
+                    return null;
+                }
+            });
+    }
+
+    private static Skin createSkin(final String name) {
+        return (Skin) Proxy.newProxyInstance(Skin.class.getClassLoader(), new Class<?>[] { Skin.class },
+            new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if ("getName".equals(method.getName())) {
+                        return name;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static final class BenchmarkSkinFactory extends SkinFactory {
+
+        private final Skin skin;
+
+        BenchmarkSkinFactory(Skin skin) {
+            this.skin = skin;
+        }
+
+        @Override
+        public Skin getDefaultSkin(FacesContext context) {
+            return skin;
+        }
+
+        @Override
+        public Skin getSkin(FacesContext context) {
+            return skin;
+        }
+
+        @Override
+        public Skin getBaseSkin(FacesContext facesContext) {
+            return skin;
+        }
+
+        @Override
+        public Theme getTheme(FacesContext facesContext, String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Skin getSkin(FacesContext context, String name) {
+            return skin;
+        }
+    }
+}
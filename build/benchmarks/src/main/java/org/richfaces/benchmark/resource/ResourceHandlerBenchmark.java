@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.resource;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.faces.application.ProjectStage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.richfaces.application.Module;
+import org.richfaces.application.ServiceTracker;
+import org.richfaces.application.ServicesFactory;
+import org.richfaces.application.ServicesFactoryImpl;
+import org.richfaces.benchmark.BenchmarkApplication;
+import org.richfaces.benchmark.BenchmarkExternalContext;
+import org.richfaces.benchmark.BenchmarkFacesContext;
+import org.richfaces.benchmark.BenchmarkResource;
+import org.richfaces.cache.Cache;
+import org.richfaces.cache.lru.LRUMapCache;
+import org.richfaces.resource.CachedResourceImpl;
+import org.richfaces.resource.DefaultResourceCodec;
+import org.richfaces.resource.ResourceCodec;
+import org.richfaces.resource.ResourceHandlerImpl;
+import org.richfaces.resource.ResourceUtils;
+
+/**
+ * Measures {@link ResourceHandlerImpl#handleResourceRequest(javax.faces.context.FacesContext)} for resources found in the
+ * resource cache, the common case of a running application: decoding the request, the cache lookup and either sending
+ * the cached headers and content or, for a request carrying a matching entity tag, the 304 status.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceHandlerBenchmark {
+
+    private static final int RESOURCES = 100;
+    private static final String LIBRARY_NAME = "org.richfaces";
+    private static final String VERSION = "4.5.18";
+
+    @Param({ "4096", "65536" })
+    private int contentLength;
+
+    private BenchmarkFacesContext facesContext;
+    private BenchmarkExternalContext externalContext;
+    private ResourceHandlerImpl resourceHandler;
+    private String[] requestPaths;
+    private String[] entityTags;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        final Cache cache = new LRUMapCache(512);
+        final ResourceCodec resourceCodec = new DefaultResourceCodec();
+
+        ServicesFactoryImpl servicesFactory = new ServicesFactoryImpl();
+        ServiceTracker.setFactory(servicesFactory);
+        servicesFactory.init(Collections.<Module>singletonList(new Module() {
+            public void configure(ServicesFactory factory) {
+                factory.setInstance(Cache.class, cache);
+                factory.setInstance(ResourceCodec.class, resourceCodec);
+            }
+        }));
+
+        facesContext = new BenchmarkFacesContext();
+        facesContext.setApplication(new BenchmarkApplication(ProjectStage.Production, Collections.<String, String>emptyMap()));
+        externalContext = (BenchmarkExternalContext) facesContext.getExternalContext();
+        externalContext.getRequestParameterMap().put("ln", LIBRARY_NAME);
+        externalContext.getRequestParameterMap().put("v", VERSION);
+
+        // the resource handler is the last one of the chain, there is no default handler to pass requests to
+        resourceHandler = new ResourceHandlerImpl(null);
+
+        Random random = new Random(42);
+        String lastModified = ResourceUtils.formatHttpDate(new Date(1400000000000L));
+        requestPaths = new String[RESOURCES];
+        entityTags = new String[RESOURCES];
+        for (int i = 0; i < RESOURCES; i++) {
+            String resourceName = "resource" + i + ".js";
+            byte[] content = new byte[contentLength];
+            for (int j = 0; j < contentLength; j++) {
+                content[j] = (byte) ('a' + random.nextInt(26));
+            }
+
+            BenchmarkResource source = new BenchmarkResource(LIBRARY_NAME, resourceName, "text/javascript", content);
+            Map<String, String> headers = source.getResponseHeaders();
+            entityTags[i] = ResourceUtils.formatWeakTag(contentLength + "-" + i);
+            headers.put("ETag", entityTags[i]);
+            headers.put("Last-Modified", lastModified);
+            headers.put("Cache-Control", "max-age=86400");
+            headers.put("Content-Length", String.valueOf(contentLength));
+
+            CachedResourceImpl cachedResource = new CachedResourceImpl();
+            cachedResource.initialize(source);
+
+            requestPaths[i] = ResourceHandlerImpl.RICHFACES_RESOURCE_IDENTIFIER + resourceName;
+            String resourceKey = resourceCodec.decodeResource(facesContext, resourceName).getResourceKey();
+            cache.put(resourceKey, cachedResource, cachedResource.getExpired(facesContext));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        facesContext.release();
+        ServiceTracker.release();
+    }
+
+    @Benchmark
+    public long cachedResource() throws IOException {
+        startRequest();
+        resourceHandler.handleResourceRequest(facesContext);
+        return externalContext.resetResponse();
+    }
+
+    @Benchmark
+    public long notModified() throws IOException {
+        int index = startRequest();
+        externalContext.getRequestHeaderMap().put("If-None-Match", entityTags[index]);
+        resourceHandler.handleResourceRequest(facesContext);
+        externalContext.getRequestHeaderMap().clear();
+        return externalContext.getResponseStatus() + externalContext.resetResponse();
+    }
+
+    /**
+     * Simulates a new request for the next resource: per-request state kept in the context attributes is dropped.
+     */
+    private int startRequest() {
+        if (next == RESOURCES) {
+            next = 0;
+        }
+        facesContext.getAttributes().clear();
+        externalContext.setRequestPathInfo(requestPaths[next]);
+        return next++;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.load;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Counts the bytes allocated by the container thread while serving a request, per {@link RequestType}. Only requests
+ * served while recording is on are counted; the container runs in the JVM of the harness, which reads the totals
+ * directly.
+ */
+public class AllocationFilter implements Filter {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getThreadMXBean();
+    private static final AtomicLongArray REQUESTS = new AtomicLongArray(RequestType.values().length);
+    private static final AtomicLongArray ALLOCATED_BYTES = new AtomicLongArray(RequestType.values().length);
+    private static volatile boolean recording;
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+                return allocationBean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the JVM is able to measure the memory allocated by a thread.
+     */
+    public static boolean isSupported() {
+        return THREAD_MX_BEAN != null;
+    }
+
+    public static void startRecording() {
+        for (int i = 0; i < REQUESTS.length(); i++) {
+            REQUESTS.set(i, 0);
+            ALLOCATED_BYTES.set(i, 0);
+        }
+        recording = true;
+    }
+
+    public static void stopRecording() {
+        recording = false;
+    }
+
+    public static long getRequests(RequestType type) {
+        return REQUESTS.get(type.ordinal());
+    }
+
+    public static long getAllocatedBytes(RequestType type) {
+        return ALLOCATED_BYTES.get(type.ordinal());
+    }
+
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException,
+        ServletException {
+        if (!recording || THREAD_MX_BEAN == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            int index = RequestType.of((HttpServletRequest) request).ordinal();
+            REQUESTS.incrementAndGet(index);
+            ALLOCATED_BYTES.addAndGet(index, allocated);
+        }
+    }
+
+    public void destroy() {
+    }
+}
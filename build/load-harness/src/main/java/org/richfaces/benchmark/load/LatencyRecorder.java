@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.load;
+
+import java.util.Arrays;
+
+/**
+ * Growing array of request latencies in nanoseconds, owned by a single thread while recording and merged afterwards.
+ */
+public class LatencyRecorder {
+
+    private long[] values = new long[4096];
+    private int size;
+    private boolean sorted = true;
+
+    public void record(long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+        sorted = false;
+    }
+
+    public void addAll(LatencyRecorder recorder) {
+        if (size + recorder.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + recorder.size, size * 2));
+        }
+        System.arraycopy(recorder.values, 0, values, size, recorder.size);
+        size += recorder.size;
+        sorted = false;
+    }
+
+    public int getCount() {
+        return size;
+    }
+
+    /**
+     * Returns the latency not exceeded by the given fraction of the recorded requests, 0 when nothing was recorded.
+     */
+    public long getPercentile(double fraction) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(values, 0, size);
+            sorted = true;
+        }
+        int index = (int) Math.ceil(fraction * size) - 1;
+        return values[Math.min(Math.max(index, 0), size - 1)];
+    }
+
+    public long getMax() {
+        return getPercentile(1.0);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.load;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.richfaces.model.TreeNode;
+import org.richfaces.model.TreeNodeImpl;
+
+/**
+ * Data of the measured views: a 1000 rows table, a tree of 1110 nodes expanded to three levels and the twelve months
+ * of a year. The data is created once and never changes, so that every request renders the same amount of markup.
+ */
+public class LoadBean {
+
+    private static final int ROWS = 1000;
+    private static final int TREE_FAN_OUT = 10;
+    private static final int TREE_DEPTH = 3;
+    private static final int MONTHS = 12;
+
+    private final List<Row> rows;
+    private final TreeNode treeRoot;
+    private final List<Month> months;
+
+    public LoadBean() {
+        List<Row> rows = new ArrayList<Row>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Row(i));
+        }
+        this.rows = Collections.unmodifiableList(rows);
+
+        treeRoot = new TreeNodeImpl();
+        addChildren(treeRoot, "Node", 1);
+
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(2016, Calendar.JANUARY, 15);
+        List<Month> months = new ArrayList<Month>(MONTHS);
+        for (int i = 0; i < MONTHS; i++) {
+            months.add(new Month(calendar.getTime()));
+            calendar.add(Calendar.MONTH, 1);
+        }
+        this.months = Collections.unmodifiableList(months);
+    }
+
+    private static void addChildren(TreeNode parent, String parentLabel, int level) {
+        for (int i = 0; i < TREE_FAN_OUT; i++) {
+            String label = parentLabel + "." + i;
+            Node node = new Node(label, level == TREE_DEPTH);
+            parent.addChild(Integer.valueOf(i), node);
+            if (level < TREE_DEPTH) {
+                addChildren(node, label, level + 1);
+            }
+        }
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public TreeNode getTreeRoot() {
+        return treeRoot;
+    }
+
+    public List<Month> getMonths() {
+        return months;
+    }
+
+    public static final class Row {
+
+        private final int id;
+        private final String name;
+        private final String email;
+        private final double price;
+        private final Date created;
+        private Integer quantity;
+
+        Row(int id) {
+            this.id = id;
+            this.name = "Customer " + id;
+            this.email = "customer" + id + "@example.com";
+            this.price = (id * 7919 % 100000) / 100.0;
+            this.created = new Date(1450000000000L + id * 3600000L);
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    public static final class Node extends TreeNodeImpl {
+
+        private final String label;
+
+        Node(String label, boolean leaf) {
+            super(leaf);
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public static final class Month {
+
+        private Date date;
+
+        Month(Date date) {
+            this.date = date;
+        }
+
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+    }
+}
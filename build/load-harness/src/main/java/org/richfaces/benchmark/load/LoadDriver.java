@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the virtual users against a started container: a warm-up period, which is not measured, followed by the
+ * measurement period.
+ */
+public class LoadDriver {
+
+    private final String serverUrl;
+    private final String contextPath;
+    private final List<String> views;
+    private final RequestType[] mix;
+    private final int users;
+    private volatile boolean running;
+    private volatile boolean recording;
+
+    public LoadDriver(String serverUrl, String contextPath, List<String> views, RequestType[] mix, int users) {
+        this.serverUrl = serverUrl;
+        this.contextPath = contextPath;
+        this.views = views;
+        this.mix = mix;
+        this.users = users;
+    }
+
+    RequestType[] getMix() {
+        return mix;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    boolean isRecording() {
+        return recording;
+    }
+
+    public LoadReport run(int warmupSeconds, int durationSeconds) throws InterruptedException {
+        List<VirtualUser> virtualUsers = new ArrayList<VirtualUser>(users);
+        List<Thread> threads = new ArrayList<Thread>(users);
+        running = true;
+        for (int i = 0; i < users; i++) {
+            VirtualUser user = new VirtualUser(this, serverUrl, contextPath, views, i);
+            Thread thread = new Thread(user, "load-user-" + i);
+            virtualUsers.add(user);
+            threads.add(thread);
+            thread.start();
+        }
+
+        Thread.sleep(warmupSeconds * 1000L);
+
+        AllocationFilter.startRecording();
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(durationSeconds * 1000L);
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        AllocationFilter.stopRecording();
+
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LoadReport report = new LoadReport(views, mix, users, elapsed);
+        for (VirtualUser user : virtualUsers) {
+            report.add(user);
+        }
+        return report;
+    }
+}
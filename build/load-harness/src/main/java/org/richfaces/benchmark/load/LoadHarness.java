@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.load;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.catalina.startup.Tomcat;
+
+/**
+ * Starts the load harness application in an embedded Tomcat, drives it with virtual users and prints the report. Run by
+ * <code>mvn verify -Pload-harness</code> from the root of the project; the run is configured by the following system
+ * properties (see build/load-harness/pom.xml for the defaults):
+ * <ul>
+ * <li><code>load.views</code> - comma separated views visited in turn (dataTable, tree, calendar)</li>
+ * <li><code>load.mix</code> - weights of the request types, e.g. <code>get:2,ajax:5,resource:3</code></li>
+ * <li><code>load.users</code> - number of concurrent virtual users</li>
+ * <li><code>load.warmup</code> - seconds of load before measuring</li>
+ * <li><code>load.duration</code> - seconds of measured load</li>
+ * <li><code>load.report</code> - optional file the report is written to</li>
+ * </ul>
+ */
+public final class LoadHarness {
+
+    private static final String CONTEXT_PATH = "/load";
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File webapp = new File(System.getProperty("load.webapp", "src/main/webapp"));
+        List<String> views = split(System.getProperty("load.views", "dataTable,tree,calendar"));
+        RequestType[] mix = RequestType.parseMix(System.getProperty("load.mix", "get:2,ajax:5,resource:3"));
+        int users = Integer.getInteger("load.users", 8);
+        int warmup = Integer.getInteger("load.warmup", 30);
+        int duration = Integer.getInteger("load.duration", 60);
+        String reportFile = System.getProperty("load.report");
+
+        File baseDir = File.createTempFile("load-harness", "");
+        baseDir.delete();
+        baseDir.mkdirs();
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.getAbsolutePath());
+        tomcat.setPort(0);
+        tomcat.addWebapp(CONTEXT_PATH, webapp.getAbsolutePath());
+        tomcat.start();
+
+        try {
+            String serverUrl = "http://localhost:" + tomcat.getConnector().getLocalPort();
+            LoadReport report = new LoadDriver(serverUrl, CONTEXT_PATH, views, mix, users).run(warmup, duration);
+
+            System.out.println(report);
+            if (reportFile != null) {
+                write(new File(reportFile), report.toString());
+            }
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static List<String> split(String value) {
+        List<String> result = new ArrayList<String>();
+        for (String item : value.split(",")) {
+            if (item.trim().length() > 0) {
+                result.add(item.trim());
+            }
+        }
+        return result;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.load;
+
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a load run: throughput, latency percentiles and allocation per request of every {@link RequestType}.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final List<String> views;
+    private final RequestType[] mix;
+    private final int users;
+    private final long elapsedNanos;
+    private final LatencyRecorder[] recorders = new LatencyRecorder[RequestType.values().length];
+    private final long[] errors = new long[RequestType.values().length];
+
+    LoadReport(List<String> views, RequestType[] mix, int users, long elapsedNanos) {
+        this.views = views;
+        this.mix = mix;
+        this.users = users;
+        this.elapsedNanos = elapsedNanos;
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new LatencyRecorder();
+        }
+    }
+
+    void add(VirtualUser user) {
+        for (RequestType type : RequestType.values()) {
+            recorders[type.ordinal()].addAll(user.getRecorder(type));
+            errors[type.ordinal()] += user.getErrors(type);
+        }
+    }
+
+    private int getWeight(RequestType type) {
+        int weight = 0;
+        for (RequestType entry : mix) {
+            if (entry == type) {
+                weight++;
+            }
+        }
+        return weight;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder mixDescription = new StringBuilder();
+        for (RequestType type : RequestType.values()) {
+            int weight = getWeight(type);
+            if (weight > 0) {
+                mixDescription.append(mixDescription.length() > 0 ? "," : "").append(type).append(':').append(weight);
+            }
+        }
+
+        Formatter formatter = new Formatter(new StringBuilder(), Locale.US);
+        formatter.format("views=%s mix=%s users=%d duration=%ds%n", views, mixDescription, users,
+            TimeUnit.NANOSECONDS.toSeconds(elapsedNanos));
+        formatter.format("%-9s %9s %7s %9s %9s %9s %9s %9s %9s %12s%n", "type", "requests", "errors", "req/s", "p50 ms",
+            "p90 ms", "p99 ms", "p99.9 ms", "max ms", "alloc/req");
+
+        LatencyRecorder total = new LatencyRecorder();
+        long totalErrors = 0;
+        for (RequestType type : RequestType.values()) {
+            LatencyRecorder recorder = recorders[type.ordinal()];
+            formatRow(formatter, type.toString(), recorder, errors[type.ordinal()], seconds, allocationPerRequest(type));
+            total.addAll(recorder);
+            totalErrors += errors[type.ordinal()];
+        }
+        formatRow(formatter, "total", total, totalErrors, seconds, "");
+        return formatter.toString();
+    }
+
+    private static void formatRow(Formatter formatter, String name, LatencyRecorder recorder, long errors, double seconds,
+        String allocation) {
+        formatter.format("%-9s %9d %7d %9.1f", name, recorder.getCount(), errors, recorder.getCount() / seconds);
+        for (double percentile : PERCENTILES) {
+            formatter.format(" %9.2f", toMillis(recorder.getPercentile(percentile)));
+        }
+        formatter.format(" %9.2f %12s%n", toMillis(recorder.getMax()), allocation);
+    }
+
+    private static String allocationPerRequest(RequestType type) {
+        long requests = AllocationFilter.getRequests(type);
+        if (!AllocationFilter.isSupported() || requests == 0) {
+            return "n/a";
+        }
+        return String.format(Locale.US, "%.1f KB", AllocationFilter.getAllocatedBytes(type) / 1024.0 / requests);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Kinds of requests the harness sends and measures separately.
+ */
+public enum RequestType {
+    /**
+     * Initial (non-postback) request rendering a whole view
+     */
+    get,
+    /**
+     * Ajax postback executing and re-rendering a part of a view
+     */
+    ajax,
+    /**
+     * Request for a script, stylesheet or image referenced by a view
+     */
+    resource;
+
+    private static final String PARTIAL_REQUEST_HEADER = "Faces-Request";
+    private static final String[] RESOURCE_PATHS = { "/javax.faces.resource/", "/org.richfaces.resources/", "/rfRes/" };
+
+    /**
+     * Determines the type of a request received by the container.
+     */
+    public static RequestType of(HttpServletRequest request) {
+        if ("partial/ajax".equals(request.getHeader(PARTIAL_REQUEST_HEADER))) {
+            return ajax;
+        }
+        String uri = request.getRequestURI();
+        for (String resourcePath : RESOURCE_PATHS) {
+            if (uri.contains(resourcePath)) {
+                return resource;
+            }
+        }
+        return get;
+    }
+
+    /**
+     * Parses a request mix like <code>get:2,ajax:5,resource:3</code> into an array in which every type occurs as many times
+     * as its weight, so that picking a random element follows the mix.
+     */
+    public static RequestType[] parseMix(String mix) {
+        List<RequestType> result = new ArrayList<RequestType>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed request mix entry: " + entry);
+            }
+            RequestType type = valueOf(parts[0].trim().toLowerCase(Locale.US));
+            int weight = Integer.parseInt(parts[1].trim());
+            for (int i = 0; i < weight; i++) {
+                result.add(type);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("Request mix is empty: " + mix);
+        }
+        return result.toArray(new RequestType[result.size()]);
+    }
+}
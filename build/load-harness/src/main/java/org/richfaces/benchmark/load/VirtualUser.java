@@ -0,0 +1,249 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.benchmark.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulated user sending a random sequence of requests following the request mix, with its own HTTP session. Views are
+ * visited in turn; a view is loaded by an initial request before ajax and resource requests are sent against it.
+ */
+class VirtualUser implements Runnable {
+
+    private static final String CHARSET = "UTF-8";
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final Pattern VIEW_STATE_PATTERN = Pattern
+        .compile("name=\"javax\\.faces\\.ViewState\"[^>]*?value=\"([^\"]*)\"");
+    private static final Pattern RESOURCE_PATTERN = Pattern
+        .compile("(?:src|href)=\"([^\"]*(?:javax\\.faces\\.resource|org\\.richfaces\\.resources|rfRes)[^\"]*)\"");
+    private static final String FORM = "form";
+    private static final String SOURCE = "form:refresh";
+
+    /**
+     * Page loaded by an initial request
+     */
+    private static final class Page {
+        private final String viewState;
+        private final List<String> resources;
+
+        Page(String viewState, List<String> resources) {
+            this.viewState = viewState;
+            this.resources = resources;
+        }
+    }
+
+    private final LoadDriver driver;
+    private final String serverUrl;
+    private final String contextPath;
+    private final List<String> views;
+    private final Page[] pages;
+    private final Random random;
+    private final LatencyRecorder[] recorders = new LatencyRecorder[RequestType.values().length];
+    private final long[] errors = new long[RequestType.values().length];
+    private String sessionCookie;
+    private int nextView;
+
+    VirtualUser(LoadDriver driver, String serverUrl, String contextPath, List<String> views, long seed) {
+        this.driver = driver;
+        this.serverUrl = serverUrl;
+        this.contextPath = contextPath;
+        this.views = views;
+        this.pages = new Page[views.size()];
+        this.random = new Random(seed);
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new LatencyRecorder();
+        }
+    }
+
+    LatencyRecorder getRecorder(RequestType type) {
+        return recorders[type.ordinal()];
+    }
+
+    long getErrors(RequestType type) {
+        return errors[type.ordinal()];
+    }
+
+    public void run() {
+        RequestType[] mix = driver.getMix();
+        while (driver.isRunning()) {
+            int viewIndex = nextView++ % views.size();
+            RequestType type = mix[random.nextInt(mix.length)];
+            if (pages[viewIndex] == null) {
+                type = RequestType.get;
+            }
+
+            boolean recording = driver.isRecording();
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = execute(type, viewIndex);
+            } catch (IOException e) {
+                success = false;
+                pages[viewIndex] = null;
+            }
+            long latency = System.nanoTime() - start;
+
+            if (recording) {
+                recorders[type.ordinal()].record(latency);
+                if (!success) {
+                    errors[type.ordinal()]++;
+                }
+            }
+        }
+    }
+
+    private boolean execute(RequestType type, int viewIndex) throws IOException {
+        switch (type) {
+            case ajax:
+                return postAjax(viewIndex);
+            case resource:
+                List<String> resources = pages[viewIndex].resources;
+                if (resources.isEmpty()) {
+                    return true;
+                }
+                return send(serverUrl + resources.get(random.nextInt(resources.size())), null) != null;
+            default:
+                return get(viewIndex);
+        }
+    }
+
+    private boolean get(int viewIndex) throws IOException {
+        String content = send(serverUrl + contextPath + "/" + views.get(viewIndex) + ".jsf", null);
+        if (content == null) {
+            pages[viewIndex] = null;
+            return false;
+        }
+
+        Matcher viewState = VIEW_STATE_PATTERN.matcher(content);
+        if (!viewState.find()) {
+            pages[viewIndex] = null;
+            return false;
+        }
+
+        List<String> resources = new ArrayList<String>();
+        Matcher resource = RESOURCE_PATTERN.matcher(content);
+        while (resource.find()) {
+            String url = resource.group(1).replace("&amp;", "&");
+            if (!resources.contains(url)) {
+                resources.add(url);
+            }
+        }
+        pages[viewIndex] = new Page(unescape(viewState.group(1)), resources);
+        return true;
+    }
+
+    private boolean postAjax(int viewIndex) throws IOException {
+        StringBuilder body = new StringBuilder();
+        appendParameter(body, FORM, FORM);
+        appendParameter(body, SOURCE, SOURCE);
+        appendParameter(body, "javax.faces.ViewState", pages[viewIndex].viewState);
+        appendParameter(body, "javax.faces.source", SOURCE);
+        appendParameter(body, "javax.faces.partial.event", "click");
+        appendParameter(body, "javax.faces.partial.execute", SOURCE + " @component");
+        appendParameter(body, "javax.faces.partial.render", "@component");
+        appendParameter(body, "javax.faces.behavior.event", "action");
+        appendParameter(body, "org.richfaces.ajax.component", SOURCE);
+        appendParameter(body, "AJAX:EVENTS_COUNT", "1");
+        appendParameter(body, "javax.faces.partial.ajax", "true");
+
+        String content = send(serverUrl + contextPath + "/" + views.get(viewIndex) + ".jsf", body.toString());
+        if (content == null || !content.contains("<partial-response") || content.contains("<error>")) {
+            pages[viewIndex] = null;
+            return false;
+        }
+        return true;
+    }
+
+    private static void appendParameter(StringBuilder body, String name, String value) throws IOException {
+        if (body.length() > 0) {
+            body.append('&');
+        }
+        body.append(URLEncoder.encode(name, CHARSET)).append('=').append(URLEncoder.encode(value, CHARSET));
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&#58;", ":").replace("&amp;", "&");
+    }
+
+    /**
+     * Sends a GET request, or an ajax POST request when a body is given, and returns the response content or
+     * <code>null</code> when the request failed.
+     */
+    private String send(String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setInstanceFollowRedirects(false);
+        connection.setUseCaches(false);
+        if (sessionCookie != null) {
+            connection.setRequestProperty("Cookie", sessionCookie);
+        }
+
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=" + CHARSET);
+            connection.setRequestProperty("Faces-Request", "partial/ajax");
+            OutputStream output = connection.getOutputStream();
+            try {
+                output.write(body.getBytes(CHARSET));
+            } finally {
+                output.close();
+            }
+        }
+
+        int status = connection.getResponseCode();
+        String cookie = connection.getHeaderField("Set-Cookie");
+        if (cookie != null && cookie.startsWith(SESSION_COOKIE + "=")) {
+            int end = cookie.indexOf(';');
+            sessionCookie = end < 0 ? cookie : cookie.substring(0, end);
+        }
+
+        InputStream input = status >= HttpURLConnection.HTTP_BAD_REQUEST ? connection.getErrorStream() : connection
+            .getInputStream();
+        String content = input != null ? read(input) : "";
+        return status == HttpURLConnection.HTTP_OK || status == HttpURLConnection.HTTP_NOT_MODIFIED ? content : null;
+    }
+
+    private static String read(InputStream input) throws IOException {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                output.write(buffer, 0, read);
+            }
+            return output.toString(CHARSET);
+        } finally {
+            input.close();
+        }
+    }
+}
@@ -83,6 +83,7 @@ import org.richfaces.resource.optimizer.resource.writer.ResourceProcessor;
 import org.richfaces.resource.optimizer.resource.writer.impl.CSSCompressingProcessor;
 import org.richfaces.resource.optimizer.resource.writer.impl.JavaScriptCompressingProcessor;
 import org.richfaces.resource.optimizer.resource.writer.impl.JavaScriptPackagingProcessor;
+import org.richfaces.resource.optimizer.resource.writer.impl.ProcessedResourceCache;
 import org.richfaces.resource.optimizer.resource.writer.impl.ResourceWriterImpl;
 import org.richfaces.resource.optimizer.task.ResourceTaskFactoryImpl;
 import org.richfaces.resource.optimizer.util.MorePredicates;
@@ -192,6 +193,16 @@ public class ProcessMojo extends AbstractMojo {
      */
     @Parameter(property="pack")
     private String pack;
+    /**
+     * Directory of the persistent cache of processed resources, unchanged resources are not processed again
+     */
+    @Parameter(property="cacheDir")
+    private File cacheDir;
+    /**
+     * Turns on content-hashed names of JavaScript/CSS files
+     */
+    @Parameter(property="hashFileNames")
+    private boolean hashFileNames = false;
     /**
      * Mapping of file names to output file names
      */
@@ -238,7 +249,8 @@ public class ProcessMojo extends AbstractMojo {
 
     // TODO executor parameters
     private ExecutorService createExecutorService() {
-        int poolSize = pack != null ? 1 : Runtime.getRuntime().availableProcessors();
+        // packs are assembled in resource order regardless of the order in which resources are processed
+        int poolSize = Runtime.getRuntime().availableProcessors();
         return Executors.newFixedThreadPool(poolSize);
     }
 
@@ -449,6 +461,10 @@ public class ProcessMojo extends AbstractMojo {
 
             ResourceWriterImpl resourceWriter = new ResourceWriterImpl(new File(resourcesOutputDir),
                 getDefaultResourceProcessors(), getLogger(), resourcesWithKnownOrder);
+            if (cacheDir != null) {
+                resourceWriter.setProcessedResourceCache(new ProcessedResourceCache(cacheDir, getLogger()));
+            }
+            resourceWriter.setContentHashedFileNames(hashFileNames);
             ResourceTaskFactoryImpl taskFactory = new ResourceTaskFactoryImpl(faces, pack);
             taskFactory.setResourceWriter(resourceWriter);
 
@@ -0,0 +1,272 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.faces.FacesException;
+import javax.faces.component.UIComponentBase;
+import javax.faces.context.FacesContext;
+
+/**
+ * <p>
+ * Compact representation of the row-sensitive states of {@link UIDataAdaptor} children, saved with the state of the
+ * component.
+ * </p>
+ *
+ * <p>
+ * The states are kept by client ids like <code>form:table:12:input</code>. Instead of the client ids, the saved state
+ * holds a byte array in which the common client id of the component is written once, numeric row keys are written as
+ * variable-length numbers and other row keys and child ids are interned, i.e. written once and referred by index
+ * afterwards. The flags of the states are packed into a single byte, so that only the submitted and local values (or the
+ * iteration state) are saved as objects. States equal to the default state are omitted.
+ * </p>
+ */
+final class SavedStateCodec {
+
+    private static final int ROW_KEY_NUMBER = 0;
+    private static final int ROW_KEY_STRING = 1;
+    private static final int CLIENT_ID = 2;
+    private static final int TAG_BITS = 2;
+    private static final int TAG_MASK = (1 << TAG_BITS) - 1;
+    private static final int MAX_NUMBER_LENGTH = 18;
+
+    private static final int VALID = 1;
+    private static final int LOCAL_VALUE_SET = 1 << 1;
+    private static final int SUBMITTED = 1 << 2;
+    private static final int ITERATION_STATE = 1 << 3;
+
+    private SavedStateCodec() {
+    }
+
+    /**
+     * Saves the states of children kept by their client ids.
+     *
+     * @param baseClientId client id of the data adaptor, without row key
+     * @return the saved states or <code>null</code> when there are no states to save
+     */
+    static Object save(FacesContext context, String baseClientId, char separatorChar, Map<String, SavedState> states) {
+        if (states == null || states.isEmpty()) {
+            return null;
+        }
+
+        String prefix = baseClientId + separatorChar;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        Map<String, Integer> strings = new HashMap<String, Integer>();
+        List<Object> values = new ArrayList<Object>();
+        int count = 0;
+
+        try {
+            out.writeUTF(prefix);
+            for (Map.Entry<String, SavedState> entry : states.entrySet()) {
+                SavedState state = entry.getValue();
+                if (state == null || state.isTransient()) {
+                    continue;
+                }
+
+                writeClientId(out, strings, prefix, separatorChar, entry.getKey());
+                count++;
+
+                Object iterationState = state.getIterationState();
+                int flags = (state.isValid() ? VALID : 0) | (state.isLocalValueSet() ? LOCAL_VALUE_SET : 0)
+                    | (state.isSubmitted() ? SUBMITTED : 0) | (iterationState != null ? ITERATION_STATE : 0);
+                out.writeByte(flags);
+
+                if (iterationState != null) {
+                    values.add(UIComponentBase.saveAttachedState(context, iterationState));
+                } else {
+                    values.add(UIComponentBase.saveAttachedState(context, state.getSubmittedValue()));
+                    values.add(UIComponentBase.saveAttachedState(context, state.getValue()));
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+
+        if (count == 0) {
+            return null;
+        }
+
+        return new Object[] { bytes.toByteArray(), values.toArray() };
+    }
+
+    /**
+     * Restores the states of children saved by {@link #save(FacesContext, String, char, Map)}.
+     */
+    static Map<String, SavedState> restore(FacesContext context, Object stateObject) {
+        if (stateObject == null) {
+            return null;
+        }
+
+        Object[] state = (Object[]) stateObject;
+        Object[] values = (Object[]) state[1];
+        ByteArrayInputStream bytes = new ByteArrayInputStream((byte[]) state[0]);
+        DataInputStream in = new DataInputStream(bytes);
+        List<String> strings = new ArrayList<String>();
+        Map<String, SavedState> states = new HashMap<String, SavedState>();
+        int valueIndex = 0;
+
+        try {
+            String prefix = in.readUTF();
+            char separatorChar = prefix.charAt(prefix.length() - 1);
+            while (bytes.available() > 0) {
+                String clientId = readClientId(in, strings, prefix, separatorChar);
+
+                int flags = in.readUnsignedByte();
+                SavedState savedState = new SavedState();
+                savedState.setValid((flags & VALID) != 0);
+                savedState.setLocalValueSet((flags & LOCAL_VALUE_SET) != 0);
+                savedState.setSubmitted((flags & SUBMITTED) != 0);
+
+                if ((flags & ITERATION_STATE) != 0) {
+                    savedState.setIterationState(UIComponentBase.restoreAttachedState(context, values[valueIndex++]));
+                } else {
+                    savedState.setSubmittedValue(UIComponentBase.restoreAttachedState(context, values[valueIndex++]));
+                    savedState.setValue(UIComponentBase.restoreAttachedState(context, values[valueIndex++]));
+                }
+
+                states.put(clientId, savedState);
+            }
+        } catch (IOException e) {
+            throw new FacesException("Unable to restore state of data adaptor children", e);
+        }
+
+        return states;
+    }
+
+    private static void writeClientId(DataOutputStream out, Map<String, Integer> strings, String prefix, char separatorChar,
+        String clientId) throws IOException {
+
+        int separatorIndex = clientId.startsWith(prefix) ? clientId.indexOf(separatorChar, prefix.length()) : -1;
+        if (separatorIndex < 0) {
+            writeNumber(out, CLIENT_ID);
+            writeString(out, strings, clientId);
+            return;
+        }
+
+        String rowKey = clientId.substring(prefix.length(), separatorIndex);
+        if (isNumber(rowKey)) {
+            writeNumber(out, (Long.parseLong(rowKey) << TAG_BITS) | ROW_KEY_NUMBER);
+        } else {
+            writeNumber(out, ROW_KEY_STRING);
+            writeString(out, strings, rowKey);
+        }
+        writeString(out, strings, clientId.substring(separatorIndex + 1));
+    }
+
+    private static String readClientId(DataInputStream in, List<String> strings, String prefix, char separatorChar)
+        throws IOException {
+
+        long tag = readNumber(in);
+        String rowKey;
+        switch ((int) (tag & TAG_MASK)) {
+            case ROW_KEY_NUMBER:
+                rowKey = Long.toString(tag >>> TAG_BITS);
+                break;
+            case ROW_KEY_STRING:
+                rowKey = readString(in, strings);
+                break;
+            case CLIENT_ID:
+                return readString(in, strings);
+            default:
+                throw new IOException("Unknown client id tag: " + tag);
+        }
+
+        String childId = readString(in, strings);
+        return new StringBuilder(prefix.length() + rowKey.length() + 1 + childId.length()).append(prefix).append(rowKey)
+            .append(separatorChar).append(childId).toString();
+    }
+
+    /**
+     * Whether the row key is a decimal number which is written back in the same form by {@link Long#toString(long)}
+     */
+    private static boolean isNumber(String rowKey) {
+        int length = rowKey.length();
+        if (length == 0 || length > MAX_NUMBER_LENGTH || (length > 1 && rowKey.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = rowKey.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the index of an already written string, or the next index followed by the string itself
+     */
+    private static void writeString(DataOutputStream out, Map<String, Integer> strings, String value) throws IOException {
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeNumber(out, index);
+        } else {
+            writeNumber(out, strings.size());
+            out.writeUTF(value);
+            strings.put(value, strings.size());
+        }
+    }
+
+    private static String readString(DataInputStream in, List<String> strings) throws IOException {
+        int index = (int) readNumber(in);
+        if (index == strings.size()) {
+            strings.add(in.readUTF());
+        }
+        return strings.get(index);
+    }
+
+    /**
+     * Writes non-negative number in 7-bit groups, the highest bit of a byte marks that more groups follow
+     */
+    private static void writeNumber(DataOutputStream out, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    private static long readNumber(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number");
+    }
+}
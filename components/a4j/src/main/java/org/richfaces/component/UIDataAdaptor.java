@@ -26,6 +26,7 @@ import static org.richfaces.resource.ResourceUtils.NamingContainerDataHolder.SEP
 import java.text.MessageFormat;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Stack;
@@ -142,6 +143,10 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
     private String containerClientId;
     Stack<Object> originalVarValues = new Stack<Object>();
     private Converter rowKeyConverter;
+    /**
+     * Row-sensitive states of children by client id, saved in compact form by {@link SavedStateCodec}
+     */
+    private Map<String, SavedState> childState = null;
 
     /**
      * @author Nick Belaevski
@@ -222,7 +227,7 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
     }
 
     private enum PropertyKeys {
-        lastId, var, rowKeyVar, stateVar, childState, rowKeyConverter, rowKeyConverterSet, keepSaved
+        lastId, var, rowKeyVar, stateVar, rowKeyConverter, rowKeyConverterSet, keepSaved
     }
 
     public UIDataAdaptor() {
@@ -329,8 +334,11 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
 
         if (state != null) {
 
-            // TODO - use local map - children save their state themselves using visitors
-            getStateHelper().put(PropertyKeys.childState, component.getClientId(facesContext), state);
+            // TODO - children save their state themselves using visitors
+            if (childState == null) {
+                childState = new HashMap<String, SavedState>();
+            }
+            childState.put(component.getClientId(facesContext), state);
         }
 
         if (component.getChildCount() > 0) {
@@ -392,11 +400,9 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
         component.setId(id); // Forces client id to be reset
 
         SavedState savedState = null;
-        @SuppressWarnings("unchecked")
-        Map<String, SavedState> savedStatesMap = (Map<String, SavedState>) getStateHelper().get(PropertyKeys.childState);
 
-        if (savedStatesMap != null) {
-            savedState = savedStatesMap.get(component.getClientId(facesContext));
+        if (childState != null) {
+            savedState = childState.get(component.getClientId(facesContext));
         }
 
         if (savedState == null) {
@@ -919,7 +925,7 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
     }
 
     protected void resetChildState() {
-        getStateHelper().remove(PropertyKeys.childState);
+        childState = null;
     }
 
     private void resetState() {
@@ -973,6 +979,11 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
     public Object saveState(FacesContext context) {
         Object parentState = super.saveState(context);
         Object savedComponentState = new DataAdaptorIterationState(componentState, extendedDataModel).saveState(context);
+        Object savedChildState = null;
+        if (childState != null) {
+            savedChildState = SavedStateCodec.save(context, getClientId(context), UINamingContainer.getSeparatorChar(context),
+                childState);
+        }
 
         Object converterState = null;
         boolean nullDelta = true;
@@ -999,7 +1010,7 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
                 nullDelta = false;
             }
 
-            if (parentState == null && savedComponentState == null && nullDelta) {
+            if (parentState == null && savedComponentState == null && savedChildState == null && nullDelta) {
                 // No values
                 return null;
             }
@@ -1007,7 +1018,7 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
             converterState = saveAttachedState(context, rowKeyConverter);
         }
 
-        return new Object[] { parentState, savedComponentState, converterHasPartialState, converterState };
+        return new Object[] { parentState, savedComponentState, converterHasPartialState, converterState, savedChildState };
     }
 
     /*
@@ -1042,6 +1053,9 @@ public abstract class UIDataAdaptor extends UIComponentBase implements NamingCon
         } else {
             rowKeyConverter = (Converter) UIComponentBase.restoreAttachedState(context, savedConverterState);
         }
+
+        // state saved before the child state was kept by the adaptor has only four elements
+        childState = state.length > 4 ? SavedStateCodec.restore(context, state[4]) : null;
     }
 
     protected boolean matchesBaseId(String clientId, String baseId, char separatorChar) {
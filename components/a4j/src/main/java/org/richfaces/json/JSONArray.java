@@ -817,6 +817,8 @@ public class JSONArray implements Serializable {
                     ((JSONObject) v).write(writer);
                 } else if (v instanceof JSONArray) {
                     ((JSONArray) v).write(writer);
+                } else if (v instanceof JSONWritable) {
+                    ((JSONWritable) v).write(writer);
                 } else {
                     writer.write(JSONObject.valueToString(v));
                 }
@@ -1181,6 +1181,8 @@ public class JSONObject implements Serializable {
                     ((JSONObject) v).write(writer);
                 } else if (v instanceof JSONArray) {
                     ((JSONArray) v).write(writer);
+                } else if (v instanceof JSONWritable) {
+                    ((JSONWritable) v).write(writer);
                 } else {
                     writer.write(valueToString(v));
                 }
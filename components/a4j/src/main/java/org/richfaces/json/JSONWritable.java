@@ -0,0 +1,19 @@
+package org.richfaces.json;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The <code>JSONWritable</code> interface allows a <code>JSONString</code> to write its serialization directly to the
+ * writer passed to <code>JSONObject.write(Writer)</code> and <code>JSONArray.write(Writer)</code>, instead of producing
+ * an intermediate string.
+ */
+public interface JSONWritable extends JSONString {
+    /**
+     * Writes the same syntactically correct JSON text that is returned by <code>toJSONString()</code>.
+     *
+     * @param writer the writer to write to
+     * @throws IOException if writing fails
+     */
+    void write(Writer writer) throws IOException;
+}
@@ -0,0 +1,268 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.renderkit;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.faces.FacesException;
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIComponentBase;
+import javax.faces.component.behavior.ClientBehavior;
+import javax.faces.component.behavior.ClientBehaviorContext;
+import javax.faces.context.FacesContext;
+import javax.faces.context.ResponseWriter;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Pass-through attributes of {@link RenderKitUtils.Attributes} compiled for rendering: the HTML names, prefixes and
+ * attribute kinds are resolved once, and the way each attribute is read is resolved once per component class.
+ *
+ * Renders exactly what {@link RenderKitUtils#renderPassThroughAttributes(FacesContext, UIComponent, Collection)} renders
+ * for the same attributes.
+ *
+ * @see RenderKitUtils.Attributes#render(FacesContext, UIComponent)
+ */
+final class AttributesRenderingPlan {
+
+    private static final int GENERIC = 0;
+    private static final int URI = 1;
+    private static final int BOOLEAN = 2;
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private final CompiledAttribute[] attributes;
+    private final ConcurrentMap<Class<?>, Accessor[]> accessors = Maps.newConcurrentMap();
+
+    AttributesRenderingPlan(Collection<ComponentAttribute> componentAttributes) {
+        attributes = new CompiledAttribute[componentAttributes.size()];
+        int i = 0;
+        for (ComponentAttribute componentAttribute : componentAttributes) {
+            attributes[i++] = new CompiledAttribute(componentAttribute);
+        }
+    }
+
+    void render(FacesContext context, UIComponent component) throws IOException {
+        ResponseWriter writer = context.getResponseWriter();
+        boolean xhtml = RenderKitUtils.isXhtmlContentType(writer.getContentType());
+        boolean disabled = RenderKitUtils.isDisabled(component);
+        Map<String, List<ClientBehavior>> behaviors = RenderKitUtils.getClientBehaviorsMap(component);
+        Map<String, Object> componentAttributes = component.getAttributes();
+        Accessor[] componentAccessors = getAccessors(component.getClass());
+
+        Collection<?> attributesThatAreSet = null;
+        boolean attributesThatAreSetResolved = false;
+
+        for (int i = 0; i < attributes.length; i++) {
+            CompiledAttribute attribute = attributes[i];
+            if (disabled && attribute.hasEvents) {
+                continue;
+            }
+
+            String eventName = behaviors.isEmpty() ? null : attribute.getBehaviorEvent(behaviors);
+            Accessor accessor = componentAccessors[i];
+
+            if (eventName == null && accessor.tracked) {
+                // attributes that aren't bean properties are tracked by the implementation when set
+                if (!attributesThatAreSetResolved) {
+                    attributesThatAreSet = RenderKitUtils.getAttributesThatAreSet(component);
+                    attributesThatAreSetResolved = true;
+                }
+                if (attributesThatAreSet != null && !attributesThatAreSet.contains(attribute.componentAttributeName)) {
+                    continue;
+                }
+            }
+
+            Object value = accessor.getValue(component, componentAttributes);
+
+            if (eventName != null) {
+                List<ClientBehavior> behaviorsList = behaviors.get(eventName);
+                if (!behaviorsList.isEmpty()) {
+                    ClientBehaviorContext behaviorContext = ClientBehaviorContext.createClientBehaviorContext(context,
+                        component, eventName, null, null);
+                    value = RenderKitUtils.createBehaviorsChain(value, behaviorContext, behaviorsList);
+                }
+            }
+
+            if (RenderKitUtils.shouldRenderAttribute(value)) {
+                attribute.write(writer, xhtml, value);
+            }
+        }
+    }
+
+    private Accessor[] getAccessors(Class<?> componentClass) {
+        Accessor[] result = accessors.get(componentClass);
+        if (result == null) {
+            result = createAccessors(componentClass);
+            Accessor[] existing = accessors.putIfAbsent(componentClass, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    private Accessor[] createAccessors(Class<?> componentClass) {
+        Map<String, Method> readMethods = null;
+        if (hasStandardAttributesMap(componentClass)) {
+            try {
+                BeanInfo beanInfo = Introspector.getBeanInfo(componentClass);
+                readMethods = Maps.newHashMap();
+                for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+                    readMethods.put(descriptor.getName(), descriptor.getReadMethod());
+                }
+            } catch (IntrospectionException e) {
+                readMethods = null;
+            }
+        }
+
+        Accessor[] result = new Accessor[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            String name = attributes[i].componentAttributeName;
+            if (readMethods == null || "class".equals(name)) {
+                result[i] = new Accessor(name, null, false);
+            } else if (readMethods.containsKey(name)) {
+                result[i] = new Accessor(name, accessible(readMethods.get(name)), false);
+            } else {
+                result[i] = new Accessor(name, null, true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Getters can be called directly and unset attributes skipped only when the component keeps the attributes map of
+     * {@link UIComponentBase}, which resolves bean properties through their getters.
+     */
+    private static boolean hasStandardAttributesMap(Class<?> componentClass) {
+        try {
+            return componentClass.getMethod("getAttributes").getDeclaringClass() == UIComponentBase.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Method accessible(Method method) {
+        if (method != null) {
+            try {
+                method.setAccessible(true);
+            } catch (SecurityException e) {
+                return null;
+            }
+        }
+        return method;
+    }
+
+    /**
+     * Reads an attribute from components of one class: bean properties directly through their getter, anything else
+     * through the attributes map.
+     */
+    private static final class Accessor {
+        private final String name;
+        private final Method readMethod;
+        private final boolean tracked;
+
+        Accessor(String name, Method readMethod, boolean tracked) {
+            this.name = name;
+            this.readMethod = readMethod;
+            this.tracked = tracked;
+        }
+
+        Object getValue(UIComponent component, Map<String, Object> componentAttributes) {
+            if (readMethod == null) {
+                return componentAttributes.get(name);
+            }
+
+            try {
+                return readMethod.invoke(component, NO_ARGUMENTS);
+            } catch (IllegalAccessException e) {
+                throw new FacesException(e);
+            } catch (InvocationTargetException e) {
+                throw new FacesException(e.getTargetException());
+            }
+        }
+    }
+
+    private static final class CompiledAttribute {
+        private final String componentAttributeName;
+        private final String htmlAttributeName;
+        private final String xhtmlAttributeName;
+        private final String[] eventNames;
+        private final boolean hasEvents;
+        private final int kind;
+
+        CompiledAttribute(ComponentAttribute componentAttribute) {
+            componentAttributeName = componentAttribute.getComponentAttributeName();
+            htmlAttributeName = componentAttribute.getHtmlAttributeName();
+            xhtmlAttributeName = RenderKitUtils.prefixAttributeName(htmlAttributeName, true);
+            eventNames = componentAttribute.getEventNames();
+            hasEvents = eventNames.length > 0;
+
+            if (RenderKitUtils.isURIAttribute(htmlAttributeName)) {
+                kind = URI;
+            } else if (RenderKitUtils.isBooleanAttribute(htmlAttributeName)) {
+                kind = BOOLEAN;
+            } else {
+                kind = GENERIC;
+            }
+        }
+
+        /**
+         * Returns the first event of this attribute the component has behaviors registered for, if any.
+         */
+        String getBehaviorEvent(Map<String, List<ClientBehavior>> behaviors) {
+            for (String eventName : eventNames) {
+                if (behaviors.containsKey(eventName)) {
+                    return eventName;
+                }
+            }
+            return null;
+        }
+
+        void write(ResponseWriter writer, boolean xhtml, Object value) throws IOException {
+            String name = xhtml ? xhtmlAttributeName : htmlAttributeName;
+
+            switch (kind) {
+                case URI:
+                    writer.writeURIAttribute(name, value, null);
+                    break;
+                case BOOLEAN:
+                    if (Boolean.valueOf(String.valueOf(value))) {
+                        writer.writeAttribute(name, Boolean.TRUE, null);
+                    }
+                    break;
+                default:
+                    writer.writeAttribute(name, value, null);
+            }
+        }
+    }
+}
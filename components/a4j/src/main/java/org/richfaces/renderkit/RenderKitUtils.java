@@ -190,7 +190,7 @@ public final class RenderKitUtils {
         }
     }
 
-    private static Map<String, List<ClientBehavior>> getClientBehaviorsMap(UIComponent component) {
+    static Map<String, List<ClientBehavior>> getClientBehaviorsMap(UIComponent component) {
         Map<String, List<ClientBehavior>> result;
         if (component instanceof ClientBehaviorHolder) {
             ClientBehaviorHolder clientBehaviorHolder = (ClientBehaviorHolder) component;
@@ -272,7 +272,7 @@ public final class RenderKitUtils {
         return isChained;
     }
 
-    private static Object createBehaviorsChain(Object inlineHandlerValue, ClientBehaviorContext behaviorContext,
+    static Object createBehaviorsChain(Object inlineHandlerValue, ClientBehaviorContext behaviorContext,
             List<ClientBehavior> behaviors) {
 
         boolean isChained = false;
@@ -350,7 +350,31 @@ public final class RenderKitUtils {
     }
 
     public static String prefixAttributeName(String attributeName, ResponseWriter responseWriter) {
-        return prefixAttributeName(attributeName, XHTML_CONTENT_TYPE.equals(responseWriter.getContentType()));
+        return prefixAttributeName(attributeName, isXhtmlContentType(responseWriter.getContentType()));
+    }
+
+    static boolean isXhtmlContentType(String contentType) {
+        return XHTML_CONTENT_TYPE.equals(contentType);
+    }
+
+    static boolean isURIAttribute(String attributeName) {
+        return Arrays.binarySearch(URI_ATTRIBUTE_NAMES, attributeName) >= 0;
+    }
+
+    static boolean isBooleanAttribute(String attributeName) {
+        return Arrays.binarySearch(BOOLEAN_ATTRIBUTE_NAMES, attributeName) >= 0;
+    }
+
+    /**
+     * Returns the names of the attributes set on the component as tracked by the JSF implementation, or <code>null</code>
+     * if the implementation doesn't track them
+     */
+    static Collection<?> getAttributesThatAreSet(UIComponent component) {
+        Object attributesThatAreSet = component.getAttributes().get(ATTRIBUTES_THAT_ARE_SET);
+        if (attributesThatAreSet instanceof Collection<?>) {
+            return (Collection<?>) attributesThatAreSet;
+        }
+        return null;
     }
 
     public static void renderAttribute(FacesContext facesContext, String attributeName, Object attributeValue)
@@ -364,9 +388,9 @@ public final class RenderKitUtils {
 
         String prefixedAttributeName = prefixAttributeName(attributeName, writer);
 
-        if (Arrays.binarySearch(URI_ATTRIBUTE_NAMES, attributeName) >= 0) {
+        if (isURIAttribute(attributeName)) {
             writer.writeURIAttribute(prefixedAttributeName, attributeValue, null);
-        } else if (Arrays.binarySearch(BOOLEAN_ATTRIBUTE_NAMES, attributeName) >= 0) {
+        } else if (isBooleanAttribute(attributeName)) {
             boolean booleanAttributeValue = Boolean.valueOf(String.valueOf(attributeValue));
             if (booleanAttributeValue) {
                 // TODO - is passing in Boolean.TRUE value documented somewhere?
@@ -426,12 +450,11 @@ public final class RenderKitUtils {
     public static void renderPassThroughAttributesOptimized(FacesContext context, UIComponent component,
             Map<String, ComponentAttribute> knownAttributesMap) throws IOException {
 
-        Object attributesThatAreSetObject = component.getAttributes().get(ATTRIBUTES_THAT_ARE_SET);
-        if (attributesThatAreSetObject instanceof Collection<?>) {
+        Collection<?> attributesThatAreSet = getAttributesThatAreSet(component);
+        if (attributesThatAreSet != null) {
             boolean disabled = isDisabled(component);
             Set<String> handledAttributes = new HashSet<String>(knownAttributesMap.size());
 
-            Collection<?> attributesThatAreSet = (Collection<?>) attributesThatAreSetObject;
             for (Object attributeNameObject : attributesThatAreSet) {
                 if (attributeNameObject == null) {
                     continue;
@@ -475,6 +498,11 @@ public final class RenderKitUtils {
 
     public static void renderPassThroughAttributes(FacesContext context, UIComponent component,
             Collection<ComponentAttribute> attributes) throws IOException {
+        if (attributes instanceof Attributes) {
+            ((Attributes) attributes).getRenderingPlan().render(context, component);
+            return;
+        }
+
         boolean disabled = isDisabled(component);
         for (ComponentAttribute knownAttribute : attributes) {
             if (!disabled || knownAttribute.getEventNames().length == 0) {
@@ -723,11 +751,43 @@ public final class RenderKitUtils {
     @SuppressWarnings("serial")
     public static final class Attributes extends TreeSet<ComponentAttribute> {
         private ComponentAttribute last;
+        private transient volatile AttributesRenderingPlan renderingPlan;
 
         public void render(FacesContext context, UIComponent component) throws IOException {
             renderPassThroughAttributes(context, component, this);
         }
 
+        /**
+         * Returns the plan these attributes are rendered by, compiled on first use and dropped whenever the attributes
+         * change.
+         */
+        AttributesRenderingPlan getRenderingPlan() {
+            AttributesRenderingPlan plan = renderingPlan;
+            if (plan == null) {
+                plan = new AttributesRenderingPlan(this);
+                renderingPlan = plan;
+            }
+            return plan;
+        }
+
+        @Override
+        public boolean add(ComponentAttribute attribute) {
+            renderingPlan = null;
+            return super.add(attribute);
+        }
+
+        @Override
+        public boolean remove(Object attribute) {
+            renderingPlan = null;
+            return super.remove(attribute);
+        }
+
+        @Override
+        public void clear() {
+            renderingPlan = null;
+            super.clear();
+        }
+
         public Attributes generic(String name, String componentAttribute, String... events) {
             ComponentAttribute attribute = createAttribute(name, componentAttribute);
             attribute.setEventNames(events);
@@ -757,6 +817,7 @@ public final class RenderKitUtils {
 
         public Attributes defaultValue(Object value) {
             last.setDefaultValue(value);
+            renderingPlan = null;
             return this;
         }
     }
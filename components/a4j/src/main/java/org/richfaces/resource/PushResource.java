@@ -34,6 +34,7 @@ import javax.faces.context.FacesContext;
 import org.ajax4jsf.javascript.ScriptUtils;
 import org.richfaces.application.push.PushContext;
 import org.richfaces.application.push.PushContextFactory;
+import org.richfaces.application.push.ReplayableSession;
 import org.richfaces.application.push.Session;
 import org.richfaces.application.push.TopicKey;
 import org.richfaces.application.ServiceTracker;
@@ -46,6 +47,8 @@ import org.richfaces.application.ServiceTracker;
 public class PushResource extends AbstractUserResource {
     private static final String PUSH_TOPIC_PARAM = "pushTopic";
     private static final String FORGET_PUSH_SESSION_ID_PARAM = "forgetPushSessionId";
+    private static final String LAST_SEEN_SEQUENCE_PARAM = "lastSeenSequence";
+    private static final String REPLAY_EPOCH_PARAM = "replayEpoch";
 
     private Map<String, String> getFailuresMap(Map<TopicKey, String> failedSubscriptions) {
         Map<String, String> result = new HashMap<String, String>();
@@ -93,6 +96,26 @@ public class PushResource extends AbstractUserResource {
         Map<TopicKey, String> failedSubscriptions = session.getFailedSubscriptions();
         subscriptionData.put("failures", getFailuresMap(failedSubscriptions));
 
+        if (session instanceof ReplayableSession) {
+            ReplayableSession replayableSession = (ReplayableSession) session;
+            String replayEpoch = replayableSession.getReplayEpoch();
+            if (replayEpoch != null) {
+                subscriptionData.put(REPLAY_EPOCH_PARAM, replayEpoch);
+            }
+
+            String lastSeenSequence = externalContext.getRequestParameterMap().get(LAST_SEEN_SEQUENCE_PARAM);
+            if (lastSeenSequence != null) {
+                boolean replayed;
+                try {
+                    replayed = replayableSession.replayMessages(
+                        externalContext.getRequestParameterMap().get(REPLAY_EPOCH_PARAM), Long.parseLong(lastSeenSequence));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(LAST_SEEN_SEQUENCE_PARAM + " request parameter must be a number", e);
+                }
+                subscriptionData.put("replayed", replayed);
+            }
+        }
+
         Writer outWriter = facesContext.getExternalContext().getResponseOutputWriter();
         ScriptUtils.appendScript(outWriter, subscriptionData);
     }
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.faces.context.FacesContext;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SavedStateCodecTest {
+
+    private FacesContext facesContext;
+
+    @Before
+    public void setUp() throws Exception {
+        facesContext = mock(FacesContext.class);
+    }
+
+    private static SavedState createInputState(Object submittedValue, Object value, boolean valid) {
+        SavedState state = new SavedState();
+        state.setSubmittedValue(submittedValue);
+        state.setValue(value);
+        state.setLocalValueSet(value != null);
+        state.setValid(valid);
+        return state;
+    }
+
+    private Map<String, SavedState> saveAndRestore(Map<String, SavedState> states) {
+        Object savedState = SavedStateCodec.save(facesContext, "form:table", ':', states);
+        return SavedStateCodec.restore(facesContext, savedState);
+    }
+
+    @Test
+    public void testEmptyStates() throws Exception {
+        assertNull(SavedStateCodec.save(facesContext, "form:table", ':', null));
+        assertNull(SavedStateCodec.save(facesContext, "form:table", ':', new HashMap<String, SavedState>()));
+
+        Map<String, SavedState> states = new HashMap<String, SavedState>();
+        states.put("form:table:0:input", new SavedState());
+        assertNull(SavedStateCodec.save(facesContext, "form:table", ':', states));
+        assertNull(SavedStateCodec.restore(facesContext, null));
+    }
+
+    @Test
+    public void testRestoresClientIdsAndStates() throws Exception {
+        Map<String, SavedState> states = new HashMap<String, SavedState>();
+        states.put("form:table:0:input", createInputState("a", null, false));
+        states.put("form:table:123456789:input", createInputState(null, "b", true));
+        states.put("form:table:007:input", createInputState("c", "c", true));
+        states.put("form:table:key:nested:input", createInputState("d", null, true));
+        states.put("form:table:1:2:input", createInputState("e", null, true));
+        states.put("form:other:input", createInputState("f", null, true));
+
+        SavedState formState = new SavedState();
+        formState.setSubmitted(true);
+        states.put("form:table:5:form", formState);
+
+        SavedState iterationState = new SavedState();
+        iterationState.setIterationState("iteration");
+        states.put("form:table:5:repeat", iterationState);
+
+        Map<String, SavedState> restoredStates = saveAndRestore(states);
+
+        assertEquals(states.keySet(), restoredStates.keySet());
+        for (Map.Entry<String, SavedState> entry : states.entrySet()) {
+            SavedState expected = entry.getValue();
+            SavedState actual = restoredStates.get(entry.getKey());
+
+            assertEquals(expected.isValid(), actual.isValid());
+            assertEquals(expected.isLocalValueSet(), actual.isLocalValueSet());
+            assertEquals(expected.isSubmitted(), actual.isSubmitted());
+            assertEquals(expected.getSubmittedValue(), actual.getSubmittedValue());
+            assertEquals(expected.getValue(), actual.getValue());
+            assertEquals(expected.getIterationState(), actual.getIterationState());
+        }
+    }
+
+    @Test
+    public void testSkipsDefaultStates() throws Exception {
+        Map<String, SavedState> states = new HashMap<String, SavedState>();
+        states.put("form:table:0:input", createInputState("a", null, true));
+        states.put("form:table:1:input", new SavedState());
+
+        Map<String, SavedState> restoredStates = saveAndRestore(states);
+
+        assertEquals(1, restoredStates.size());
+        assertTrue(restoredStates.containsKey("form:table:0:input"));
+        assertFalse(restoredStates.containsKey("form:table:1:input"));
+    }
+
+    @Test
+    public void testSmallerThanClientIdMap() throws Exception {
+        Map<String, SavedState> states = new HashMap<String, SavedState>();
+        Map<String, Object> clientIdMap = new HashMap<String, Object>();
+        for (int i = 0; i < 1000; i++) {
+            SavedState state = createInputState("value" + i, null, true);
+            states.put("form:table:" + i + ":input", state);
+            clientIdMap.put("form:table:" + i + ":input", state.saveState(facesContext));
+        }
+
+        int compactSize = serializedSize(SavedStateCodec.save(facesContext, "form:table", ':', states));
+        int clientIdMapSize = serializedSize(clientIdMap);
+        assertTrue(compactSize + " < " + clientIdMapSize, compactSize * 2 < clientIdMapSize);
+    }
+
+    private static int serializedSize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.size();
+    }
+}
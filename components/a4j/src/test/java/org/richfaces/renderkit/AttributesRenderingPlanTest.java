@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.renderkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.faces.component.behavior.ClientBehavior;
+import javax.faces.component.behavior.ClientBehaviorContext;
+import javax.faces.component.html.HtmlCommandLink;
+import javax.faces.context.FacesContext;
+import javax.faces.context.ResponseWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.richfaces.renderkit.RenderKitUtils.Attributes;
+
+public class AttributesRenderingPlanTest {
+
+    private static final Attributes ATTRIBUTES = RenderKitUtils.attributes().generic("class", "styleClass")
+        .generic("style", "style").generic("lang", "lang").generic("title", "title")
+        .generic("onclick", "onclick", "click", "action").generic("ondblclick", "ondblclick", "dblclick")
+        .generic("data-row", "data-row").uri("href", "href").bool("disabled", "disabled").bool("checked", "checked");
+
+    private FacesContext facesContext;
+    private List<String> written;
+    private HtmlCommandLink component;
+
+    @Before
+    public void setUp() {
+        written = new ArrayList<String>();
+        ResponseWriter responseWriter = mock(ResponseWriter.class, new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                if ("getContentType".equals(invocation.getMethod().getName())) {
+                    return "application/xhtml+xml";
+                }
+                written.add(invocation.getMethod().getName() + Arrays.toString(invocation.getArguments()));
+                return null;
+            }
+        });
+
+        facesContext = mock(FacesContext.class);
+        when(facesContext.getResponseWriter()).thenReturn(responseWriter);
+
+        component = new HtmlCommandLink();
+        component.setStyleClass("link");
+        component.setStyle("color: red");
+        component.setLang("en");
+        component.setOnclick("clicked()");
+        component.getAttributes().put("href", "/page.xhtml");
+        component.getAttributes().put("checked", Boolean.TRUE);
+    }
+
+    @Test
+    public void testRendersLikeAttributesCollection() throws Exception {
+        assertRendersLikeAttributesCollection();
+    }
+
+    @Test
+    public void testDisabledComponent() throws Exception {
+        component.setDisabled(true);
+
+        assertRendersLikeAttributesCollection();
+    }
+
+    @Test
+    public void testAttributesSetLater() throws Exception {
+        assertRendersLikeAttributesCollection();
+
+        component.getAttributes().put("data-row", "1");
+        component.setTitle("title");
+
+        assertRendersLikeAttributesCollection();
+    }
+
+    @Test
+    public void testBehaviors() throws Exception {
+        ClientBehavior behavior = mock(ClientBehavior.class);
+        when(behavior.getScript(any(ClientBehaviorContext.class))).thenReturn("behavior()");
+        component.addClientBehavior("action", behavior);
+        component.addClientBehavior("dblclick", behavior);
+
+        assertRendersLikeAttributesCollection();
+    }
+
+    private void assertRendersLikeAttributesCollection() throws Exception {
+        written.clear();
+        RenderKitUtils.renderPassThroughAttributes(facesContext, component, new ArrayList<ComponentAttribute>(ATTRIBUTES));
+        List<String> expected = new ArrayList<String>(written);
+
+        written.clear();
+        ATTRIBUTES.render(facesContext, component);
+
+        assertEquals(expected, written);
+    }
+}
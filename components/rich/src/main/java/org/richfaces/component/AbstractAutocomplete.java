@@ -24,10 +24,12 @@ package org.richfaces.component;
 import java.io.IOException;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.el.ELContext;
 import javax.el.ELException;
 import javax.el.ExpressionFactory;
 import javax.el.MethodExpression;
@@ -81,6 +83,7 @@ public abstract class AbstractAutocomplete extends UIInput implements MetaCompon
     public static final String COMPONENT_TYPE = "org.richfaces.Autocomplete";
     public static final String COMPONENT_FAMILY = UIInput.COMPONENT_FAMILY;
     private static final Logger LOGGER = RichfacesLogger.COMPONENTS.getLogger();
+    private static final String ONE_PARAMETER_METHOD_ATTRIBUTE = AbstractAutocomplete.class.getName() + ".ONE_PARAMETER_METHOD";
 
     /**
      * A value to set in the target input element on a choice suggestion that isn't shown in the suggestion table.
@@ -260,45 +263,57 @@ public abstract class AbstractAutocomplete extends UIInput implements MetaCompon
 
         MethodExpression autocompleteMethod = autocomplete.getAutocompleteMethod();
         if (autocompleteMethod != null) {
+            AutocompleteResultsCache cache = null;
+            if (autocomplete.isCacheResults()) {
+                cache = AutocompleteResultsCache.getInstance(facesContext);
+                List<Object> cachedItems = cache.getItems(component.getClientId(facesContext), value);
+                if (cachedItems != null) {
+                    return new ListDataModel(cachedItems);
+                }
+            }
+
             try {
-                try {
+                if (isOneParameterMethod(facesContext, component, autocomplete)) {
+                    itemsObject = autocomplete.getAutocompleteMethodWithOneParameter().invoke(facesContext.getELContext(),
+                        new Object[] { value });
+                } else {
                     itemsObject = autocompleteMethod.invoke(facesContext.getELContext(), new Object[] { facesContext,
                             component, value });
-                } catch (MethodNotFoundException e1) {
-                    try {
-                        // fall back to evaluating an expression assuming there is just one parameter (RF-11469)
-                        itemsObject = autocomplete.getAutocompleteMethodWithOneParameter().invoke(facesContext.getELContext(), new Object[] { value });
-                    } catch (MethodNotFoundException e2) {
-                        ExpressionFactory expressionFactory = facesContext.getApplication().getExpressionFactory();
-                        autocompleteMethod = expressionFactory.createMethodExpression(facesContext.getELContext(),
-                                autocompleteMethod.getExpressionString(), Object.class, new Class[] { String.class });
-                        itemsObject = autocompleteMethod.invoke(facesContext.getELContext(), new Object[] { value });
-                    }
                 }
             } catch (ELException ee) {
                 LOGGER.error(ee.getMessage(), ee);
+                if (cache != null) {
+                    cache.clear(component.getClientId(facesContext));
+                    cache = null;
+                }
+            }
+
+            if (cache != null) {
+                int maxResults = autocomplete.getMaxResults();
+                List<Object> items = materializeItems(itemsObject, maxResults);
+                if (items != null) {
+                    boolean complete = maxResults <= 0 || items.size() <= maxResults;
+                    items = limitItems(items, maxResults);
+                    cache.putItems(component.getClientId(facesContext), value, items, complete);
+                    return new ListDataModel(items);
+                }
+                cache.clear(component.getClientId(facesContext));
             }
         } else {
             itemsObject = autocomplete.getAutocompleteList();
         }
 
         DataModel result;
+        int maxResults = autocomplete.getMaxResults();
 
-        if (itemsObject instanceof Object[]) {
-            result = new ArrayDataModel((Object[]) itemsObject);
-        } else if (itemsObject instanceof List) {
-            result = new ListDataModel((List<Object>) itemsObject);
-        } else if (itemsObject instanceof Result) {
+        if (itemsObject instanceof Result) {
             result = new ResultDataModel((Result) itemsObject);
         } else if (itemsObject instanceof ResultSet) {
             result = new ResultSetDataModel((ResultSet) itemsObject);
+        } else if (itemsObject instanceof Object[] && maxResults <= 0) {
+            result = new ArrayDataModel((Object[]) itemsObject);
         } else if (itemsObject != null) {
-            List<Object> temp = new ArrayList<Object>();
-            Iterator<Object> iterator = ((Iterable<Object>) itemsObject).iterator();
-            while (iterator.hasNext()) {
-                temp.add(iterator.next());
-            }
-            result = new ListDataModel(temp);
+            result = new ListDataModel(limitItems(materializeItems(itemsObject, maxResults), maxResults));
         } else {
             result = new ListDataModel();
         }
@@ -306,7 +321,80 @@ public abstract class AbstractAutocomplete extends UIInput implements MetaCompon
         return result;
     }
 
+    /**
+     * Resolves whether the autocompleteMethod expects just the input value (RF-11469) instead of the full
+     * (FacesContext, UIComponent, String) signature. The outcome is kept in the component attributes, so the method
+     * signature is looked up only once per component.
+     */
+    private static boolean isOneParameterMethod(FacesContext facesContext, UIComponent component,
+        AutocompleteProps autocomplete) {
+        Map<String, Object> attributes = component.getAttributes();
+        Boolean oneParameter = (Boolean) attributes.get(ONE_PARAMETER_METHOD_ATTRIBUTE);
+
+        if (oneParameter == null) {
+            ELContext elContext = facesContext.getELContext();
+            MethodExpression autocompleteMethod = autocomplete.getAutocompleteMethod();
+            oneParameter = !hasMethod(elContext, autocompleteMethod);
+
+            if (oneParameter) {
+                MethodExpression oneParameterMethod = autocomplete.getAutocompleteMethodWithOneParameter();
+                if (oneParameterMethod == null || !hasMethod(elContext, oneParameterMethod)) {
+                    ExpressionFactory expressionFactory = facesContext.getApplication().getExpressionFactory();
+                    oneParameterMethod = expressionFactory.createMethodExpression(elContext,
+                        autocompleteMethod.getExpressionString(), Object.class, new Class[] { String.class });
+                    autocomplete.setAutocompleteMethodWithOneParameter(oneParameterMethod);
+                }
+            }
+
+            attributes.put(ONE_PARAMETER_METHOD_ATTRIBUTE, oneParameter);
+        }
+
+        return oneParameter;
+    }
+
+    private static boolean hasMethod(ELContext elContext, MethodExpression expression) {
+        try {
+            expression.getMethodInfo(elContext);
+            return true;
+        } catch (MethodNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Materializes the items returned by the autocomplete method into a list, fetching at most one item over
+     * <code>maxResults</code> from iterables. Returns <code>null</code> for results that cannot be materialized (JSTL
+     * results and result sets).
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> materializeItems(Object itemsObject, int maxResults) {
+        if (itemsObject == null) {
+            return new ArrayList<Object>();
+        }
+        if (itemsObject instanceof Result || itemsObject instanceof ResultSet) {
+            return null;
+        }
+        if (itemsObject instanceof Object[]) {
+            return Arrays.asList((Object[]) itemsObject);
+        }
+        if (itemsObject instanceof List) {
+            return (List<Object>) itemsObject;
+        }
+
+        List<Object> items = new ArrayList<Object>();
+        Iterator<Object> iterator = ((Iterable<Object>) itemsObject).iterator();
+        while (iterator.hasNext() && (maxResults <= 0 || items.size() <= maxResults)) {
+            items.add(iterator.next());
+        }
+        return items;
+    }
 
+    private static List<Object> limitItems(List<Object> items, int maxResults) {
+        if (maxResults > 0 && items.size() > maxResults) {
+            return new ArrayList<Object>(items.subList(0, maxResults));
+        }
+        return items;
+    }
 
     public String resolveClientId(FacesContext facesContext, UIComponent contextComponent, String metaComponentId) {
         if (ITEMS_META_COMPONENT_ID.equals(metaComponentId)) {
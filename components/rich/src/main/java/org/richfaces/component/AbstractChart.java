@@ -22,10 +22,16 @@
 
 package org.richfaces.component;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.el.MethodExpression;
+import javax.faces.component.UIComponent;
 import javax.faces.component.UIComponentBase;
+import javax.faces.component.visit.VisitCallback;
+import javax.faces.component.visit.VisitContext;
+import javax.faces.component.visit.VisitResult;
 import javax.faces.context.FacesContext;
 import javax.faces.event.AbortProcessingException;
 import javax.faces.event.FacesEvent;
@@ -41,9 +47,14 @@ import org.richfaces.cdk.annotations.Signature;
 import org.richfaces.cdk.annotations.Tag;
 import org.richfaces.cdk.annotations.TagType;
 import org.richfaces.component.attribute.CoreProps;
+import org.richfaces.context.ExtendedVisitContext;
+import org.richfaces.context.ExtendedVisitContextMode;
+import org.richfaces.model.ChartDataModel;
+import org.richfaces.model.ChartUpdate;
 import org.richfaces.model.PlotClickEvent;
 import org.richfaces.model.PlotClickListener;
 import org.richfaces.renderkit.ChartRendererBase;
+import org.richfaces.renderkit.MetaComponentRenderer;
 import org.richfaces.view.facelets.html.ChartTagHandler;
 
 
@@ -59,10 +70,17 @@ import org.richfaces.view.facelets.html.ChartTagHandler;
         facets = @Facet(name = "hooks", description = @Description("A set of JavaScript functions to modify the plotting process.")),
         renderer = @JsfRenderer(type = ChartRendererBase.RENDERER_TYPE),
         fires = { @Event(value = PlotClickEvent.class, listener = PlotClickListener.class) })
-public abstract class AbstractChart extends UIComponentBase implements CoreProps {
+public abstract class AbstractChart extends UIComponentBase implements MetaComponentResolver, MetaComponentEncoder, CoreProps {
 
     public static final String COMPONENT_TYPE = "org.richfaces.Chart";
     public static final String COMPONENT_FAMILY = "org.richfaces.Chart";
+    /**
+     * Meta-component rendering only the points queued by {@link #appendPoints(int, ChartDataModel)} and
+     * {@link #replacePoints(int, ChartDataModel)}, e.g. <code>render="chart@data"</code>
+     */
+    public static final String DATA_META_COMPONENT_ID = "data";
+
+    private static final String PENDING_UPDATE_KEY = AbstractChart.class.getName() + ".PENDING_UPDATE:";
 
     /**
      * Attribute define whether zoom is enabled. To reset zoom you can use JS
@@ -108,6 +126,114 @@ public abstract class AbstractChart extends UIComponentBase implements CoreProps
 
     public abstract void setPlotClickListener(MethodExpression plotClickListener);
 
+    /**
+     * Maximal number of points kept on the client for each series when points are appended by incremental updates,
+     * the oldest points are dropped first. Zero (default) keeps all points.
+     */
+    @Attribute
+    public abstract int getWindowSize();
+
+    /**
+     * Queues points to be appended to the series with the given index. The points are sent to the client when the
+     * data meta-component of the chart is rendered, without re-rendering the chart.
+     *
+     * @param seriesIndex index of the series in the chart
+     * @param points model containing only the new points
+     */
+    public void appendPoints(int seriesIndex, ChartDataModel<?, ?> points) {
+        getPendingUpdate(getFacesContext(), true).append(seriesIndex, points);
+    }
+
+    /**
+     * Queues points replacing the content of the series with the given index, see
+     * {@link #appendPoints(int, ChartDataModel)}.
+     *
+     * @param seriesIndex index of the series in the chart
+     * @param points model containing the new content of the series
+     */
+    public void replacePoints(int seriesIndex, ChartDataModel<?, ?> points) {
+        getPendingUpdate(getFacesContext(), true).replace(seriesIndex, points);
+    }
+
+    /**
+     * Returns the update queued during the current request, or <code>null</code> if there is none.
+     */
+    public ChartUpdate getPendingUpdate(FacesContext context) {
+        return getPendingUpdate(context, false);
+    }
+
+    private ChartUpdate getPendingUpdate(FacesContext context, boolean create) {
+        String key = PENDING_UPDATE_KEY + getClientId(context);
+        ChartUpdate update = (ChartUpdate) context.getAttributes().get(key);
+        if (update == null && create) {
+            update = new ChartUpdate();
+            context.getAttributes().put(key, update);
+        }
+        return update;
+    }
+
+    public void encodeMetaComponent(FacesContext context, String metaComponentId) throws IOException {
+        ((MetaComponentRenderer) getRenderer(context)).encodeMetaComponent(context, this, metaComponentId);
+    }
+
+    @Override
+    public boolean visitTree(VisitContext context, VisitCallback callback) {
+        if (!isVisitable(context)) {
+            return false;
+        }
+
+        FacesContext facesContext = context.getFacesContext();
+        pushComponentToEL(facesContext, null);
+
+        try {
+            VisitResult result = context.invokeVisitCallback(this, callback);
+
+            if (result == VisitResult.COMPLETE) {
+                return true;
+            }
+
+            if (result == VisitResult.ACCEPT && context instanceof ExtendedVisitContext) {
+                ExtendedVisitContext extendedVisitContext = (ExtendedVisitContext) context;
+                if (extendedVisitContext.getVisitMode() == ExtendedVisitContextMode.RENDER) {
+                    result = extendedVisitContext.invokeMetaComponentVisitCallback(this, callback, DATA_META_COMPONENT_ID);
+                    if (result == VisitResult.COMPLETE) {
+                        return true;
+                    }
+                }
+            }
+
+            if (result == VisitResult.ACCEPT) {
+                Iterator<UIComponent> kids = this.getFacetsAndChildren();
+
+                while (kids.hasNext()) {
+                    boolean done = kids.next().visitTree(context, callback);
+
+                    if (done) {
+                        return true;
+                    }
+                }
+            }
+        } finally {
+            popComponentFromEL(facesContext);
+        }
+
+        return false;
+    }
+
+    public String resolveClientId(FacesContext facesContext, UIComponent contextComponent, String metaComponentId) {
+        if (DATA_META_COMPONENT_ID.equals(metaComponentId)) {
+            return contextComponent.getClientId(facesContext) + MetaComponentResolver.META_COMPONENT_SEPARATOR_CHAR
+                + metaComponentId;
+        }
+
+        return null;
+    }
+
+    public String substituteUnresolvedClientId(FacesContext facesContext, UIComponent contextComponent,
+        String metaComponentId) {
+        return null;
+    }
+
     @Override
     public void broadcast(FacesEvent event) throws AbortProcessingException {
 
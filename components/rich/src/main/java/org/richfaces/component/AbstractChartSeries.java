@@ -88,6 +88,13 @@ public abstract class AbstractChartSeries extends UIComponentBase {
     @Attribute
     public abstract ChartDataModel getData();
 
+    /**
+     * Maximal number of points sent to the client for line and bar series with number or date keys. Larger series are
+     * downsampled on the server preserving their visual shape. Zero (the default) sends all points.
+     */
+    @Attribute
+    public abstract int getMaxPoints();
+
     /**
      * Attribute define the color of data plotted.
      */
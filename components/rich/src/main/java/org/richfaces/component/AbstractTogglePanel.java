@@ -23,8 +23,9 @@ package org.richfaces.component;
 
 import java.io.IOException;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
 
 import javax.el.ELException;
 import javax.el.MethodExpression;
@@ -101,6 +102,7 @@ public abstract class AbstractTogglePanel extends UIOutput implements AbstractDi
     public static final String UPDATE_MESSAGE_ID = "javax.faces.component.UIInput.UPDATE";
 
     private static final Logger LOG = RichfacesLogger.RENDERKIT.getLogger();
+    private static final String ITEM_INDEXES_ATTRIBUTE = AbstractTogglePanel.class.getName() + ":itemIndexes";
 
     private String submittedActiveItem = null;
 
@@ -216,55 +218,16 @@ public abstract class AbstractTogglePanel extends UIOutput implements AbstractDi
     }
 
     private Boolean isValidName(final String name) {
-        final AtomicReference<Boolean> result = new AtomicReference<Boolean>(Boolean.FALSE);
-
-        visitTogglePanelItems(this, new TogglePanelVisitCallback() {
-            @Override
-            public VisitResult visit(FacesContext facesContext, TogglePanelVisitState visitState) {
-                AbstractTogglePanelItemInterface panelItem = visitState.getItem();
-                if (name.equals(panelItem.getName())) {
-                    if (panelItem instanceof AbstractTogglePanelTitledItem) {
-                        AbstractTogglePanelTitledItem titledItem = (AbstractTogglePanelTitledItem) panelItem;
-                        result.set(! titledItem.isDisabled());
-                    }
-                    else {
-                        result.set(Boolean.TRUE);
-                    }
-                    return VisitResult.COMPLETE;
-                }
-                return VisitResult.ACCEPT;
-            }
-        });
-
-        return result.get();
+        TogglePanelItemIndex.Entry entry = getItemIndex().get(name);
+        return entry != null && !entry.isDisabled();
     }
 
     /**
      * Returns name of first non-disabled item in the list of panel's items.
      */
     private String getFirstNonDisabledItemName() {
-        final AtomicReference<String> result = new AtomicReference<String>(null);
-
-        visitTogglePanelItems(this, new TogglePanelVisitCallback() {
-            @Override
-            public VisitResult visit(FacesContext facesContext, TogglePanelVisitState visitState) {
-                AbstractTogglePanelItemInterface panelItem = visitState.getItem();
-                if (panelItem instanceof AbstractTogglePanelTitledItem) {
-                    AbstractTogglePanelTitledItem titledItem = (AbstractTogglePanelTitledItem) panelItem;
-                    if (!titledItem.isDisabled()) {
-                        result.set(titledItem.getName());
-                        return VisitResult.COMPLETE;
-                    } else {
-                        return VisitResult.ACCEPT;
-                    }
-                } else {
-                    result.set(panelItem.getName());
-                    return VisitResult.COMPLETE;
-                }
-            }
-        });
-
-        return result.get();
+        TogglePanelItemIndex.Entry entry = getItemIndex().getFirstEnabled();
+        return entry != null ? entry.getName() : null;
     }
 
     /**
@@ -659,18 +622,43 @@ public abstract class AbstractTogglePanel extends UIOutput implements AbstractDi
         return visitState;
     }
 
-    private TogglePanelVisitState getvisitStateByIndex(final int index) {
-        TogglePanelVisitState visitState = visitTogglePanelItems(this, new TogglePanelVisitCallback() {
+    /**
+     * Returns index of panel's items for the current request, building it by a single visit of the panel when there is no
+     * index yet or when the current one is no longer valid (the phase changed or children were added or removed). Indexes
+     * are kept by client id, as a panel inside of an iteration component has different items in every row.
+     */
+    TogglePanelItemIndex getItemIndex() {
+        FacesContext facesContext = getFacesContext();
+        Map<Object, Object> attributes = facesContext.getAttributes();
+        @SuppressWarnings("unchecked")
+        Map<String, TogglePanelItemIndex> indexes = (Map<String, TogglePanelItemIndex>) attributes.get(ITEM_INDEXES_ATTRIBUTE);
+        if (indexes == null) {
+            indexes = new HashMap<String, TogglePanelItemIndex>();
+            attributes.put(ITEM_INDEXES_ATTRIBUTE, indexes);
+        }
+
+        String clientId = getClientId(facesContext);
+        PhaseId phaseId = facesContext.getCurrentPhaseId();
+        TogglePanelItemIndex index = indexes.get(clientId);
+        if (index == null || !index.isValid(phaseId, getChildCount())) {
+            index = buildItemIndex(phaseId);
+            indexes.put(clientId, index);
+        }
+        return index;
+    }
+
+    private TogglePanelItemIndex buildItemIndex(PhaseId phaseId) {
+        final TogglePanelItemIndex index = new TogglePanelItemIndex(phaseId, getChildCount());
+        visitTogglePanelItems(this, new TogglePanelVisitCallback() {
             @Override
             public VisitResult visit(FacesContext facesContext, TogglePanelVisitState visitState) {
-                if (index == visitState.getCount()) {
-                    return VisitResult.COMPLETE;
-                } else {
-                    return VisitResult.ACCEPT;
-                }
+                AbstractTogglePanelItemInterface item = visitState.getItem();
+                boolean disabled = item instanceof AbstractTogglePanelTitledItem && ((AbstractTogglePanelTitledItem) item).isDisabled();
+                index.add(visitState.getName(), visitState.getClientId(), item, item.isDynamicPanelItem(), disabled);
+                return VisitResult.ACCEPT;
             }
         });
-        return visitState;
+        return index;
     }
 
     public TogglePanelVisitState getVisitStateByName(final String name) {
@@ -688,18 +676,31 @@ public abstract class AbstractTogglePanel extends UIOutput implements AbstractDi
     }
 
     public AbstractTogglePanelItemInterface getItemByIndex(final int index) {
-        TogglePanelVisitState visitState = getvisitStateByIndex(index);
-        if (visitState.isDynamic()) {
+        TogglePanelItemIndex.Entry entry = getItemIndex().get(index);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isDynamic()) {
             throw new TogglePanelVisitException("Cannot access a dynamically generated AbstractToggleItemInterface directly. Use the visitor pattern instead.");
         }
-        return visitState.getItem();
+        return entry.getItem();
+    }
+
+    /**
+     * Returns true if the item on given position is generated by an iteration component, so it can be accessed only
+     * via {@link #visitTogglePanelItems(AbstractTogglePanel, TogglePanelVisitCallback)}.
+     */
+    public boolean isDynamicItem(final int index) {
+        TogglePanelItemIndex.Entry entry = getItemIndex().get(index);
+        return entry != null && entry.isDynamic();
     }
 
     public String getNameByIndex(final int index) {
         if (! this.isRendered()) {
             return null;
         }
-        return getvisitStateByIndex(index).getName();
+        TogglePanelItemIndex.Entry entry = getItemIndex().get(index);
+        return entry != null ? entry.getName() : null;
     }
 
     public int getIndexByName(final String name) {
@@ -707,12 +708,7 @@ public abstract class AbstractTogglePanel extends UIOutput implements AbstractDi
             return -1;
         }
 
-        TogglePanelVisitState visitState = getVisitStateByName(name);
-        if (visitState.getName() != null) {
-            return visitState.getCount();
-        } else {
-            return -1;
-        }
+        return getItemIndex().indexOf(name);
     }
 
     public String getClientIdByName(final String name) {
@@ -720,25 +716,15 @@ public abstract class AbstractTogglePanel extends UIOutput implements AbstractDi
             return null;
         }
 
-        TogglePanelVisitState visitState = getVisitStateByName(name);
-        if (visitState.getName() != null) {
-            return visitState.getClientId();
-        } else {
-            return null;
-        }
+        TogglePanelItemIndex.Entry entry = getItemIndex().get(name);
+        return entry != null ? entry.getClientId() : null;
     }
 
     public int getItemCount() {
         if (! this.isRendered()) {
             return 0;
         }
-        TogglePanelVisitState visitState = visitTogglePanelItems(this, new TogglePanelVisitCallback() {
-            @Override
-            public VisitResult visit(FacesContext facesContext, TogglePanelVisitState visitState) {
-                return VisitResult.ACCEPT;
-            }
-        });
-        return visitState.getCount();
+        return getItemIndex().size();
     }
 
     public AbstractTogglePanelItemInterface getItem(String name) {
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.faces.context.FacesContext;
+
+/**
+ * <p>Per-view cache of the suggestions returned by the autocomplete method, keyed by the client id of the component.</p>
+ *
+ * <p>Follows the rules of the client-side <code>RichFaces.utils.Cache</code>: a cached result for prefix "abc" is used to
+ * answer "abcd" only if it was not truncated by <code>maxResults</code> and every cached item starts with "abc" (case
+ * insensitive), which confirms that the autocomplete method does a prefix search.</p>
+ *
+ * <p>Items are stored in transient fields, so the cache is simply dropped if the view map gets serialized.</p>
+ */
+public final class AutocompleteResultsCache implements Serializable {
+    private static final long serialVersionUID = -1437562361536391203L;
+    private static final String VIEW_MAP_KEY = AutocompleteResultsCache.class.getName();
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    /**
+     * Returns the cache stored in the view map of the current view, creating it if necessary.
+     */
+    public static AutocompleteResultsCache getInstance(FacesContext facesContext) {
+        Map<String, Object> viewMap = facesContext.getViewRoot().getViewMap();
+        AutocompleteResultsCache cache = (AutocompleteResultsCache) viewMap.get(VIEW_MAP_KEY);
+        if (cache == null) {
+            cache = new AutocompleteResultsCache();
+            viewMap.put(VIEW_MAP_KEY, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the items for the given value refined from the cached result, or <code>null</code> if the cached result
+     * cannot be used to answer the value.
+     */
+    public synchronized List<Object> getItems(String clientId, String value) {
+        Entry entry = entries.get(clientId);
+        if (entry == null || value == null) {
+            return null;
+        }
+        return entry.refine(value.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Stores the result of the autocomplete method for the given value.
+     *
+     * @param complete <code>false</code> if the result was truncated by the <code>maxResults</code> limit
+     */
+    public synchronized void putItems(String clientId, String value, List<Object> items, boolean complete) {
+        if (value == null || !complete) {
+            entries.remove(clientId);
+            return;
+        }
+
+        Entry entry = new Entry(value.toLowerCase(Locale.ENGLISH), items);
+        if (entry.isPrefixMatching()) {
+            entries.put(clientId, entry);
+        } else {
+            entries.remove(clientId);
+        }
+    }
+
+    public synchronized void clear(String clientId) {
+        entries.remove(clientId);
+    }
+
+    private static final class Entry implements Serializable {
+        private static final long serialVersionUID = 5203582170370012815L;
+        private final String key;
+        private final transient List<Object> items;
+        private final transient List<String> values;
+
+        Entry(String key, List<Object> items) {
+            this.key = key;
+            this.items = new ArrayList<Object>(items);
+            this.values = new ArrayList<String>(items.size());
+            for (Object item : items) {
+                values.add(item != null ? item.toString().toLowerCase(Locale.ENGLISH) : null);
+            }
+        }
+
+        boolean isPrefixMatching() {
+            for (String value : values) {
+                if (value == null || !value.startsWith(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<Object> refine(String value) {
+            if (items == null || !value.startsWith(key)) {
+                return null;
+            }
+
+            List<Object> result = new ArrayList<Object>();
+            for (int i = 0; i < items.size(); i++) {
+                if (values.get(i).startsWith(value)) {
+                    result.add(items.get(i));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -26,8 +26,6 @@ import org.richfaces.json.JSONCollection;
 import org.richfaces.json.JSONException;
 import org.richfaces.json.JSONMap;
 import org.richfaces.json.JSONObject;
-import org.richfaces.json.JSONStringer;
-import org.richfaces.json.JSONWriter;
 
 import javax.faces.component.UIComponent;
 import java.io.Serializable;
@@ -46,6 +44,9 @@ public class ExtendedDataTableState implements Serializable {
     protected ColumnsFilter columnsFilterState;
     protected ColumnsSort columnsSortState;
 
+    // JSON representation, computed once
+    private transient String jsonString;
+
     public ExtendedDataTableState(UIDataTableBase extendedDataTable) {
         columnsWidthState = new ColumnsWidth(extendedDataTable);
         columnsOrderState = new ColumnsOrder(extendedDataTable);
@@ -95,7 +96,10 @@ public class ExtendedDataTableState implements Serializable {
      * Converts its state to String representation in JSON format.
      */
     public String toString() {
-        return toJSON().toString();
+        if (jsonString == null) {
+            jsonString = toJSON().toString();
+        }
+        return jsonString;
     }
 
     /*
@@ -143,15 +147,15 @@ abstract class ColumnsState implements Serializable {
      * Initialize state from an extendedDataTable
      */
     ColumnsState (UIDataTableBase extendedDataTable) {
+        json = new JSONObject();
         try {
-            JSONWriter writer = new JSONStringer().object();
             Iterator<UIComponent> iterator = extendedDataTable.columns();
             while (iterator.hasNext()) { // initialize a map of all the columns
                 UIComponent component = iterator.next();
                 AbstractColumn column = (AbstractColumn) component;
-                writer.key(column.getId()).value(getValueFromColumn(column));
+                String value = getValueFromColumn(column);
+                json.put(column.getId(), value != null ? value : JSONObject.NULL);
             }
-            json = new JSONObject(writer.endObject().toString());
         } catch (JSONException e) {
             e.printStackTrace();
         }
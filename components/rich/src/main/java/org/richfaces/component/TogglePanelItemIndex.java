@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.faces.event.PhaseId;
+
+/**
+ * <p>Request-scoped index of the items of a toggle panel: name, position and client id of every rendered item.</p>
+ *
+ * <p>The index is built from a single visit of the panel and lets lookups by name or position avoid visiting the panel
+ * again. It is valid only within the phase in which it was built and only while the number of panel's children stays the
+ * same.</p>
+ */
+final class TogglePanelItemIndex {
+
+    /**
+     * Single indexed item
+     */
+    static final class Entry {
+        private final String name;
+        private final String clientId;
+        private final AbstractTogglePanelItemInterface item;
+        private final boolean dynamic;
+        private final boolean disabled;
+
+        Entry(String name, String clientId, AbstractTogglePanelItemInterface item, boolean dynamic, boolean disabled) {
+            this.name = name;
+            this.clientId = clientId;
+            // dynamically generated items are only valid inside of a visit of the iteration component
+            this.item = dynamic ? null : item;
+            this.dynamic = dynamic;
+            this.disabled = disabled;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getClientId() {
+            return clientId;
+        }
+
+        AbstractTogglePanelItemInterface getItem() {
+            return item;
+        }
+
+        boolean isDynamic() {
+            return dynamic;
+        }
+
+        boolean isDisabled() {
+            return disabled;
+        }
+    }
+
+    private final PhaseId phaseId;
+    private final int childCount;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final Map<String, Integer> indexByName = new HashMap<String, Integer>();
+
+    TogglePanelItemIndex(PhaseId phaseId, int childCount) {
+        this.phaseId = phaseId;
+        this.childCount = childCount;
+    }
+
+    void add(String name, String clientId, AbstractTogglePanelItemInterface item, boolean dynamic, boolean disabled) {
+        if (name != null && !indexByName.containsKey(name)) {
+            indexByName.put(name, entries.size());
+        }
+        entries.add(new Entry(name, clientId, item, dynamic, disabled));
+    }
+
+    /**
+     * Returns true if the index was built in given phase for the panel with given number of children
+     */
+    boolean isValid(PhaseId currentPhaseId, int currentChildCount) {
+        return phaseId == currentPhaseId && childCount == currentChildCount;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns entry on given position or <tt>null</tt> if there is no such item
+     */
+    Entry get(int index) {
+        if (index < 0 || index >= entries.size()) {
+            return null;
+        }
+        return entries.get(index);
+    }
+
+    /**
+     * Returns position of the first item with given name or -1 if there is no such item
+     */
+    int indexOf(String name) {
+        Integer index = indexByName.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the first item with given name or <tt>null</tt> if there is no such item
+     */
+    Entry get(String name) {
+        return get(indexOf(name));
+    }
+
+    /**
+     * Returns the first item which is not disabled or <tt>null</tt> if all items are disabled
+     */
+    Entry getFirstEnabled() {
+        for (Entry entry : entries) {
+            if (!entry.isDisabled()) {
+                return entry;
+            }
+        }
+        return null;
+    }
+}
@@ -43,6 +43,24 @@ public interface AutocompleteProps {
     @Attribute
     int getMinChars();
 
+    /**
+     * <p>Maximal number of suggestions returned to the client. The autocompleteMethod can read the limit from the component
+     * passed to it to avoid fetching more items than needed; arrays, lists and iterables returned by it are truncated
+     * to this size.</p>
+     * <p>Default: 0 (no limit)</p>
+     */
+    @Attribute
+    int getMaxResults();
+
+    /**
+     * <p>If "true", the suggestions returned by the autocompleteMethod are kept in the view and a later request for a
+     * longer prefix of the same input is answered from them without invoking the method again, provided the previous
+     * result was complete (not truncated by maxResults) and all its items start with the previous input.</p>
+     * <p>Default: false</p>
+     */
+    @Attribute
+    boolean isCacheResults();
+
     /**
      * A request-scope attribute via which the data object for the current row will be used when iterating
      */
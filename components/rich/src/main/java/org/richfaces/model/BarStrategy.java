@@ -23,7 +23,6 @@ package org.richfaces.model;
 
 import java.io.IOException;
 
-import org.richfaces.json.JSONArray;
 import org.richfaces.json.JSONObject;
 import org.richfaces.renderkit.ChartRendererBase;
 
@@ -46,14 +45,15 @@ public class BarStrategy implements ChartStrategy {
     }
 
     private double calculateBarWidth(JSONObject o) {
-        JSONArray data = o.optJSONArray("data");
+        Object data = o.opt("data");
 
-        if (data != null) {
-            JSONArray last = data.optJSONArray(data.length() - 1);
-            if (last != null) {
+        if (data instanceof ChartSeriesData) {
+            ChartSeriesData seriesData = (ChartSeriesData) data;
+            if (seriesData.size() > 0 && seriesData.getX(seriesData.size() - 1) instanceof Number) {
                 // x value of last element ~ number of ticks
                 // barWidth = 1 / (points-per-tick + 1)
-                return 1 / (data.length() / last.optDouble(0) + 1);
+                double last = ((Number) seriesData.getX(seriesData.size() - 1)).doubleValue();
+                return 1 / (seriesData.size() / last + 1);
             }
         }
 
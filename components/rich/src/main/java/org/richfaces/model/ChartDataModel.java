@@ -21,12 +21,11 @@
  */
 package org.richfaces.model;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import org.richfaces.json.JSONArray;
 import org.richfaces.json.JSONObject;
 import org.richfaces.renderkit.ChartRendererBase;
 
@@ -47,6 +46,8 @@ public abstract class ChartDataModel<T, S> {
 
     private Map<String, Object> attributes;
 
+    private int maxPoints;
+
     public ChartDataModel(ChartType type) {
         data = new HashMap<T, S>();
         keys = new LinkedList<T>();
@@ -73,20 +74,9 @@ public abstract class ChartDataModel<T, S> {
 
     public JSONObject defaultExport() throws IOException {
         JSONObject output = new JSONObject();
-        JSONArray jsdata;
 
         // data
-        jsdata = new JSONArray();
-
-        for (T key : keys) {
-            JSONArray point = new JSONArray();
-            S value = (S) data.get(key);
-            point.put(key);
-            point.put(value);
-            jsdata.put(point);
-        }
-
-        ChartRendererBase.addAttribute(output, "data", jsdata);
+        ChartRendererBase.addAttribute(output, "data", exportData());
         // label
         ChartRendererBase.addAttribute(output, "label",
                 getAttributes().get("label"));
@@ -97,6 +87,68 @@ public abstract class ChartDataModel<T, S> {
         return output;
     }
 
+    /**
+     * Collects points of the series in the order they were put into the model and downsamples them when
+     * {@link #getMaxPoints()} is set and the model supports it.
+     */
+    public ChartSeriesData exportData() {
+        Collection<T> orderedKeys = keys.size() == data.size() ? keys : data.keySet();
+        Object[] xs = new Object[orderedKeys.size()];
+        Object[] ys = new Object[orderedKeys.size()];
+        int i = 0;
+        for (T key : orderedKeys) {
+            xs[i] = exportKey(key);
+            ys[i] = data.get(key);
+            i++;
+        }
+
+        ChartSeriesData seriesData = new ChartSeriesData(xs, ys, i);
+        if (isDownsamplingSupported()) {
+            seriesData = seriesData.downsample(getMaxPoints());
+        }
+        return seriesData;
+    }
+
+    /**
+     * Converts the key to the value used as the x coordinate in the exported data.
+     */
+    protected Object exportKey(T key) {
+        return key;
+    }
+
+    /**
+     * Whether keys of this model are numeric, so that its data can be downsampled.
+     */
+    protected boolean isDownsamplingSupported() {
+        return false;
+    }
+
+    /**
+     * Returns the maximal number of points exported for this series, either set on the model or via the maxPoints
+     * attribute of the series. Zero means all points are exported.
+     */
+    public int getMaxPoints() {
+        if (maxPoints > 0) {
+            return maxPoints;
+        }
+        Object value = attributes != null ? attributes.get("maxPoints") : null;
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            return Integer.parseInt((String) value);
+        }
+        return 0;
+    }
+
+    /**
+     * Sets the maximal number of points exported for this series. Series with more points are downsampled by the
+     * Largest-Triangle-Three-Buckets algorithm, which is supported for number and date keys.
+     */
+    public void setMaxPoints(int maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
     public Object export() throws IOException {
         return strategy.export(this);
     }
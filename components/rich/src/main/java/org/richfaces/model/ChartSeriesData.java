@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.model;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.richfaces.json.JSONException;
+import org.richfaces.json.JSONObject;
+import org.richfaces.json.JSONWritable;
+
+/**
+ * <p>
+ * Points of a single chart series, serialized as the flot <code>[[x, y], ...]</code> array directly to the response
+ * writer without building a <code>JSONArray</code> per point.
+ * </p>
+ * <p>
+ * Series with numeric keys can be reduced to a given number of points by {@link #downsample(int)}, which implements the
+ * Largest-Triangle-Three-Buckets algorithm: the first and last points are kept and from each bucket of the remaining
+ * points the one forming the largest triangle with its neighbours is chosen, preserving the visual shape of the series.
+ * </p>
+ */
+public final class ChartSeriesData implements JSONWritable, Serializable {
+    private static final long serialVersionUID = -5096614208134739562L;
+
+    private final Object[] xs;
+    private final Object[] ys;
+    private final int size;
+
+    /**
+     * @param xs point keys, either numbers or strings
+     * @param ys point values
+     * @param size number of points stored in the arrays
+     */
+    public ChartSeriesData(Object[] xs, Object[] ys, int size) {
+        this.xs = xs;
+        this.ys = ys;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Object getX(int index) {
+        return xs[index];
+    }
+
+    public Object getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * Returns series reduced to at most <code>threshold</code> points, or this series if it is already small enough.
+     * Keys and values of the series have to be numbers.
+     */
+    public ChartSeriesData downsample(int threshold) {
+        if (threshold <= 0 || size <= threshold) {
+            return this;
+        }
+
+        Object[] sampledXs = new Object[threshold];
+        Object[] sampledYs = new Object[threshold];
+
+        if (threshold < 3) {
+            sampledXs[0] = xs[0];
+            sampledYs[0] = ys[0];
+            if (threshold == 2) {
+                sampledXs[1] = xs[size - 1];
+                sampledYs[1] = ys[size - 1];
+            }
+            return new ChartSeriesData(sampledXs, sampledYs, threshold);
+        }
+
+        // the first and the last points are always kept, the rest is divided into threshold - 2 buckets
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int selected = 0;
+        int sampled = 0;
+
+        sampledXs[sampled] = xs[0];
+        sampledYs[sampled++] = ys[0];
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int bucketStart = (int) (bucket * bucketSize) + 1;
+            int bucketEnd = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // average of the next bucket is the third vertex of the triangle
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += toDouble(xs[i]);
+                avgY += toDouble(ys[i]);
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            double selectedX = toDouble(xs[selected]);
+            double selectedY = toDouble(ys[selected]);
+            double maxArea = -1;
+            int maxAreaIndex = bucketStart;
+
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((selectedX - avgX) * (toDouble(ys[i]) - selectedY)
+                    - (selectedX - toDouble(xs[i])) * (avgY - selectedY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxAreaIndex = i;
+                }
+            }
+
+            sampledXs[sampled] = xs[maxAreaIndex];
+            sampledYs[sampled++] = ys[maxAreaIndex];
+            selected = maxAreaIndex;
+        }
+
+        sampledXs[sampled] = xs[size - 1];
+        sampledYs[sampled] = ys[size - 1];
+
+        return new ChartSeriesData(sampledXs, sampledYs, threshold);
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+    }
+
+    @Override
+    public void write(Writer writer) throws IOException {
+        writer.write('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('[');
+            writeValue(writer, xs[i]);
+            writer.write(',');
+            writeValue(writer, ys[i]);
+            writer.write(']');
+        }
+        writer.write(']');
+    }
+
+    private static void writeValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Number) {
+            try {
+                writer.write(JSONObject.numberToString((Number) value));
+            } catch (JSONException e) {
+                throw new IOException(e.getMessage());
+            }
+        } else {
+            writer.write(JSONObject.quote(value.toString()));
+        }
+    }
+
+    @Override
+    public String toJSONString() {
+        StringWriter writer = new StringWriter();
+        try {
+            write(writer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return writer.toString();
+    }
+}
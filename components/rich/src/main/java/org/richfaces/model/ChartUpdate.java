@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.model;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ajax4jsf.javascript.ScriptStringBase;
+
+/**
+ * Set of changes to the series of a chart that is sent to the client instead of re-rendering the whole chart. Points
+ * appended to a series are added to the end of the series data on the client, replaced series get the new points
+ * only.
+ * <p>
+ * The update can be either queued to the chart using {@link org.richfaces.component.AbstractChart#appendPoints} and
+ * rendered by the <code>data</code> meta-component (e.g. <code>render="chart@data"</code>), or published to a push
+ * topic and applied on the client by <code>RichFaces.component('chartId').applyUpdate(event.rf.data)</code>.
+ * </p>
+ */
+public class ChartUpdate extends ScriptStringBase implements Serializable {
+
+    private static final long serialVersionUID = -2618301437935614287L;
+
+    private final List<SeriesUpdate> updates = new ArrayList<SeriesUpdate>();
+
+    /**
+     * Appends points of the given model to the series with the given index.
+     *
+     * @param seriesIndex index of the series in the chart
+     * @param points model containing only the new points
+     * @return this update
+     */
+    public ChartUpdate append(int seriesIndex, ChartDataModel<?, ?> points) {
+        updates.add(new SeriesUpdate(seriesIndex, points.exportData(), false));
+        return this;
+    }
+
+    /**
+     * Replaces all points of the series with the given index by the points of the given model.
+     *
+     * @param seriesIndex index of the series in the chart
+     * @param points model containing the new content of the series
+     * @return this update
+     */
+    public ChartUpdate replace(int seriesIndex, ChartDataModel<?, ?> points) {
+        updates.add(new SeriesUpdate(seriesIndex, points.exportData(), true));
+        return this;
+    }
+
+    /**
+     * Adds all series updates of another update to this one.
+     */
+    public ChartUpdate merge(ChartUpdate update) {
+        updates.addAll(update.updates);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return updates.isEmpty();
+    }
+
+    /**
+     * Writes the update as an array of <code>{series: index, replace: boolean, data: [[x, y], ...]}</code> objects.
+     * Points are streamed when the target is a {@link Writer}.
+     */
+    @Override
+    public void appendScript(Appendable target) throws IOException {
+        target.append('[');
+        for (int i = 0; i < updates.size(); i++) {
+            SeriesUpdate update = updates.get(i);
+            if (i > 0) {
+                target.append(',');
+            }
+            target.append("{\"series\":").append(String.valueOf(update.seriesIndex));
+            target.append(",\"replace\":").append(String.valueOf(update.replace));
+            target.append(",\"data\":");
+            if (target instanceof Writer) {
+                update.data.write((Writer) target);
+            } else {
+                target.append(update.data.toJSONString());
+            }
+            target.append('}');
+        }
+        target.append(']');
+    }
+
+    private static final class SeriesUpdate implements Serializable {
+        private static final long serialVersionUID = 4310867052961749113L;
+
+        private final int seriesIndex;
+        private final ChartSeriesData data;
+        private final boolean replace;
+
+        SeriesUpdate(int seriesIndex, ChartSeriesData data, boolean replace) {
+            this.seriesIndex = seriesIndex;
+            this.data = data;
+            this.replace = replace;
+        }
+    }
+}
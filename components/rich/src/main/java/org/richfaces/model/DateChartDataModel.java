@@ -40,6 +40,16 @@ public class DateChartDataModel extends ChartDataModel<Date, Number> {
         }
     }
 
+    @Override
+    protected Object exportKey(Date key) {
+        return key.getTime();
+    }
+
+    @Override
+    protected boolean isDownsamplingSupported() {
+        return true;
+    }
+
     @Override
     public Class getKeyType() {
         return Date.class;
@@ -40,6 +40,11 @@ public class NumberChartDataModel extends ChartDataModel<Number, Number> {
         }
     }
 
+    @Override
+    protected boolean isDownsamplingSupported() {
+        return true;
+    }
+
     @Override
     public Class getKeyType() {
         return Number.class;
@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.renderkit;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.faces.context.FacesContext;
+
+/**
+ * Application-wide cache of serialized calendar locale descriptors (week day and month labels, first week day and
+ * control labels), keyed by locale and the application message bundle. Also tracks which locales were already written to
+ * the current response, so that each descriptor is emitted once per page and shared by all calendars using the locale.
+ */
+final class CalendarLocaleCache {
+    private static final String APPLICATION_MAP_KEY = CalendarLocaleCache.class.getName();
+    private static final String RENDERED_LOCALES_ATTRIBUTE = CalendarLocaleCache.class.getName() + ".RENDERED_LOCALES";
+    private final ConcurrentMap<String, String> descriptors = new ConcurrentHashMap<String, String>();
+
+    private CalendarLocaleCache() {
+    }
+
+    static CalendarLocaleCache getInstance(FacesContext facesContext) {
+        Map<String, Object> applicationMap = facesContext.getExternalContext().getApplicationMap();
+        CalendarLocaleCache cache = (CalendarLocaleCache) applicationMap.get(APPLICATION_MAP_KEY);
+        if (cache == null) {
+            synchronized (CalendarLocaleCache.class) {
+                cache = (CalendarLocaleCache) applicationMap.get(APPLICATION_MAP_KEY);
+                if (cache == null) {
+                    cache = new CalendarLocaleCache();
+                    applicationMap.put(APPLICATION_MAP_KEY, cache);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns <code>true</code> if the descriptor of the given locale was not yet written to the current response and
+     * marks it as written.
+     */
+    @SuppressWarnings("unchecked")
+    static boolean markRendered(FacesContext facesContext, Locale locale) {
+        Map<Object, Object> attributes = facesContext.getAttributes();
+        Set<Locale> renderedLocales = (Set<Locale>) attributes.get(RENDERED_LOCALES_ATTRIBUTE);
+        if (renderedLocales == null) {
+            renderedLocales = new HashSet<Locale>();
+            attributes.put(RENDERED_LOCALES_ATTRIBUTE, renderedLocales);
+        }
+        return renderedLocales.add(locale);
+    }
+
+    String getDescriptor(Locale locale, String messageBundle) {
+        return descriptors.get(createKey(locale, messageBundle));
+    }
+
+    void putDescriptor(Locale locale, String messageBundle, String descriptor) {
+        descriptors.putIfAbsent(createKey(locale, messageBundle), descriptor);
+    }
+
+    private static String createKey(Locale locale, String messageBundle) {
+        return locale.toString() + '/' + (messageBundle != null ? messageBundle : "");
+    }
+}
@@ -45,14 +45,15 @@ import javax.faces.convert.ConverterException;
 import javax.faces.convert.DateTimeConverter;
 
 import org.ajax4jsf.javascript.JSFunction;
+import org.ajax4jsf.javascript.JSLiteral;
 import org.ajax4jsf.javascript.JSReference;
+import org.ajax4jsf.javascript.ScriptUtils;
 import org.richfaces.component.AbstractCalendar;
 import org.richfaces.component.MetaComponentResolver;
 import org.richfaces.component.Positioning;
 import org.richfaces.component.util.HtmlUtil;
 import org.richfaces.component.util.InputUtils;
 import org.richfaces.component.util.InputUtils.ConverterLookupStrategy;
-import org.richfaces.component.util.MessageUtil;
 import org.richfaces.context.ExtendedPartialViewContext;
 import org.richfaces.event.CurrentDateChangeEvent;
 import org.richfaces.utils.CalendarHelper;
@@ -79,6 +80,7 @@ public class CalendarRendererBase extends InputRendererBase implements MetaCompo
     public static final String CALENDAR_BUNDLE = "org.richfaces.renderkit.calendar";
     public static final String OPTION_DISABLED = "disabled";
     public static final String OPTION_MIN_DAYS_IN_FIRST_WEEK = "minDaysInFirstWeek";
+    public static final String LABELS = "labels";
     public static final String MONTH_LABELS_SHORT = "monthLabelsShort";
     public static final String MONTH_LABELS = "monthLabels";
     public static final String WEEK_DAY_LABELS_SHORT = "weekDayLabelsShort";
@@ -317,15 +319,16 @@ public class CalendarRendererBase extends InputRendererBase implements MetaCompo
     }
 
     public Map<String, Object> getLabels(FacesContext facesContext, UIComponent component) {
-        AbstractCalendar calendar = (AbstractCalendar) component;
+        return getLabels(facesContext, CalendarHelper.getAsLocale(facesContext, component));
+    }
 
+    protected Map<String, Object> getLabels(FacesContext facesContext, Locale locale) {
         ResourceBundle bundle1 = null;
         ResourceBundle bundle2 = null;
 
         ClassLoader loader = Thread.currentThread().getContextClassLoader();
 
         String messageBundle = facesContext.getApplication().getMessageBundle();
-        Locale locale = CalendarHelper.getAsLocale(facesContext, calendar);
         if (null != messageBundle) {
             bundle1 = ResourceBundle.getBundle(messageBundle, locale, loader);
         }
@@ -402,66 +405,88 @@ public class CalendarRendererBase extends InputRendererBase implements MetaCompo
         return shiftedLabels;
     }
 
-    protected Map<String, Object> getLocaleOptions(FacesContext facesContext, UIComponent component) {
-        AbstractCalendar calendarComponent = (AbstractCalendar) component;
+    /**
+     * Returns the script registering the locale descriptor shared by all calendars of the given locale, or an empty
+     * string if it was already written to the current response. Descriptors are serialized once per locale and
+     * application message bundle and cached for the application.
+     */
+    public String getLocaleScript(FacesContext facesContext, UIComponent component) {
+        Locale locale = CalendarHelper.getAsLocale(facesContext, component);
+        if (!CalendarLocaleCache.markRendered(facesContext, locale)) {
+            return "";
+        }
+
+        CalendarLocaleCache cache = CalendarLocaleCache.getInstance(facesContext);
+        String messageBundle = facesContext.getApplication().getMessageBundle();
+        String descriptor = cache.getDescriptor(locale, messageBundle);
+        if (descriptor == null) {
+            Map<String, Object> localeOptions = getLocaleOptions(facesContext, locale);
+            RenderKitUtils.addToScriptHash(localeOptions, LABELS, getLabels(facesContext, locale));
+            descriptor = ScriptUtils.toScript(localeOptions);
+            cache.putDescriptor(locale, messageBundle, descriptor);
+        }
+
+        return new JSFunction("RichFaces.ui.Calendar.addLocale", locale.toString(), new JSLiteral(descriptor)).toScript()
+            + ";";
+    }
 
+    protected Map<String, Object> getLocaleOptions(FacesContext facesContext, Locale locale) {
         Map<String, Object> map = new HashMap<String, Object>();
 
-        Locale locale = CalendarHelper.getAsLocale(facesContext, calendarComponent);
         DateFormatSymbols dateFormat = new DateFormatSymbols(locale);
 
-        Calendar calendar = CalendarHelper.getCalendar(facesContext, calendarComponent);
+        Calendar calendar = Calendar.getInstance(locale);
         int maximum = calendar.getActualMaximum(Calendar.DAY_OF_WEEK);
         int minimum = calendar.getActualMinimum(Calendar.DAY_OF_WEEK);
 
         int monthMax = calendar.getActualMaximum(Calendar.MONTH);
         int monthMin = calendar.getActualMinimum(Calendar.MONTH);
 
-        String[] weekDayLabelsShort = RenderKitUtils.asArray(calendarComponent.getWeekDayLabelsShort());
-        if (isEmptyArray(weekDayLabelsShort)) {
-            weekDayLabelsShort = dateFormat.getShortWeekdays();
-            weekDayLabelsShort = shiftDates(minimum, maximum, weekDayLabelsShort);
-        }
-        RenderKitUtils.addToScriptHash(map, WEEK_DAY_LABELS_SHORT, weekDayLabelsShort);
-
-        String[] monthLabels = RenderKitUtils.asArray(calendarComponent.getMonthLabels());
-        if (isEmptyArray(monthLabels)) {
-            monthLabels = dateFormat.getMonths();
-            monthLabels = shiftDates(monthMin, monthMax, monthLabels);
-        }
-        RenderKitUtils.addToScriptHash(map, MONTH_LABELS, monthLabels);
-
-        String[] monthLabelsShort = RenderKitUtils.asArray(calendarComponent.getMonthLabelsShort());
-        if (isEmptyArray(monthLabelsShort)) {
-            monthLabelsShort = dateFormat.getShortMonths();
-            monthLabelsShort = shiftDates(monthMin, monthMax, monthLabelsShort);
-        }
-        RenderKitUtils.addToScriptHash(map, MONTH_LABELS_SHORT, monthLabelsShort);
-
-        int minDaysInFirstWeek = calendarComponent.getMinDaysInFirstWeek();
-
-        if (1 > minDaysInFirstWeek || minDaysInFirstWeek > 7) {
-            minDaysInFirstWeek = calendar.getMinimalDaysInFirstWeek();
-        }
+        RenderKitUtils.addToScriptHash(map, WEEK_DAY_LABELS_SHORT, shiftDates(minimum, maximum, dateFormat.getShortWeekdays()));
+        RenderKitUtils.addToScriptHash(map, MONTH_LABELS, shiftDates(monthMin, monthMax, dateFormat.getMonths()));
+        RenderKitUtils.addToScriptHash(map, MONTH_LABELS_SHORT, shiftDates(monthMin, monthMax, dateFormat.getShortMonths()));
 
+        int minDaysInFirstWeek = calendar.getMinimalDaysInFirstWeek();
         if (0 <= minDaysInFirstWeek && minDaysInFirstWeek <= 7) {
             RenderKitUtils.addToScriptHash(map, MIN_DAYS_IN_FIRST_WEEK, minDaysInFirstWeek);
         }
 
-        int day = calendarComponent.getFirstWeekDay();
-        if (day < 0 || 6 < day) {
-            day = calendar.getFirstDayOfWeek() - calendar.getActualMinimum(Calendar.DAY_OF_WEEK);
-        }
-
+        int day = calendar.getFirstDayOfWeek() - calendar.getActualMinimum(Calendar.DAY_OF_WEEK);
         if (0 <= day && day <= 6) {
             RenderKitUtils.addToScriptHash(map, FIRST_DAY_WEEK, day);
         } else {
-            throw new IllegalArgumentException(day + " value of firstWeekDay attribute is not a legal one for component: "
-                + MessageUtil.getLabel(facesContext, calendarComponent));
+            throw new IllegalArgumentException(day + " value of first week day is not a legal one for locale: " + locale);
         }
         return map;
     }
 
+    public String[] getWeekDayLabelsShort(UIComponent component) {
+        return getLabelsOverride(((AbstractCalendar) component).getWeekDayLabelsShort());
+    }
+
+    public String[] getMonthLabels(UIComponent component) {
+        return getLabelsOverride(((AbstractCalendar) component).getMonthLabels());
+    }
+
+    public String[] getMonthLabelsShort(UIComponent component) {
+        return getLabelsOverride(((AbstractCalendar) component).getMonthLabelsShort());
+    }
+
+    public Integer getMinDaysInFirstWeek(UIComponent component) {
+        int minDaysInFirstWeek = ((AbstractCalendar) component).getMinDaysInFirstWeek();
+        return (1 <= minDaysInFirstWeek && minDaysInFirstWeek <= 7) ? minDaysInFirstWeek : null;
+    }
+
+    public Integer getFirstWeekDay(UIComponent component) {
+        int day = ((AbstractCalendar) component).getFirstWeekDay();
+        return (0 <= day && day <= 6) ? day : null;
+    }
+
+    private String[] getLabelsOverride(Object labels) {
+        String[] array = RenderKitUtils.asArray(labels);
+        return isEmptyArray(array) ? null : array;
+    }
+
     private boolean isEmptyArray(String[] array) {
         if (array != null) {
             for (String str : array) {
@@ -40,8 +40,11 @@ import javax.faces.component.visit.VisitCallback;
 import javax.faces.component.visit.VisitContext;
 import javax.faces.component.visit.VisitResult;
 import javax.faces.context.FacesContext;
+import javax.faces.context.PartialResponseWriter;
 import javax.faces.context.ResponseWriter;
 
+import org.ajax4jsf.javascript.ScriptUtils;
+
 import org.richfaces.component.AbstractChart;
 import org.richfaces.component.AbstractChartLegend;
 import org.richfaces.component.AbstractChartPoint;
@@ -53,6 +56,7 @@ import org.richfaces.json.JSONException;
 import org.richfaces.json.JSONObject;
 import org.richfaces.model.ChartDataModel;
 import org.richfaces.model.ChartDataModel.ChartType;
+import org.richfaces.model.ChartUpdate;
 import org.richfaces.model.NumberChartDataModel;
 import org.richfaces.model.PlotClickEvent;
 import org.richfaces.model.RawJSONString;
@@ -62,12 +66,13 @@ import org.richfaces.model.StringChartDataModel;
 /**
  * @author Lukas Macko
  */
-public abstract class ChartRendererBase extends RendererBase {
+public abstract class ChartRendererBase extends RendererBase implements MetaComponentRenderer {
 
     public static final String RENDERER_TYPE = "org.richfaces.ChartRenderer";
 
     private static final String X_VALUE = "x";
     private static final String Y_VALUE = "y";
+    private static final String CHART_DATA_KEY = ChartRendererBase.class.getName() + ":chartData";
     private static final String POINT_INDEX = "dataIndex";
     private static final String SERIES_INDEX = "seriesIndex";
     private static final String EVENT_TYPE = "name";
@@ -110,6 +115,10 @@ public abstract class ChartRendererBase extends RendererBase {
         addAttribute(obj, "xtype", component.getAttributes().get("xtype"));
         addAttribute(obj, "ytype", component.getAttributes().get("ytype"));
         addAttribute(obj, "serverSideListener", component.getAttributes().get("serverSideListener"));
+        Object windowSize = component.getAttributes().get("windowSize");
+        if (windowSize instanceof Number && ((Number) windowSize).intValue() > 0) {
+            addAttribute(obj, "windowSize", windowSize);
+        }
 
         JSONObject xaxis = new JSONObject();
         addAttribute(xaxis, "min", component.getAttributes().get("xmin"));
@@ -191,7 +200,59 @@ public abstract class ChartRendererBase extends RendererBase {
      * @return
      */
     public JSONArray getChartData(FacesContext ctx, UIComponent component) {
-        return (JSONArray) component.getAttributes().get("chartData");
+        return (JSONArray) component.getTransientStateHelper().getTransient(CHART_DATA_KEY);
+    }
+
+    /**
+     * Writes chart data directly to the response writer, series points are streamed without creating intermediate
+     * strings.
+     *
+     * @param ctx
+     * @param component
+     * @throws IOException
+     */
+    public void encodeChartData(FacesContext ctx, UIComponent component) throws IOException {
+        JSONArray data = getChartData(ctx, component);
+        ResponseWriter writer = ctx.getResponseWriter();
+        if (data == null) {
+            writer.write("[]");
+            return;
+        }
+        try {
+            data.write(writer);
+        } catch (JSONException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Sends points queued by {@link AbstractChart#appendPoints} and {@link AbstractChart#replacePoints} to the client,
+     * the chart itself is not re-rendered.
+     */
+    public void encodeMetaComponent(FacesContext context, UIComponent component, String metaComponentId)
+        throws IOException {
+
+        if (!AbstractChart.DATA_META_COMPONENT_ID.equals(metaComponentId)) {
+            throw new IllegalArgumentException(metaComponentId);
+        }
+
+        ChartUpdate update = ((AbstractChart) component).getPendingUpdate(context);
+        if (update == null || update.isEmpty()) {
+            return;
+        }
+
+        PartialResponseWriter writer = context.getPartialViewContext().getPartialResponseWriter();
+        writer.startEval();
+        writer.write("RichFaces.jQuery("
+            + ScriptUtils.toScript('#' + ScriptUtils.escapeCSSMetachars(component.getClientId(context)))
+            + ").triggerHandler('rich:onchartupdate', [");
+        update.appendScript(writer);
+        writer.write("]);");
+        writer.endEval();
+    }
+
+    public void decodeMetaComponent(FacesContext context, UIComponent component, String metaComponentId) {
+        throw new UnsupportedOperationException();
     }
 
     /**
@@ -208,8 +269,8 @@ public abstract class ChartRendererBase extends RendererBase {
         chart.visitTree(VisitContext.createVisitContext(FacesContext
                 .getCurrentInstance()), visitCallback);
 
-        // store data to parent tag
-        component.getAttributes().put("chartData", visitCallback.getData());
+        // store data to parent tag, only for the current rendering as the series data are not kept in the view state
+        component.getTransientStateHelper().putTransient(CHART_DATA_KEY, visitCallback.getData());
 
         if (!visitCallback.isDataEmpty()) {
             component.getAttributes().put("charttype",
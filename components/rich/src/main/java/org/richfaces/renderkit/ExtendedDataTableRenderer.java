@@ -87,6 +87,7 @@ public class ExtendedDataTableRenderer extends SelectionRenderer implements Meta
     private static final String DATA_ATTRIBUTE = "data-rf-column-name";
     private static final String BEHAVIOR_EVENT_NAME = "javax.faces.behavior.event";
     private static final String ROW = "row";
+    private static final String TABLE_STATE_KEY = ExtendedDataTableRenderer.class.getName() + ":tableState";
 
     protected static enum PartName {
 
@@ -706,7 +707,12 @@ public class ExtendedDataTableRenderer extends SelectionRenderer implements Meta
     protected void doEncodeBegin(ResponseWriter writer, FacesContext context, UIComponent component) throws IOException {
         String savedTableState = (String) component.getAttributes().get("tableState");
         if (savedTableState != null && ! savedTableState.isEmpty()) { // retrieve table state
-            ExtendedDataTableState tableState = new ExtendedDataTableState(savedTableState);
+            // the state stored during decode of this request is used as is instead of being parsed back from JSON
+            ExtendedDataTableState tableState = (ExtendedDataTableState) component.getTransientStateHelper().getTransient(
+                TABLE_STATE_KEY);
+            if (tableState == null || !savedTableState.equals(tableState.toString())) {
+                tableState = new ExtendedDataTableState(savedTableState);
+            }
             consumeTableState(context, (UIDataTableBase) component, tableState);
         }
 
@@ -971,6 +977,7 @@ public class ExtendedDataTableRenderer extends SelectionRenderer implements Meta
         if (component.getAttributes().get("tableState") != null) {
             ExtendedDataTableState tableState = new ExtendedDataTableState((UIDataTableBase) component);
             updateAttribute(context, component, "tableState", tableState.toString());
+            component.getTransientStateHelper().putTransient(TABLE_STATE_KEY, tableState);
         }
 
         if (component instanceof ClientBehaviorHolder) {
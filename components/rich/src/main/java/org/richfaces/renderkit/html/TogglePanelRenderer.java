@@ -183,7 +183,7 @@ public class TogglePanelRenderer extends DivPanelRenderer implements MetaCompone
             int itemIndex = panel.getIndexByName(panel.getActiveItem());
 
             if (itemIndex >= 0) {
-                encodeActiveItem(panel, itemIndex);
+                encodeActiveItem(context, panel, itemIndex);
             } else {
                 partialStart(context, component.getClientId(context));
                 component.encodeAll(context);
@@ -195,18 +195,23 @@ public class TogglePanelRenderer extends DivPanelRenderer implements MetaCompone
         }
     }
 
-    private String encodeActiveItem(final AbstractTogglePanel panel, final int activeIndex) {
+    private String encodeActiveItem(FacesContext facesContext, final AbstractTogglePanel panel, final int activeIndex)
+            throws IOException {
+        if (!panel.isDynamicItem(activeIndex)) {
+            // statically defined items can be encoded directly, without visiting the panel
+            AbstractTogglePanelItemInterface item = panel.getItemByIndex(activeIndex);
+            if (item != null) {
+                encodeItem(facesContext, panel, item);
+            }
+            return null;
+        }
+
         panel.visitTogglePanelItems(panel, new TogglePanelVisitCallback() {
             @Override
             public VisitResult visit(FacesContext context, TogglePanelVisitState visitState) {
                 if (activeIndex == visitState.getCount()) {
-                    AbstractTogglePanelItemInterface item = visitState.getItem();
-                    String itemName = item.getName();
                     try {
-                        partialStart(context, ((UIComponent) item).getClientId(context));
-                        ((UIComponent) item).encodeAll(context);
-                        partialEnd(context);
-                        addOnCompleteParam(context, itemName, panel.getClientId(context));
+                        encodeItem(context, panel, visitState.getItem());
                     } catch (IOException e) {
                         throw new FacesException(e);
                     }
@@ -220,6 +225,14 @@ public class TogglePanelRenderer extends DivPanelRenderer implements MetaCompone
         return null;
     }
 
+    private void encodeItem(FacesContext context, AbstractTogglePanel panel, AbstractTogglePanelItemInterface item)
+            throws IOException {
+        partialStart(context, ((UIComponent) item).getClientId(context));
+        ((UIComponent) item).encodeAll(context);
+        partialEnd(context);
+        addOnCompleteParam(context, item.getName(), panel.getClientId(context));
+    }
+
     public void decodeMetaComponent(FacesContext context, UIComponent component, String metaComponentId) {
         // TODO Auto-generated method stub
     }
@@ -28,9 +28,11 @@ package org.richfaces.validator;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -50,6 +52,9 @@ import org.richfaces.el.ValueDescriptor;
 import org.richfaces.el.ValueExpressionAnalayser;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 /**
@@ -61,8 +66,18 @@ public class BeanValidatorServiceImpl implements BeanValidatorService {
     private static final String FACES_CONTEXT_IS_NULL = "Faces context is null";
     private static final String INPUT_PARAMETERS_IS_NOT_CORRECT = "Input parameters is not correct.";
     private static final Class<?>[] DEFAULT_GROUP = {};
+    private static final int MAX_CACHED_DESCRIPTORS = 1000;
     private final ValueExpressionAnalayser analayser;
     private final BeanValidatorFactory validatorFactory;
+    /**
+     * Constraints of bean properties, keyed by (bean type, property, groups)
+     */
+    private final Cache<List<Object>, List<ConstraintEntry>> constraintsCache = CacheBuilder.newBuilder().build();
+    /**
+     * Immutable validator descriptors, keyed by (constraints key, locale, message override)
+     */
+    private final Cache<List<Object>, Collection<ValidatorDescriptor>> descriptorsCache = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_DESCRIPTORS).build();
 
     public BeanValidatorServiceImpl(ValueExpressionAnalayser analayser, BeanValidatorFactory validatorFactory) {
         this.analayser = analayser;
@@ -96,6 +111,32 @@ public class BeanValidatorServiceImpl implements BeanValidatorService {
 
     Collection<ValidatorDescriptor> processBeanAttribute(FacesContext context, ValueDescriptor descriptor, String msg,
         Class<?>... groups) {
+        List<Object> constraintsKey = Arrays.<Object>asList(descriptor.getBeanType(), descriptor.getName(),
+            null == groups ? Collections.emptyList() : Arrays.asList(groups));
+        List<ConstraintEntry> constraints = constraintsCache.getIfPresent(constraintsKey);
+        if (null == constraints) {
+            constraints = findConstraints(context, descriptor, groups);
+            constraintsCache.put(constraintsKey, constraints);
+        }
+        if (constraints.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        // only interpolated messages depend on the current locale
+        String message = Strings.emptyToNull(msg);
+        List<Object> descriptorsKey = Arrays.<Object>asList(constraintsKey, MessageFactory.getCurrentLocale(context), message);
+        Collection<ValidatorDescriptor> descriptors = descriptorsCache.getIfPresent(descriptorsKey);
+        if (null == descriptors) {
+            // ContextHolder is an arbitrary object, it will depend on the implementation
+            FacesMessage facesMessage = null == message ? null : new FacesMessage(FacesMessage.SEVERITY_ERROR, message,
+                message);
+            descriptors = createDescriptors(context, constraints, facesMessage);
+            descriptorsCache.put(descriptorsKey, descriptors);
+        }
+        return descriptors;
+    }
+
+    private List<ConstraintEntry> findConstraints(FacesContext context, ValueDescriptor descriptor, Class<?>... groups) {
         PropertyDescriptor constraintsForProperty = getValidator(context).getConstraintsForClass(descriptor.getBeanType())
             .getConstraintsForProperty(descriptor.getName());
         if (null != constraintsForProperty) {
@@ -107,25 +148,29 @@ public class BeanValidatorServiceImpl implements BeanValidatorService {
             Set<ConstraintDescriptor<?>> constraints = propertyConstraints // or the requested list of groups)
                 .getConstraintDescriptors();
 
-            // ContextHolder is an arbitrary object, it will depend on the implementation
-            FacesMessage message = Strings.isNullOrEmpty(msg) ? null : new FacesMessage(FacesMessage.SEVERITY_ERROR, msg, msg);
-            return processConstraints(context, constraints, message);
+            ImmutableList.Builder<ConstraintEntry> entries = ImmutableList.builder();
+            processConstraints(constraints, entries);
+            return entries.build();
         } else {
-            return Collections.emptySet();
+            return Collections.emptyList();
         }
     }
 
     Collection<ValidatorDescriptor> processConstraints(FacesContext context, Set<ConstraintDescriptor<?>> constraints,
         FacesMessage msg) {
-        Set<ValidatorDescriptor> descriptors = new HashSet<ValidatorDescriptor>(constraints.size());
+        ImmutableList.Builder<ConstraintEntry> entries = ImmutableList.builder();
+        processConstraints(constraints, entries);
+        return createDescriptors(context, entries.build(), msg);
+    }
+
+    private void processConstraints(Set<ConstraintDescriptor<?>> constraints, ImmutableList.Builder<ConstraintEntry> entries) {
         for (ConstraintDescriptor<?> cd : constraints) {
             Annotation a = cd.getAnnotation();
             Map<String, Object> parameters = cd.getAttributes();
             // TODO if cd.isReportedAsSingleConstraint() make sure than only the root constraint raises an error message
             // if one or several of the composing constraints are invalid)
-            FacesMessage message = null == msg ? validatorFactory.interpolateMessage(context, cd) : msg;
             Class<? extends Annotation> validatorClass = findAnnotationClass(a);
-            BeanValidatorDescriptor beanValidatorDescriptor = new BeanValidatorDescriptor(validatorClass, message);
+            Map<String, Object> validatorParameters = new LinkedHashMap<String, Object>();
             for (Map.Entry<String, Object> entry : parameters.entrySet()) {
                 String key = entry.getKey();
                 if (!HIDDEN_PARAMS.contains(key)) {
@@ -134,21 +179,33 @@ public class BeanValidatorServiceImpl implements BeanValidatorService {
                         Method method = validatorClass.getDeclaredMethod(key);
                         Object defaultValue = method.getDefaultValue();
                         if (!value.equals(defaultValue)) {
-                            beanValidatorDescriptor.addParameter(key, value);
+                            validatorParameters.put(key, value);
                         }
                     } catch (SecurityException e) {
-                        beanValidatorDescriptor.addParameter(key, value);
+                        validatorParameters.put(key, value);
                     } catch (NoSuchMethodException e) {
-                        beanValidatorDescriptor.addParameter(key, value);
+                        validatorParameters.put(key, value);
                     }
                 }
             }
+            entries.add(new ConstraintEntry(cd, validatorClass, validatorParameters));
+            processConstraints(cd.getComposingConstraints(), entries); // process the composing constraints
+        }
+    }
+
+    private Collection<ValidatorDescriptor> createDescriptors(FacesContext context, List<ConstraintEntry> constraints,
+        FacesMessage msg) {
+        ImmutableSet.Builder<ValidatorDescriptor> descriptors = ImmutableSet.builder();
+        for (ConstraintEntry constraint : constraints) {
+            FacesMessage message = null == msg ? validatorFactory.interpolateMessage(context, constraint.descriptor) : msg;
+            BeanValidatorDescriptor beanValidatorDescriptor = new BeanValidatorDescriptor(constraint.validatorClass, message);
+            for (Map.Entry<String, Object> entry : constraint.parameters.entrySet()) {
+                beanValidatorDescriptor.addParameter(entry.getKey(), entry.getValue());
+            }
             beanValidatorDescriptor.makeImmutable();
             descriptors.add(beanValidatorDescriptor);
-            descriptors.addAll(processConstraints(context, cd.getComposingConstraints(), msg)); // process the composing
-                                                                                                // constraints
         }
-        return descriptors;
+        return descriptors.build();
     }
 
     private Class<? extends Annotation> findAnnotationClass(Annotation a) {
@@ -194,6 +251,22 @@ public class BeanValidatorServiceImpl implements BeanValidatorService {
         return validationMessages;
     }
 
+    /**
+     * Locale-independent part of a validator descriptor: the constraint and its non-default parameters
+     */
+    private static final class ConstraintEntry {
+        private final ConstraintDescriptor<?> descriptor;
+        private final Class<? extends Annotation> validatorClass;
+        private final Map<String, Object> parameters;
+
+        ConstraintEntry(ConstraintDescriptor<?> descriptor, Class<? extends Annotation> validatorClass,
+            Map<String, Object> parameters) {
+            this.descriptor = descriptor;
+            this.validatorClass = validatorClass;
+            this.parameters = parameters;
+        }
+    }
+
     /**
      * Class for identify validator instance by locale
      *
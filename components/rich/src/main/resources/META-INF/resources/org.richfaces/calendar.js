@@ -516,7 +516,7 @@
         this.options = $.extend(this.options, defaultOptions, locales[locale], options, markups);
 
         // labels
-        this.options.labels = $.extend({}, defaultLabels, options.labels);
+        this.options.labels = $.extend({}, defaultLabels, locales[locale] && locales[locale].labels, options.labels);
 
         this.popupOffset = [this.options.horizontalOffset, this.options.verticalOffset];
 
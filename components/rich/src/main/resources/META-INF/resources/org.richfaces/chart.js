@@ -169,7 +169,15 @@
 	       * @property data
 	       * @default []
 	       */
-	      data:[]
+	      data:[],
+
+	      /**
+	       * Maximal number of points kept for each series when points are appended by incremental updates,
+	       * the oldest points are dropped first. Zero keeps all points.
+	       * @property windowSize
+	       * @default 0
+	       */
+	      windowSize: 0
 
 	    };
 	    
@@ -341,8 +349,97 @@
                this.plot.unhighlight(seriesIndex,pointIndex);
             },
 
+            /**
+             * Appends points to the series and redraws the chart. If the windowSize option is set, the oldest points
+             * exceeding the window are dropped. Not supported for pie charts.
+             *
+             * @method
+             * @name RichFaces.ui.Chart#appendPoints
+             * @param seriesIndex {int} index of the series
+             * @param points {Array} new points in the [[x, y], ...] format
+             */
+            appendPoints: function(seriesIndex, points) {
+                this.applyUpdate([{series: seriesIndex, replace: false, data: points}]);
+            },
+
+            /**
+             * Replaces all points of the series and redraws the chart. Not supported for pie charts.
+             *
+             * @method
+             * @name RichFaces.ui.Chart#replacePoints
+             * @param seriesIndex {int} index of the series
+             * @param points {Array} points in the [[x, y], ...] format
+             */
+            replacePoints: function(seriesIndex, points) {
+                this.applyUpdate([{series: seriesIndex, replace: true, data: points}]);
+            },
+
+            /**
+             * Applies a set of series updates as sent by the data meta-component of the chart or published to a push
+             * topic, e.g. ondataavailable="#{rich:component('chart')}.applyUpdate(event.rf.data)". The chart is redrawn
+             * once for all updates.
+             *
+             * @method
+             * @name RichFaces.ui.Chart#applyUpdate
+             * @param update {Array} series updates in the [{series: index, replace: boolean, data: [[x, y], ...]}, ...] format
+             */
+            applyUpdate: function(update) {
+                if (!update || this.options.charttype === 'pie') {
+                    return;
+                }
+                var ticksChanged = false;
+                for (var i = 0; i < update.length; i++) {
+                    var series = this.options.data[update[i].series];
+                    if (!series) {
+                        continue;
+                    }
+                    var points = update[i].data;
+                    if (this.options.xtype === 'string') {
+                        ticksChanged = this.__mapStringTicks(points) || ticksChanged;
+                    }
+                    series.data = update[i].replace ? points : series.data.concat(points);
+                    var overflow = series.data.length - this.options.windowSize;
+                    if (this.options.windowSize > 0 && overflow > 0) {
+                        series.data.splice(0, overflow);
+                    }
+                }
+                if (ticksChanged) {
+                    this.plot = $.plot(this.chartElement, this.options.data, this.options);
+                } else {
+                    this.plot.setData(this.options.data);
+                    this.plot.setupGrid();
+                    this.plot.draw();
+                }
+            },
+
             /***************************** Private Methods ********************************************************/
+            //replaces string x values of the points by tick numbers, returns true if new ticks were added
+            __mapStringTicks: function(points) {
+                var ticks = this.options.xaxis.ticks,
+                    added = false;
+                if (!this._tickNumbers) {
+                    this._tickNumbers = {};
+                    for (var i = 0; i < ticks.length; i++) {
+                        this._tickNumbers[ticks[i][1]] = ticks[i][0];
+                    }
+                }
+                for (var j = 0; j < points.length; j++) {
+                    var tickNumber = this._tickNumbers[points[j][0]];
+                    if (tickNumber == undefined) {
+                        tickNumber = ticks.length;
+                        ticks.push([tickNumber, points[j][0]]);
+                        this._tickNumbers[points[j][0]] = tickNumber;
+                        added = true;
+                    }
+                    points[j][0] = tickNumber;
+                }
+                return added;
+            },
+
             __bindEventHandlers:function(element,options){
+                this.element.on('rich:onchartupdate', $.proxy(function(event, update) {
+                    this.applyUpdate(update);
+                }, this));
             	
                 element.on('plotclick', this._getPlotClickHandler(options, element.get(0), _plotClickServerSide));
                 element.on('plothover', this._getPlotHoverHandler(options, element.get(0)));
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.component;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AutocompleteResultsCacheTest {
+    private static final String CLIENT_ID = "form:autocomplete";
+    private AutocompleteResultsCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new AutocompleteResultsCache();
+    }
+
+    @Test
+    public void testRefineLongerPrefix() {
+        cache.putItems(CLIENT_ID, "Al", Arrays.<Object>asList("Alabama", "Alaska", "Albania"), true);
+
+        Assert.assertEquals(Arrays.<Object>asList("Alabama", "Alaska"), cache.getItems(CLIENT_ID, "ala"));
+        Assert.assertEquals(Arrays.<Object>asList("Albania"), cache.getItems(CLIENT_ID, "ALB"));
+        Assert.assertEquals(Arrays.<Object>asList("Alabama", "Alaska", "Albania"), cache.getItems(CLIENT_ID, "al"));
+    }
+
+    @Test
+    public void testShorterOrDifferentPrefixIsNotCached() {
+        cache.putItems(CLIENT_ID, "al", Arrays.<Object>asList("Alabama", "Alaska"), true);
+
+        Assert.assertNull(cache.getItems(CLIENT_ID, "a"));
+        Assert.assertNull(cache.getItems(CLIENT_ID, "b"));
+        Assert.assertNull(cache.getItems("form:other", "ala"));
+    }
+
+    @Test
+    public void testIncompleteResultIsNotCached() {
+        cache.putItems(CLIENT_ID, "al", Arrays.<Object>asList("Alabama", "Alaska"), false);
+
+        Assert.assertNull(cache.getItems(CLIENT_ID, "ala"));
+    }
+
+    @Test
+    public void testNonPrefixResultIsNotCached() {
+        cache.putItems(CLIENT_ID, "al", Arrays.<Object>asList("Alabama", "Italy"), true);
+
+        Assert.assertNull(cache.getItems(CLIENT_ID, "ala"));
+    }
+
+    @Test
+    public void testNewResultReplacesPrevious() {
+        cache.putItems(CLIENT_ID, "al", Arrays.<Object>asList("Alabama", "Alaska"), true);
+        cache.putItems(CLIENT_ID, "b", Arrays.<Object>asList("Belgium", "Brazil"), true);
+
+        Assert.assertNull(cache.getItems(CLIENT_ID, "ala"));
+        List<Object> items = cache.getItems(CLIENT_ID, "br");
+        Assert.assertEquals(Arrays.<Object>asList("Brazil"), items);
+
+        cache.clear(CLIENT_ID);
+        Assert.assertNull(cache.getItems(CLIENT_ID, "br"));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.component;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIOutput;
+
+import org.junit.Test;
+
+public class ExtendedDataTableStateTest {
+
+    private static final String TABLE_STATE = "{\"columnsWidthState\":{\"name\":\"120px\",\"price\":\"80px\",\"date\":null},"
+        + "\"columnsOrderState\":[\"price\",\"name\",\"date\"],\"columnsFilterState\":{\"name\":\"foo\",\"price\":null},"
+        + "\"columnsSortState\":{\"price\":\"descending\"}}";
+
+    private static UIComponent column(String id) {
+        UIOutput column = new UIOutput();
+        column.setId(id);
+        return column;
+    }
+
+    private static byte[] serialize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static ExtendedDataTableState deserialize(byte[] bytes) throws Exception {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        return (ExtendedDataTableState) in.readObject();
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        ExtendedDataTableState state = deserialize(serialize(new ExtendedDataTableState(TABLE_STATE)));
+
+        assertEquals("120px", state.getColumnWidth(column("name")));
+        assertEquals("80px", state.getColumnWidth(column("price")));
+        assertNull(state.getColumnWidth(column("date")));
+        assertEquals("foo", state.getColumnFilter(column("name")));
+        assertNull(state.getColumnFilter(column("price")));
+        assertEquals("descending", state.getColumnSort(column("price")));
+        assertNull(state.getColumnSort(column("name")));
+        assertArrayEquals(new String[] { "price", "name", "date" }, state.getColumnsOrder());
+        assertEquals(new ExtendedDataTableState(TABLE_STATE).toString(), state.toString());
+    }
+
+    @Test
+    public void testSerializationOfEmptyState() throws Exception {
+        ExtendedDataTableState state = deserialize(serialize(new ExtendedDataTableState("{\"columnsWidthState\":{\"name\":\"1px\"}}")));
+
+        assertEquals("1px", state.getColumnWidth(column("name")));
+        assertNull(state.getColumnsOrder());
+        assertNull(state.getColumnFilter(column("name")));
+        assertEquals("{\"columnsWidthState\":{\"name\":\"1px\"}}", state.toString());
+    }
+
+    @Test
+    public void testSerializationOfLongFilterValue() throws Exception {
+        StringBuilder filter = new StringBuilder();
+        while (filter.length() < 70000) {
+            filter.append("\u00e4bc");
+        }
+        ExtendedDataTableState state = deserialize(serialize(new ExtendedDataTableState("{\"columnsFilterState\":{\"name\":\""
+            + filter + "\"}}")));
+
+        assertEquals(filter.toString(), state.getColumnFilter(column("name")));
+    }
+}
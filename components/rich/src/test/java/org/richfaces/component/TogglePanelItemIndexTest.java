@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import javax.faces.event.PhaseId;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TogglePanelItemIndexTest {
+    private TogglePanelItemIndex index;
+    private AbstractTogglePanelItemInterface first;
+    private AbstractTogglePanelItemInterface dynamic;
+
+    @Before
+    public void setUp() {
+        first = mock(AbstractTogglePanelItemInterface.class);
+        dynamic = mock(AbstractTogglePanelItemInterface.class);
+
+        index = new TogglePanelItemIndex(PhaseId.RENDER_RESPONSE, 2);
+        index.add("first", "form:first", first, false, true);
+        index.add("second", "form:repeat:0:second", dynamic, true, false);
+        index.add("first", "form:duplicate", first, false, false);
+    }
+
+    @Test
+    public void testLookupByName() {
+        assertEquals(0, index.indexOf("first"));
+        assertEquals(1, index.indexOf("second"));
+        assertEquals(-1, index.indexOf("unknown"));
+        assertEquals(-1, index.indexOf(null));
+        assertEquals("form:first", index.get("first").getClientId());
+        assertNull(index.get("unknown"));
+    }
+
+    @Test
+    public void testLookupByPosition() {
+        assertEquals(3, index.size());
+        assertSame(first, index.get(0).getItem());
+        assertEquals("second", index.get(1).getName());
+        assertNull(index.get(-1));
+        assertNull(index.get(3));
+    }
+
+    @Test
+    public void testDynamicItemIsNotRetained() {
+        TogglePanelItemIndex.Entry entry = index.get(1);
+        assertTrue(entry.isDynamic());
+        assertNull(entry.getItem());
+    }
+
+    @Test
+    public void testFirstEnabled() {
+        assertEquals("second", index.getFirstEnabled().getName());
+    }
+
+    @Test
+    public void testValidity() {
+        assertTrue(index.isValid(PhaseId.RENDER_RESPONSE, 2));
+        assertFalse(index.isValid(PhaseId.INVOKE_APPLICATION, 2));
+        assertFalse(index.isValid(PhaseId.RENDER_RESPONSE, 3));
+    }
+}
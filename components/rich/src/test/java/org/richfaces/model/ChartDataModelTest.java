@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.model;
+
+import java.util.Date;
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.richfaces.model.ChartDataModel.ChartType;
+
+public class ChartDataModelTest {
+
+    @Test
+    public void testExportKeepsInsertionOrder() {
+        NumberChartDataModel model = new NumberChartDataModel(ChartType.line);
+        model.setAttributes(new HashMap<String, Object>());
+        model.put(3, 30);
+        model.put(1, 10.5);
+        model.put(2, 20);
+
+        Assert.assertEquals("[[3,30],[1,10.5],[2,20]]", model.exportData().toJSONString());
+    }
+
+    @Test
+    public void testDateKeysExportedAsTime() {
+        DateChartDataModel model = new DateChartDataModel(ChartType.line);
+        model.setAttributes(new HashMap<String, Object>());
+        model.put(new Date(1000L), 1);
+
+        Assert.assertEquals("[[1000,1]]", model.exportData().toJSONString());
+    }
+
+    @Test
+    public void testDownsampling() {
+        NumberChartDataModel model = new NumberChartDataModel(ChartType.line);
+        model.setAttributes(new HashMap<String, Object>());
+        for (int i = 0; i < 1000; i++) {
+            model.put(i, i == 500 ? 1000 : 0);
+        }
+        model.setMaxPoints(10);
+
+        ChartSeriesData data = model.exportData();
+        Assert.assertEquals(10, data.size());
+        Assert.assertEquals(0, data.getX(0));
+        Assert.assertEquals(999, data.getX(9));
+
+        boolean peakKept = false;
+        for (int i = 0; i < data.size(); i++) {
+            if (Integer.valueOf(1000).equals(data.getY(i))) {
+                peakKept = true;
+            }
+        }
+        Assert.assertTrue("Peak should survive downsampling", peakKept);
+    }
+
+    @Test
+    public void testDownsamplingFromSeriesAttribute() {
+        NumberChartDataModel model = new NumberChartDataModel(ChartType.line);
+        HashMap<String, Object> attributes = new HashMap<String, Object>();
+        attributes.put("maxPoints", 5);
+        model.setAttributes(attributes);
+        for (int i = 0; i < 100; i++) {
+            model.put(i, i);
+        }
+
+        Assert.assertEquals(5, model.exportData().size());
+    }
+
+    @Test
+    public void testCategoriesAreNotDownsampled() {
+        StringChartDataModel model = new StringChartDataModel(ChartType.bar);
+        model.setAttributes(new HashMap<String, Object>());
+        model.put("a", 1);
+        model.put("b", 2);
+        model.put("c", 3);
+        model.setMaxPoints(2);
+
+        Assert.assertEquals("[[\"a\",1],[\"b\",2],[\"c\",3]]", model.exportData().toJSONString());
+    }
+}
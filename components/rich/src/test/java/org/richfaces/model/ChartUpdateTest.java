@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.model;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.richfaces.model.ChartDataModel.ChartType;
+
+public class ChartUpdateTest {
+
+    private NumberChartDataModel createModel(Number... values) {
+        NumberChartDataModel model = new NumberChartDataModel(ChartType.line);
+        model.setAttributes(new HashMap<String, Object>());
+        for (int i = 0; i < values.length; i += 2) {
+            model.put(values[i], values[i + 1]);
+        }
+        return model;
+    }
+
+    @Test
+    public void testEmpty() {
+        ChartUpdate update = new ChartUpdate();
+        Assert.assertTrue(update.isEmpty());
+        Assert.assertEquals("[]", update.toScript());
+    }
+
+    @Test
+    public void testAppendAndReplace() {
+        ChartUpdate update = new ChartUpdate().append(0, createModel(5, 50, 6, 60)).replace(1, createModel(1, 2));
+
+        Assert.assertFalse(update.isEmpty());
+        Assert.assertEquals("[{\"series\":0,\"replace\":false,\"data\":[[5,50],[6,60]]},"
+            + "{\"series\":1,\"replace\":true,\"data\":[[1,2]]}]", update.toScript());
+    }
+
+    @Test
+    public void testStreamedToWriter() throws Exception {
+        ChartUpdate update = new ChartUpdate().append(2, createModel(1.5, 3));
+        StringWriter writer = new StringWriter();
+        update.appendScript(writer);
+
+        Assert.assertEquals(update.toScript(), writer.toString());
+    }
+
+    @Test
+    public void testMerge() {
+        ChartUpdate update = new ChartUpdate().append(0, createModel(1, 1));
+        update.merge(new ChartUpdate().append(1, createModel(2, 2)));
+
+        Assert.assertEquals("[{\"series\":0,\"replace\":false,\"data\":[[1,1]]},"
+            + "{\"series\":1,\"replace\":false,\"data\":[[2,2]]}]", update.toScript());
+    }
+}
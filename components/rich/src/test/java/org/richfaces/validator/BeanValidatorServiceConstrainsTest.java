@@ -2,6 +2,7 @@ package org.richfaces.validator;
 
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.annotation.Annotation;
@@ -79,6 +80,19 @@ public class BeanValidatorServiceConstrainsTest {
         assertEquals("size must be between 0 and 2", validatorDescriptor.getMessage().getSummary());
     }
 
+    @Test
+    public void testDescriptorsAreCached() throws Exception {
+        expect(analayser.getPropertyDescriptor(environment.getFacesContext(), expression)).andReturn(
+            new ValueDescriptor(Bean.class, "string")).times(2);
+        controller.replay();
+        Collection<ValidatorDescriptor> first = validatorService.getConstrains(environment.getFacesContext(), expression,
+            null);
+        Collection<ValidatorDescriptor> second = validatorService.getConstrains(environment.getFacesContext(), expression,
+            null);
+        controller.verify();
+        assertSame(Iterables.getOnlyElement(first), Iterables.getOnlyElement(second));
+    }
+
     private void forProperty(Class<?> beanClass, String property) {
         expect(analayser.getPropertyDescriptor(environment.getFacesContext(), expression)).andReturn(
             new ValueDescriptor(beanClass, property));
@@ -134,6 +134,48 @@ public class CharBuffer {
         return next.append(cs, off, len);
     }
 
+    /**
+     * Appends segment of a char sequence to array if there are unfilled positions in it. Otherwise creates next link in the
+     * chain, and appends data to it. Characters are copied directly, no intermediate array or string is created.
+     *
+     * @param cs
+     * @param off
+     * @param len
+     * @return instance of CharBuffer to which char sequence was appended.
+     * @since 4.5
+     */
+    public CharBuffer append(CharSequence cs, int off, int len) {
+        if (next != null) {
+            return next.append(cs, off, len);
+        }
+
+        int av = Math.min(cacheSize - usedSize, len);
+
+        copyChars(cs, off, av);
+        usedSize += av;
+
+        if (av == len) {
+            return this;
+        }
+
+        next = new CharBuffer(cacheSize * 2);
+        next.prev = this;
+
+        return next.append(cs, off + av, len - av);
+    }
+
+    private void copyChars(CharSequence cs, int off, int len) {
+        if (cs instanceof String) {
+            ((String) cs).getChars(off, off + len, chars, usedSize);
+        } else if (cs instanceof StringBuilder) {
+            ((StringBuilder) cs).getChars(off, off + len, chars, usedSize);
+        } else {
+            for (int i = 0; i < len; i++) {
+                chars[usedSize + i] = cs.charAt(off + i);
+            }
+        }
+    }
+
     /**
      * Returns stored char array.
      *
@@ -110,6 +110,55 @@ public class FastBufferWriter extends Writer {
         length += len;
     }
 
+    /**
+     * Copies characters of the string directly into the chain of char arrays.
+     *
+     * @see java.io.Writer#write(String, int, int)
+     */
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        appendChars(str, off, len);
+    }
+
+    /**
+     * Copies characters of the sequence directly into the chain of char arrays, without converting it to string first.
+     *
+     * @see java.io.Writer#append(CharSequence)
+     */
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            return super.append(csq);
+        }
+
+        appendChars(csq, 0, csq.length());
+        return this;
+    }
+
+    /**
+     * @see java.io.Writer#append(CharSequence, int, int)
+     */
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            return super.append(csq, start, end);
+        }
+
+        if ((start < 0) || (start > end) || (end > csq.length())) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        appendChars(csq, start, end - start);
+        return this;
+    }
+
+    private void appendChars(CharSequence csq, int off, int len) {
+        if (len > 0) {
+            lastBuffer = lastBuffer.append(csq, off, len);
+            length += len;
+        }
+    }
+
     /**
      * Returns the total number of written chars.
      *
@@ -52,6 +52,12 @@ public final class CoreConfiguration {
         skin,
         @ConfigurationItem(names = BASE_SKIN_PARAM_NAME)
         baseSkin,
+        /**
+         * Whether skins are flattened together with their base skins into immutable snapshots when they are loaded, so that
+         * only EL-expression and reference parameters are resolved per lookup
+         */
+        @ConfigurationItem(defaultValue = "false", names = "org.richfaces.skin.snapshot", literal = true)
+        skinSnapshot,
         @ConfigurationItem(defaultValue = "86400" /* 24 * 60 * 60 */, names = "org.richfaces.resourceDefaultTTL", literal = true)
         resourcesTTL,
         @ConfigurationItem(defaultValue = "512", names = RESOURCES_CACHE_SIZE_PARAM_NAME, literal = true)
@@ -70,6 +76,29 @@ public final class CoreConfiguration {
         resourceOptimizationCompressionStages,
         @ConfigurationItem(defaultValue = "All", names = { "org.richfaces.resourceOptimization.packagingStages", "org.richfaces.resourceMapping.packedStages" }, literal = true)
         resourceOptimizationPackagingStages,
+        /**
+         * Whether the scripts and stylesheets a view depends on are announced by a Link: rel=preload response header sent
+         * before the view is rendered
+         */
+        @ConfigurationItem(defaultValue = "false", names = "org.richfaces.resourceOptimization.preloadHints", literal = true)
+        resourcePreloadHints,
+        /**
+         * Whether partial responses are gzip-compressed for clients accepting that content encoding
+         */
+        @ConfigurationItem(defaultValue = "false", names = "org.richfaces.partialResponse.compression", literal = true)
+        partialResponseCompression,
+        /**
+         * Whether the time spent in the phases of ajax requests is sent to the client in the X-RF-Timing response header;
+         * the header is set before the partial response is rendered and so covers id resolution and execute only
+         */
+        @ConfigurationItem(defaultValue = "false", names = "org.richfaces.ajax.timing.header", literal = true)
+        ajaxTimingHeader,
+        /**
+         * Whether the time spent in the phases of ajax requests is sent to the client as a partial response extension
+         * logged by a4j:log
+         */
+        @ConfigurationItem(defaultValue = "false", names = "org.richfaces.ajax.timing.log", literal = true)
+        ajaxTimingLog,
         @ConfigurationItem(defaultValue = "true", names = "org.richfaces.executeAWTInitializer", literal = true)
         executeAWTInitializer,
         @ConfigurationItem(names = "org.richfaces.push.handlerMapping", literal = true)
@@ -88,6 +117,28 @@ public final class CoreConfiguration {
         pushJMSConnectionPassword,
         @ConfigurationItem(defaultValue = "", names = "org.richfaces.push.jms.connectionPassword", source = ConfigurationItemSource.webEnvironmentEntry)
         pushJMSConnectionPasswordEnvRef,
+        /**
+         * Whether JMS topics share one connection and a bounded pool of consumer threads instead of opening a connection and
+         * a thread for each topic
+         */
+        @ConfigurationItem(defaultValue = "false", names = "org.richfaces.push.jms.sharedConnection")
+        pushJMSSharedConnection,
+        /**
+         * Number of consumer threads, each owning one JMS session, used when the JMS connection is shared
+         */
+        @ConfigurationItem(defaultValue = "2", names = "org.richfaces.push.jms.consumerPoolSize")
+        pushJMSConsumerPoolSize,
+        /**
+         * Maximal number of messages drained from a JMS consumer and published to a push topic at once
+         */
+        @ConfigurationItem(defaultValue = "100", names = "org.richfaces.push.jms.batchSize")
+        pushJMSBatchSize,
+        /**
+         * Provider specific wildcard topic (e.g. push.&gt; for ActiveMQ) subscribed once for all push topics when the JMS
+         * connection is shared
+         */
+        @ConfigurationItem(defaultValue = "", names = "org.richfaces.push.jms.wildcardTopic")
+        pushJMSWildcardTopic,
         @ConfigurationItem(defaultValue = "false", names="org.richfaces.push.initializeOnStartup")
         pushInitializePushContextOnStartup,
         /**
@@ -96,6 +147,49 @@ public final class CoreConfiguration {
         @Experimental
         @ConfigurationItem(defaultValue = "300000", names="org.richfaces.push.session.maxInactiveInterval")
         pushSessionMaxInactiveInterval,
+        /**
+         * The number of recently published messages kept per topic and replayed to clients reconnecting with a new push
+         * session; 0 disables replaying
+         */
+        @ConfigurationItem(defaultValue = "0", names = "org.richfaces.push.replayBufferSize")
+        pushReplayBufferSize,
+        /**
+         * Whether metrics of the push subsystem are collected and exposed as MBeans of the platform MBean server
+         */
+        @ConfigurationItem(defaultValue = "false", names = "org.richfaces.push.jmx.enabled")
+        pushJMXEnabled,
+        /**
+         * The host:port address the built-in push message bus of this node listens on; the bus fans out push messages to the
+         * other nodes of a cluster and is disabled when no address is set. The bus carries push messages unencrypted and
+         * accepts connections from any host able to answer the challenge with the shared secret, so the port should only be
+         * reachable from the cluster network.
+         */
+        @ConfigurationItem(defaultValue = "", names = "org.richfaces.push.bus.address")
+        pushBusAddress,
+        /**
+         * The host name or IP address of the network interface the push message bus listens on, the host of the bus address
+         * by default; binding to the wildcard address 0.0.0.0 exposes the bus on all interfaces of the node
+         */
+        @ConfigurationItem(defaultValue = "", names = "org.richfaces.push.bus.bindAddress")
+        pushBusBindAddress,
+        /**
+         * Comma separated host:port addresses of the other nodes connected by the built-in push message bus; every connection
+         * is authenticated with the shared secret, listing a node does not make it trusted
+         */
+        @ConfigurationItem(defaultValue = "", names = "org.richfaces.push.bus.peers")
+        pushBusPeers,
+        /**
+         * Secret shared by all nodes of the push message bus, required when the bus is enabled. Nodes prove the knowledge of
+         * the secret by an HMAC-SHA256 of a random challenge when connecting; anyone knowing it can publish messages to all
+         * push topics of the cluster, so it should be kept out of version control and changed on all nodes at once
+         */
+        @ConfigurationItem(defaultValue = "", names = "org.richfaces.push.bus.secret")
+        pushBusSecret,
+        /**
+         * Maximal number of messages and interest announcements written to a node of the push message bus at once
+         */
+        @ConfigurationItem(defaultValue = "100", names = "org.richfaces.push.bus.batchSize")
+        pushBusBatchSize,
         /**
          * Whether or not to display the built in sort controls when the sorting attributes are present on a column
          */
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * <p>
+ * Message bus delivering messages published on one node of a cluster to the other nodes, so that push topics can be
+ * fanned-out cluster-wide without JMS.
+ * </p>
+ *
+ * <p>
+ * Messages travel through the bus already serialized. The bus is told which topics the local node has subscribers for via
+ * {@link #addInterest(String)} and {@link #removeInterest(String)}, so that implementations can avoid sending messages to
+ * nodes not interested in them.
+ * </p>
+ *
+ * <p>
+ * Custom implementations are loaded in conformance with {@link java.util.ServiceLoader}
+ * (/META-INF/services/org.richfaces.application.push.MessageBus).
+ * </p>
+ */
+public interface MessageBus {
+
+    /**
+     * Receives messages delivered by the bus from other nodes
+     */
+    interface Receiver {
+        /**
+         * Called with a batch of serialized messages published to the given topic key on another node, in publishing order.
+         */
+        void receive(TopicKey key, List<String> serializedMessages);
+    }
+
+    /**
+     * Connects this node to the bus; received messages are passed to the given receiver.
+     */
+    void start(Receiver receiver) throws IOException;
+
+    /**
+     * Sends serialized message published on this node to the nodes interested in its topic.
+     */
+    void publish(TopicKey key, String serializedMessage);
+
+    /**
+     * Announces that this node has subscribers for the topic with given name.
+     */
+    void addInterest(String topicName);
+
+    /**
+     * Announces that this node has no more subscribers for the topic with given name.
+     */
+    void removeInterest(String topicName);
+
+    /**
+     * Returns true if any other node announced it has subscribers for the topic with given name.
+     */
+    boolean isInterested(String topicName);
+
+    /**
+     * Disconnects this node from the bus and releases all resources.
+     */
+    void stop();
+}
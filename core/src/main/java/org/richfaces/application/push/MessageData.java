@@ -29,12 +29,19 @@ public final class MessageData {
     private final TopicKey topicKey;
     private final String serializedMessage;
     private final long sequenceNumber;
+    private final long replaySequenceNumber;
+    private final long creationTime = System.nanoTime();
 
     public MessageData(TopicKey topicKey, String serializedMessageData, long sequenceNumber) {
+        this(topicKey, serializedMessageData, sequenceNumber, -1);
+    }
+
+    public MessageData(TopicKey topicKey, String serializedMessageData, long sequenceNumber, long replaySequenceNumber) {
         super();
         this.topicKey = topicKey;
         this.serializedMessage = serializedMessageData;
         this.sequenceNumber = sequenceNumber;
+        this.replaySequenceNumber = replaySequenceNumber;
     }
 
     /**
@@ -57,4 +64,19 @@ public final class MessageData {
     public long getSequenceNumber() {
         return sequenceNumber;
     }
+
+    /**
+     * A sequence number assigned by {@link MessageReplayLog} that client can use to ask for missed messages when
+     * reconnecting, or -1 when the message was not recorded.
+     */
+    public long getReplaySequenceNumber() {
+        return replaySequenceNumber;
+    }
+
+    /**
+     * Returns the value of {@link System#nanoTime()} when this message was created
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
 }
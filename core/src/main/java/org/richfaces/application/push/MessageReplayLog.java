@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * <p>
+ * Bounded log of recently published messages kept per {@link TopicKey}.
+ * </p>
+ *
+ * <p>
+ * Every recorded message gets a sequence number that is unique across all topics and grows in the order the messages of
+ * one topic are published. A client reconnecting with a new push session passes the epoch and the last sequence number it
+ * has seen and gets the messages it missed instead of reloading the whole page. The epoch identifies the log instance, so
+ * that sequence numbers seen before the application was restarted are not mistaken for the current ones.
+ * </p>
+ *
+ * <p>
+ * At most <code>maxTopicKeys</code> topic keys are recorded; the log of the least recently used key is dropped when the
+ * limit is exceeded, and clients which might have missed its messages can't be brought up to date by replaying.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public final class MessageReplayLog {
+    /**
+     * The default maximum number of recorded topic keys
+     */
+    public static final int DEFAULT_MAX_TOPIC_KEYS = 1000;
+
+    private final int capacity;
+    private final String epoch = UUID.randomUUID().toString();
+    private final AtomicLong sequenceCounter = new AtomicLong();
+    private final AtomicLong lastDroppedSequenceNumber = new AtomicLong(-1);
+    private final LoadingCache<TopicKey, TopicBuffer> buffers;
+
+    /**
+     * @param capacity the maximum number of messages recorded for one topic key
+     */
+    public MessageReplayLog(int capacity) {
+        this(capacity, DEFAULT_MAX_TOPIC_KEYS);
+    }
+
+    /**
+     * @param capacity the maximum number of messages recorded for one topic key
+     * @param maxTopicKeys the maximum number of recorded topic keys
+     */
+    public MessageReplayLog(int capacity, int maxTopicKeys) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (maxTopicKeys <= 0) {
+            throw new IllegalArgumentException("Maximum number of topic keys must be positive: " + maxTopicKeys);
+        }
+
+        this.capacity = capacity;
+        this.buffers = CacheBuilder.newBuilder().maximumSize(maxTopicKeys)
+            .removalListener(new RemovalListener<TopicKey, TopicBuffer>() {
+                public void onRemoval(RemovalNotification<TopicKey, TopicBuffer> notification) {
+                    notification.getValue().drop();
+                }
+            }).build(new CacheLoader<TopicKey, TopicBuffer>() {
+                @Override
+                public TopicBuffer load(TopicKey key) {
+                    return new TopicBuffer();
+                }
+            });
+    }
+
+    /**
+     * Returns the maximum number of messages recorded for one topic key
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the identifier of this log, sequence numbers are comparable only within the same epoch
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Records message published to given topic key, evicting the oldest message of that key when its log is full.
+     *
+     * @return recorded message holding the assigned sequence number
+     */
+    public MessageData append(TopicKey key, String serializedMessage) {
+        while (true) {
+            MessageData message = getBuffer(key).append(key, serializedMessage);
+            if (message != null) {
+                return message;
+            }
+            // the buffer was dropped concurrently, record the message to a new one
+        }
+    }
+
+    /**
+     * Returns messages recorded for given topic key with sequence number greater than given one, in order of publishing.
+     *
+     * @return recorded messages or null when some of the messages newer than given sequence number were already evicted
+     */
+    public List<MessageData> getMessagesSince(TopicKey key, long lastSeenSequenceNumber) {
+        TopicBuffer buffer = buffers.getIfPresent(key);
+        if (buffer == null) {
+            return lastSeenSequenceNumber < lastDroppedSequenceNumber.get() ? null : Collections.<MessageData>emptyList();
+        }
+
+        return buffer.getMessagesSince(lastSeenSequenceNumber);
+    }
+
+    private TopicBuffer getBuffer(TopicKey key) {
+        try {
+            return buffers.get(key);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void updateLastDroppedSequenceNumber(long sequenceNumber) {
+        long current;
+        do {
+            current = lastDroppedSequenceNumber.get();
+        } while (current < sequenceNumber && !lastDroppedSequenceNumber.compareAndSet(current, sequenceNumber));
+    }
+
+    /**
+     * Ring buffer of messages recorded for a single topic key
+     */
+    private final class TopicBuffer {
+        private final MessageData[] messages = new MessageData[capacity];
+        private int head;
+        private int size;
+        // messages of a key recorded before its buffer was created might have been dropped together with an older buffer
+        private long lastEvictedSequenceNumber = lastDroppedSequenceNumber.get();
+        private boolean dropped;
+
+        /**
+         * @return recorded message or null when this buffer was dropped from the log
+         */
+        synchronized MessageData append(TopicKey key, String serializedMessage) {
+            if (dropped) {
+                return null;
+            }
+
+            // the number is taken under the lock, so the messages of one key are recorded in the order of their numbers
+            MessageData message = new MessageData(key, serializedMessage, sequenceCounter.getAndIncrement());
+
+            if (size == capacity) {
+                lastEvictedSequenceNumber = messages[head].getSequenceNumber();
+            } else {
+                size++;
+            }
+
+            messages[head] = message;
+            head = (head + 1) % capacity;
+
+            return message;
+        }
+
+        synchronized void drop() {
+            dropped = true;
+            if (size > 0) {
+                updateLastDroppedSequenceNumber(messages[(head - 1 + capacity) % capacity].getSequenceNumber());
+            }
+        }
+
+        synchronized List<MessageData> getMessagesSince(long lastSeenSequenceNumber) {
+            if (lastSeenSequenceNumber < lastEvictedSequenceNumber) {
+                return null;
+            }
+
+            List<MessageData> result = new ArrayList<MessageData>();
+            int tail = (head - size + capacity) % capacity;
+            for (int i = 0; i < size; i++) {
+                MessageData message = messages[(tail + i) % capacity];
+                if (message.getSequenceNumber() > lastSeenSequenceNumber) {
+                    result.add(message);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push;
+
+/**
+ * <p>
+ * Listener notified about activity of the push subsystem, used to collect metrics.
+ * </p>
+ *
+ * <p>
+ * Methods are called on the publishing and request threads, so implementations have to be thread-safe and must not block.
+ * Implementations are loaded in conformance with {@link java.util.ServiceLoader}
+ * (/META-INF/services/org.richfaces.application.push.PushMetricsListener).
+ * </p>
+ */
+public interface PushMetricsListener {
+
+    /**
+     * Called when a push session was registered
+     */
+    void sessionCreated(Session session);
+
+    /**
+     * Called when a push session was destroyed because it expired or was invalidated
+     */
+    void sessionExpired(Session session);
+
+    /**
+     * Called when a message was published to sessions subscribed to the topic with given key
+     */
+    void messagePublished(TopicKey key);
+
+    /**
+     * Called when a message was queued for delivery to the session
+     *
+     * @param queueLength number of messages queued for the session, including this message
+     */
+    void messageQueued(Session session, int queueLength);
+
+    /**
+     * Called when a message was written to the client of a session
+     *
+     * @param latencyNanos time elapsed since the message was queued for the session, in nanoseconds
+     */
+    void messageDelivered(TopicKey key, long latencyNanos);
+}
@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push;
+
+/**
+ * A Push session able to deliver messages recorded by {@link MessageReplayLog} that were published while the client was not
+ * connected
+ */
+public interface ReplayableSession extends Session {
+
+    /**
+     * Queues serialized data for client together with the sequence number assigned by {@link MessageReplayLog}
+     */
+    void push(TopicKey topicKey, String serializedData, long replaySequenceNumber);
+
+    /**
+     * Returns the epoch of the log recording the messages, or null when messages are not recorded
+     */
+    String getReplayEpoch();
+
+    /**
+     * Queues all recorded messages of subscribed topics with replay sequence number greater than the given one.
+     *
+     * @param epoch the epoch of the log the client has seen the sequence number in
+     * @return false when some of the messages the client missed are no longer recorded or the epoch doesn't match the current
+     *         one, so the client can't be brought up to date by replaying
+     */
+    boolean replayMessages(String epoch, long lastSeenSequenceNumber);
+}
@@ -53,6 +53,10 @@ public abstract class TopicsContext {
 
     private ConcurrentMap<String, Topic> topics = new ConcurrentHashMap<String, Topic>();
 
+    private volatile MessageReplayLog messageReplayLog;
+
+    private volatile PushMetricsListener metricsListener;
+
     /**
      * Creates topic for given topic key
      */
@@ -122,6 +126,49 @@ public abstract class TopicsContext {
         topic.publish(data, resolvedKey.getSubtopicName());
     }
 
+    /**
+     * <p>
+     * Returns true if any session may be subscribed to the topic with given key or to its subtopic, so that publishers can
+     * avoid creating messages nobody receives.
+     * </p>
+     *
+     * <p>
+     * The check is cheap and does not create the topic. This implementation only checks that the topic exists.
+     * </p>
+     */
+    public boolean hasSubscribers(TopicKey key) {
+        return getTopic(getTopicKeyWithResolvedExpressions(key)) != null;
+    }
+
+    /**
+     * Returns log of recently published messages used to replay them to reconnecting clients, or null when messages are not
+     * recorded.
+     */
+    public MessageReplayLog getMessageReplayLog() {
+        return messageReplayLog;
+    }
+
+    /**
+     * Sets log of recently published messages; null disables recording of messages.
+     */
+    public void setMessageReplayLog(MessageReplayLog messageReplayLog) {
+        this.messageReplayLog = messageReplayLog;
+    }
+
+    /**
+     * Returns listener notified about publishing and delivery of messages, or null when no metrics are collected.
+     */
+    public PushMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Sets listener notified about publishing and delivery of messages; null disables collecting of metrics.
+     */
+    public void setMetricsListener(PushMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
     /**
      * Look-ups per-application singleton of {@link TopicsContext} tracking all registered topics.
      */
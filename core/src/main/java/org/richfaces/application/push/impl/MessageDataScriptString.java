@@ -47,6 +47,11 @@ public class MessageDataScriptString extends ScriptStringBase {
 
         target.append("\" number=\"");
         target.append(Long.toString(message.getSequenceNumber()));
+
+        if (message.getReplaySequenceNumber() >= 0) {
+            target.append("\" seq=\"");
+            target.append(Long.toString(message.getReplaySequenceNumber()));
+        }
         target.append("\">");
 
         // append data as is - no escaping
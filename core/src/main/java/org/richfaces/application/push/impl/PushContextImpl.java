@@ -21,6 +21,8 @@
  */
 package org.richfaces.application.push.impl;
 
+import java.lang.management.ManagementFactory;
+import java.util.List;
 import java.util.concurrent.ThreadFactory;
 
 import javax.faces.FacesException;
@@ -29,17 +31,27 @@ import javax.faces.event.AbortProcessingException;
 import javax.faces.event.PreDestroyApplicationEvent;
 import javax.faces.event.SystemEvent;
 import javax.faces.event.SystemEventListener;
+import javax.management.JMException;
 
+import org.richfaces.application.ServiceLoader;
 import org.richfaces.application.configuration.ConfigurationServiceHelper;
+import org.richfaces.application.push.MessageBus;
+import org.richfaces.application.push.MessageReplayLog;
 import org.richfaces.application.push.PushContext;
+import org.richfaces.application.push.PushMetricsListener;
 import org.richfaces.application.push.SessionFactory;
 import org.richfaces.application.push.SessionManager;
 import org.richfaces.application.push.TopicsContext;
+import org.richfaces.application.push.impl.bus.BusTopicsContextImpl;
 import org.richfaces.application.push.impl.jms.JMSTopicsContextImpl;
+import org.richfaces.application.push.impl.metrics.CompositePushMetricsListener;
+import org.richfaces.application.push.impl.metrics.PushMetrics;
 import org.richfaces.application.CoreConfiguration;
 import org.richfaces.log.Logger;
 import org.richfaces.log.RichfacesLogger;
 
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
@@ -61,6 +73,7 @@ public class PushContextImpl implements PushContext, SystemEventListener {
     private TopicsContextImpl topicsContext;
     private SessionManager sessionManager;
     private SessionFactory sessionFactory;
+    private PushMetrics pushMetrics;
 
     public PushContextImpl(String pushHandlerUrl) {
         super();
@@ -82,10 +95,31 @@ public class PushContextImpl implements PushContext, SystemEventListener {
             if (isJmsEnabled) {
                 topicsContext = JMSTopicsContextImpl.getInstanceInitializedFromContext(PUBLISH_THREAD_FACTORY, facesContext);
             } else {
-                topicsContext = new TopicsContextImpl(PUBLISH_THREAD_FACTORY);
+                MessageBus messageBus = BusTopicsContextImpl.createMessageBus(PUBLISH_THREAD_FACTORY, facesContext);
+
+                if (messageBus != null) {
+                    BusTopicsContextImpl busTopicsContext = new BusTopicsContextImpl(PUBLISH_THREAD_FACTORY, messageBus);
+                    busTopicsContext.start();
+                    topicsContext = busTopicsContext;
+                } else {
+                    topicsContext = new TopicsContextImpl(PUBLISH_THREAD_FACTORY);
+                }
             }
 
-            sessionManager = new SessionManagerImpl(SESSION_MANAGER_THREAD_FACTORY);
+            int replayBufferSize = ConfigurationServiceHelper.getIntConfigurationValue(facesContext,
+                    CoreConfiguration.Items.pushReplayBufferSize);
+            if (replayBufferSize > 0) {
+                topicsContext.setMessageReplayLog(new MessageReplayLog(replayBufferSize));
+            }
+
+            SessionManagerImpl sessionManagerImpl = new SessionManagerImpl(SESSION_MANAGER_THREAD_FACTORY);
+            sessionManager = sessionManagerImpl;
+
+            PushMetricsListener metricsListener = createMetricsListener(facesContext, sessionManagerImpl);
+            if (metricsListener != null) {
+                topicsContext.setMetricsListener(metricsListener);
+                sessionManagerImpl.setMetricsListener(metricsListener);
+            }
 
             sessionFactory = new SessionFactoryImpl(sessionManager, topicsContext);
 
@@ -95,6 +129,27 @@ public class PushContextImpl implements PushContext, SystemEventListener {
         }
     }
 
+    /**
+     * Creates listener notifying the listeners registered as services and the JMX metrics when they are enabled, or returns
+     * null when there is no listener to notify.
+     */
+    private PushMetricsListener createMetricsListener(FacesContext facesContext, SessionManagerImpl sessionManager)
+            throws JMException {
+        List<PushMetricsListener> listeners = Lists.newArrayList(ServiceLoader.loadServices(PushMetricsListener.class));
+
+        if (ConfigurationServiceHelper.getBooleanConfigurationValue(facesContext, CoreConfiguration.Items.pushJMXEnabled)) {
+            String applicationName = facesContext.getExternalContext().getApplicationContextPath();
+            pushMetrics = new PushMetrics(sessionManager, Strings.isNullOrEmpty(applicationName) ? "/" : applicationName);
+            pushMetrics.register(ManagementFactory.getPlatformMBeanServer());
+            listeners.add(pushMetrics);
+        }
+
+        if (listeners.isEmpty()) {
+            return null;
+        }
+        return listeners.size() == 1 ? listeners.get(0) : new CompositePushMetricsListener(listeners);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -102,6 +157,11 @@ public class PushContextImpl implements PushContext, SystemEventListener {
      */
     @Override
     public void destroy() {
+        if (pushMetrics != null) {
+            pushMetrics.unregister();
+            pushMetrics = null;
+        }
+
         try {
             sessionManager.destroy();
             sessionManager = null;
@@ -27,6 +27,8 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.atmosphere.cpr.AtmosphereResourceEvent;
 import org.atmosphere.cpr.AtmosphereResourceEventListener;
+import org.atmosphere.cpr.Broadcaster;
+import org.atmosphere.cpr.BroadcasterFactory;
 import org.atmosphere.cpr.BroadcasterLifeCyclePolicy;
 import org.atmosphere.cpr.Meteor;
 import org.atmosphere.websocket.WebSocket;
@@ -54,11 +56,11 @@ public class RequestImpl implements Request, AtmosphereResourceEventListener {
 
     private static final Logger LOGGER = RichfacesLogger.APPLICATION.getLogger();
     private static final int SUSPEND_TIMEOUT = -1; // leave up forever
+    private static final String SESSION_BROADCASTER_ID_PREFIX = "/richfaces/push/session/";
 
     private Session session;
     private final Meteor meteor;
     private AtomicBoolean hasActiveBroadcaster = new AtomicBoolean(false);
-    private BroadcasterLifeCyclePolicy policy;
 
     public RequestImpl(Meteor meteor, Session session) {
         super();
@@ -68,11 +70,31 @@ public class RequestImpl implements Request, AtmosphereResourceEventListener {
 
         this.session = session;
 
-        // Set policy to EMPTY_DESTROY so that Broadcaster is removed from BroadcasterFactory and releases resources if
-        // there is no AtmosphereResource associated with it.
-        policy = new BroadcasterLifeCyclePolicy.Builder().policy(
-                BroadcasterLifeCyclePolicy.ATMOSPHERE_RESOURCE_POLICY.EMPTY_DESTROY).build();
-        this.meteor.getBroadcaster().setBroadcasterLifeCyclePolicy(policy);
+        meteor.setBroadcaster(getSessionBroadcaster(meteor, session));
+    }
+
+    /**
+     * <p>
+     * Returns the broadcaster (channel) of given push session, creating it for the first request of the session.
+     * </p>
+     *
+     * <p>
+     * The broadcaster is shared by all the requests the client makes for the same push session, so reconnecting long-polling
+     * clients don't create and destroy a broadcaster for each request. The IDLE_DESTROY policy removes the broadcaster from
+     * BroadcasterFactory and releases its resources once no request was associated with it for the session's maximum
+     * inactive interval.
+     * </p>
+     */
+    private static Broadcaster getSessionBroadcaster(Meteor meteor, Session session) {
+        BroadcasterFactory broadcasterFactory = meteor.getAtmosphereResource().getAtmosphereConfig().getBroadcasterFactory();
+        Broadcaster broadcaster = broadcasterFactory.lookup(SESSION_BROADCASTER_ID_PREFIX + session.getId(), true);
+
+        BroadcasterLifeCyclePolicy policy = new BroadcasterLifeCyclePolicy.Builder()
+                .policy(BroadcasterLifeCyclePolicy.ATMOSPHERE_RESOURCE_POLICY.IDLE_DESTROY)
+                .idleTimeInMS(session.getMaxInactiveInterval()).build();
+        broadcaster.setBroadcasterLifeCyclePolicy(policy);
+
+        return broadcaster;
     }
 
     /*
@@ -99,12 +121,24 @@ public class RequestImpl implements Request, AtmosphereResourceEventListener {
      */
     @Override
     public boolean isPolling() {
-        HttpServletRequest req = meteor.getAtmosphereResource().getRequest();
-        boolean isWebsocket = req.getAttribute(WebSocket.WEBSOCKET_SUSPEND) != null
-                || req.getAttribute(WebSocket.WEBSOCKET_RESUME) != null;
-
-        // TODO how to detect non-polling transports?
-        return !isWebsocket;
+        switch (meteor.transport()) {
+            case WEBSOCKET:
+            case STREAMING:
+            case SSE:
+            case HTMLFILE:
+                // connection stays open, messages are written as frames of the same response
+                return false;
+            case POLLING:
+            case LONG_POLLING:
+            case JSONP:
+                return true;
+            default:
+                HttpServletRequest req = meteor.getAtmosphereResource().getRequest();
+                boolean isWebsocket = req.getAttribute(WebSocket.WEBSOCKET_SUSPEND) != null
+                        || req.getAttribute(WebSocket.WEBSOCKET_RESUME) != null;
+
+                return !isWebsocket;
+        }
     }
 
     /*
@@ -131,7 +165,10 @@ public class RequestImpl implements Request, AtmosphereResourceEventListener {
         if (!session.getMessages().isEmpty()) {
             if (lockBroadcaster()) {
                 if (!session.getMessages().isEmpty()) {
-                    meteor.getBroadcaster().broadcast(new MessageDataScriptString(getSession().getMessages()));
+                    // the session broadcaster can still hold the resource of previous request, so messages are
+                    // broadcasted to the resource of this request only
+                    meteor.getBroadcaster().broadcast(new MessageDataScriptString(getSession().getMessages()),
+                            meteor.getAtmosphereResource());
                 } else {
                     unlockBroadcaster();
                     // since no messages were sent, it might happen that someone called postMessages and there are new messages
@@ -24,10 +24,14 @@ package org.richfaces.application.push.impl;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.faces.context.FacesContext;
@@ -35,6 +39,9 @@ import javax.faces.context.FacesContext;
 import org.richfaces.application.configuration.ConfigurationServiceHelper;
 import org.richfaces.application.push.DestroyableSession;
 import org.richfaces.application.push.MessageData;
+import org.richfaces.application.push.MessageReplayLog;
+import org.richfaces.application.push.PushMetricsListener;
+import org.richfaces.application.push.ReplayableSession;
 import org.richfaces.application.push.Request;
 import org.richfaces.application.push.Session;
 import org.richfaces.application.push.SessionManager;
@@ -60,8 +67,16 @@ import com.google.common.collect.Sets;
  *
  * @see Session
  */
-public class SessionImpl implements Session, DestroyableSession {
+public class SessionImpl implements Session, DestroyableSession, ReplayableSession {
     private static final Logger LOGGER = RichfacesLogger.APPLICATION.getLogger();
+    private static final Comparator<MessageData> REPLAY_ORDER = new Comparator<MessageData>() {
+        @Override
+        public int compare(MessageData o1, MessageData o2) {
+            long s1 = o1.getSequenceNumber();
+            long s2 = o2.getSequenceNumber();
+            return s1 < s2 ? -1 : (s1 == s2 ? 0 : 1);
+        }
+    };
     private final int maxInactiveInterval;
     private final String id;
     private final SessionManager sessionManager;
@@ -73,6 +88,7 @@ public class SessionImpl implements Session, DestroyableSession {
     private final Map<TopicKey, String> failedSubscriptions = Maps.newHashMap();
     private TopicsContext topicsContext;
     private AtomicLong sequenceCounter = new AtomicLong();
+    private final AtomicInteger queuedMessagesCount = new AtomicInteger();
 
     public SessionImpl(String id, SessionManager sessionManager, TopicsContext topicsContext) {
         super();
@@ -298,6 +314,9 @@ public class SessionImpl implements Session, DestroyableSession {
      */
     @Override
     public void clearBroadcastedMessages(long sequenceNumber) {
+        PushMetricsListener metricsListener = topicsContext.getMetricsListener();
+        long now = metricsListener != null ? System.nanoTime() : 0;
+
         Queue<MessageData> queue = messagesQueue;
         while (true) {
             MessageData message = queue.peek();
@@ -306,6 +325,11 @@ public class SessionImpl implements Session, DestroyableSession {
             }
 
             queue.remove();
+            queuedMessagesCount.decrementAndGet();
+
+            if (metricsListener != null) {
+                metricsListener.messageDelivered(message.getTopicKey(), now - message.getCreationTime());
+            }
         }
     }
 
@@ -316,12 +340,92 @@ public class SessionImpl implements Session, DestroyableSession {
      */
     @Override
     public void push(TopicKey topicKey, String serializedData) {
-        MessageData serializedMessage = new MessageData(topicKey, serializedData, sequenceCounter.getAndIncrement());
-        messagesQueue.add(serializedMessage);
+        push(topicKey, serializedData, -1);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.ReplayableSession#push(org.richfaces.application.push.TopicKey, java.lang.String,
+     * long)
+     */
+    @Override
+    public void push(TopicKey topicKey, String serializedData, long replaySequenceNumber) {
+        MessageData serializedMessage = new MessageData(topicKey, serializedData, sequenceCounter.getAndIncrement(),
+                replaySequenceNumber);
+        queueMessage(serializedMessage);
+        postMessages();
+    }
+
+    private void queueMessage(MessageData message) {
+        messagesQueue.add(message);
+        int queueLength = queuedMessagesCount.incrementAndGet();
+
+        PushMetricsListener metricsListener = topicsContext.getMetricsListener();
+        if (metricsListener != null) {
+            metricsListener.messageQueued(this, queueLength);
+        }
+    }
+
+    private void postMessages() {
         synchronized (this) {
             if (request != null) {
                 request.postMessages();
             }
         }
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.ReplayableSession#getReplayEpoch()
+     */
+    @Override
+    public String getReplayEpoch() {
+        MessageReplayLog replayLog = topicsContext.getMessageReplayLog();
+        return replayLog != null ? replayLog.getEpoch() : null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.ReplayableSession#replayMessages(java.lang.String, long)
+     */
+    @Override
+    public boolean replayMessages(String epoch, long lastSeenSequenceNumber) {
+        MessageReplayLog replayLog = topicsContext.getMessageReplayLog();
+        if (replayLog == null || !replayLog.getEpoch().equals(epoch)) {
+            return false;
+        }
+
+        boolean complete = true;
+        List<MessageData> missedMessages = Lists.newArrayList();
+        for (TopicKey key : successfulSubscriptions) {
+            List<MessageData> messages = replayLog.getMessagesSince(key, lastSeenSequenceNumber);
+            if (messages == null) {
+                complete = false;
+            } else {
+                missedMessages.addAll(messages);
+            }
+        }
+
+        if (!missedMessages.isEmpty()) {
+            // messages published after subscription are already queued
+            Set<Long> queuedSequenceNumbers = Sets.newHashSet();
+            for (MessageData message : messagesQueue) {
+                queuedSequenceNumbers.add(message.getReplaySequenceNumber());
+            }
+
+            Collections.sort(missedMessages, REPLAY_ORDER);
+            for (MessageData message : missedMessages) {
+                if (!queuedSequenceNumbers.contains(message.getSequenceNumber())) {
+                    queueMessage(new MessageData(message.getTopicKey(), message.getSerializedMessage(),
+                            sequenceCounter.getAndIncrement(), message.getSequenceNumber()));
+                }
+            }
+            postMessages();
+        }
+
+        return complete;
+    }
 }
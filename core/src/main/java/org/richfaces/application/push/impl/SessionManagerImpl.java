@@ -27,6 +27,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
 import org.richfaces.application.push.DestroyableSession;
+import org.richfaces.application.push.PushMetricsListener;
 import org.richfaces.application.push.Session;
 import org.richfaces.application.push.SessionManager;
 import org.richfaces.log.Logger;
@@ -44,6 +45,7 @@ public class SessionManagerImpl implements SessionManager {
     private ConcurrentMap<String, Session> sessionMap = new MapMaker().makeMap();
     private SessionQueue sessionQueue = new SessionQueue();
     private ExecutorService executorService;
+    private volatile PushMetricsListener metricsListener;
 
     public SessionManagerImpl(ThreadFactory threadFactory) {
         executorService = Executors.newSingleThreadExecutor(threadFactory);
@@ -92,6 +94,11 @@ public class SessionManagerImpl implements SessionManager {
         }
 
         sessionQueue.requeue(session, true);
+
+        PushMetricsListener metricsListener = this.metricsListener;
+        if (metricsListener != null) {
+            metricsListener.sessionCreated(session);
+        }
     }
 
     /*
@@ -104,6 +111,27 @@ public class SessionManagerImpl implements SessionManager {
         sessionQueue.requeue(session, false);
     }
 
+    /**
+     * Sets listener notified about created and expired sessions; null disables collecting of metrics.
+     */
+    public void setMetricsListener(PushMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * Returns the number of registered sessions
+     */
+    public int getSessionCount() {
+        return sessionMap.size();
+    }
+
+    /**
+     * Returns the number of sessions waiting in the expiration queue
+     */
+    public int getQueuedSessionCount() {
+        return sessionQueue.size();
+    }
+
     private final class SessionsExpirationRunnable implements Runnable {
         public void run() {
             try {
@@ -115,6 +143,11 @@ public class SessionManagerImpl implements SessionManager {
 
                 sessionMap.remove(session.getId());
 
+                PushMetricsListener metricsListener = SessionManagerImpl.this.metricsListener;
+                if (metricsListener != null) {
+                    metricsListener.sessionExpired(session);
+                }
+
                 executorService.submit(this);
             } catch (InterruptedException e) {
                 LOGGER.debug(e.getMessage(), e);
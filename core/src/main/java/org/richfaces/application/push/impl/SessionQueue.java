@@ -133,6 +133,16 @@ public final class SessionQueue {
         }
     }
 
+    public int size() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private void checkActiveState() {
         if (!active) {
             throw new IllegalStateException("Queue is not active");
@@ -21,6 +21,8 @@
  */
 package org.richfaces.application.push.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
@@ -30,6 +32,9 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.richfaces.application.push.MessageException;
+import org.richfaces.application.push.MessageReplayLog;
+import org.richfaces.application.push.PushMetricsListener;
+import org.richfaces.application.push.ReplayableSession;
 import org.richfaces.application.push.Session;
 import org.richfaces.application.push.SessionSubscriptionEvent;
 import org.richfaces.application.push.SessionUnsubscriptionEvent;
@@ -67,23 +72,114 @@ public class TopicImpl extends AbstractTopic {
      */
     @Override
     public void publish(Object messageData, String subtopicName) throws MessageException {
+        if (!isObserved(subtopicName)) {
+            return;
+        }
+
         String serializedData = getMessageDataSerializer().serialize(messageData);
 
         if (serializedData != null) {
-            PublishingContext topicContext = getPublishingContext(getKey());
+            publishSerialized(serializedData, subtopicName);
+        }
+    }
+
+    /**
+     * Publishes message data that was already serialized by {@link #getMessageDataSerializer()}.
+     */
+    public void publishSerialized(String serializedData, String subtopicName) {
+        notifyPublished(subtopicName, 1);
+
+        PublishingContext topicContext = getPublishingContext(getKey());
+        if (topicContext != null) {
+            topicContext.addMessage(serializedData);
+        }
+        // support publishing to contexts that are only interested in specific subtopics
+        if (subtopicName != null && getKey().getSubtopicName() == null) {
+            topicContext = getPublishingContext(new TopicKey(getKey().getTopicName(), subtopicName));
             if (topicContext != null) {
                 topicContext.addMessage(serializedData);
             }
-            // support publishing to contexts that are only interested in specific subtopics
+        }
+    }
+
+    /**
+     * Publishes a batch of messages in the given order. Subscribed sessions are scheduled for publishing once for the whole
+     * batch instead of once per message.
+     */
+    public void publishAll(Collection<?> messagesData, String subtopicName) throws MessageException {
+        if (!isObserved(subtopicName)) {
+            return;
+        }
+
+        List<String> serializedMessages = new ArrayList<String>(messagesData.size());
+        for (Object messageData : messagesData) {
+            String serializedData = getMessageDataSerializer().serialize(messageData);
+            if (serializedData != null) {
+                serializedMessages.add(serializedData);
+            }
+        }
+
+        publishAllSerialized(serializedMessages, subtopicName);
+    }
+
+    /**
+     * Publishes a batch of message data that was already serialized by {@link #getMessageDataSerializer()}, in the given
+     * order.
+     */
+    public void publishAllSerialized(Collection<String> serializedMessages, String subtopicName) {
+        if (!serializedMessages.isEmpty()) {
+            notifyPublished(subtopicName, serializedMessages.size());
+
+            PublishingContext topicContext = getPublishingContext(getKey());
+            if (topicContext != null) {
+                topicContext.addMessages(serializedMessages);
+            }
             if (subtopicName != null && getKey().getSubtopicName() == null) {
                 topicContext = getPublishingContext(new TopicKey(getKey().getTopicName(), subtopicName));
                 if (topicContext != null) {
-                    topicContext.addMessage(serializedData);
+                    topicContext.addMessages(serializedMessages);
                 }
             }
         }
     }
 
+    private void notifyPublished(String subtopicName, int count) {
+        PushMetricsListener metricsListener = topicsContext.getMetricsListener();
+        if (metricsListener != null) {
+            TopicKey key = subtopicName == null ? getKey() : new TopicKey(getKey().getTopicName(), subtopicName);
+            for (int i = 0; i < count; i++) {
+                metricsListener.messagePublished(key);
+            }
+        }
+    }
+
+    /**
+     * Returns true if there is a session subscribed to this topic, or to the given subtopic of it.
+     */
+    public boolean hasSubscribers(String subtopicName) {
+        PublishingContext topicContext = getPublishingContext(getKey());
+        if (topicContext != null && topicContext.hasSessions()) {
+            return true;
+        }
+        if (subtopicName != null && getKey().getSubtopicName() == null) {
+            topicContext = getPublishingContext(new TopicKey(getKey().getTopicName(), subtopicName));
+            return topicContext != null && topicContext.hasSessions();
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if messages published to the given subtopic have to be serialized: a session is subscribed to them, or they
+     * are recorded for replaying to sessions subscribed before.
+     */
+    protected boolean isObserved(String subtopicName) {
+        if (topicsContext.getMessageReplayLog() == null) {
+            return hasSubscribers(subtopicName);
+        }
+        return getPublishingContext(getKey()) != null
+                || (subtopicName != null && getPublishingContext(new TopicKey(getKey().getTopicName(), subtopicName)) != null);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -155,6 +251,13 @@ public class TopicImpl extends AbstractTopic {
             sessions.remove(session);
         }
 
+        /**
+         * Returns true if any session listens for new messages in associated {@link TopicKey}
+         */
+        public boolean hasSessions() {
+            return !sessions.isEmpty();
+        }
+
         /**
          * Adds new message and submits this context for publishing
          */
@@ -164,6 +267,15 @@ public class TopicImpl extends AbstractTopic {
             submitForPublishing();
         }
 
+        /**
+         * Adds new messages and submits this context for publishing
+         */
+        public void addMessages(Collection<String> serializedMessagesData) {
+            serializedMessages.addAll(serializedMessagesData);
+
+            submitForPublishing();
+        }
+
         /**
          * Publishes messages that are scheduled for publishing.
          *
@@ -171,12 +283,24 @@ public class TopicImpl extends AbstractTopic {
          * a new round of publishing is scheduled.
          */
         public void publishMessages() {
+            MessageReplayLog replayLog = topicsContext.getMessageReplayLog();
             Iterator<String> itr = serializedMessages.iterator();
             while (itr.hasNext()) {
                 String message = itr.next();
 
-                for (Session session : sessions) {
-                    session.push(key, message);
+                if (replayLog != null) {
+                    long replaySequenceNumber = replayLog.append(key, message).getSequenceNumber();
+                    for (Session session : sessions) {
+                        if (session instanceof ReplayableSession) {
+                            ((ReplayableSession) session).push(key, message, replaySequenceNumber);
+                        } else {
+                            session.push(key, message);
+                        }
+                    }
+                } else {
+                    for (Session session : sessions) {
+                        session.push(key, message);
+                    }
                 }
 
                 itr.remove();
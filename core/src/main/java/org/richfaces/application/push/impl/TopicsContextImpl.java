@@ -57,6 +57,21 @@ public class TopicsContextImpl extends TopicsContext {
         return new TopicImpl(key, this);
     }
 
+    /*
+     * (non-Javadoc)
+     * @see org.richfaces.application.push.TopicsContext#hasSubscribers(org.richfaces.application.push.TopicKey)
+     */
+    @Override
+    public boolean hasSubscribers(TopicKey key) {
+        TopicKey resolvedKey = getTopicKeyWithResolvedExpressions(key);
+        Topic topic = getTopic(resolvedKey);
+
+        if (topic instanceof TopicImpl) {
+            return ((TopicImpl) topic).hasSubscribers(resolvedKey.getSubtopicName());
+        }
+        return topic != null;
+    }
+
     /**
      * Returns a publisher {@link ExecutorService} that is used for publishing messages
      */
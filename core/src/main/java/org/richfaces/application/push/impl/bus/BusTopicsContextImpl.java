@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.bus;
+
+import static org.richfaces.application.CoreConfiguration.Items.pushBusAddress;
+import static org.richfaces.application.CoreConfiguration.Items.pushBusBatchSize;
+import static org.richfaces.application.CoreConfiguration.Items.pushBusBindAddress;
+import static org.richfaces.application.CoreConfiguration.Items.pushBusPeers;
+import static org.richfaces.application.CoreConfiguration.Items.pushBusSecret;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import javax.faces.context.FacesContext;
+
+import org.richfaces.application.ServiceLoader;
+import org.richfaces.application.ServiceTracker;
+import org.richfaces.application.configuration.ConfigurationService;
+import org.richfaces.application.push.MessageBus;
+import org.richfaces.application.push.MessageException;
+import org.richfaces.application.push.SessionPreSubscriptionEvent;
+import org.richfaces.application.push.SessionSubscriptionEvent;
+import org.richfaces.application.push.SessionTopicListener2;
+import org.richfaces.application.push.SessionUnsubscriptionEvent;
+import org.richfaces.application.push.Topic;
+import org.richfaces.application.push.TopicKey;
+import org.richfaces.application.push.impl.TopicImpl;
+import org.richfaces.application.push.impl.TopicsContextImpl;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+
+/**
+ * <p>
+ * A {@link org.richfaces.application.push.TopicsContext} that fans messages out to the other nodes of a cluster through a
+ * {@link MessageBus}.
+ * </p>
+ *
+ * <p>
+ * Messages published on this node are serialized once, delivered to local subscribers and sent over the bus. Messages
+ * received from the bus are delivered only to topics that already exist on this node. The bus is told about topics this node
+ * has subscribers for, so that it does not have to deliver the rest.
+ * </p>
+ */
+public class BusTopicsContextImpl extends TopicsContextImpl implements MessageBus.Receiver {
+
+    private final MessageBus messageBus;
+
+    public BusTopicsContextImpl(ThreadFactory threadFactory, MessageBus messageBus) {
+        super(threadFactory);
+        this.messageBus = messageBus;
+    }
+
+    /**
+     * Creates the message bus configured for the application: a custom implementation registered in
+     * /META-INF/services/org.richfaces.application.push.MessageBus, or the built-in {@link PeerMeshMessageBus} when this node's
+     * bus address is configured. Returns null when no message bus is configured.
+     */
+    public static MessageBus createMessageBus(ThreadFactory threadFactory, FacesContext facesContext) {
+        MessageBus messageBus = ServiceLoader.loadService(MessageBus.class);
+
+        if (messageBus == null) {
+            ConfigurationService configurationService = ServiceTracker.getService(ConfigurationService.class);
+            String address = configurationService.getStringValue(facesContext, pushBusAddress);
+
+            if (!Strings.isNullOrEmpty(address)) {
+                String peers = Strings.nullToEmpty(configurationService.getStringValue(facesContext, pushBusPeers));
+                String bindAddress = configurationService.getStringValue(facesContext, pushBusBindAddress);
+                String secret = configurationService.getStringValue(facesContext, pushBusSecret);
+                int batchSize = configurationService.getIntValue(facesContext, pushBusBatchSize);
+
+                messageBus = new PeerMeshMessageBus(address, bindAddress, Splitter.on(',').trimResults().omitEmptyStrings()
+                        .split(peers), secret, batchSize, threadFactory);
+            }
+        }
+
+        return messageBus;
+    }
+
+    /**
+     * Connects this context to the message bus
+     */
+    public void start() throws IOException {
+        messageBus.start(this);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.impl.TopicsContextImpl#createTopic(org.richfaces.application.push.TopicKey)
+     */
+    @Override
+    protected Topic createTopic(TopicKey key) {
+        Topic topic = new BusTopic(key);
+        topic.addTopicListener(new InterestTracker(key.getTopicName()));
+        return topic;
+    }
+
+    /**
+     * Returns true if sessions may be subscribed to the topic on this node or on any other node of the message bus
+     */
+    @Override
+    public boolean hasSubscribers(TopicKey key) {
+        return super.hasSubscribers(key) || messageBus.isInterested(getTopicKeyWithResolvedExpressions(key).getTopicName());
+    }
+
+    /**
+     * Delivers messages received from other nodes to subscribers of the topic on this node
+     */
+    @Override
+    public void receive(TopicKey key, List<String> serializedMessages) {
+        Topic topic = getTopic(key);
+
+        if (topic instanceof TopicImpl) {
+            ((TopicImpl) topic).publishAllSerialized(serializedMessages, key.getSubtopicName());
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.impl.TopicsContextImpl#destroy()
+     */
+    @Override
+    public void destroy() {
+        messageBus.stop();
+
+        super.destroy();
+    }
+
+    /**
+     * Topic sending every message published on this node over the message bus as well
+     */
+    private final class BusTopic extends TopicImpl {
+
+        public BusTopic(TopicKey key) {
+            super(key, BusTopicsContextImpl.this);
+        }
+
+        @Override
+        public void publish(Object messageData, String subtopicName) throws MessageException {
+            if (!isObserved(subtopicName) && !messageBus.isInterested(getKey().getTopicName())) {
+                return;
+            }
+
+            String serializedData = getMessageDataSerializer().serialize(messageData);
+
+            if (serializedData != null) {
+                publishSerialized(serializedData, subtopicName);
+                messageBus.publish(new TopicKey(getKey().getTopicName(), subtopicName), serializedData);
+            }
+        }
+    }
+
+    /**
+     * Announces interest in the topic to the message bus while there is at least one session subscribed to it
+     */
+    private final class InterestTracker implements SessionTopicListener2 {
+
+        private final String topicName;
+        private int subscriptions;
+
+        public InterestTracker(String topicName) {
+            this.topicName = topicName;
+        }
+
+        @Override
+        public void processPreSubscriptionEvent(SessionPreSubscriptionEvent event) {
+        }
+
+        @Override
+        public synchronized void processSubscriptionEvent(SessionSubscriptionEvent event) {
+            if (subscriptions++ == 0) {
+                messageBus.addInterest(topicName);
+            }
+        }
+
+        @Override
+        public synchronized void processUnsubscriptionEvent(SessionUnsubscriptionEvent event) {
+            if (subscriptions > 0 && --subscriptions == 0) {
+                messageBus.removeInterest(topicName);
+            }
+        }
+    }
+}
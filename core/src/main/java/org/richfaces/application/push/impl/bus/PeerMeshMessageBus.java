@@ -0,0 +1,615 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.bus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.richfaces.application.push.MessageBus;
+import org.richfaces.application.push.TopicKey;
+import org.richfaces.log.Logger;
+import org.richfaces.log.RichfacesLogger;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
+
+/**
+ * <p>
+ * Built-in {@link MessageBus} connecting cluster nodes into a full mesh of TCP connections.
+ * </p>
+ *
+ * <p>
+ * Every node listens on its own address and opens one connection to each configured peer. A node identifies itself to its
+ * peers by its address as configured, so all nodes have to use the same notation (e.g. the same host name) for the address of
+ * a node; the own address may be part of the peers list, which allows to share one configuration across the cluster.
+ * </p>
+ *
+ * <p>
+ * Each node announces the topics it has subscribers for to its peers, and messages are only sent to the peers interested in
+ * their topic. Messages queued for a peer are written in batches, with consecutive messages for the same topic sent in one
+ * frame. Delivery is best effort: messages queued for a peer while its connection fails are lost.
+ * </p>
+ *
+ * <p>
+ * The nodes share a secret. A node accepting a connection sends a random challenge, and the connecting node has to answer
+ * it with an HMAC of the challenge and its node id keyed by the secret before any of its frames are processed. The
+ * connections are not encrypted, so the bus should only be reachable from a trusted network.
+ * </p>
+ */
+public class PeerMeshMessageBus implements MessageBus {
+
+    private static final Logger LOGGER = RichfacesLogger.APPLICATION.getLogger();
+
+    private static final byte HELLO = 1;
+    private static final byte INTEREST_ADDED = 2;
+    private static final byte INTEREST_REMOVED = 3;
+    private static final byte MESSAGES = 4;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int CHALLENGE_LENGTH = 32;
+
+    private static final int MAX_QUEUED_FRAMES = 10000;
+    private static final int CONNECT_TIMEOUT = 5000;
+    private static final long RECONNECT_DELAY = 1000;
+    private static final long QUEUE_FULL_WARNING_INTERVAL = 60000;
+
+    private final String nodeId;
+    private final InetSocketAddress bindAddress;
+    private final SecretKeySpec secretKey;
+    private final SecureRandom random = new SecureRandom();
+    private final List<PeerLink> peerLinks = new ArrayList<PeerLink>();
+    private final int batchSize;
+    private final ThreadFactory threadFactory;
+
+    private final Set<String> localInterests = Sets.newConcurrentHashSet();
+    private final ConcurrentMap<String, Set<String>> peerInterests = new ConcurrentHashMap<String, Set<String>>();
+    private final Set<Socket> inboundSockets = Sets.newConcurrentHashSet();
+
+    private volatile boolean running;
+    private volatile Receiver receiver;
+    private ServerSocket serverSocket;
+
+    /**
+     * @param address host:port identifying this node to its peers, this node listens on its port
+     * @param bindHost host name or IP address of the interface this node listens on, null for the host of the address
+     * @param peers host:port addresses of the other nodes
+     * @param secret secret shared by all nodes, used to authenticate the connections
+     * @param batchSize maximal number of queued frames written to a peer at once
+     * @param threadFactory factory creating the threads accepting, reading and writing connections
+     */
+    public PeerMeshMessageBus(String address, String bindHost, Iterable<String> peers, String secret, int batchSize,
+            ThreadFactory threadFactory) {
+        if (Strings.isNullOrEmpty(secret)) {
+            throw new IllegalArgumentException("A secret shared by the nodes of the push message bus has to be configured");
+        }
+
+        InetSocketAddress ownAddress = parseAddress(address);
+        this.nodeId = toNodeId(ownAddress);
+        this.bindAddress = Strings.isNullOrEmpty(bindHost) ? ownAddress : InetSocketAddress.createUnresolved(bindHost.trim(),
+                ownAddress.getPort());
+        this.secretKey = new SecretKeySpec(secret.getBytes(Charsets.UTF_8), MAC_ALGORITHM);
+        this.batchSize = Math.max(1, batchSize);
+        this.threadFactory = threadFactory;
+
+        for (String peer : peers) {
+            InetSocketAddress peerAddress = parseAddress(peer);
+            String peerId = toNodeId(peerAddress);
+            if (!peerId.equals(nodeId)) {
+                peerLinks.add(new PeerLink(peerId, peerAddress));
+            }
+        }
+    }
+
+    private static InetSocketAddress parseAddress(String address) {
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Address '" + address + "' has to be in form host:port");
+        }
+
+        try {
+            int port = Integer.parseInt(address.substring(separator + 1).trim());
+            return InetSocketAddress.createUnresolved(address.substring(0, separator).trim(), port);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Address '" + address + "' has to be in form host:port", e);
+        }
+    }
+
+    private static String toNodeId(InetSocketAddress address) {
+        return address.getHostName() + ":" + address.getPort();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.MessageBus#start(org.richfaces.application.push.MessageBus.Receiver)
+     */
+    @Override
+    public synchronized void start(Receiver receiver) throws IOException {
+        this.receiver = receiver;
+
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(bindAddress.getHostName(), bindAddress.getPort()));
+
+        running = true;
+
+        threadFactory.newThread(new Acceptor(serverSocket)).start();
+        for (PeerLink peerLink : peerLinks) {
+            peerLink.start();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.MessageBus#publish(org.richfaces.application.push.TopicKey, java.lang.String)
+     */
+    @Override
+    public void publish(TopicKey key, String serializedMessage) {
+        Frame frame = null;
+
+        for (PeerLink peerLink : peerLinks) {
+            if (isPeerInterested(peerLink.peerId, key.getTopicName())) {
+                if (frame == null) {
+                    frame = new Frame(MESSAGES, key, serializedMessage);
+                }
+                peerLink.enqueue(frame);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.MessageBus#addInterest(java.lang.String)
+     */
+    @Override
+    public void addInterest(String topicName) {
+        localInterests.add(topicName);
+
+        Frame frame = new Frame(INTEREST_ADDED, null, topicName);
+        for (PeerLink peerLink : peerLinks) {
+            peerLink.enqueueInterest(frame);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.MessageBus#removeInterest(java.lang.String)
+     */
+    @Override
+    public void removeInterest(String topicName) {
+        localInterests.remove(topicName);
+
+        Frame frame = new Frame(INTEREST_REMOVED, null, topicName);
+        for (PeerLink peerLink : peerLinks) {
+            peerLink.enqueueInterest(frame);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.MessageBus#stop()
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+
+        closeQuietly(serverSocket);
+        for (PeerLink peerLink : peerLinks) {
+            peerLink.stop();
+        }
+        for (Socket socket : inboundSockets) {
+            closeQuietly(socket);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.richfaces.application.push.MessageBus#isInterested(java.lang.String)
+     */
+    @Override
+    public boolean isInterested(String topicName) {
+        for (Set<String> interests : peerInterests.values()) {
+            if (interests.contains(topicName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the peer with given id announced it has subscribers for the topic
+     */
+    boolean isPeerInterested(String peerId, String topicName) {
+        Set<String> interests = peerInterests.get(peerId);
+        return interests != null && interests.contains(topicName);
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private static void closeQuietly(ServerSocket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.debug(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.debug(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Computes the answer to the challenge sent by a node accepting the connection of the node with given id
+     */
+    private byte[] sign(byte[] challenge, String peerId) throws IOException {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secretKey);
+            mac.update(challenge);
+            return mac.doFinal(peerId.getBytes(Charsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Can't compute " + MAC_ALGORITHM + " of the challenge", e);
+        }
+    }
+
+    /**
+     * Sends a challenge to the connected peer and reads its answer
+     *
+     * @return id of the authenticated peer
+     */
+    private String authenticate(Socket socket, DataInputStream in) throws IOException {
+        byte[] challenge = new byte[CHALLENGE_LENGTH];
+        random.nextBytes(challenge);
+
+        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.write(challenge);
+        out.flush();
+
+        socket.setSoTimeout(CONNECT_TIMEOUT);
+        if (in.readByte() != HELLO) {
+            throw new IOException("Peer " + socket.getRemoteSocketAddress() + " did not introduce itself");
+        }
+        String peerId = in.readUTF();
+        byte[] signature = new byte[in.readUnsignedShort()];
+        in.readFully(signature);
+        socket.setSoTimeout(0);
+
+        if (!MessageDigest.isEqual(signature, sign(challenge, peerId))) {
+            throw new IOException("Peer " + peerId + " connected from " + socket.getRemoteSocketAddress()
+                    + " failed to authenticate");
+        }
+        return peerId;
+    }
+
+    private static void writeMessages(DataOutputStream out, TopicKey key, List<Frame> frames) throws IOException {
+        out.writeByte(MESSAGES);
+        out.writeUTF(key.getTopicName());
+        out.writeBoolean(key.getSubtopicName() != null);
+        if (key.getSubtopicName() != null) {
+            out.writeUTF(key.getSubtopicName());
+        }
+        out.writeInt(frames.size());
+        for (Frame frame : frames) {
+            byte[] bytes = frame.data.getBytes(Charsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private void readMessages(DataInputStream in) throws IOException {
+        String topicName = in.readUTF();
+        String subtopicName = in.readBoolean() ? in.readUTF() : null;
+        int count = in.readInt();
+
+        List<String> messages = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            messages.add(new String(bytes, Charsets.UTF_8));
+        }
+
+        try {
+            receiver.receive(new TopicKey(topicName, subtopicName), messages);
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Unit of data queued for sending to a peer: announcement of interest or a serialized message
+     */
+    private static final class Frame {
+        private final byte type;
+        private final TopicKey key;
+        private final String data;
+
+        public Frame(byte type, TopicKey key, String data) {
+            this.type = type;
+            this.key = key;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Accepts connections opened by peers
+     */
+    private final class Acceptor implements Runnable {
+        private final ServerSocket serverSocket;
+
+        public Acceptor(ServerSocket serverSocket) {
+            this.serverSocket = serverSocket;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    inboundSockets.add(socket);
+                    threadFactory.newThread(new InboundConnection(socket)).start();
+                } catch (IOException e) {
+                    if (running) {
+                        LOGGER.error(e.getMessage(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads interest announcements and messages sent by a peer
+     */
+    private final class InboundConnection implements Runnable {
+        private final Socket socket;
+
+        public InboundConnection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            String peerId = null;
+            Set<String> interests = null;
+
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+                peerId = authenticate(socket, in);
+                interests = Sets.newConcurrentHashSet();
+                peerInterests.put(peerId, interests);
+
+                while (running) {
+                    byte type = in.readByte();
+
+                    if (type == MESSAGES) {
+                        readMessages(in);
+                    } else if (type == INTEREST_ADDED) {
+                        interests.add(in.readUTF());
+                    } else if (type == INTEREST_REMOVED) {
+                        interests.remove(in.readUTF());
+                    } else {
+                        throw new IOException("Unexpected frame of type " + type + " received from peer " + peerId);
+                    }
+                }
+            } catch (EOFException e) {
+                LOGGER.debug("Connection closed by peer " + peerId);
+            } catch (IOException e) {
+                if (running) {
+                    Object peer = peerId != null ? "peer " + peerId : socket.getRemoteSocketAddress();
+                    LOGGER.warn("Connection from " + peer + " failed: " + e.getMessage());
+                }
+            } finally {
+                closeQuietly(socket);
+                inboundSockets.remove(socket);
+                if (peerId != null) {
+                    peerInterests.remove(peerId, interests);
+                }
+            }
+        }
+    }
+
+    /**
+     * Connection to a peer, writing frames queued for it in batches; reconnects when the connection fails. Interest
+     * announcements are not queued while the peer is disconnected, as all local interests are announced on connect.
+     */
+    private final class PeerLink implements Runnable {
+        private final String peerId;
+        private final InetSocketAddress address;
+        private final BlockingQueue<Frame> queue = new LinkedBlockingQueue<Frame>(MAX_QUEUED_FRAMES);
+        private final AtomicInteger droppedFrames = new AtomicInteger();
+        private final AtomicLong lastQueueFullWarning = new AtomicLong();
+        private volatile Thread thread;
+        private volatile Socket socket;
+        private volatile boolean connected;
+
+        public PeerLink(String peerId, InetSocketAddress address) {
+            this.peerId = peerId;
+            this.address = address;
+        }
+
+        public void start() {
+            thread = threadFactory.newThread(this);
+            thread.start();
+        }
+
+        public void stop() {
+            if (thread != null) {
+                thread.interrupt();
+            }
+            closeQuietly(socket);
+        }
+
+        public void enqueue(Frame frame) {
+            if (!queue.offer(frame)) {
+                int dropped = droppedFrames.incrementAndGet();
+                long now = System.currentTimeMillis();
+                long lastWarning = lastQueueFullWarning.get();
+                if (now - lastWarning >= QUEUE_FULL_WARNING_INTERVAL && lastQueueFullWarning.compareAndSet(lastWarning, now)) {
+                    droppedFrames.addAndGet(-dropped);
+                    LOGGER.warn("Queue of peer " + peerId + " is full, " + dropped + " frames dropped");
+                }
+            }
+        }
+
+        public void enqueueInterest(Frame frame) {
+            if (connected) {
+                enqueue(frame);
+            }
+        }
+
+        /**
+         * Drops the queued interest announcements, they are superseded by the announcement of all local interests
+         */
+        private void clearInterests() {
+            for (Iterator<Frame> frames = queue.iterator(); frames.hasNext();) {
+                if (frames.next().type != MESSAGES) {
+                    frames.remove();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Frame> batch = new ArrayList<Frame>(batchSize);
+
+            while (running) {
+                Socket socket = new Socket();
+                this.socket = socket;
+
+                try {
+                    socket.setTcpNoDelay(true);
+                    socket.connect(new InetSocketAddress(address.getHostName(), address.getPort()), CONNECT_TIMEOUT);
+
+                    socket.setSoTimeout(CONNECT_TIMEOUT);
+                    byte[] challenge = new byte[CHALLENGE_LENGTH];
+                    new DataInputStream(socket.getInputStream()).readFully(challenge);
+                    byte[] signature = sign(challenge, nodeId);
+
+                    // interests changed from now on are queued, the ones changed before are announced below
+                    connected = true;
+                    clearInterests();
+
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                    out.writeByte(HELLO);
+                    out.writeUTF(nodeId);
+                    out.writeShort(signature.length);
+                    out.write(signature);
+                    for (String topicName : localInterests) {
+                        out.writeByte(INTEREST_ADDED);
+                        out.writeUTF(topicName);
+                    }
+                    out.flush();
+
+                    while (running) {
+                        batch.add(queue.take());
+                        queue.drainTo(batch, batchSize - 1);
+
+                        writeBatch(out, batch);
+                        out.flush();
+                        batch.clear();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (IOException e) {
+                    if (running) {
+                        LOGGER.debug("Connection to peer " + peerId + " failed: " + e.getMessage());
+                    }
+                } finally {
+                    connected = false;
+                    batch.clear();
+                    closeQuietly(socket);
+                }
+
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Writes the batch of frames, consecutive messages for the same topic key are written in one frame
+         */
+        private void writeBatch(DataOutputStream out, List<Frame> frames) throws IOException {
+            int i = 0;
+            while (i < frames.size()) {
+                Frame frame = frames.get(i);
+
+                if (frame.type == MESSAGES) {
+                    int end = i + 1;
+                    while (end < frames.size() && frames.get(end).type == MESSAGES && frame.key.equals(frames.get(end).key)) {
+                        end++;
+                    }
+                    writeMessages(out, frame.key, frames.subList(i, end));
+                    i = end;
+                } else {
+                    out.writeByte(frame.type);
+                    out.writeUTF(frame.data);
+                    i++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.jms;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import org.richfaces.log.Logger;
+import org.richfaces.log.RichfacesLogger;
+
+/**
+ * <p>
+ * A bounded pool of JMS consumer threads sharing one {@link Connection}.
+ * </p>
+ *
+ * <p>
+ * Every thread owns one {@link Session}; topics are assigned to the threads in round-robin fashion. The consumers of a session
+ * deliver their messages through a {@link MessageListener} to the queue of the owning thread, which blocks on the queue and
+ * hands the messages to the {@link BatchHandler} in batches of at most <code>batchSize</code> messages per topic.
+ * </p>
+ */
+final class JMSConsumerPool {
+
+    /**
+     * Receives batches of messages drained from a consumer
+     */
+    interface BatchHandler {
+        /**
+         * @param topicName name of the push topic the consumer was subscribed for, or null for wildcard subscriptions
+         * @param messages received messages in the order of delivery
+         */
+        void handle(String topicName, List<Message> messages);
+    }
+
+    private static final Logger LOGGER = RichfacesLogger.APPLICATION.getLogger();
+
+    /**
+     * Maximal time in milliseconds {@link #stop()} waits for a thread to finish
+     */
+    private static final long STOP_TIMEOUT = 500;
+
+    /**
+     * Maximal number of batches queued for a thread; message listeners block once the queue is full
+     */
+    private static final int MAX_PENDING_BATCHES = 10;
+
+    private final Connection connection;
+    private final BatchHandler handler;
+    private final int batchSize;
+    private final Worker[] workers;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final ConcurrentMap<String, Worker> subscriptions = new ConcurrentHashMap<String, Worker>();
+
+    JMSConsumerPool(Connection connection, ThreadFactory threadFactory, int poolSize, int batchSize, BatchHandler handler)
+            throws JMSException {
+        this.connection = connection;
+        this.handler = handler;
+        this.batchSize = Math.max(1, batchSize);
+        this.workers = new Worker[Math.max(1, poolSize)];
+
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+            workers[i].thread = threadFactory.newThread(workers[i]);
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Creates a consumer for the given destination unless there is one for the given name already. Returns once the consumer
+     * is created.
+     *
+     * @param topicName name of the push topic passed to {@link BatchHandler}, null for a wildcard destination
+     * @param subscriptionName unique name of the subscription
+     */
+    void subscribe(String topicName, String subscriptionName, Destination destination) throws JMSException {
+        Worker worker = workers[(nextWorker.getAndIncrement() & Integer.MAX_VALUE) % workers.length];
+        if (subscriptions.putIfAbsent(subscriptionName, worker) != null) {
+            return;
+        }
+
+        try {
+            createConsumer(worker, topicName, destination);
+        } catch (JMSException e) {
+            subscriptions.remove(subscriptionName);
+            throw e;
+        }
+    }
+
+    /**
+     * A session delivering messages asynchronously must not be used by other threads, so the delivery is paused while the
+     * consumer is created.
+     */
+    private synchronized void createConsumer(Worker worker, String topicName, Destination destination) throws JMSException {
+        connection.stop();
+        try {
+            MessageConsumer consumer = worker.session.createConsumer(destination, null, false);
+            consumer.setMessageListener(worker.new Subscription(topicName));
+        } finally {
+            connection.start();
+        }
+    }
+
+    /**
+     * Stops all threads and closes their sessions and the shared connection
+     */
+    void stop() {
+        for (Worker worker : workers) {
+            worker.stop();
+        }
+
+        try {
+            connection.close();
+        } catch (Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A message delivered to a {@link Worker}
+     */
+    private static final class Delivery {
+        private final String topicName;
+        private final Message message;
+
+        public Delivery(String topicName, Message message) {
+            this.topicName = topicName;
+            this.message = message;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final Session session;
+        private final BlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<Delivery>(batchSize * MAX_PENDING_BATCHES);
+        private volatile boolean running = true;
+        private Thread thread;
+
+        public Worker(Session session) {
+            this.session = session;
+        }
+
+        /**
+         * Passes the messages of one consumer of the session to the queue of the worker
+         */
+        private final class Subscription implements MessageListener {
+            private final String topicName;
+
+            public Subscription(String topicName) {
+                this.topicName = topicName;
+            }
+
+            public void onMessage(Message message) {
+                if (!running) {
+                    return;
+                }
+                try {
+                    deliveries.put(new Delivery(topicName, message));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        public void run() {
+            List<Delivery> pending = new ArrayList<Delivery>();
+            try {
+                while (running) {
+                    pending.add(deliveries.take());
+                    deliveries.drainTo(pending, batchSize - 1);
+
+                    handle(pending);
+                    pending.clear();
+                }
+            } catch (InterruptedException e) {
+                if (running) {
+                    LOGGER.error(e.getMessage(), e);
+                }
+            }
+        }
+
+        /**
+         * Groups the delivered messages by topic, keeping the order of delivery within a topic, and passes them to the handler
+         */
+        private void handle(List<Delivery> pending) {
+            Map<String, List<Message>> batches = new LinkedHashMap<String, List<Message>>();
+            for (Delivery delivery : pending) {
+                List<Message> batch = batches.get(delivery.topicName);
+                if (batch == null) {
+                    batch = new ArrayList<Message>();
+                    batches.put(delivery.topicName, batch);
+                }
+                batch.add(delivery.message);
+            }
+
+            for (Map.Entry<String, List<Message>> batch : batches.entrySet()) {
+                try {
+                    handler.handle(batch.getKey(), batch.getValue());
+                } catch (Exception e) {
+                    LOGGER.error(e.getMessage(), e);
+                }
+            }
+        }
+
+        /**
+         * Stops the thread and closes the session; the queue is cleared before, as the session waits for a listener blocked on
+         * the full queue
+         */
+        public void stop() {
+            running = false;
+            thread.interrupt();
+            try {
+                thread.join(STOP_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            deliveries.clear();
+            try {
+                session.close();
+            } catch (Exception e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+        }
+    }
+}
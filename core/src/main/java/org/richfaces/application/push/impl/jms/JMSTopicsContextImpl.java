@@ -21,17 +21,23 @@
  */
 package org.richfaces.application.push.impl.jms;
 
+import static org.richfaces.application.CoreConfiguration.Items.pushJMSBatchSize;
 import static org.richfaces.application.CoreConfiguration.Items.pushJMSConnectionFactory;
 import static org.richfaces.application.CoreConfiguration.Items.pushJMSConnectionPassword;
 import static org.richfaces.application.CoreConfiguration.Items.pushJMSConnectionPasswordEnvRef;
 import static org.richfaces.application.CoreConfiguration.Items.pushJMSConnectionUsername;
 import static org.richfaces.application.CoreConfiguration.Items.pushJMSConnectionUsernameEnvRef;
+import static org.richfaces.application.CoreConfiguration.Items.pushJMSConsumerPoolSize;
+import static org.richfaces.application.CoreConfiguration.Items.pushJMSSharedConnection;
 import static org.richfaces.application.CoreConfiguration.Items.pushJMSTopicsNamespace;
+import static org.richfaces.application.CoreConfiguration.Items.pushJMSWildcardTopic;
 import static org.richfaces.application.CoreConfiguration.PushPropertiesItems.pushPropertiesJMSConnectionFactory;
 import static org.richfaces.application.CoreConfiguration.PushPropertiesItems.pushPropertiesJMSConnectionPassword;
 import static org.richfaces.application.CoreConfiguration.PushPropertiesItems.pushPropertiesJMSConnectionUsername;
 import static org.richfaces.application.CoreConfiguration.PushPropertiesItems.pushPropertiesJMSTopicsNamespace;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadFactory;
 
@@ -54,6 +60,7 @@ import javax.naming.NamingException;
 import org.ajax4jsf.javascript.JSLiteral;
 import org.richfaces.application.configuration.ConfigurationService;
 import org.richfaces.application.push.TopicKey;
+import org.richfaces.application.push.impl.TopicImpl;
 import org.richfaces.application.push.impl.TopicsContextImpl;
 import org.richfaces.log.Logger;
 import org.richfaces.log.RichfacesLogger;
@@ -66,7 +73,15 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 
 /**
+ * <p>
  * A {@link org.richfaces.application.push.TopicsContext} that allows Push to listen for messages on Java Messaging Service (JMS)
+ * </p>
+ *
+ * <p>
+ * By default every JMS topic gets its own connection and polling thread. When the shared connection mode is enabled, all topics
+ * are consumed through one connection by a bounded {@link JMSConsumerPool}, optionally using a single provider specific
+ * wildcard subscription. In both modes messages available at once are published to the push topic in batches.
+ * </p>
  *
  * @author Nick Belaevski
  */
@@ -74,11 +89,21 @@ public class JMSTopicsContextImpl extends TopicsContextImpl {
 
     private static final Logger LOGGER = RichfacesLogger.APPLICATION.getLogger();
 
+    private static final String TOPIC_PROPERTY = "rf_push_topic";
+    private static final String SUBTOPIC_PROPERTY = "rf_push_subtopic";
+    private static final String SERIALIZED_DATA_INDICATOR = "org_richfaces_push_SerializedData";
+    private static final String WILDCARD_CHARACTERS = ">*#";
+
     private final InitialContext initialContext;
     private final Name connectionFactoryName;
     private final Name topicsNamespace;
     private final String username;
     private final String password;
+    private final boolean sharedConnection;
+    private final int consumerPoolSize;
+    private final int batchSize;
+    private final String wildcardTopic;
+    private JMSConsumerPool consumerPool;
 
     /**
      * A factory method for creating {@link JMSTopicsContextImpl} initialized from context
@@ -97,18 +122,28 @@ public class JMSTopicsContextImpl extends TopicsContextImpl {
         String username = getUserName(facesContext, configurationService);
         String password = getPassword(facesContext, configurationService);
 
+        boolean sharedConnection = configurationService.getBooleanValue(facesContext, pushJMSSharedConnection);
+        int consumerPoolSize = configurationService.getIntValue(facesContext, pushJMSConsumerPoolSize);
+        int batchSize = configurationService.getIntValue(facesContext, pushJMSBatchSize);
+        String wildcardTopic = configurationService.getStringValue(facesContext, pushJMSWildcardTopic);
+
         return new JMSTopicsContextImpl(threadFactory, initialContext, connectionFactoryName, topicsNamespace, username,
-                password);
+                password, sharedConnection, consumerPoolSize, batchSize, wildcardTopic);
     }
 
-    private JMSTopicsContextImpl(ThreadFactory threadFactory, InitialContext initialContext, Name connectionFactoryName,
-            Name topicsNamespace, String username, String password) {
+    JMSTopicsContextImpl(ThreadFactory threadFactory, InitialContext initialContext, Name connectionFactoryName,
+            Name topicsNamespace, String username, String password, boolean sharedConnection, int consumerPoolSize,
+            int batchSize, String wildcardTopic) {
         super(threadFactory);
         this.initialContext = initialContext;
         this.connectionFactoryName = connectionFactoryName;
         this.topicsNamespace = topicsNamespace;
         this.username = username;
         this.password = password;
+        this.sharedConnection = sharedConnection;
+        this.consumerPoolSize = consumerPoolSize;
+        this.batchSize = Math.max(1, batchSize);
+        this.wildcardTopic = Strings.emptyToNull(wildcardTopic);
     }
 
     /*
@@ -120,13 +155,58 @@ public class JMSTopicsContextImpl extends TopicsContextImpl {
     protected org.richfaces.application.push.Topic createTopic(TopicKey key) {
         org.richfaces.application.push.Topic topic = super.createTopic(key);
         try {
-            jmsConsumerContexts.get(key.getTopicName());
+            if (sharedConnection) {
+                JMSConsumerPool pool = getConsumerPool();
+                if (wildcardTopic == null) {
+                    pool.subscribe(key.getTopicName(), key.getTopicName(), lookupTopic(key.getTopicName()));
+                }
+            } else {
+                jmsConsumerContexts.get(key.getTopicName());
+            }
         } catch (ExecutionException e) {
             throw new FacesException(String.format("Can't create a JMS topic %s", key), e);
+        } catch (NamingException e) {
+            throw new FacesException(String.format("Can't create a JMS topic %s", key), e);
+        } catch (JMSException e) {
+            throw new FacesException(String.format("Can't create a JMS topic %s", key), e);
         }
         return topic;
     }
 
+    /**
+     * Returns the pool consuming all topics through the shared connection, starts it on first access
+     */
+    private synchronized JMSConsumerPool getConsumerPool() throws NamingException, JMSException {
+        if (consumerPool == null) {
+            Connection connection = createConnection();
+            try {
+                JMSConsumerPool pool = new JMSConsumerPool(connection, getThreadFactory(), consumerPoolSize, batchSize,
+                        new JMSConsumerPool.BatchHandler() {
+                            public void handle(String topicName, List<Message> messages) {
+                                publishMessages(topicName, messages);
+                            }
+                        });
+
+                if (wildcardTopic != null) {
+                    Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                    try {
+                        pool.subscribe(null, wildcardTopic, session.createTopic(wildcardTopic));
+                    } catch (JMSException e) {
+                        pool.stop();
+                        throw e;
+                    } finally {
+                        session.close();
+                    }
+                }
+                consumerPool = pool;
+            } catch (JMSException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return consumerPool;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -142,6 +222,13 @@ public class JMSTopicsContextImpl extends TopicsContextImpl {
             }
         }
 
+        synchronized (this) {
+            if (consumerPool != null) {
+                consumerPool.stop();
+                consumerPool = null;
+            }
+        }
+
         super.destroy();
     }
 
@@ -169,14 +256,137 @@ public class JMSTopicsContextImpl extends TopicsContextImpl {
                 }
             }));
 
+    /**
+     * Publishes messages received from JMS to push topics. Consecutive messages for the same topic and subtopic are published
+     * at once, so that the order of messages is kept.
+     *
+     * @param consumerTopicName name of the topic the messages were received for, or null if it has to be determined from the
+     *        messages (wildcard subscription)
+     */
+    void publishMessages(String consumerTopicName, List<Message> messages) {
+        TopicKey batchKey = null;
+        boolean observed = false;
+        List<Object> batch = new ArrayList<Object>(messages.size());
+
+        for (Message message : messages) {
+            try {
+                TopicKey topicKey = getTopicKey(consumerTopicName, message);
+                if (!topicKey.equals(batchKey)) {
+                    publishBatch(batchKey, batch, consumerTopicName == null);
+                    batchKey = topicKey;
+                    observed = isObserved(topicKey);
+                }
+                if (observed) {
+                    batch.add(getMessageData(message));
+                }
+            } catch (JMSException e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+        }
+
+        publishBatch(batchKey, batch, consumerTopicName == null);
+    }
+
+    /**
+     * Returns true if messages for the topic key have to be published, false when there is no session they could be
+     * delivered to, so that they do not need to be deserialized
+     */
+    private boolean isObserved(TopicKey topicKey) {
+        return getMessageReplayLog() != null || hasSubscribers(topicKey);
+    }
+
+    private void publishBatch(TopicKey topicKey, List<Object> batch, boolean existingTopicsOnly) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            org.richfaces.application.push.Topic pushTopic = existingTopicsOnly ? getTopic(topicKey)
+                    : getOrCreateTopic(topicKey);
+            if (pushTopic instanceof TopicImpl) {
+                ((TopicImpl) pushTopic).publishAll(batch, topicKey.getSubtopicName());
+            } else if (pushTopic != null) {
+                for (Object messageData : batch) {
+                    pushTopic.publish(messageData, topicKey.getSubtopicName());
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private TopicKey getTopicKey(String consumerTopicName, Message message) throws JMSException {
+        String topicName = consumerTopicName;
+
+        if (topicName == null) {
+            topicName = message.getStringProperty(TOPIC_PROPERTY);
+        }
+        if (topicName == null && message.getJMSDestination() instanceof Topic) {
+            topicName = ((Topic) message.getJMSDestination()).getTopicName();
+
+            String prefix = getWildcardPrefix();
+            if (topicName.startsWith(prefix)) {
+                topicName = topicName.substring(prefix.length());
+            }
+        }
+
+        return new TopicKey(topicName, message.getStringProperty(SUBTOPIC_PROPERTY));
+    }
+
+    /**
+     * Returns the literal part of the wildcard topic name, e.g. "push." for "push.&gt;"
+     */
+    private String getWildcardPrefix() {
+        int end = wildcardTopic.length();
+        while (end > 0 && WILDCARD_CHARACTERS.indexOf(wildcardTopic.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return wildcardTopic.substring(0, end);
+    }
+
+    private Object getMessageData(Message message) throws JMSException {
+        Object messageData = null;
+
+        if (message instanceof ObjectMessage) {
+            messageData = ((ObjectMessage) message).getObject();
+        } else if (message instanceof TextMessage) {
+            TextMessage textMessage = (TextMessage) message;
+
+            if (message.getBooleanProperty(SERIALIZED_DATA_INDICATOR)) {
+                messageData = new JSLiteral(textMessage.getText());
+            } else {
+                messageData = textMessage.getText();
+            }
+        }
+
+        return messageData;
+    }
+
+    private Connection createConnection() throws JMSException, NamingException {
+        ConnectionFactory connectionFactory = (ConnectionFactory) initialContext.lookup(connectionFactoryName);
+        Connection connection = connectionFactory.createConnection(username, password);
+        connection.start();
+        return connection;
+    }
+
+    private Topic lookupTopic(String name) throws NamingException {
+        Name topicName = appendToName(topicsNamespace, name);
+
+        return (Topic) initialContext.lookup(topicName);
+    }
+
+    private Name appendToName(Name name, String comp) throws NamingException {
+        Name clonedName = (Name) name.clone();
+        return clonedName.add(comp);
+    }
+
     /**
      * A context that holds {@link MessageConsumer} connected to JMS and allows to transfer messages from JMS topic to Push topic
      */
     private class JMSConsumerContext {
 
-        private static final String SUBTOPIC_PROPERTY = "rf_push_subtopic";
-        private static final String SERIALIZED_DATA_INDICATOR = "org_richfaces_push_SerializedData";
-
         private final String name;
         private Connection connection;
         private Session session;
@@ -194,27 +404,23 @@ public class JMSTopicsContextImpl extends TopicsContextImpl {
         public synchronized void start() throws NamingException, JMSException {
             connection = createConnection();
             session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            consumer = session.createConsumer(lookupTopic(), null, false);
+            consumer = session.createConsumer(lookupTopic(name), null, false);
 
             pollingThread = getThreadFactory().newThread(new Runnable() {
                 public void run() {
                     try {
+                        List<Message> batch = new ArrayList<Message>();
                         while (true) {
                             Message message = consumer.receive();
 
                             if (message != null) {
-                                String subtopicName = message.getStringProperty(SUBTOPIC_PROPERTY);
-                                TopicKey topicKey = new TopicKey(name, subtopicName);
-
-                                org.richfaces.application.push.Topic pushTopic = getOrCreateTopic(topicKey);
-                                if (pushTopic != null) {
-                                    try {
-                                        Object messageData = getMessageData(message);
-                                        pushTopic.publish(messageData, subtopicName);
-                                    } catch (Exception e) {
-                                        LOGGER.error(e.getMessage(), e);
-                                    }
-                                }
+                                // drain messages that are already available and publish them at once
+                                do {
+                                    batch.add(message);
+                                } while (batch.size() < batchSize && (message = consumer.receiveNoWait()) != null);
+
+                                publishMessages(name, batch);
+                                batch.clear();
                             } else {
                                 break;
                             }
@@ -259,42 +465,6 @@ public class JMSTopicsContextImpl extends TopicsContextImpl {
                 }
             }
         }
-
-        private Connection createConnection() throws JMSException, NamingException {
-            ConnectionFactory connectionFactory = (ConnectionFactory) initialContext.lookup(connectionFactoryName);
-            Connection connection = connectionFactory.createConnection(username, password);
-            connection.start();
-            return connection;
-        }
-
-        private Topic lookupTopic() throws NamingException {
-            Name topicName = appendToName(topicsNamespace, name);
-
-            return (Topic) initialContext.lookup(topicName);
-        }
-
-        private Name appendToName(Name name, String comp) throws NamingException {
-            Name clonedName = (Name) name.clone();
-            return clonedName.add(comp);
-        }
-
-        private Object getMessageData(Message message) throws JMSException {
-            Object messageData = null;
-
-            if (message instanceof ObjectMessage) {
-                messageData = ((ObjectMessage) message).getObject();
-            } else if (message instanceof TextMessage) {
-                TextMessage textMessage = (TextMessage) message;
-
-                if (message.getBooleanProperty(SERIALIZED_DATA_INDICATOR)) {
-                    messageData = new JSLiteral(textMessage.getText());
-                } else {
-                    messageData = textMessage.getText();
-                }
-            }
-
-            return messageData;
-        }
     }
 
     private static String getConnectionFactory(FacesContext facesContext, ConfigurationService configurationService) {
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.metrics;
+
+import java.util.List;
+
+import org.richfaces.application.push.PushMetricsListener;
+import org.richfaces.application.push.Session;
+import org.richfaces.application.push.TopicKey;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * {@link PushMetricsListener} notifying several listeners in turn
+ */
+public final class CompositePushMetricsListener implements PushMetricsListener {
+    private final List<PushMetricsListener> listeners;
+
+    public CompositePushMetricsListener(Iterable<PushMetricsListener> listeners) {
+        this.listeners = ImmutableList.copyOf(listeners);
+    }
+
+    @Override
+    public void sessionCreated(Session session) {
+        for (PushMetricsListener listener : listeners) {
+            listener.sessionCreated(session);
+        }
+    }
+
+    @Override
+    public void sessionExpired(Session session) {
+        for (PushMetricsListener listener : listeners) {
+            listener.sessionExpired(session);
+        }
+    }
+
+    @Override
+    public void messagePublished(TopicKey key) {
+        for (PushMetricsListener listener : listeners) {
+            listener.messagePublished(key);
+        }
+    }
+
+    @Override
+    public void messageQueued(Session session, int queueLength) {
+        for (PushMetricsListener listener : listeners) {
+            listener.messageQueued(session, queueLength);
+        }
+    }
+
+    @Override
+    public void messageDelivered(TopicKey key, long latencyNanos) {
+        for (PushMetricsListener listener : listeners) {
+            listener.messageDelivered(key, latencyNanos);
+        }
+    }
+}
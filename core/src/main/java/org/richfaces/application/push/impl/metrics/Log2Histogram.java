@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram with buckets growing in powers of two: bucket 0 counts values lower than 1, bucket i counts values from
+ * 2<sup>i-1</sup> to 2<sup>i</sup>-1. Buckets are striped the same way as {@link StripedCounter}.
+ */
+final class Log2Histogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(StripedCounter.STRIPES * BUCKETS);
+
+    static int bucket(long value) {
+        return value <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(value);
+    }
+
+    public void record(long value) {
+        buckets.incrementAndGet(StripedCounter.stripe() * BUCKETS + bucket(value));
+    }
+
+    /**
+     * Returns counts of values in the buckets, up to the highest non-empty bucket
+     */
+    public long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        int length = 0;
+        for (int stripe = 0; stripe < StripedCounter.STRIPES; stripe++) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = buckets.get(stripe * BUCKETS + i);
+                if (count != 0) {
+                    counts[i] += count;
+                    length = Math.max(length, i + 1);
+                }
+            }
+        }
+
+        long[] result = new long[length];
+        System.arraycopy(counts, 0, result, 0, length);
+        return result;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.metrics;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.richfaces.application.push.PushMetricsListener;
+import org.richfaces.application.push.Session;
+import org.richfaces.application.push.TopicKey;
+import org.richfaces.application.push.impl.SessionManagerImpl;
+import org.richfaces.log.Logger;
+import org.richfaces.log.RichfacesLogger;
+
+/**
+ * <p>
+ * {@link PushMetricsListener} collecting metrics of the push subsystem of an application and exposing them via JMX.
+ * </p>
+ *
+ * <p>
+ * Counters are striped and updated without locking, so recording adds negligible overhead to publishing and delivery.
+ * Throughput is tracked per topic, not per subtopic, so the number of registered MBeans stays bounded by the number of topics.
+ * </p>
+ */
+public class PushMetrics implements PushMetricsListener, PushMetricsMBean {
+    private static final Logger LOGGER = RichfacesLogger.APPLICATION.getLogger();
+    private static final String DOMAIN = "org.richfaces";
+
+    private final SessionManagerImpl sessionManager;
+    private final String applicationName;
+
+    private final StripedCounter createdSessions = new StripedCounter();
+    private final StripedCounter expiredSessions = new StripedCounter();
+    private final StripedCounter publishedMessages = new StripedCounter();
+    private final StripedCounter deliveredMessages = new StripedCounter();
+    private final StripedCounter deliveryLatencySum = new StripedCounter();
+    private final AtomicLong maxDeliveryLatency = new AtomicLong();
+    private final Log2Histogram deliveryLatencyHistogram = new Log2Histogram();
+    private final Log2Histogram queueLengthHistogram = new Log2Histogram();
+    private final ConcurrentMap<String, TopicMetrics> topics = new ConcurrentHashMap<String, TopicMetrics>();
+
+    private final List<ObjectName> registeredNames = new CopyOnWriteArrayList<ObjectName>();
+    private volatile MBeanServer mBeanServer;
+
+    /**
+     * @param sessionManager session manager of the application, providing the session counts
+     * @param applicationName name distinguishing MBeans of this application, e.g. its context path
+     */
+    public PushMetrics(SessionManagerImpl sessionManager, String applicationName) {
+        this.sessionManager = sessionManager;
+        this.applicationName = applicationName;
+    }
+
+    /**
+     * Registers MBean of these metrics and MBeans of topics to the given server; MBeans of topics created later are registered
+     * when they are created.
+     */
+    public void register(MBeanServer server) throws JMException {
+        mBeanServer = server;
+
+        registerMBean(this, new ObjectName(DOMAIN + ":type=Push,application=" + ObjectName.quote(applicationName)));
+        for (TopicMetrics topicMetrics : topics.values()) {
+            registerTopicMBean(topicMetrics);
+        }
+    }
+
+    /**
+     * Unregisters all MBeans registered by {@link #register(MBeanServer)}
+     */
+    public void unregister() {
+        MBeanServer server = mBeanServer;
+        mBeanServer = null;
+
+        if (server != null) {
+            for (ObjectName name : registeredNames) {
+                try {
+                    server.unregisterMBean(name);
+                } catch (JMException e) {
+                    LOGGER.warn(e.getMessage(), e);
+                }
+            }
+        }
+        registeredNames.clear();
+    }
+
+    private void registerMBean(Object mBean, ObjectName name) throws JMException {
+        MBeanServer server = mBeanServer;
+        if (server != null) {
+            server.registerMBean(mBean, name);
+            registeredNames.add(name);
+        }
+    }
+
+    private void registerTopicMBean(TopicMetrics topicMetrics) {
+        try {
+            registerMBean(topicMetrics, new ObjectName(DOMAIN + ":type=PushTopic,application=" + ObjectName.quote(applicationName)
+                    + ",name=" + ObjectName.quote(topicMetrics.getTopicName())));
+        } catch (JMException e) {
+            LOGGER.warn(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns metrics of the topic with given name, creates them if the topic is recorded for the first time
+     */
+    TopicMetrics getTopicMetrics(String topicName) {
+        TopicMetrics topicMetrics = topics.get(topicName);
+        if (topicMetrics == null) {
+            TopicMetrics freshMetrics = new TopicMetrics(topicName);
+            topicMetrics = topics.putIfAbsent(topicName, freshMetrics);
+            if (topicMetrics == null) {
+                topicMetrics = freshMetrics;
+                registerTopicMBean(freshMetrics);
+            }
+        }
+        return topicMetrics;
+    }
+
+    @Override
+    public void sessionCreated(Session session) {
+        createdSessions.increment();
+    }
+
+    @Override
+    public void sessionExpired(Session session) {
+        expiredSessions.increment();
+    }
+
+    @Override
+    public void messagePublished(TopicKey key) {
+        publishedMessages.increment();
+        getTopicMetrics(key.getTopicName()).messagePublished();
+    }
+
+    @Override
+    public void messageQueued(Session session, int queueLength) {
+        queueLengthHistogram.record(queueLength);
+    }
+
+    @Override
+    public void messageDelivered(TopicKey key, long latencyNanos) {
+        deliveredMessages.increment();
+        deliveryLatencySum.add(latencyNanos);
+        deliveryLatencyHistogram.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+
+        long max = maxDeliveryLatency.get();
+        while (latencyNanos > max && !maxDeliveryLatency.compareAndSet(max, latencyNanos)) {
+            max = maxDeliveryLatency.get();
+        }
+
+        getTopicMetrics(key.getTopicName()).messageDelivered();
+    }
+
+    @Override
+    public int getActiveSessionCount() {
+        return sessionManager.getSessionCount();
+    }
+
+    @Override
+    public int getSessionQueueSize() {
+        return sessionManager.getQueuedSessionCount();
+    }
+
+    @Override
+    public long getCreatedSessionCount() {
+        return createdSessions.sum();
+    }
+
+    @Override
+    public long getExpiredSessionCount() {
+        return expiredSessions.sum();
+    }
+
+    @Override
+    public long getPublishedMessageCount() {
+        return publishedMessages.sum();
+    }
+
+    @Override
+    public long getDeliveredMessageCount() {
+        return deliveredMessages.sum();
+    }
+
+    @Override
+    public double getMeanDeliveryLatencyMillis() {
+        long count = deliveredMessages.sum();
+        return count == 0 ? 0 : deliveryLatencySum.sum() / (count * 1e6);
+    }
+
+    @Override
+    public double getMaxDeliveryLatencyMillis() {
+        return maxDeliveryLatency.get() / 1e6;
+    }
+
+    @Override
+    public long[] getDeliveryLatencyHistogram() {
+        return deliveryLatencyHistogram.snapshot();
+    }
+
+    @Override
+    public long[] getSessionQueueLengthHistogram() {
+        return queueLengthHistogram.snapshot();
+    }
+
+    @Override
+    public String[] getTopicNames() {
+        return topics.keySet().toArray(new String[0]);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.metrics;
+
+/**
+ * Management interface exposing metrics of the push subsystem of an application.
+ */
+public interface PushMetricsMBean {
+
+    /**
+     * Returns the number of registered push sessions
+     */
+    int getActiveSessionCount();
+
+    /**
+     * Returns the number of push sessions waiting in the expiration queue
+     */
+    int getSessionQueueSize();
+
+    long getCreatedSessionCount();
+
+    /**
+     * Returns the number of sessions destroyed because they expired or were invalidated
+     */
+    long getExpiredSessionCount();
+
+    /**
+     * Returns the number of messages published to subscribed sessions
+     */
+    long getPublishedMessageCount();
+
+    /**
+     * Returns the number of messages written to the clients of sessions
+     */
+    long getDeliveredMessageCount();
+
+    /**
+     * Returns the mean time between queuing a message for a session and writing it to the client, in milliseconds
+     */
+    double getMeanDeliveryLatencyMillis();
+
+    /**
+     * Returns the maximal time between queuing a message for a session and writing it to the client, in milliseconds
+     */
+    double getMaxDeliveryLatencyMillis();
+
+    /**
+     * Returns the histogram of delivery latencies in microseconds: item 0 counts latencies lower than 1µs, item i counts
+     * latencies from 2<sup>i-1</sup> to 2<sup>i</sup>-1µs
+     */
+    long[] getDeliveryLatencyHistogram();
+
+    /**
+     * Returns the histogram of session queue lengths seen when messages are queued: item i counts lengths from 2<sup>i-1</sup>
+     * to 2<sup>i</sup>-1
+     */
+    long[] getSessionQueueLengthHistogram();
+
+    /**
+     * Returns names of topics messages were published or delivered to
+     */
+    String[] getTopicNames();
+}
@@ -21,13 +21,18 @@
  */
 package org.richfaces.context;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import javax.faces.component.NamingContainer;
 import javax.faces.component.UIComponent;
+import javax.faces.component.UINamingContainer;
 import javax.faces.component.UIViewRoot;
 import javax.faces.context.FacesContext;
 import javax.faces.event.AbortProcessingException;
@@ -45,10 +50,54 @@ import org.ajax4jsf.component.AjaxOutput;
  * The O(n) is ensured by tracking nested {@link AjaxOutput} in each {@link NamingContainer} component on a way from the
  * {@link UIViewRoot} to the given component.
  *
+ * In addition, client IDs of all tracked {@link AjaxOutput}s are indexed on the {@link UIViewRoot}, so the ajax-rendered
+ * areas can be enumerated without walking the tree. The index is saved together with the view and so is reused on
+ * postbacks for as long as no {@link AjaxOutput} is added to the view; removals are applied to it incrementally. Indexed
+ * client IDs are resolved to components lazily, once per request, and IDs which no longer denote an {@link AjaxOutput}
+ * (e.g. of transient components missing in the restored view) are dropped from the index when they are resolved.
+ *
  * @author Nick Belaevski
  */
 public class AjaxOutputTracker implements SystemEventListener {
     private static final String ATTRIBUTE_NAME = "org.richfaces.AjaxOutputTracker";
+    private static final String INDEX_ATTRIBUTE_NAME = ATTRIBUTE_NAME + ".INDEX";
+    private static final String RESOLVED_INDEX_ATTRIBUTE_NAME = ATTRIBUTE_NAME + ".RESOLVED_INDEX";
+
+    /**
+     * View index together with the {@link AjaxOutput} components resolved from it during the current request
+     */
+    private static final class ResolvedIndex {
+        private final UIViewRoot viewRoot;
+        private final Set<String> index;
+        private final Map<String, UIComponent> ajaxOutputs = new HashMap<String, UIComponent>();
+
+        ResolvedIndex(UIViewRoot viewRoot, Set<String> index) {
+            this.viewRoot = viewRoot;
+            this.index = index;
+        }
+
+        /**
+         * Returns the {@link AjaxOutput} with the given client ID, looking it up in the view on the first call only; returns
+         * null when the client ID no longer denotes an {@link AjaxOutput}
+         */
+        UIComponent resolve(FacesContext facesContext, String clientId) {
+            UIComponent component = ajaxOutputs.get(clientId);
+            if (component == null && !ajaxOutputs.containsKey(clientId)) {
+                String separator = String.valueOf(UINamingContainer.getSeparatorChar(facesContext));
+                component = viewRoot.findComponent(separator + clientId);
+                if (!(component instanceof AjaxOutput)) {
+                    component = null;
+                }
+                ajaxOutputs.put(clientId, component);
+            }
+            return component;
+        }
+
+        void remove(String clientId) {
+            index.remove(clientId);
+            ajaxOutputs.remove(clientId);
+        }
+    }
 
     /**
      * Tracks additions (resp. removals) of {@link AjaxOutput} to (resp. from) a component tree on {@link PostAddToViewEvent}
@@ -96,6 +145,57 @@ public class AjaxOutputTracker implements SystemEventListener {
         return ajaxOutputs;
     }
 
+    /**
+     * Returns client IDs of all {@link AjaxOutput} components in the current view which are currently ajax-rendered.
+     *
+     * The components are looked up through the view index; the tree is walked only when the index is missing.
+     */
+    static Collection<String> getAjaxRenderedClientIds(FacesContext facesContext) {
+        ResolvedIndex resolvedIndex = getResolvedIndex(facesContext, facesContext.getViewRoot());
+        List<String> clientIds = new ArrayList<String>(resolvedIndex.index.size());
+        for (String clientId : new ArrayList<String>(resolvedIndex.index)) {
+            UIComponent component = resolvedIndex.resolve(facesContext, clientId);
+            if (component == null) {
+                resolvedIndex.remove(clientId);
+            } else if (((AjaxOutput) component).isAjaxRendered()) {
+                clientIds.add(component.getClientId(facesContext));
+            }
+        }
+
+        return clientIds;
+    }
+
+    private static ResolvedIndex getResolvedIndex(FacesContext facesContext, UIViewRoot viewRoot) {
+        Map<Object, Object> contextAttributes = facesContext.getAttributes();
+        ResolvedIndex resolvedIndex = (ResolvedIndex) contextAttributes.get(RESOLVED_INDEX_ATTRIBUTE_NAME);
+        if (resolvedIndex != null && resolvedIndex.viewRoot == viewRoot) {
+            return resolvedIndex;
+        }
+
+        Set<String> index = getIndex(viewRoot);
+        if (index != null) {
+            resolvedIndex = new ResolvedIndex(viewRoot, index);
+        } else {
+            Collection<UIComponent> ajaxOutputs = getAjaxOutputs(facesContext, viewRoot);
+            index = new LinkedHashSet<String>(ajaxOutputs.size());
+            resolvedIndex = new ResolvedIndex(viewRoot, index);
+            for (UIComponent component : ajaxOutputs) {
+                String clientId = component.getClientId(facesContext);
+                index.add(clientId);
+                resolvedIndex.ajaxOutputs.put(clientId, component);
+            }
+            viewRoot.getAttributes().put(INDEX_ATTRIBUTE_NAME, index);
+        }
+
+        contextAttributes.put(RESOLVED_INDEX_ATTRIBUTE_NAME, resolvedIndex);
+        return resolvedIndex;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> getIndex(UIViewRoot viewRoot) {
+        return (Set<String>) viewRoot.getAttributes().get(INDEX_ATTRIBUTE_NAME);
+    }
+
     /**
      * Returns a list of {@link AjaxOutput} (or IDs of {@link NamingContainer} that contains at least one {@link AjaxOutput})
      * tracked in the given component subtree.
@@ -166,7 +266,52 @@ public class AjaxOutputTracker implements SystemEventListener {
         return c;
     }
 
+    private static UIViewRoot findViewRoot(UIComponent component) {
+        UIComponent c = component;
+        while (c != null && !(c instanceof UIViewRoot)) {
+            c = c.getParent();
+        }
+
+        return (UIViewRoot) c;
+    }
+
+    /**
+     * Drops the view index; it will be rebuilt on the next lookup
+     */
+    private void invalidateIndex(UIComponent c) {
+        UIViewRoot viewRoot = findViewRoot(c);
+        if (viewRoot != null && getIndex(viewRoot) != null) {
+            viewRoot.getAttributes().remove(INDEX_ATTRIBUTE_NAME);
+        }
+
+        FacesContext.getCurrentInstance().getAttributes().remove(RESOLVED_INDEX_ATTRIBUTE_NAME);
+    }
+
+    /**
+     * Removes the given component from the view index
+     */
+    private void removeFromIndex(UIComponent c) {
+        UIViewRoot viewRoot = findViewRoot(c);
+        if (viewRoot == null) {
+            return;
+        }
+
+        FacesContext facesContext = FacesContext.getCurrentInstance();
+        String clientId = c.getClientId(facesContext);
+        Set<String> index = getIndex(viewRoot);
+        if (index != null) {
+            index.remove(clientId);
+        }
+
+        ResolvedIndex resolvedIndex = (ResolvedIndex) facesContext.getAttributes().get(RESOLVED_INDEX_ATTRIBUTE_NAME);
+        if (resolvedIndex != null && resolvedIndex.viewRoot == viewRoot) {
+            resolvedIndex.remove(clientId);
+        }
+    }
+
     private void componentAdded(UIComponent c) {
+        invalidateIndex(c);
+
         UIComponent child = c;
         UIComponent parent;
         while ((parent = findParentContainerComponent(child)) != null) {
@@ -183,6 +328,8 @@ public class AjaxOutputTracker implements SystemEventListener {
     }
 
     private void componentRemoved(UIComponent c) {
+        removeFromIndex(c);
+
         UIComponent child = c;
         UIComponent parent;
         while ((parent = findParentContainerComponent(child)) != null) {
@@ -0,0 +1,46 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.context;
+
+import javax.faces.context.FacesContext;
+
+/**
+ * <p>
+ * Listener notified about the time spent in the phases of every RichFaces ajax request, e.g. in order to find slow render
+ * targets in production.
+ * </p>
+ *
+ * <p>
+ * Timing is measured only when at least one listener is registered or when timing is sent to the client (see
+ * {@link org.richfaces.application.CoreConfiguration.Items#ajaxTimingHeader} and
+ * {@link org.richfaces.application.CoreConfiguration.Items#ajaxTimingLog}). Listeners are called on request threads, so
+ * implementations have to be thread-safe. Implementations are loaded in conformance with {@link java.util.ServiceLoader}
+ * (/META-INF/services/org.richfaces.context.AjaxTimingListener).
+ * </p>
+ */
+public interface AjaxTimingListener {
+
+    /**
+     * Called when the partial response of an ajax request was rendered
+     */
+    void ajaxRequestProcessed(FacesContext context, AjaxTimings timings);
+}
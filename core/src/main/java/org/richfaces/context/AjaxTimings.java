@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.context;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>
+ * Time spent in the phases of one ajax request, in nanoseconds:
+ * </p>
+ *
+ * <ul>
+ * <li>id resolution - visiting the activator component and resolving its execute and render ids</li>
+ * <li>execute - visiting the executed components in the apply request values, process validations and update model values
+ * phases</li>
+ * <li>render - rendering the partial response, including the render regions and the extensions</li>
+ * <li>render regions - rendering every region (render target or auto-updated output) by its client id</li>
+ * <li>extensions - collecting and serializing the RichFaces partial response extensions (scripts, handlers, data)</li>
+ * </ul>
+ *
+ * <p>
+ * Execute and render times don't include the time spent in id resolution.
+ * </p>
+ */
+public final class AjaxTimings {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private long idResolutionNanos;
+    private long executeNanos;
+    private long renderNanos;
+    private long renderStart = -1;
+    private long renderIdResolutionStart;
+    private long extensionsNanos;
+    private final Map<String, Long> regionRenderNanos = new LinkedHashMap<String, Long>();
+
+    void addIdResolution(long nanos) {
+        idResolutionNanos += nanos;
+    }
+
+    void addExecute(long nanos) {
+        executeNanos += nanos;
+    }
+
+    void startRender() {
+        renderStart = System.nanoTime();
+        renderIdResolutionStart = idResolutionNanos;
+    }
+
+    void endRender() {
+        renderNanos += getCurrentRenderNanos();
+        renderStart = -1;
+    }
+
+    private long getCurrentRenderNanos() {
+        if (renderStart < 0) {
+            return 0;
+        }
+        return System.nanoTime() - renderStart - (idResolutionNanos - renderIdResolutionStart);
+    }
+
+    void addRegionRender(String clientId, long nanos) {
+        Long previous = regionRenderNanos.get(clientId);
+        regionRenderNanos.put(clientId, previous != null ? previous + nanos : nanos);
+    }
+
+    void addExtensions(long nanos) {
+        extensionsNanos += nanos;
+    }
+
+    public long getIdResolutionNanos() {
+        return idResolutionNanos;
+    }
+
+    public long getExecuteNanos() {
+        return executeNanos;
+    }
+
+    /**
+     * Returns the render time, which covers the time elapsed so far when called while the partial response is being rendered
+     */
+    public long getRenderNanos() {
+        return renderNanos + getCurrentRenderNanos();
+    }
+
+    /**
+     * Returns the render time of every render region by its client id, in the order the regions were rendered
+     */
+    public Map<String, Long> getRegionRenderNanos() {
+        return Collections.unmodifiableMap(regionRenderNanos);
+    }
+
+    public long getExtensionsNanos() {
+        return extensionsNanos;
+    }
+
+    /**
+     * Formats the timings in the syntax of the Server-Timing header, with durations in milliseconds, e.g.
+     * <code>resolve;dur=0.120, execute;dur=1.500, render;dur=4.210, region;desc="form:table";dur=3.900, extensions;dur=0.080</code>
+     */
+    public String toHeaderValue() {
+        StringBuilder result = new StringBuilder();
+        appendMetric(result, "resolve", null, idResolutionNanos);
+        appendMetric(result, "execute", null, executeNanos);
+        appendMetric(result, "render", null, getRenderNanos());
+        for (Map.Entry<String, Long> entry : regionRenderNanos.entrySet()) {
+            appendMetric(result, "region", entry.getKey(), entry.getValue());
+        }
+        appendMetric(result, "extensions", null, extensionsNanos);
+        return result.toString();
+    }
+
+    /**
+     * Formats only the id resolution and execute timings, which are known before the partial response is rendered, in the
+     * syntax of the Server-Timing header, e.g. <code>resolve;dur=0.120, execute;dur=1.500</code>
+     */
+    public String toExecuteHeaderValue() {
+        StringBuilder result = new StringBuilder();
+        appendMetric(result, "resolve", null, idResolutionNanos);
+        appendMetric(result, "execute", null, executeNanos);
+        return result.toString();
+    }
+
+    private static void appendMetric(StringBuilder result, String name, String description, long nanos) {
+        if (result.length() > 0) {
+            result.append(", ");
+        }
+        result.append(name);
+        if (description != null) {
+            result.append(";desc=\"").append(description.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        result.append(";dur=").append(String.format(Locale.US, "%.3f", nanos / NANOS_PER_MILLI));
+    }
+
+    @Override
+    public String toString() {
+        return toHeaderValue();
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.context;
+
+import static org.richfaces.component.MetaComponentResolver.META_COMPONENT_SEPARATOR_CHAR;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.FacesContext;
+import javax.faces.event.AbortProcessingException;
+import javax.faces.event.PostAddToViewEvent;
+import javax.faces.event.PreRemoveFromViewEvent;
+import javax.faces.event.SystemEvent;
+import javax.faces.event.SystemEventListener;
+
+import org.richfaces.util.SeparatorChar;
+
+/**
+ * Cache of the client IDs computed by {@link ComponentIdResolver} for the execute/render IDs of a component, kept across
+ * the postbacks of a view.
+ *
+ * Entries are keyed by the client ID of the source component and by the IDs being resolved. They are kept in the view map
+ * of the {@link UIViewRoot} together with the ID of the view they were resolved in, so they are not saved with the
+ * component state. Once a view has a cache, an instance of this class is subscribed to the {@link PostAddToViewEvent} and
+ * {@link PreRemoveFromViewEvent} of the view and drops only the entries whose IDs or source client ID mention the ID of the
+ * added or removed component; views without a cache are not listened to. IDs referring to meta-components (e.g.
+ * <code>table@rows</code> or <code>@region</code>) depend on the model state and are never cached.
+ */
+public class ComponentIdResolverCache implements SystemEventListener, Serializable {
+    private static final long serialVersionUID = 6541204093012376871L;
+    private static final String ATTRIBUTE_NAME = "org.richfaces.ComponentIdResolverCache";
+    private static final char KEY_SEPARATOR = ' ';
+    private static final int MAX_ENTRIES = 128;
+
+    /**
+     * Resolved IDs together with the component IDs they depend on
+     */
+    private static final class Entry implements Serializable {
+        private static final long serialVersionUID = -3170497244637380384L;
+        private final ArrayList<String> resolvedIds;
+        private final HashSet<String> componentIds;
+
+        Entry(ArrayList<String> resolvedIds, HashSet<String> componentIds) {
+            this.resolvedIds = resolvedIds;
+            this.componentIds = componentIds;
+        }
+    }
+
+    /**
+     * Entries resolved in the view with the given ID
+     */
+    private static final class Cache implements Serializable {
+        private static final long serialVersionUID = 1873626370318394525L;
+        private final String viewId;
+        private final HashMap<String, Entry> entries = new HashMap<String, Entry>();
+
+        Cache(String viewId) {
+            this.viewId = viewId;
+        }
+    }
+
+    /**
+     * Resolves the given IDs relative to the component, consulting the cache of the current view first.
+     */
+    static Collection<String> resolve(FacesContext context, UIComponent component, Collection<String> ids) {
+        UIViewRoot viewRoot = context.getViewRoot();
+        String clientId = component.getClientId(context);
+        String key = viewRoot != null && !viewRoot.isTransient() ? createKey(clientId, ids) : null;
+
+        Cache cache = null;
+        if (key != null) {
+            cache = getCache(viewRoot);
+            if (cache != null) {
+                Entry entry = cache.entries.get(key);
+                if (entry != null) {
+                    return entry.resolvedIds;
+                }
+            }
+        }
+
+        ComponentIdResolver locator = new ComponentIdResolver(context);
+        for (String id : ids) {
+            locator.addId(id);
+        }
+
+        locator.resolve(component);
+
+        Collection<String> resolvedIds = locator.getResolvedIds();
+        if (key != null) {
+            if (cache == null) {
+                cache = createCache(viewRoot);
+            }
+
+            if (cache.entries.size() < MAX_ENTRIES) {
+                Entry entry = new Entry(new ArrayList<String>(resolvedIds), getComponentIds(clientId, ids));
+                cache.entries.put(key, entry);
+                return entry.resolvedIds;
+            }
+        }
+
+        return resolvedIds;
+    }
+
+    /**
+     * Returns cache key for the given IDs or null if they can't be cached
+     */
+    private static String createKey(String clientId, Collection<String> ids) {
+        StringBuilder key = new StringBuilder(clientId);
+        for (String id : ids) {
+            if (id.indexOf(META_COMPONENT_SEPARATOR_CHAR) >= 0) {
+                return null;
+            }
+
+            key.append(KEY_SEPARATOR).append(id);
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Returns IDs of all components named by the client ID of the source component and by the IDs being resolved
+     */
+    private static HashSet<String> getComponentIds(String clientId, Collection<String> ids) {
+        HashSet<String> componentIds = new HashSet<String>();
+        for (String id : SeparatorChar.SPLITTER.split(clientId)) {
+            componentIds.add(id);
+        }
+        for (String id : ids) {
+            for (String componentId : SeparatorChar.SPLITTER.split(id)) {
+                componentIds.add(componentId);
+            }
+        }
+
+        return componentIds;
+    }
+
+    /**
+     * Returns the cache of the view or null if there is none; the view map is not created by this method
+     */
+    private static Cache getCache(UIViewRoot viewRoot) {
+        Map<String, Object> viewMap = viewRoot.getViewMap(false);
+        Cache cache = viewMap != null ? (Cache) viewMap.get(ATTRIBUTE_NAME) : null;
+        if (cache != null && !cache.viewId.equals(String.valueOf(viewRoot.getViewId()))) {
+            return null;
+        }
+
+        return cache;
+    }
+
+    /**
+     * Creates the cache of the view and starts listening to the component changes of the view
+     */
+    private static Cache createCache(UIViewRoot viewRoot) {
+        Cache cache = new Cache(String.valueOf(viewRoot.getViewId()));
+        boolean listening = viewRoot.getViewMap().put(ATTRIBUTE_NAME, cache) != null;
+
+        if (!listening) {
+            ComponentIdResolverCache listener = new ComponentIdResolverCache();
+            viewRoot.subscribeToViewEvent(PostAddToViewEvent.class, listener);
+            viewRoot.subscribeToViewEvent(PreRemoveFromViewEvent.class, listener);
+        }
+
+        return cache;
+    }
+
+    /**
+     * Drops the cache entries depending on the ID of the component added or removed by {@link PostAddToViewEvent} or
+     * {@link PreRemoveFromViewEvent}
+     */
+    public void processEvent(SystemEvent event) throws AbortProcessingException {
+        if (!(event instanceof PostAddToViewEvent || event instanceof PreRemoveFromViewEvent)) {
+            throw new IllegalArgumentException(event.toString());
+        }
+
+        // components without ID can't be referred to by the cached entries
+        String id = ((UIComponent) event.getSource()).getId();
+        if (id == null) {
+            return;
+        }
+
+        UIViewRoot viewRoot = FacesContext.getCurrentInstance().getViewRoot();
+        Cache cache = viewRoot != null ? getCache(viewRoot) : null;
+        if (cache == null) {
+            return;
+        }
+
+        for (Iterator<Entry> entries = cache.entries.values().iterator(); entries.hasNext();) {
+            if (entries.next().componentIds.contains(id)) {
+                entries.remove();
+            }
+        }
+    }
+
+    public boolean isListenerForSource(Object source) {
+        return source instanceof UIComponent;
+    }
+}
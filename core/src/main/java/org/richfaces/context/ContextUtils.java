@@ -26,6 +26,7 @@ import static org.richfaces.renderkit.AjaxConstants.FORM;
 import static org.richfaces.renderkit.AjaxConstants.NONE;
 import static org.richfaces.renderkit.AjaxConstants.THIS;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -121,7 +122,7 @@ final class ContextUtils {
         } else if (checkKeyword(shortIds, NONE)) {
             // do nothing, use empty set
         } else {
-            ComponentIdResolver locator = new ComponentIdResolver(context);
+            Collection<String> resolverIds = new ArrayList<String>(shortIds.size());
 
             for (String id : shortIds) {
                 String predefinedMetaComponentId = getPredefinedMetaComponentId(context, component, id);
@@ -136,12 +137,10 @@ final class ContextUtils {
                     }
                 }
 
-                locator.addId(id);
+                resolverIds.add(id);
             }
 
-            locator.resolve(component);
-
-            result.addAll(locator.getResolvedIds());
+            result.addAll(ComponentIdResolverCache.resolve(context, component, resolverIds));
         }
 
         return result;
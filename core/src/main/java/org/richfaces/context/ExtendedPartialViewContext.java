@@ -26,6 +26,10 @@ import static org.richfaces.renderkit.AjaxConstants.ALL;
 import static org.richfaces.renderkit.AjaxConstants.BEHAVIOR_EVENT_PARAMETER;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -33,7 +37,9 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.zip.GZIPOutputStream;
 
+import javax.faces.FacesException;
 import javax.faces.FactoryFinder;
 import javax.faces.component.UIComponent;
 import javax.faces.component.UIViewRoot;
@@ -41,20 +47,28 @@ import javax.faces.component.visit.VisitCallback;
 import javax.faces.component.visit.VisitContext;
 import javax.faces.component.visit.VisitContextFactory;
 import javax.faces.component.visit.VisitHint;
+import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import javax.faces.context.PartialResponseWriter;
 import javax.faces.context.PartialViewContext;
 import javax.faces.context.PartialViewContextWrapper;
+import javax.faces.context.ResponseWriter;
 import javax.faces.event.PhaseId;
 
 import org.ajax4jsf.component.AjaxOutput;
+import org.ajax4jsf.io.CharBuffer;
+import org.ajax4jsf.io.FastBufferWriter;
 import org.ajax4jsf.javascript.ScriptUtils;
+import org.richfaces.application.CoreConfiguration;
 import org.richfaces.application.ServiceTracker;
+import org.richfaces.application.configuration.ConfigurationServiceHelper;
 import org.richfaces.javascript.JavaScriptService;
 import org.richfaces.javascript.ScriptsHolder;
+import org.richfaces.log.Logger;
+import org.richfaces.log.RichfacesLogger;
 import org.richfaces.renderkit.AjaxDataSerializer;
 import org.richfaces.renderkit.HtmlConstants;
-import org.richfaces.util.FastJoiner;
+import org.richfaces.renderkit.StreamingAjaxDataSerializer;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Maps;
@@ -141,7 +155,15 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
     private static final String RENDER_ELEMENT_NAME = "render";
     private static final String DATA_ELEMENT_NAME = "data";
     private static final String COMPONENT_DATA_ELEMENT_NAME = "componentData";
-    private static final FastJoiner SPACE_JOINER = FastJoiner.on(' ');
+    private static final String TIMING_EXTENSION_ID = "org.richfaces.timing";
+    private static final String TIMING_ELEMENT_NAME = "timing";
+    private static final String TIMING_HEADER = "X-RF-Timing";
+    private static final int EXTENSION_BUFFER_SIZE = 1024;
+    private static final int COMPRESSION_BUFFER_SIZE = 8192;
+    private static final String GZIP_ENCODING = "gzip";
+    private static final String DEFAULT_ENCODING = "UTF-8";
+    private static final String TEXT_XML_CONTENT_TYPE = "text/xml";
+    private static final Logger LOG = RichfacesLogger.CONTEXT.getLogger();
 
     private static final String ATTRIBUTE_NAME = ExtendedPartialViewContext.class.getName();
 
@@ -150,6 +172,7 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
     private PartialResponseWriter partialResponseWriter;
     private boolean released = false;
     private boolean isActivatorVisitedAtRender = false;
+    private final Collection<AjaxTimingListener> timingListeners;
 
     // request data
     private ContextMode contextMode = null;
@@ -171,14 +194,29 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
     private Map<String, Object> responseComponentDataMap = Maps.newHashMap();
     private StringBuilder beforedomupdateHandler = new StringBuilder();
     private StringBuilder completeHandler = new StringBuilder();
+    private FastBufferWriter extensionBuffer;
+
+    // timing of the request phases, null when timing is not measured
+    private AjaxTimings timings;
+    private boolean timingHeader = false;
+    private boolean timingLog = false;
 
     // current visit mode setup during #processPartial method
     private Stack<ExtendedVisitContextMode> visitMode = new Stack<ExtendedVisitContextMode>();
 
 
     public ExtendedPartialViewContext(PartialViewContext wrappedViewContext, FacesContext facesContext) {
+        this(wrappedViewContext, facesContext, Collections.<AjaxTimingListener>emptySet());
+    }
+
+    /**
+     * Creates context notifying given listeners about the timing of ajax requests
+     */
+    public ExtendedPartialViewContext(PartialViewContext wrappedViewContext, FacesContext facesContext,
+            Collection<AjaxTimingListener> timingListeners) {
         this.wrappedViewContext = wrappedViewContext;
         this.facesContext = facesContext;
+        this.timingListeners = timingListeners;
         setInstance(facesContext, this);
     }
 
@@ -255,6 +293,14 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
     @Override
     public void processPartial(PhaseId phaseId) {
         initializeContext();
+        if (timings != null) {
+            processPartialTimed(phaseId);
+        } else {
+            processPartialInVisitMode(phaseId);
+        }
+    }
+
+    private void processPartialInVisitMode(PhaseId phaseId) {
         try {
             if (isProcessedExecutePhase(phaseId)) {
                 setVisitMode(ExtendedVisitContextMode.EXECUTE);
@@ -267,6 +313,37 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
         }
     }
 
+    /**
+     * Processes the phase measuring its time and notifies {@link AjaxTimingListener}s once the partial response was rendered
+     */
+    private void processPartialTimed(PhaseId phaseId) {
+        AjaxTimings timings = this.timings;
+        if (isProcessedExecutePhase(phaseId)) {
+            long idResolutionBefore = timings.getIdResolutionNanos();
+            long start = System.nanoTime();
+            try {
+                processPartialInVisitMode(phaseId);
+            } finally {
+                timings.addExecute(System.nanoTime() - start - (timings.getIdResolutionNanos() - idResolutionBefore));
+            }
+        } else {
+            if (timingHeader && phaseId == PhaseId.RENDER_RESPONSE) {
+                renderTimingHeader(getFacesContext());
+            }
+            timings.startRender();
+            try {
+                processPartialInVisitMode(phaseId);
+            } finally {
+                timings.endRender();
+            }
+            if (phaseId == PhaseId.RENDER_RESPONSE) {
+                for (AjaxTimingListener listener : timingListeners) {
+                    listener.ajaxRequestProcessed(facesContext, timings);
+                }
+            }
+        }
+    }
+
     private boolean isProcessedExecutePhase(PhaseId phaseId) {
         return phaseId == PhaseId.APPLY_REQUEST_VALUES || phaseId == PhaseId.PROCESS_VALIDATIONS
                 || phaseId == PhaseId.UPDATE_MODEL_VALUES;
@@ -453,6 +530,15 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
         return beforedomupdateHandler.toString();
     }
 
+    /**
+     * Returns the timing of the current ajax request, or <tt>null</tt> when timing is not measured
+     *
+     * @see AjaxTimingListener
+     */
+    public AjaxTimings getTimings() {
+        return timings;
+    }
+
     /**
      * Returns true if rendering in current context is limited to components listed in activator's component <em>render</em> attribute.
      */
@@ -500,18 +586,88 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
     public PartialResponseWriter getPartialResponseWriter() {
         assertNotReleased();
         if (partialResponseWriter == null) {
-            partialResponseWriter = new ExtensionWritingPartialResponseWriter(wrappedViewContext.getPartialResponseWriter());
+            partialResponseWriter = createCompressingPartialResponseWriter();
+        }
+        if (partialResponseWriter == null) {
+            partialResponseWriter = new ExtensionWritingPartialResponseWriter(wrappedViewContext.getPartialResponseWriter(), null, null);
         }
         return partialResponseWriter;
     }
 
+    /**
+     * <p>Creates partial response writer writing gzip-compressed partial-response directly into the response output stream.</p>
+     *
+     * <p>Used only when {@link CoreConfiguration.Items#partialResponseCompression} is enabled, the request is an ajax request
+     * and the client accepts gzip content encoding. Returns <tt>null</tt> when the response can't be compressed (e.g. it was
+     * already committed or the response writer was already obtained).</p>
+     */
+    private PartialResponseWriter createCompressingPartialResponseWriter() {
+        FacesContext context = getFacesContext();
+        if (context == null || context.getViewRoot() == null || !isAjaxRequest()
+                || !ConfigurationServiceHelper.getBooleanConfigurationValue(context, CoreConfiguration.Items.partialResponseCompression)) {
+            return null;
+        }
+
+        ExternalContext externalContext = context.getExternalContext();
+        String acceptEncoding = externalContext.getRequestHeaderMap().get("Accept-Encoding");
+        if (acceptEncoding == null || !acceptEncoding.contains(GZIP_ENCODING) || externalContext.isResponseCommitted()) {
+            return null;
+        }
+
+        String encoding = externalContext.getRequestCharacterEncoding();
+        if (encoding == null) {
+            encoding = DEFAULT_ENCODING;
+        }
+
+        OutputStream responseStream;
+        try {
+            responseStream = externalContext.getResponseOutputStream();
+        } catch (IllegalStateException e) {
+            LOG.debug("Response writer was already obtained, partial response won't be compressed");
+            return null;
+        } catch (IOException e) {
+            LOG.warn("Unable to compress partial response: " + e.getMessage(), e);
+            return null;
+        }
+
+        // headers of the partial response have to be set before the gzip header is written into the response
+        externalContext.setResponseContentType(TEXT_XML_CONTENT_TYPE);
+        externalContext.setResponseCharacterEncoding(encoding);
+        externalContext.addResponseHeader("Cache-Control", "no-cache");
+        externalContext.setResponseHeader("Content-Encoding", GZIP_ENCODING);
+        externalContext.addResponseHeader("Vary", "Accept-Encoding");
+
+        GZIPOutputStream compressedStream;
+        try {
+            compressedStream = new GZIPOutputStream(responseStream, COMPRESSION_BUFFER_SIZE);
+        } catch (IOException e) {
+            throw new FacesException(e.getMessage(), e);
+        }
+
+        Writer out;
+        try {
+            out = new OutputStreamWriter(compressedStream, encoding);
+        } catch (UnsupportedEncodingException e) {
+            throw new FacesException(e.getMessage(), e);
+        }
+        ResponseWriter responseWriter = context.getRenderKit().createResponseWriter(out, TEXT_XML_CONTENT_TYPE, encoding);
+        return new ExtensionWritingPartialResponseWriter(new PartialResponseWriter(responseWriter), out, compressedStream);
+    }
+
     /**
      * Makes sure the RichFaces-specific extensions are written into partial-response before the document is ended.
      */
     private class ExtensionWritingPartialResponseWriter extends PartialResponseWriterWrapper {
 
-        public ExtensionWritingPartialResponseWriter(PartialResponseWriter wrapped) {
+        private final Writer compressedWriter;
+        private final GZIPOutputStream compressedStream;
+        private boolean compressionFinished = false;
+
+        public ExtensionWritingPartialResponseWriter(PartialResponseWriter wrapped, Writer compressedWriter,
+                GZIPOutputStream compressedStream) {
             super(wrapped);
+            this.compressedWriter = compressedWriter;
+            this.compressedStream = compressedStream;
         }
 
         /**
@@ -523,11 +679,37 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
                 FacesContext facesContext = FacesContext.getCurrentInstance();
                 UIViewRoot viewRoot = facesContext.getViewRoot();
 
-
+                long start = timings != null ? System.nanoTime() : 0;
                 addJavaScriptServicePageScripts(facesContext);
                 renderExtensions(facesContext, viewRoot);
+                if (timings != null) {
+                    timings.addExtensions(System.nanoTime() - start);
+                    if (timingLog) {
+                        renderTiming(facesContext, viewRoot);
+                    }
+                }
             } finally {
-                super.endDocument();
+                try {
+                    super.endDocument();
+                } finally {
+                    finishCompression();
+                }
+            }
+        }
+
+        /**
+         * Writes the remaining compressed data and the gzip trailer into the response, so that the response is a complete
+         * gzip stream even when rendering failed before the document was ended
+         */
+        void finishCompression() throws IOException {
+            if (compressedStream != null && !compressionFinished) {
+                compressionFinished = true;
+                try {
+                    super.flush();
+                    compressedWriter.flush();
+                } finally {
+                    compressedStream.finish();
+                }
             }
         }
     }
@@ -537,6 +719,7 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
      */
     private void visitActivatorAtExecute() {
         if (detectContextMode() == ContextMode.EXTENDED) {
+            long start = timings != null ? System.nanoTime() : 0;
 
             ActivatorComponentExecuteCallback callback = new ActivatorComponentExecuteCallback(getFacesContext(), behaviorEvent);
 
@@ -549,6 +732,10 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
                     addImplicitExecuteIds(executeIds);
                 }
             }
+
+            if (timings != null) {
+                timings.addIdResolution(System.nanoTime() - start);
+            }
         }
     }
 
@@ -568,6 +755,7 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
      */
     private void visitActivatorAtRender() {
         if (detectContextMode() == ContextMode.EXTENDED && !isActivatorVisitedAtRender) {
+            long start = timings != null ? System.nanoTime() : 0;
             ActivatorComponentRenderCallback callback = new ActivatorComponentRenderCallback(getFacesContext(), behaviorEvent);
 
             if (visitActivatorComponent(activatorComponentId, callback, EnumSet.of(VisitHint.SKIP_UNRENDERED))) {
@@ -589,6 +777,10 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
                 setResponseData(responseData);
             }
             isActivatorVisitedAtRender = true;
+
+            if (timings != null) {
+                timings.addIdResolution(System.nanoTime() - start);
+            }
         }
     }
 
@@ -601,6 +793,15 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
     public void release() {
         assertNotReleased();
 
+        if (partialResponseWriter instanceof ExtensionWritingPartialResponseWriter) {
+            try {
+                ((ExtensionWritingPartialResponseWriter) partialResponseWriter).finishCompression();
+            } catch (IOException e) {
+                LOG.warn("Unable to finish compressed partial response: " + e.getMessage(), e);
+            }
+        }
+        partialResponseWriter = null;
+
         super.release();
 
         if (facesContext != null && !facesContext.isReleased()) {
@@ -618,6 +819,7 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
         renderIds = null;
 
         limitRender = false;
+        timings = null;
 
         activatorComponentId = null;
         behaviorEvent = null;
@@ -647,13 +849,7 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
      */
     protected void addImplicitRenderIds(Collection<String> renderIds) {
         if (!limitRender) {
-            final FacesContext facesContext = getFacesContext();
-            Collection<UIComponent> ajaxOutputs = AjaxOutputTracker.getAjaxOutputs(facesContext, facesContext.getViewRoot());
-            for (UIComponent component : ajaxOutputs) {
-                if (component instanceof AjaxOutput && ((AjaxOutput)component).isAjaxRendered()) {
-                    renderIds.add(component.getClientId(facesContext));
-                }
-            }
+            renderIds.addAll(AjaxOutputTracker.getAjaxRenderedClientIds(getFacesContext()));
         }
     }
 
@@ -663,17 +859,23 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
     protected void addJavaScriptServicePageScripts(FacesContext context) {
         ScriptsHolder scriptsHolder = ServiceTracker.getService(JavaScriptService.class).getScriptsHolder(context);
         StringBuilder scripts = new StringBuilder();
-        for (Object script : scriptsHolder.getScripts()) {
-            scripts.append(ScriptUtils.toScript(script));
-            scripts.append(";");
-        }
-        for (Object script : scriptsHolder.getPageReadyScripts()) {
-            scripts.append(ScriptUtils.toScript(script));
-            scripts.append(";");
+        try {
+            for (Object script : scriptsHolder.getScripts()) {
+                ScriptUtils.appendScript(scripts, script);
+                scripts.append(';');
+            }
+            for (Object script : scriptsHolder.getPageReadyScripts()) {
+                ScriptUtils.appendScript(scripts, script);
+                scripts.append(';');
+            }
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new IllegalStateException(e);
         }
         if (scripts.length() > 0) {
             scripts.append("RichFaces.javascriptServiceComplete();");
-            prependOncomplete(scripts.toString());
+            completeHandler.insert(0, ';');
+            completeHandler.insert(0, scripts);
         }
     }
 
@@ -694,33 +896,38 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
         PartialResponseWriter writer = context.getPartialViewContext().getPartialResponseWriter();
         boolean[] writingState = new boolean[] { false };
 
-        Object onbeforedomupdate = this.getOnbeforedomupdate();
-        if (onbeforedomupdate != null) {
-            String string = onbeforedomupdate.toString();
-            if (string.length() != 0) {
-                startExtensionElementIfNecessary(writer, attributes, writingState);
-                writer.startElement(BEFOREDOMUPDATE_ELEMENT_NAME, component);
-                writer.writeText(onbeforedomupdate, null);
-                writer.endElement(BEFOREDOMUPDATE_ELEMENT_NAME);
-            }
+        // handlers, render ids and data are copied into the chunked buffer and written out chunk by chunk, so no
+        // intermediate strings proportional to the extension size are created
+        FastBufferWriter buffer = getExtensionBuffer();
+
+        if (beforedomupdateHandler.length() != 0) {
+            startExtensionElementIfNecessary(writer, attributes, writingState);
+            writer.startElement(BEFOREDOMUPDATE_ELEMENT_NAME, component);
+            buffer.append(beforedomupdateHandler);
+            writeBufferedText(writer, buffer);
+            writer.endElement(BEFOREDOMUPDATE_ELEMENT_NAME);
         }
 
-        Object oncomplete = this.getOncomplete();
-        if (oncomplete != null) {
-            String string = oncomplete.toString();
-            if (string.length() != 0) {
-                startExtensionElementIfNecessary(writer, attributes, writingState);
-                writer.startElement(COMPLETE_ELEMENT_NAME, component);
-                writer.writeText(oncomplete, null);
-                writer.endElement(COMPLETE_ELEMENT_NAME);
-            }
+        if (completeHandler.length() != 0) {
+            startExtensionElementIfNecessary(writer, attributes, writingState);
+            writer.startElement(COMPLETE_ELEMENT_NAME, component);
+            buffer.append(completeHandler);
+            writeBufferedText(writer, buffer);
+            writer.endElement(COMPLETE_ELEMENT_NAME);
         }
 
         if (!this.getRenderIds().isEmpty()) {
-            String renderIds = SPACE_JOINER.join(this.getRenderIds());
             startExtensionElementIfNecessary(writer, attributes, writingState);
             writer.startElement(RENDER_ELEMENT_NAME, component);
-            writer.writeText(renderIds, null);
+            boolean first = true;
+            for (String renderId : this.getRenderIds()) {
+                if (!first) {
+                    buffer.write(' ');
+                }
+                buffer.append(renderId);
+                first = false;
+            }
+            writeBufferedText(writer, buffer);
             writer.endElement(RENDER_ELEMENT_NAME);
         }
 
@@ -729,8 +936,7 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
             startExtensionElementIfNecessary(writer, attributes, writingState);
             writer.startElement(DATA_ELEMENT_NAME, component);
 
-            AjaxDataSerializer serializer = ServiceTracker.getService(context, AjaxDataSerializer.class);
-            writer.writeText(serializer.asString(responseData), null);
+            writeSerializedData(context, writer, buffer, responseData);
 
             writer.endElement(DATA_ELEMENT_NAME);
         }
@@ -740,8 +946,7 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
             startExtensionElementIfNecessary(writer, attributes, writingState);
             writer.startElement(COMPONENT_DATA_ELEMENT_NAME, component);
 
-            AjaxDataSerializer serializer = ServiceTracker.getService(context, AjaxDataSerializer.class);
-            writer.writeText(serializer.asString(responseComponentDataMap), null);
+            writeSerializedData(context, writer, buffer, responseComponentDataMap);
 
             writer.endElement(COMPONENT_DATA_ELEMENT_NAME);
         }
@@ -749,6 +954,65 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
         endExtensionElementIfNecessary(writer, writingState);
     }
 
+    /**
+     * Sends the time spent in the request before the partial response is rendered in the {@value #TIMING_HEADER} header.
+     * The header has to be set before rendering, as the response may be committed by the time the document is ended.
+     */
+    private void renderTimingHeader(FacesContext context) {
+        ExternalContext externalContext = context.getExternalContext();
+        if (!externalContext.isResponseCommitted()) {
+            externalContext.setResponseHeader(TIMING_HEADER, timings.toExecuteHeaderValue());
+        }
+    }
+
+    /**
+     * Sends the complete timing of the request, including the render regions, as a separate partial response extension
+     * logged by a4j:log
+     */
+    private void renderTiming(FacesContext context, UIComponent component) throws IOException {
+        PartialResponseWriter writer = context.getPartialViewContext().getPartialResponseWriter();
+        writer.startExtension(Collections.singletonMap(HtmlConstants.ID_ATTRIBUTE,
+                context.getExternalContext().encodeNamespace(TIMING_EXTENSION_ID)));
+        writer.startElement(TIMING_ELEMENT_NAME, component);
+        writer.writeText(timings.toHeaderValue(), null);
+        writer.endElement(TIMING_ELEMENT_NAME);
+        writer.endExtension();
+    }
+
+    private FastBufferWriter getExtensionBuffer() {
+        if (extensionBuffer == null) {
+            extensionBuffer = new FastBufferWriter(EXTENSION_BUFFER_SIZE);
+        }
+        return extensionBuffer;
+    }
+
+    /**
+     * Serializes data into the buffer when the serializer supports streaming and writes the buffered chunks as text
+     */
+    private static void writeSerializedData(FacesContext context, PartialResponseWriter writer, FastBufferWriter buffer,
+            Object data) throws IOException {
+
+        AjaxDataSerializer serializer = ServiceTracker.getService(context, AjaxDataSerializer.class);
+        if (serializer instanceof StreamingAjaxDataSerializer) {
+            ((StreamingAjaxDataSerializer) serializer).appendTo(buffer, data);
+            writeBufferedText(writer, buffer);
+        } else {
+            writer.writeText(serializer.asString(data), null);
+        }
+    }
+
+    /**
+     * Writes (escaped) content of the buffer into the given writer one chunk at time and resets the buffer
+     */
+    private static void writeBufferedText(PartialResponseWriter writer, FastBufferWriter buffer) throws IOException {
+        for (CharBuffer chunk = buffer.getFirstBuffer(); chunk != null; chunk = chunk.getNext()) {
+            if (chunk.getUsedSize() > 0) {
+                writer.writeText(chunk.getChars(), 0, chunk.getUsedSize());
+            }
+        }
+        buffer.reset();
+    }
+
     /**
      * Asserts that this context was not released yet
      */
@@ -790,6 +1054,7 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
      * <li>{@link #contextMode}</li>
      * <li>{@link #activatorComponentId}</li>
      * <li>{@link #behaviorEvent}</li>
+     * <li>{@link #timings}, when the timing of ajax requests is measured</li>
      * </ul>
      */
     protected void initializeContext() {
@@ -800,12 +1065,22 @@ public class ExtendedPartialViewContext extends PartialViewContextWrapper {
             if (activatorComponentId != null) {
                 contextMode = ContextMode.EXTENDED;
                 behaviorEvent = requestParameterMap.get(BEHAVIOR_EVENT_PARAMETER);
+                initializeTimings();
             } else {
                 contextMode = ContextMode.WRAPPED;
             }
         }
     }
 
+    private void initializeTimings() {
+        FacesContext context = getFacesContext();
+        timingHeader = ConfigurationServiceHelper.getBooleanConfigurationValue(context, CoreConfiguration.Items.ajaxTimingHeader);
+        timingLog = ConfigurationServiceHelper.getBooleanConfigurationValue(context, CoreConfiguration.Items.ajaxTimingLog);
+        if (timingHeader || timingLog || !timingListeners.isEmpty()) {
+            timings = new AjaxTimings();
+        }
+    }
+
     private static void startExtensionElementIfNecessary(PartialResponseWriter partialResponseWriter,
             Map<String, String> attributes, boolean[] writingState) throws IOException {
 
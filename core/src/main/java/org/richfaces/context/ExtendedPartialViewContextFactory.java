@@ -21,24 +21,30 @@
  */
 package org.richfaces.context;
 
+import java.util.Collection;
+
 import javax.faces.context.FacesContext;
 import javax.faces.context.PartialViewContext;
 import javax.faces.context.PartialViewContextFactory;
 
+import org.richfaces.application.ServiceLoader;
+
 /**
  * @author Nick Belaevski
  */
 public class ExtendedPartialViewContextFactory extends PartialViewContextFactory {
     private PartialViewContextFactory parentFactory;
+    private Collection<AjaxTimingListener> timingListeners;
 
     public ExtendedPartialViewContextFactory(PartialViewContextFactory parentFactory) {
         super();
         this.parentFactory = parentFactory;
+        this.timingListeners = ServiceLoader.loadServices(AjaxTimingListener.class);
     }
 
     @Override
     public PartialViewContext getPartialViewContext(final FacesContext context) {
-        return new ExtendedPartialViewContext(parentFactory.getPartialViewContext(context), context);
+        return new ExtendedPartialViewContext(parentFactory.getPartialViewContext(context), context, timingListeners);
     }
 
     @Override
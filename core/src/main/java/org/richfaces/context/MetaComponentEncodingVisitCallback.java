@@ -29,6 +29,7 @@ import javax.faces.component.visit.VisitResult;
 import javax.faces.context.FacesContext;
 
 import org.richfaces.component.MetaComponentEncoder;
+import org.richfaces.component.MetaComponentResolver;
 import org.richfaces.log.Logger;
 import org.richfaces.log.RichfacesLogger;
 
@@ -58,9 +59,39 @@ final class MetaComponentEncodingVisitCallback implements VisitCallback {
      * called.
      *
      * Otherwise the processor delegates to wrapped {@link VisitCallback} instance.
+     *
+     * The time spent in rendering is recorded per region when the timing of the ajax request is measured.
      */
     public VisitResult visit(VisitContext context, UIComponent target) {
+        ExtendedPartialViewContext partialViewContext = ExtendedPartialViewContext.getInstance(facesContext);
+        AjaxTimings timings = partialViewContext != null ? partialViewContext.getTimings() : null;
+        if (timings == null) {
+            return encode(context, target);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return encode(context, target);
+        } finally {
+            timings.addRegionRender(getRegionId(target), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the client id of the rendered region, suffixed by the meta-component id for meta-components
+     */
+    private String getRegionId(UIComponent target) {
+        String clientId = target.getClientId(facesContext);
+        if (target instanceof MetaComponentEncoder) {
+            String metaComponentId = (String) facesContext.getAttributes().get(ExtendedVisitContext.META_COMPONENT_ID);
+            if (metaComponentId != null) {
+                return clientId + MetaComponentResolver.META_COMPONENT_SEPARATOR_CHAR + metaComponentId;
+            }
+        }
+        return clientId;
+    }
 
+    private VisitResult encode(VisitContext context, UIComponent target) {
         if (target instanceof MetaComponentEncoder) {
             String metaComponentId = (String) facesContext.getAttributes().get(ExtendedVisitContext.META_COMPONENT_ID);
             if (metaComponentId != null) {
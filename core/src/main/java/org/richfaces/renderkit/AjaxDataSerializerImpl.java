@@ -21,6 +21,8 @@
  */
 package org.richfaces.renderkit;
 
+import java.io.IOException;
+
 import org.ajax4jsf.javascript.ScriptUtils;
 
 
@@ -28,8 +30,12 @@ import org.ajax4jsf.javascript.ScriptUtils;
  * @author Nick Belaevski
  *
  */
-public class AjaxDataSerializerImpl implements AjaxDataSerializer {
+public class AjaxDataSerializerImpl implements StreamingAjaxDataSerializer {
     public String asString(Object data) {
         return ScriptUtils.toScript(data);
     }
+
+    public void appendTo(Appendable target, Object data) throws IOException {
+        ScriptUtils.appendScript(target, data);
+    }
 }
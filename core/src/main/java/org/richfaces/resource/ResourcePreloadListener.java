@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.resource;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.faces.application.ProjectStage;
+import javax.faces.application.Resource;
+import javax.faces.application.ResourceHandler;
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.faces.event.AbortProcessingException;
+import javax.faces.event.SystemEvent;
+import javax.faces.event.SystemEventListener;
+
+import org.richfaces.application.CoreConfiguration;
+import org.richfaces.application.ServiceTracker;
+import org.richfaces.application.configuration.ConfigurationServiceHelper;
+import org.richfaces.log.Logger;
+import org.richfaces.log.RichfacesLogger;
+import org.richfaces.renderkit.html.ResourceLibraryRenderer;
+import org.richfaces.skin.SkinFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * <p>
+ * Announces the scripts and stylesheets of a view with a <code>Link: &lt;url&gt;; rel=preload</code> response header
+ * before the view is rendered, so that the browser can start fetching them while the page is still being rendered on the
+ * server.
+ * </p>
+ *
+ * <p>
+ * The request paths of the ordered dependency set (the component resources of the view with the resource libraries
+ * expanded) are cached outside of the Development stage, keyed by the view id, the library and name of each rendered
+ * component resource, the skin and the locale. Enabled by the <code>org.richfaces.resourceOptimization.preloadHints</code>
+ * context parameter.
+ * </p>
+ */
+public class ResourcePreloadListener implements SystemEventListener {
+
+    private static final Logger LOGGER = RichfacesLogger.RESOURCE.getLogger();
+
+    private static final String[] TARGETS = { "head", "body" };
+    private static final String LINK_HEADER = "Link";
+    private static final int MAX_CACHED_VIEWS = 1000;
+    private static final char KEY_SEPARATOR = '\n';
+
+    private final Cache<String, Map<String, String>> links = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_VIEWS)
+        .expireAfterAccess(1, TimeUnit.HOURS).build();
+
+    public void processEvent(SystemEvent event) throws AbortProcessingException {
+        FacesContext context = FacesContext.getCurrentInstance();
+
+        if (!ConfigurationServiceHelper.getBooleanConfigurationValue(context, CoreConfiguration.Items.resourcePreloadHints)) {
+            return;
+        }
+
+        ExternalContext externalContext = context.getExternalContext();
+        if (context.getPartialViewContext().isAjaxRequest() || externalContext.isResponseCommitted()) {
+            return;
+        }
+
+        UIViewRoot viewRoot = context.getViewRoot();
+        String header = createLinkHeader(externalContext, getLinks(context, viewRoot));
+        if (header.length() > 0) {
+            externalContext.addResponseHeader(LINK_HEADER, header);
+        }
+    }
+
+    public boolean isListenerForSource(Object source) {
+        return source instanceof UIViewRoot;
+    }
+
+    /**
+     * Returns the request paths of the resources the view depends on mapped to their preload destinations
+     */
+    private Map<String, String> getLinks(FacesContext context, UIViewRoot viewRoot) {
+        List<UIComponent> resources = Lists.newArrayList();
+        for (String target : TARGETS) {
+            for (UIComponent resource : viewRoot.getComponentResources(context, target)) {
+                if (resource.isRendered()) {
+                    resources.add(resource);
+                }
+            }
+        }
+
+        String viewId = viewRoot.getViewId();
+        if (viewId == null || context.isProjectStage(ProjectStage.Development)) {
+            return resolveLinks(context, createManifest(resources));
+        }
+
+        String key = createKey(context, viewRoot, resources);
+        Map<String, String> result = links.getIfPresent(key);
+        if (result == null) {
+            result = resolveLinks(context, createManifest(resources));
+            links.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * The rendered component resources are evaluated per request and may differ between renderings of the same view (e.g.
+     * for <code>c:if</code> branches), the request paths of skinned and localized resources depend on the skin and locale.
+     */
+    private static String createKey(FacesContext context, UIViewRoot viewRoot, List<UIComponent> resources) {
+        StringBuilder key = new StringBuilder(viewRoot.getViewId());
+        key.append(KEY_SEPARATOR).append(SkinFactory.getInstance(context).getSkin(context).getName());
+        key.append(KEY_SEPARATOR).append(viewRoot.getLocale());
+
+        for (UIComponent resource : resources) {
+            Map<String, Object> attributes = resource.getAttributes();
+            key.append(KEY_SEPARATOR).append(attributes.get("library")).append(':').append(attributes.get("name"));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Collects the keys of the resources the view depends on, in the order they are rendered.
+     */
+    private List<ResourceKey> createManifest(List<UIComponent> resources) {
+        ImmutableList.Builder<ResourceKey> manifest = ImmutableList.builder();
+
+        for (UIComponent resource : resources) {
+            Map<String, Object> attributes = resource.getAttributes();
+            String name = (String) attributes.get("name");
+            String library = (String) attributes.get("library");
+
+            if (name == null) {
+                continue;
+            }
+
+            if (ResourceLibraryRenderer.RENDERER_TYPE.equals(resource.getRendererType())) {
+                manifest.addAll(getLibraryResources(name, library));
+            } else {
+                manifest.add(ResourceKey.create(name, library));
+            }
+        }
+
+        return manifest.build();
+    }
+
+    private Iterable<ResourceKey> getLibraryResources(String name, String library) {
+        if (!name.endsWith(ResourceLibraryRenderer.RESOURCE_LIBRARY_EXTENSION)) {
+            return Collections.emptyList();
+        }
+
+        String libraryName = name.substring(0, name.length() - ResourceLibraryRenderer.RESOURCE_LIBRARY_EXTENSION.length());
+        ResourceLibrary resourceLibrary = ServiceTracker.getService(ResourceLibraryFactory.class).getResourceLibrary(
+            libraryName, library);
+
+        if (resourceLibrary == null) {
+            return Collections.emptyList();
+        }
+        return resourceLibrary.getResources();
+    }
+
+    /**
+     * Resolves the request paths of the given resources; resources mapped to the same URL (e.g. packed ones) are announced
+     * once.
+     */
+    private Map<String, String> resolveLinks(FacesContext context, List<ResourceKey> manifest) {
+        ResourceHandler resourceHandler = context.getApplication().getResourceHandler();
+
+        Map<String, String> result = Maps.newLinkedHashMap();
+        for (ResourceKey resourceKey : manifest) {
+            Resource resource = resourceHandler.createResource(resourceKey.getResourceName(), resourceKey.getLibraryName());
+            if (resource == null) {
+                LOGGER.debug("Resource " + resourceKey + " was not found, it won't be preloaded");
+                continue;
+            }
+
+            String destination = getDestination(resource.getContentType());
+            String requestPath = resource.getRequestPath();
+            if (destination != null && !result.containsKey(requestPath)) {
+                result.put(requestPath, destination);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Resource URLs are encoded per request, as the encoding may depend on the session (e.g. URL rewriting)
+     */
+    private static String createLinkHeader(ExternalContext externalContext, Map<String, String> links) {
+        StringBuilder header = new StringBuilder();
+        for (Map.Entry<String, String> link : links.entrySet()) {
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            header.append('<').append(externalContext.encodeResourceURL(link.getKey())).append(">; rel=preload; as=")
+                .append(link.getValue());
+        }
+        return header.toString();
+    }
+
+    private static String getDestination(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        if (contentType.startsWith("text/css")) {
+            return "style";
+        }
+        if (contentType.contains("javascript") || contentType.contains("ecmascript")) {
+            return "script";
+        }
+        return null;
+    }
+}
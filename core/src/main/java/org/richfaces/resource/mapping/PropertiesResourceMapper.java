@@ -25,10 +25,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.faces.context.FacesContext;
 
 import org.richfaces.application.Initializable;
+import org.richfaces.application.ServiceTracker;
 import org.richfaces.log.Logger;
 import org.richfaces.log.RichfacesLogger;
 import org.richfaces.resource.ResourceKey;
@@ -52,6 +54,15 @@ public class PropertiesResourceMapper implements ResourceMapper, ResourceAggrega
 
     private Map<ResourceKey, ResourceMapping> mappings;
 
+    /*
+     * Inverse indexes used by getAggregatedResources: absolute URLs are indexed by their path, ResourceServlet-relative
+     * mappings by the path relative to the configured location. Skin-dependent mappings are indexed lazily per skin name.
+     */
+    private Map<ResourcePath, Set<ResourceKey>> absolutePathIndex;
+    private Map<String, Set<ResourceKey>> relativePathIndex;
+    private Map<ResourceKey, String> skinDependentPaths;
+    private ConcurrentMap<String, Map<String, Set<ResourceKey>>> skinPathIndexes;
+
     /*
      * (non-Javadoc)
      *
@@ -77,6 +88,51 @@ public class PropertiesResourceMapper implements ResourceMapper, ResourceAggrega
         }
 
         mappings = result;
+        buildIndexes();
+    }
+
+    private void buildIndexes() {
+        absolutePathIndex = Maps.newHashMap();
+        relativePathIndex = Maps.newHashMap();
+        skinDependentPaths = Maps.newHashMap();
+        skinPathIndexes = Maps.newConcurrentMap();
+
+        for (Entry<ResourceKey, ResourceMapping> entry : mappings.entrySet()) {
+            final ResourcePath resourcePath = ((LocationBasedResourceMapping) entry.getValue()).resourcePath;
+            final String path = resourcePath.toExternalForm();
+
+            if (resourcePath.isAbsoluteURL()) {
+                index(absolutePathIndex, resourcePath, entry.getKey());
+            } else if (ResourceSkinUtils.isSkinDependent(path)) {
+                skinDependentPaths.put(entry.getKey(), path);
+            } else {
+                index(relativePathIndex, path, entry.getKey());
+            }
+        }
+    }
+
+    private static <K> void index(Map<K, Set<ResourceKey>> index, K path, ResourceKey resourceKey) {
+        Set<ResourceKey> keys = index.get(path);
+        if (keys == null) {
+            keys = Sets.newHashSet();
+            index.put(path, keys);
+        }
+        keys.add(resourceKey);
+    }
+
+    private Map<String, Set<ResourceKey>> getSkinPathIndex(String skinName) {
+        Map<String, Set<ResourceKey>> index = skinPathIndexes.get(skinName);
+        if (index == null) {
+            index = Maps.newHashMap();
+            for (Entry<ResourceKey, String> entry : skinDependentPaths.entrySet()) {
+                index(index, ResourceSkinUtils.evaluateSkinInPath(entry.getValue(), skinName), entry.getKey());
+            }
+            Map<String, Set<ResourceKey>> existing = skinPathIndexes.putIfAbsent(skinName, index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        return index;
     }
 
     /*
@@ -88,6 +144,10 @@ public class PropertiesResourceMapper implements ResourceMapper, ResourceAggrega
     public void release() {
         mappings.clear();
         mappings = null;
+        absolutePathIndex = null;
+        relativePathIndex = null;
+        skinDependentPaths = null;
+        skinPathIndexes = null;
     }
 
     /*
@@ -108,21 +168,35 @@ public class PropertiesResourceMapper implements ResourceMapper, ResourceAggrega
      */
     @Override
     public Set<ResourceKey> getAggregatedResources(ResourcePath resourcePath) {
-        FacesContext context = FacesContext.getCurrentInstance();
-
         Set<ResourceKey> result = Sets.newHashSet();
-        for (Entry<ResourceKey, ResourceMapping> entry : mappings.entrySet()) {
-            final ResourceKey resourceKey = entry.getKey();
-            final ResourceMapping mapping = entry.getValue();
 
-            if (mapping.getResourcePath(context).equals(resourcePath)) {
-                result.add(resourceKey);
+        addAll(result, absolutePathIndex.get(resourcePath));
+
+        if (!relativePathIndex.isEmpty() || !skinDependentPaths.isEmpty()) {
+            String location = ServiceTracker.getService(ResourceMappingConfiguration.class).getLocation();
+            String path = resourcePath.toExternalForm();
+
+            if (path.startsWith(location)) {
+                String relativePath = path.substring(location.length());
+                addAll(result, relativePathIndex.get(relativePath));
+
+                if (!skinDependentPaths.isEmpty()) {
+                    FacesContext context = FacesContext.getCurrentInstance();
+                    String skinName = SkinFactory.getInstance(context).getSkin(context).getName();
+                    addAll(result, getSkinPathIndex(skinName).get(relativePath));
+                }
             }
         }
 
         return result;
     }
 
+    private static void addAll(Set<ResourceKey> result, Set<ResourceKey> keys) {
+        if (keys != null) {
+            result.addAll(keys);
+        }
+    }
+
     /**
      * Checks whenever given class-path resource exists
      */
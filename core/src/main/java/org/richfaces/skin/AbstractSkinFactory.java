@@ -21,6 +21,8 @@
  */
 package org.richfaces.skin;
 
+import static org.richfaces.application.configuration.ConfigurationServiceHelper.getBooleanConfigurationValue;
+
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
@@ -36,6 +38,7 @@ import javax.faces.application.Application;
 import javax.faces.context.FacesContext;
 
 import org.ajax4jsf.Messages;
+import org.richfaces.application.CoreConfiguration;
 import org.richfaces.el.util.ELUtils;
 import org.richfaces.util.PropertiesUtil;
 
@@ -100,14 +103,20 @@ public abstract class AbstractSkinFactory extends SkinFactory {
      *
      * @param name name for builded skin.
      * @param context
-     * @return skin instance for current name
+     * @return skin instance for current name, or its immutable snapshot if
+     *         {@link CoreConfiguration.Items#skinSnapshot} is enabled
      * @throws SkinNotFoundException - if no skin properies found for name.
      */
     protected Skin buildSkin(FacesContext context, String name) throws SkinNotFoundException {
         Properties skinParams = loadProperties(name, SKINS_PATHS);
         processProperties(context, skinParams);
 
-        return new SkinImpl(skinParams, name);
+        SkinImpl skin = new SkinImpl(skinParams, name);
+        if (getBooleanConfigurationValue(context, CoreConfiguration.Items.skinSnapshot)) {
+            return SkinSnapshot.create(context, this, skin);
+        }
+
+        return skin;
     }
 
     /**
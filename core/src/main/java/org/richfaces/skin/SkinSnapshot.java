@@ -0,0 +1,301 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.skin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.el.ValueExpression;
+import javax.faces.FacesException;
+import javax.faces.context.FacesContext;
+
+import org.ajax4jsf.Messages;
+
+/**
+ * <p>
+ * Immutable skin flattened together with the chain of its base skins into an array-indexed parameter table.
+ * </p>
+ *
+ * <p>
+ * Plain values and constant EL-expressions (e.g. <code>#{null}</code>) are resolved when the snapshot is created. Only
+ * parameters marked dynamic - EL-expressions and '&amp;' references to other parameters of the current skin - are resolved
+ * per lookup. The hash code of the constant part of the table is precomputed.
+ * </p>
+ *
+ * @see org.richfaces.application.CoreConfiguration.Items#skinSnapshot
+ */
+final class SkinSnapshot extends AbstractSkin {
+    private static final Pattern CONSTANT_EXPRESSION = Pattern
+        .compile("[#$]\\{\\s*(null|true|false|-?\\d+(\\.\\d+)?|'[^']*'|\"[^\"]*\")\\s*\\}");
+    private static final String BUILDING_SKINS_KEY = SkinSnapshot.class.getName() + ".BUILDING";
+    private static final String REFERENCE_DEPTH_KEY = SkinSnapshot.class.getName() + ".REFERENCE_DEPTH";
+    private static final int MAX_REFERENCE_DEPTH = 100;
+
+    /**
+     * Value of a parameter in one skin of the chain, linked to the value of the same parameter in the base skins
+     */
+    private static final class Entry {
+        private final Object value;
+        private final boolean dynamic;
+        private final Entry next;
+
+        Entry(Object value, boolean dynamic, Entry next) {
+            this.value = value;
+            this.dynamic = dynamic;
+            this.next = next;
+        }
+    }
+
+    private final String name;
+    private final Map<String, Integer> indexes;
+    private final Entry[] entries;
+    private final ValueExpression[] hashedExpressions;
+    private final int constantHash;
+    /**
+     * Base skin that could not be flattened, either name or {@link ValueExpression} evaluated to the name
+     */
+    private final Object baseSkinName;
+
+    private SkinSnapshot(String name, Map<String, Integer> indexes, Entry[] entries, Object baseSkinName) {
+        this.name = name;
+        this.indexes = indexes;
+        this.entries = entries;
+        this.baseSkinName = baseSkinName;
+
+        int hash = 0;
+        List<ValueExpression> expressions = new ArrayList<ValueExpression>();
+        for (Map.Entry<String, Integer> index : indexes.entrySet()) {
+            hash += index.getKey().hashCode();
+            for (Entry entry = entries[index.getValue()]; entry != null; entry = entry.next) {
+                if (entry.value instanceof ValueExpression) {
+                    expressions.add((ValueExpression) entry.value);
+                } else if (entry.value != null) {
+                    hash += 31 * index.getKey().hashCode() + entry.value.hashCode();
+                }
+            }
+        }
+        this.constantHash = hash;
+        this.hashedExpressions = expressions.toArray(new ValueExpression[expressions.size()]);
+    }
+
+    /**
+     * Creates snapshot of the given skin and its base skins obtained from the factory.
+     */
+    static SkinSnapshot create(FacesContext context, SkinFactory factory, SkinImpl skin) {
+        Set<String> buildingSkins = getBuildingSkins(context);
+        if (!buildingSkins.add(skin.getName())) {
+            throw new FacesException(Messages.getMessage(Messages.SKIN_CYCLIC_REFERENCE, skin.getName()));
+        }
+
+        try {
+            Map<Object, Object> params = skin.getSkinParams();
+
+            Map<String, Integer> indexes = new HashMap<String, Integer>();
+            List<Entry> entries = new ArrayList<Entry>();
+
+            Object baseSkinName = params.get(Skin.BASE_SKIN);
+            if (baseSkinName instanceof String) {
+                if (buildingSkins.contains(baseSkinName)) {
+                    throw new FacesException(Messages.getMessage(Messages.SKIN_CYCLIC_REFERENCE, baseSkinName));
+                }
+
+                Skin baseSkin = factory.getSkin(context, (String) baseSkinName);
+                if (baseSkin instanceof SkinSnapshot) {
+                    SkinSnapshot baseSnapshot = (SkinSnapshot) baseSkin;
+                    for (Map.Entry<String, Integer> index : baseSnapshot.indexes.entrySet()) {
+                        indexes.put(index.getKey(), entries.size());
+                        entries.add(baseSnapshot.entries[index.getValue()]);
+                    }
+                    baseSkinName = baseSnapshot.baseSkinName;
+                }
+            }
+
+            for (Map.Entry<Object, Object> param : params.entrySet()) {
+                String paramName = (String) param.getKey();
+                Integer index = indexes.get(paramName);
+                if (index == null) {
+                    index = entries.size();
+                    indexes.put(paramName, index);
+                    entries.add(null);
+                }
+
+                Object value = param.getValue();
+                boolean dynamic = isDynamic(value);
+                if (!dynamic && value instanceof ValueExpression) {
+                    value = ((ValueExpression) value).getValue(context.getELContext());
+                }
+
+                if (dynamic) {
+                    entries.set(index, new Entry(value, true, entries.get(index)));
+                } else if (value != null) {
+                    entries.set(index, new Entry(value, false, null));
+                }
+            }
+
+            return new SkinSnapshot(skin.getName(), indexes, entries.toArray(new Entry[entries.size()]), baseSkinName);
+        } finally {
+            buildingSkins.remove(skin.getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> getBuildingSkins(FacesContext context) {
+        Set<String> result = (Set<String>) context.getAttributes().get(BUILDING_SKINS_KEY);
+        if (result == null) {
+            result = new HashSet<String>();
+            context.getAttributes().put(BUILDING_SKINS_KEY, result);
+        }
+        return result;
+    }
+
+    private static boolean isDynamic(Object value) {
+        if (value instanceof ValueExpression) {
+            return !CONSTANT_EXPRESSION.matcher(((ValueExpression) value).getExpressionString().trim()).matches();
+        }
+        return isReference(value);
+    }
+
+    private static boolean isReference(Object value) {
+        if (value instanceof String) {
+            String string = (String) value;
+            return string.length() > 0 && string.charAt(0) == '&';
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Object getParameter(FacesContext context, String name) {
+        Integer index = indexes.get(name);
+        if (index != null) {
+            for (Entry entry = entries[index]; entry != null; entry = entry.next) {
+                Object value = entry.dynamic ? resolveDynamicValue(context, name, entry.value) : entry.value;
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+
+        Skin baseSkin = getUnflattenedBaseSkin(context);
+        if (baseSkin != null) {
+            return baseSkin.getParameter(context, name);
+        }
+
+        return null;
+    }
+
+    public Object getParameter(FacesContext context, String name, Object defaultValue) {
+        Object value = getParameter(context, name);
+
+        if (value == null) {
+            value = defaultValue;
+        }
+
+        return value;
+    }
+
+    private Object resolveDynamicValue(FacesContext context, String name, Object value) {
+        Object resolvedValue = value;
+        if (resolvedValue instanceof ValueExpression) {
+            resolvedValue = ((ValueExpression) resolvedValue).getValue(context.getELContext());
+        }
+
+        if (!isReference(resolvedValue)) {
+            return resolvedValue;
+        }
+
+        Map<Object, Object> attributes = context.getAttributes();
+        Integer depth = (Integer) attributes.get(REFERENCE_DEPTH_KEY);
+        int currentDepth = depth != null ? depth.intValue() : 0;
+        if (currentDepth > MAX_REFERENCE_DEPTH) {
+            throw new FacesException(Messages.getMessage(Messages.SKIN_CYCLIC_REFERENCE, name));
+        }
+
+        attributes.put(REFERENCE_DEPTH_KEY, currentDepth + 1);
+        try {
+            Skin currentSkin = SkinFactory.getInstance(context).getSkin(context);
+            while (isReference(resolvedValue)) {
+                resolvedValue = currentSkin.getParameter(context, ((String) resolvedValue).substring(1));
+
+                if (resolvedValue == null) {
+                    throw new FacesException(Messages.getMessage(Messages.SKIN_ILLEGAL_REFERENCE, name));
+                }
+            }
+        } finally {
+            if (depth != null) {
+                attributes.put(REFERENCE_DEPTH_KEY, depth);
+            } else {
+                attributes.remove(REFERENCE_DEPTH_KEY);
+            }
+        }
+
+        return resolvedValue;
+    }
+
+    private Skin getUnflattenedBaseSkin(FacesContext context) {
+        Object baseName = baseSkinName;
+        if (baseName instanceof ValueExpression) {
+            baseName = ((ValueExpression) baseName).getValue(context.getELContext());
+        }
+
+        if (baseName != null) {
+            return SkinFactory.getInstance(context).getSkin(context, baseName.toString());
+        }
+
+        return null;
+    }
+
+    public boolean containsProperty(String name) {
+        if (indexes.containsKey(name)) {
+            return true;
+        }
+
+        Skin baseSkin = getUnflattenedBaseSkin(FacesContext.getCurrentInstance());
+        return baseSkin != null && baseSkin.containsProperty(name);
+    }
+
+    public int hashCode(FacesContext context) {
+        int hash = constantHash;
+        for (ValueExpression expression : hashedExpressions) {
+            Object value = expression.getValue(context.getELContext());
+            hash = 31 * hash + (value != null ? value.hashCode() : 0);
+        }
+
+        Skin baseSkin = getUnflattenedBaseSkin(context);
+        if (baseSkin != null) {
+            hash = 31 * hash + baseSkin.hashCode(context);
+        }
+
+        return hash;
+    }
+
+    public String toString() {
+        return this.getClass().getSimpleName() + ": " + name + " " + indexes.keySet();
+    }
+}
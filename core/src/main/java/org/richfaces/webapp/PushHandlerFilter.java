@@ -37,7 +37,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.atmosphere.cpr.BroadcastFilter;
-import org.atmosphere.cpr.Broadcaster.SCOPE;
 import org.atmosphere.cpr.Meteor;
 import org.richfaces.application.push.PushContext;
 import org.richfaces.application.push.Request;
@@ -99,7 +98,9 @@ public class PushHandlerFilter implements Filter, Serializable {
 
                 httpResp.setContentType("text/plain");
 
-                Meteor meteor = Meteor.build(httpReq, SCOPE.REQUEST, Collections.<BroadcastFilter>emptyList(), null);
+                // the request is attached to the broadcaster of the push session by RequestImpl, no request-scoped
+                // broadcaster is created
+                Meteor meteor = Meteor.build(httpReq, Collections.<BroadcastFilter>emptyList(), null);
 
                 try {
                     Request pushRequest = new RequestImpl(meteor, session);
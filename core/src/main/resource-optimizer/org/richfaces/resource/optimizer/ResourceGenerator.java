@@ -71,6 +71,7 @@ import org.richfaces.resource.optimizer.resource.writer.impl.CSSCompressingProce
 import org.richfaces.resource.optimizer.resource.writer.impl.CSSPackagingProcessor;
 import org.richfaces.resource.optimizer.resource.writer.impl.JavaScriptCompressingProcessor;
 import org.richfaces.resource.optimizer.resource.writer.impl.JavaScriptPackagingProcessor;
+import org.richfaces.resource.optimizer.resource.writer.impl.ProcessedResourceCache;
 import org.richfaces.resource.optimizer.resource.writer.impl.ResourceWriterImpl;
 import org.richfaces.resource.optimizer.strings.Constants;
 import org.richfaces.resource.optimizer.task.ResourceTaskFactoryImpl;
@@ -200,6 +201,16 @@ public class ResourceGenerator {
      */
     @Parameter(names = { "--pack" }, descriptionKey = "pack")
     private String pack;
+    /**
+     * Directory of the persistent cache of processed resources, unchanged resources are not processed again
+     */
+    @Parameter(names = { "--cacheDir" }, descriptionKey = "cacheDir")
+    private File cacheDir;
+    /**
+     * Turns on content-hashed names of JavaScript/CSS files
+     */
+    @Parameter(names = { "--hashFileNames" }, descriptionKey = "hashFileNames")
+    private boolean hashFileNames = false;
     /**
      * Mapping of file names to output file names
      */
@@ -221,7 +232,8 @@ public class ResourceGenerator {
     private Set<ResourceKey> resourcesWithKnownOrder;
 
     private ExecutorService createExecutorService() {
-        int poolSize = (pack != null) ? 1 : Runtime.getRuntime().availableProcessors();
+        // packs are assembled in resource order regardless of the order in which resources are processed
+        int poolSize = Runtime.getRuntime().availableProcessors();
         return Executors.newFixedThreadPool(poolSize);
     }
 
@@ -412,6 +424,10 @@ public class ResourceGenerator {
             faces.start();
 
             ResourceWriterImpl resourceWriter = new ResourceWriterImpl(new File(resourcesOutputDir), getDefaultResourceProcessors(), log, resourcesWithKnownOrder);
+            if (cacheDir != null) {
+                resourceWriter.setProcessedResourceCache(new ProcessedResourceCache(cacheDir, log));
+            }
+            resourceWriter.setContentHashedFileNames(hashFileNames);
             ResourceTaskFactoryImpl taskFactory = new ResourceTaskFactoryImpl(faces, pack);
             taskFactory.setResourceWriter(resourceWriter);
 
@@ -27,6 +27,8 @@ import java.io.IOException;
 
 import javax.faces.application.Resource;
 
+import org.richfaces.resource.ResourceKey;
+
 /**
  * @author Nick Belaevski
  *
@@ -36,6 +38,8 @@ public interface ResourceWriter extends Closeable {
     
     void writePackedResource(String packName, String skinName, Resource resource) throws IOException;
 
+    void setPackingOrder(Iterable<ResourceKey> resourceKeys);
+
     void writeProcessedResourceMappings(File staticResourceMappingFile, String staticResourcePrefix) throws IOException;
     
     void close();
@@ -32,20 +32,25 @@ import java.nio.charset.Charset;
 
 import com.google.common.io.ByteSink;
 import com.google.common.io.ByteSource;
-import org.richfaces.resource.optimizer.resource.writer.ResourceProcessor;
+import org.richfaces.resource.optimizer.resource.writer.OptionsAwareResourceProcessor;
 
 import com.yahoo.platform.yui.compressor.CssCompressor;
 
 /**
  * @author Nick Belaevski
  */
-public class CSSCompressingProcessor implements ResourceProcessor {
+public class CSSCompressingProcessor implements OptionsAwareResourceProcessor {
     private Charset charset;
 
     public CSSCompressingProcessor(Charset charset) {
         this.charset = charset;
     }
 
+    @Override
+    public String getOptions() {
+        return "charset=" + charset.name();
+    }
+
     @Override
     public boolean isSupportedFile(String name) {
         return name.endsWith(".css");
@@ -34,7 +34,7 @@ import javax.faces.context.FacesContext;
 
 import org.richfaces.resource.ResourceKey;
 import org.richfaces.resource.optimizer.faces.CurrentResourceContext;
-import org.richfaces.resource.optimizer.resource.writer.ResourceProcessor;
+import org.richfaces.resource.optimizer.resource.writer.OptionsAwareResourceProcessor;
 
 import com.google.common.io.ByteSink;
 import com.google.common.io.ByteSource;
@@ -43,13 +43,18 @@ import org.richfaces.util.StreamUtils;
 /**
  * @author Lukas Fryc
  */
-public class CSSPackagingProcessor implements ResourceProcessor {
+public class CSSPackagingProcessor implements OptionsAwareResourceProcessor {
     private Charset charset;
 
     public CSSPackagingProcessor(Charset charset) {
         this.charset = charset;
     }
 
+    @Override
+    public String getOptions() {
+        return "charset=" + charset.name();
+    }
+
     @Override
     public boolean isSupportedFile(String name) {
         return name.endsWith(".css");
@@ -33,14 +33,20 @@ import java.nio.charset.Charset;
 import com.google.common.io.ByteSink;
 import com.google.common.io.ByteSource;
 import org.richfaces.log.Logger;
-import org.richfaces.resource.optimizer.resource.writer.ResourceProcessor;
+import org.richfaces.resource.optimizer.resource.writer.OptionsAwareResourceProcessor;
 
 import com.yahoo.platform.yui.compressor.JavaScriptCompressor;
 
 /**
  * @author Nick Belaevski
  */
-public class JavaScriptCompressingProcessor implements ResourceProcessor {
+public class JavaScriptCompressingProcessor implements OptionsAwareResourceProcessor {
+    private static final int LINE_BREAK_POSITION = 0;
+    private static final boolean MUNGE = true;
+    private static final boolean VERBOSE = true;
+    private static final boolean PRESERVE_ALL_SEMICOLONS = false;
+    private static final boolean DISABLE_OPTIMIZATIONS = false;
+
     private Charset charset;
     private Logger log;
 
@@ -49,6 +55,12 @@ public class JavaScriptCompressingProcessor implements ResourceProcessor {
         this.log = log;
     }
 
+    @Override
+    public String getOptions() {
+        return "charset=" + charset.name() + ";lineBreak=" + LINE_BREAK_POSITION + ";munge=" + MUNGE + ";preserveAllSemiColons="
+            + PRESERVE_ALL_SEMICOLONS + ";disableOptimizations=" + DISABLE_OPTIMIZATIONS;
+    }
+
     @Override
     public boolean isSupportedFile(String name) {
         return name.endsWith(".js");
@@ -71,7 +83,8 @@ public class JavaScriptCompressingProcessor implements ResourceProcessor {
             writer = new OutputStreamWriter(out, charset);
 
             MavenLogErrorReporter reporter = new MavenLogErrorReporter(outputName);
-            new JavaScriptCompressor(reader, reporter).compress(writer, 0, true, true, false, false);
+            new JavaScriptCompressor(reader, reporter).compress(writer, LINE_BREAK_POSITION, MUNGE, VERBOSE, PRESERVE_ALL_SEMICOLONS,
+                DISABLE_OPTIMIZATIONS);
 
             if (!closeAtFinish) {
                 // add semicolon to satisfy end of context of each script when packing files
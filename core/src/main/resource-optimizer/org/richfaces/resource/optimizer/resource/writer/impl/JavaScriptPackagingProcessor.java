@@ -35,18 +35,23 @@ import javax.faces.context.FacesContext;
 import com.google.common.io.*;
 import org.richfaces.resource.ResourceKey;
 import org.richfaces.resource.optimizer.faces.CurrentResourceContext;
-import org.richfaces.resource.optimizer.resource.writer.ResourceProcessor;
+import org.richfaces.resource.optimizer.resource.writer.OptionsAwareResourceProcessor;
 
 /**
  * @author Nick Belaevski
  */
-public class JavaScriptPackagingProcessor implements ResourceProcessor {
+public class JavaScriptPackagingProcessor implements OptionsAwareResourceProcessor {
     private Charset charset;
 
     public JavaScriptPackagingProcessor(Charset charset) {
         this.charset = charset;
     }
 
+    @Override
+    public String getOptions() {
+        return "charset=" + charset.name();
+    }
+
     @Override
     public boolean isSupportedFile(String name) {
         return name.endsWith(".js");
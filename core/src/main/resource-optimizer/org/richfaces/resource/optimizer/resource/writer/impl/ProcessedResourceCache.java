@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.resource.optimizer.resource.writer.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentMap;
+
+import org.richfaces.log.Logger;
+import org.richfaces.resource.optimizer.resource.writer.OptionsAwareResourceProcessor;
+import org.richfaces.resource.optimizer.resource.writer.ResourceProcessor;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * Persistent cache of processed (compressed/packaged) resource contents, used to skip processing of resources that didn't
+ * change since the previous run.
+ *
+ * The cache directory holds a manifest mapping the hash of the processing input (processor and its options, output name
+ * and input content) to the hash of the produced output, and the outputs themselves stored under their content hash. Entries that
+ * were not used during the run are dropped on {@link #store()}.
+ */
+public class ProcessedResourceCache {
+    private static final String MANIFEST_FILE_NAME = "manifest.properties";
+    private static final String OBJECTS_DIR_NAME = "objects";
+    private static final HashFunction HASH_FUNCTION = Hashing.sha1();
+
+    private final File manifestFile;
+    private final File objectsDir;
+    private final Logger log;
+    private final Map<String, String> manifest = Maps.newHashMap();
+    private final ConcurrentMap<String, String> usedEntries = Maps.newConcurrentMap();
+
+    public ProcessedResourceCache(File cacheDir, Logger log) {
+        this.manifestFile = new File(cacheDir, MANIFEST_FILE_NAME);
+        this.objectsDir = new File(cacheDir, OBJECTS_DIR_NAME);
+        this.log = log;
+
+        objectsDir.mkdirs();
+        loadManifest();
+    }
+
+    private void loadManifest() {
+        if (!manifestFile.exists()) {
+            return;
+        }
+
+        InputStream is = null;
+        try {
+            is = new FileInputStream(manifestFile);
+            Properties properties = new Properties();
+            properties.load(is);
+            for (String key : properties.stringPropertyNames()) {
+                manifest.put(key, properties.getProperty(key));
+            }
+        } catch (IOException e) {
+            log.warn(MessageFormat.format("Could not read resource cache manifest {0}, cache will be rebuilt", manifestFile), e);
+            manifest.clear();
+        } finally {
+            try {
+                if (is != null) {
+                    is.close();
+                }
+            } catch (IOException e) {
+                // Swallow
+            }
+        }
+    }
+
+    /**
+     * Creates the cache key for the given processing input
+     */
+    public String createKey(ResourceProcessor processor, String outputName, boolean packed, byte[] input) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        hasher.putString(processor.getClass().getName(), Charsets.UTF_8).putByte((byte) 0);
+        if (processor instanceof OptionsAwareResourceProcessor) {
+            hasher.putString(((OptionsAwareResourceProcessor) processor).getOptions(), Charsets.UTF_8);
+        }
+        hasher.putByte((byte) 0);
+        hasher.putString(outputName, Charsets.UTF_8).putByte((byte) 0);
+        hasher.putBoolean(packed);
+        hasher.putBytes(input);
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Returns the cached output for the given key or null if there is no valid cached output
+     */
+    public byte[] get(String key) {
+        String outputHash = manifest.get(key);
+        if (outputHash == null) {
+            return null;
+        }
+
+        File objectFile = new File(objectsDir, outputHash);
+        if (!objectFile.isFile()) {
+            return null;
+        }
+
+        try {
+            byte[] output = Files.toByteArray(objectFile);
+            if (!outputHash.equals(HASH_FUNCTION.hashBytes(output).toString())) {
+                log.debug(MessageFormat.format("Cached resource {0} is corrupted", objectFile));
+                return null;
+            }
+            usedEntries.put(key, outputHash);
+            return output;
+        } catch (IOException e) {
+            log.debug(MessageFormat.format("Could not read cached resource {0}", objectFile), e);
+            return null;
+        }
+    }
+
+    public void put(String key, byte[] output) {
+        String outputHash = HASH_FUNCTION.hashBytes(output).toString();
+        File objectFile = new File(objectsDir, outputHash);
+        try {
+            synchronized (this) {
+                if (!objectFile.isFile()) {
+                    Files.write(output, objectFile);
+                }
+            }
+            usedEntries.put(key, outputHash);
+        } catch (IOException e) {
+            log.warn(MessageFormat.format("Could not store resource to cache {0}", objectFile), e);
+        }
+    }
+
+    /**
+     * Writes manifest of entries used during this run and removes outputs no more referenced
+     */
+    public synchronized void store() throws IOException {
+        Properties properties = new Properties();
+        properties.putAll(usedEntries);
+
+        OutputStream os = null;
+        try {
+            os = new FileOutputStream(manifestFile);
+            properties.store(os, null);
+        } finally {
+            if (os != null) {
+                os.close();
+            }
+        }
+
+        Collection<String> usedObjects = new HashSet<String>(usedEntries.values());
+        File[] objectFiles = objectsDir.listFiles();
+        if (objectFiles != null) {
+            for (File objectFile : objectFiles) {
+                if (!usedObjects.contains(objectFile.getName())) {
+                    objectFile.delete();
+                }
+            }
+        }
+    }
+}
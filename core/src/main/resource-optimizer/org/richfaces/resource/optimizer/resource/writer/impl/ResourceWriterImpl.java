@@ -24,14 +24,22 @@ package org.richfaces.resource.optimizer.resource.writer.impl;
 import java.io.*;
 import java.text.MessageFormat;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.faces.application.Resource;
 
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteSource;
 import com.google.common.io.FileWriteMode;
 import com.google.common.io.Files;
@@ -47,12 +55,15 @@ import org.richfaces.resource.optimizer.strings.Constants;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 
 /**
  * @author Nick Belaevski
  */
 public class ResourceWriterImpl implements ResourceWriter {
+    private static final int CONTENT_HASH_LENGTH = 10;
+
     private static final class ResourceInputStreamSupplier extends ByteSource {
         private Resource resource;
 
@@ -67,10 +78,30 @@ public class ResourceWriterImpl implements ResourceWriter {
         }
     }
 
+    /**
+     * Contents of one pack file, collected from the resources processed concurrently
+     */
+    private static final class PackedOutput {
+        private final String path;
+        private final String mappingPath;
+        private final ConcurrentNavigableMap<Integer, byte[]> parts = new ConcurrentSkipListMap<Integer, byte[]>();
+
+        public PackedOutput(String path, String mappingPath) {
+            this.path = path;
+            this.mappingPath = mappingPath;
+        }
+    }
+
     /*
-     * packed output stream by extension
+     * packed output by extension and skin
      */
-    private final Map<String, OutputStream> PACKED = new LinkedHashMap<String, OutputStream>();
+    private final ConcurrentMap<String, PackedOutput> PACKED = new ConcurrentHashMap<String, PackedOutput>();
+
+    /*
+     * position of the resource in the pack, resources with unknown position are packed after all known ones
+     */
+    private final Map<ResourceKey, Integer> packingOrder = Maps.newHashMap();
+    private final AtomicInteger unknownPackingPosition = new AtomicInteger(Integer.MAX_VALUE / 2);
 
     private File resourceContentsDir;
     private Map<String, String> processedResources = Maps.newConcurrentMap();
@@ -78,7 +109,14 @@ public class ResourceWriterImpl implements ResourceWriter {
     private Logger log;
     private long currentTime;
     private Set<ResourceKey> resourcesWithKnownOrder;
-    private Set<ResourceKey> packedResources = Sets.newHashSet();
+    private Set<ResourceKey> packedResources = Sets.newConcurrentHashSet();
+    private ProcessedResourceCache processedResourceCache;
+    private boolean contentHashedFileNames = false;
+
+    /*
+     * written output files by the path used in resource mappings
+     */
+    private ConcurrentMap<String, Set<String>> outputFiles = Maps.newConcurrentMap();
 
     public ResourceWriterImpl(File resourceContentsDir, Iterable<ResourceProcessor> resourceProcessors, Logger log,
                               Set<ResourceKey> resourcesWithKnownOrder) {
@@ -117,12 +155,54 @@ public class ResourceWriterImpl implements ResourceWriter {
                 skinName);
 
         ResourceProcessor matchingProcessor = getMatchingResourceProcessor(requestPath);
+        byte[] content = processResource(matchingProcessor, requestPathWithSkin, resource, true);
         File outFile = createOutputFile(requestPathWithSkin);
 
-        log.debug("Opening output stream for " + outFile);
-        matchingProcessor.process(requestPathWithSkin, new ResourceInputStreamSupplier(resource).openStream(),
-                Files.asByteSink(outFile).openStream(), true);
+        log.debug("Writing " + outFile);
+        Files.write(content, outFile);
         processedResources.put(ResourceUtil.getResourceQualifier(resource), requestPath);
+        addOutputFile(requestPath, requestPathWithSkin);
+    }
+
+    /**
+     * Processes the resource into a buffer; the result is taken from the processed resources cache when the resource
+     * didn't change since the previous run
+     */
+    private byte[] processResource(ResourceProcessor processor, String outputName, Resource resource,
+            boolean closeAtFinish) throws IOException {
+        byte[] input = new ResourceInputStreamSupplier(resource).read();
+
+        String cacheKey = null;
+        if (processedResourceCache != null && processor != ThroughputResourceProcessor.INSTANCE) {
+            cacheKey = processedResourceCache.createKey(processor, outputName, !closeAtFinish, input);
+            byte[] cached = processedResourceCache.get(cacheKey);
+            if (cached != null) {
+                log.debug("Using cached " + outputName);
+                return cached;
+            }
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        processor.process(outputName, new ByteArrayInputStream(input), buffer, closeAtFinish);
+        byte[] output = buffer.toByteArray();
+
+        if (cacheKey != null) {
+            processedResourceCache.put(cacheKey, output);
+        }
+
+        return output;
+    }
+
+    private void addOutputFile(String mappingPath, String path) {
+        Set<String> paths = outputFiles.get(mappingPath);
+        if (paths == null) {
+            Set<String> newPaths = Sets.newConcurrentHashSet();
+            paths = outputFiles.putIfAbsent(mappingPath, newPaths);
+            if (paths == null) {
+                paths = newPaths;
+            }
+        }
+        paths.add(path);
     }
 
     public void writePackedResource(String packName, String skinName, Resource resource) throws IOException {
@@ -149,22 +229,19 @@ public class ResourceWriterImpl implements ResourceWriter {
         String requestPathWithSkin = Constants.SLASH_JOINER.join(skinName, "packed", packFileName);
         ResourceProcessor matchingProcessor = getMatchingResourceProcessor(requestPathWithSkin);
 
-        OutputStream outputStream;
-        synchronized (PACKED) {
-            String packagingCacheKey = extension + ":" + skinName;
-            if (!PACKED.containsKey(packagingCacheKey)) {
-                File outFile = createOutputFile(requestPathWithSkin);
-                log.debug("Opening shared output stream for " + outFile);
-                outputStream = Files.asByteSink(outFile, FileWriteMode.APPEND).openStream();
-                PACKED.put(packagingCacheKey, outputStream);
+        String packagingCacheKey = extension + ":" + skinName;
+        PackedOutput packedOutput = PACKED.get(packagingCacheKey);
+        if (packedOutput == null) {
+            PackedOutput newPackedOutput = new PackedOutput(requestPathWithSkin, requestPathWithSkinVariable);
+            packedOutput = PACKED.putIfAbsent(packagingCacheKey, newPackedOutput);
+            if (packedOutput == null) {
+                packedOutput = newPackedOutput;
             }
-            outputStream = PACKED.get(packagingCacheKey);
         }
 
-        synchronized (outputStream) {
-            matchingProcessor.process(requestPathWithSkin, resource.getInputStream(), outputStream,
-                    false);
-        }
+        // resources are processed into separate buffers concurrently and concatenated in packing order later
+        packedOutput.parts.put(getPackingPosition(resourceKey),
+                processResource(matchingProcessor, requestPathWithSkin, resource, false));
 
         processedResources.put(ResourceUtil.getResourceQualifier(resource), requestPathWithSkinVariable);
         packedResources.add(resourceKey);
@@ -179,6 +256,33 @@ public class ResourceWriterImpl implements ResourceWriter {
         }
     }
 
+    /**
+     * Sets the order in which resources are concatenated into packs; the output doesn't depend on the order in which the
+     * resources were actually processed.
+     */
+    @Override
+    public void setPackingOrder(Iterable<ResourceKey> resourceKeys) {
+        synchronized (packingOrder) {
+            packingOrder.clear();
+            for (ResourceKey resourceKey : resourceKeys) {
+                if (!packingOrder.containsKey(resourceKey)) {
+                    packingOrder.put(resourceKey, packingOrder.size());
+                }
+            }
+        }
+    }
+
+    private int getPackingPosition(ResourceKey resourceKey) {
+        synchronized (packingOrder) {
+            Integer position = packingOrder.get(resourceKey);
+            if (position == null) {
+                position = unknownPackingPosition.getAndIncrement();
+                packingOrder.put(resourceKey, position);
+            }
+            return position;
+        }
+    }
+
     private ResourceProcessor getMatchingResourceProcessor(final String requestPath) {
         return Iterables.get(Iterables.filter(resourceProcessors, new Predicate<ResourceProcessor>() {
             @Override
@@ -193,8 +297,81 @@ public class ResourceWriterImpl implements ResourceWriter {
         return requestPath.substring(extensionIndex + 1);
     }
 
+    /**
+     * Enables the cache of processed resources, so that unchanged resources are not processed again
+     */
+    public void setProcessedResourceCache(ProcessedResourceCache processedResourceCache) {
+        this.processedResourceCache = processedResourceCache;
+    }
+
+    /**
+     * When enabled, JavaScript and CSS files get the hash of their content in their names, so they can be served with
+     * far-future expiration
+     */
+    public void setContentHashedFileNames(boolean contentHashedFileNames) {
+        this.contentHashedFileNames = contentHashedFileNames;
+    }
+
+    private static boolean isContentHashable(String path) {
+        return path.endsWith(".js") || path.endsWith(".css");
+    }
+
+    private static String withContentHash(String path, String hash) {
+        int extensionIndex = path.lastIndexOf('.');
+        if (extensionIndex <= path.lastIndexOf('/')) {
+            return path + "-" + hash;
+        }
+        return path.substring(0, extensionIndex) + "-" + hash + path.substring(extensionIndex);
+    }
+
+    /**
+     * Renames JavaScript and CSS outputs to content-hashed names and updates the mappings accordingly. Skin variants of a
+     * resource share a hash of all their contents, so the skin placeholder can still be used in the mapping.
+     */
+    private void renameToContentHashedFiles() throws IOException {
+        Map<String, String> renamedMappingPaths = Maps.newHashMap();
+        for (Entry<String, Set<String>> entry : outputFiles.entrySet()) {
+            String mappingPath = entry.getKey();
+            if (!isContentHashable(mappingPath)) {
+                continue;
+            }
+
+            List<String> paths = Ordering.natural().sortedCopy(entry.getValue());
+            Hasher hasher = Hashing.sha1().newHasher();
+            for (String path : paths) {
+                hasher.putString(path, Charsets.UTF_8).putBytes(Files.toByteArray(new File(resourceContentsDir, path)));
+            }
+            String hash = hasher.hash().toString().substring(0, CONTENT_HASH_LENGTH);
+
+            for (String path : paths) {
+                File hashedFile = new File(resourceContentsDir, withContentHash(path, hash));
+                if (hashedFile.exists()) {
+                    hashedFile.delete();
+                }
+                Files.move(new File(resourceContentsDir, path), hashedFile);
+            }
+            renamedMappingPaths.put(mappingPath, withContentHash(mappingPath, hash));
+        }
+        outputFiles.clear();
+
+        for (Entry<String, String> entry : processedResources.entrySet()) {
+            String renamedMappingPath = renamedMappingPaths.get(entry.getValue());
+            if (renamedMappingPath != null) {
+                entry.setValue(renamedMappingPath);
+            }
+        }
+    }
+
     @Override
     public void writeProcessedResourceMappings(File staticResourceMappingFile, String staticResourcePrefix) throws IOException {
+        writePackedOutputs();
+        if (contentHashedFileNames) {
+            renameToContentHashedFiles();
+        }
+        if (processedResourceCache != null) {
+            processedResourceCache.store();
+        }
+
         // TODO separate mappings file location
         FileOutputStream fos = null;
         try {
@@ -223,12 +400,33 @@ public class ResourceWriterImpl implements ResourceWriter {
     }
 
     public void close() {
-        for (OutputStream out : PACKED.values()) {
+        writePackedOutputs();
+    }
+
+    private void writePackedOutputs() {
+        for (PackedOutput packedOutput : PACKED.values()) {
+            OutputStream out = null;
             try {
-                out.close();
+                File outFile = createOutputFile(packedOutput.path);
+                log.debug("Writing packed output to " + outFile);
+                out = Files.asByteSink(outFile, FileWriteMode.APPEND).openStream();
+                for (byte[] part : packedOutput.parts.values()) {
+                    out.write(part);
+                }
+                addOutputFile(packedOutput.mappingPath, packedOutput.path);
             } catch (IOException e) {
-                // Swallow
+                log.error(MessageFormat.format("Could not write packed resource {0}: {1}", packedOutput.path, e.getMessage()),
+                        e);
+            } finally {
+                if (out != null) {
+                    try {
+                        out.close();
+                    } catch (IOException e) {
+                        // Swallow
+                    }
+                }
             }
         }
+        PACKED.clear();
     }
 }
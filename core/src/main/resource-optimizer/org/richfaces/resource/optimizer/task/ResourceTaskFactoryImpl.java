@@ -25,6 +25,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 
@@ -45,6 +46,7 @@ import org.richfaces.resource.optimizer.resource.util.ResourceUtil;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.collect.Lists;
 import org.richfaces.util.StreamUtils;
 
 /**
@@ -258,8 +260,22 @@ public class ResourceTaskFactoryImpl implements ResourceTaskFactory {
     }
 
     public void submit(Iterable<ResourceKey> locators) {
+        List<ResourcesRendererCallable> callables = Lists.newArrayList();
         for (ResourceKey locator : locators) {
-            completionService.submit(new ResourcesRendererCallable(locator));
+            callables.add(new ResourcesRendererCallable(locator));
+        }
+
+        if (packName != null) {
+            // resources are rendered concurrently, so the packs have to be assembled in the order of submission
+            List<ResourceKey> packingOrder = Lists.newArrayListWithCapacity(callables.size());
+            for (ResourcesRendererCallable callable : callables) {
+                packingOrder.add(callable.resourceKey);
+            }
+            resourceWriter.setPackingOrder(packingOrder);
+        }
+
+        for (ResourcesRendererCallable callable : callables) {
+            completionService.submit(callable);
         }
     }
 }
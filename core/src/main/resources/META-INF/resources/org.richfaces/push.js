@@ -1,5 +1,7 @@
 (function($, rf, jsf) {
 
+  var LAST_SEEN_SEQUENCE_KEY = 'richfaces.push.lastSeenSequence';
+  var REPLAY_EPOCH_KEY = 'richfaces.push.replayEpoch';
 
   /**
    * Global object accessing general state of Push functionality.
@@ -49,6 +51,18 @@
      */
     _lastMessageNumber: -1,
 
+    /**
+     * replay sequence number of the last processed message; sent when re-subscribing so that server can replay messages
+     * published while client was not connected
+     */
+    _lastSeenSequence: null,
+
+    /**
+     * identifier of the server side log the replay sequence numbers come from; the numbers of different epochs (e.g. before
+     * and after the server was restarted) are not comparable
+     */
+    _replayEpoch: null,
+
     /**
      * the URL that handles Push subscriptions
      */
@@ -133,7 +147,7 @@
           return;
       }
       var suspendMessageEndMarker = /^(<!--[^>]+-->\s*)+/;
-      var messageTokenExpr = /<msg topic="([^"]+)" number="([^"]+)">([^<]*)<\/msg>/g;
+      var messageTokenExpr = /<msg topic="([^"]+)" number="([^"]+)"(?: seq="([^"]+)")?>([^<]*)<\/msg>/g;
 
       var dataString = response.responseBody.replace(suspendMessageEndMarker, "");
       if (dataString) {
@@ -146,7 +160,8 @@
           var message = {
               topic: messageToken[1],
               number: parseInt(messageToken[2]),
-              data: $.parseJSON(messageToken[3])
+              seq: messageToken[3] ? parseInt(messageToken[3]) : null,
+              data: $.parseJSON(messageToken[4])
           };
 
           if (message.number <= this._lastMessageNumber) {
@@ -162,7 +177,55 @@
           })(event);
 
           this._lastMessageNumber = message.number;
+          if (message.seq !== null && (this._lastSeenSequence === null || message.seq > this._lastSeenSequence)) {
+            this._setLastSeenSequence(message.seq);
+          }
+        }
+      }
+    },
+
+    /**
+     * Returns replay sequence number of the last processed message, also when it was processed before the page was reloaded
+     */
+    _getLastSeenSequence: function() {
+      if (this._lastSeenSequence === null) {
+        try {
+          var stored = window.sessionStorage && window.sessionStorage.getItem(LAST_SEEN_SEQUENCE_KEY);
+          if (stored) {
+            this._lastSeenSequence = parseInt(stored);
+            this._replayEpoch = window.sessionStorage.getItem(REPLAY_EPOCH_KEY);
+          }
+        } catch (e) {
+          // storage is not accessible
+        }
+      }
+      return this._lastSeenSequence;
+    },
+
+    _setLastSeenSequence: function(seq) {
+      this._lastSeenSequence = seq;
+      try {
+        if (window.sessionStorage) {
+          window.sessionStorage.setItem(LAST_SEEN_SEQUENCE_KEY, seq);
         }
+      } catch (e) {
+        // storage is not accessible
+      }
+    },
+
+    /**
+     * Starts counting replay sequence numbers of the given epoch from scratch
+     */
+    _resetReplayEpoch: function(epoch) {
+      this._replayEpoch = epoch;
+      this._lastSeenSequence = null;
+      try {
+        if (window.sessionStorage) {
+          window.sessionStorage.removeItem(LAST_SEEN_SEQUENCE_KEY);
+          window.sessionStorage.setItem(REPLAY_EPOCH_KEY, epoch);
+        }
+      } catch (e) {
+        // storage is not accessible
       }
     },
 
@@ -202,6 +265,12 @@
         data['forgetPushSessionId'] = this._pushSessionId;
       }
 
+      var lastSeenSequence = this._getLastSeenSequence();
+      if (lastSeenSequence !== null && this._replayEpoch) {
+        data['lastSeenSequence'] = lastSeenSequence;
+        data['replayEpoch'] = this._replayEpoch;
+      }
+
       //TODO handle request errors
       $.ajax({
         data: data,
@@ -216,6 +285,16 @@
             $(document).trigger('error.push.RICH.' + address);
           }
 
+          if (data.replayed === false) {
+            // some of the missed messages are no longer available on server or the server was restarted, the topics are
+            // subscribed from scratch
+            $(document).trigger('replayfailed.push.RICH');
+          }
+
+          if (data.replayEpoch && data.replayEpoch !== this._replayEpoch) {
+            this._resetReplayEpoch(data.replayEpoch);
+          }
+
           if (data.sessionId) {
             this._pushSessionId = data.sessionId;
 
@@ -96,6 +96,11 @@ if (typeof jsf != 'undefined') {
                         if (partialResponse && partialResponse.length) {
                             log.debug(responseTextEntry);
                             log.info(formatPartialResponse(partialResponse));
+
+                            var timing = partialResponse.children("extension#org\\.richfaces\\.timing").children("timing");
+                            if (timing.length) {
+                                log.info("Server timing (ms): " + timing.text());
+                            }
                         } else {
                             log.info(responseTextEntry);
                         }
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.ajax4jsf.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.junit.Test;
+
+public class FastBufferWriterTest {
+
+    private static String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testAppendStringAcrossChunks() throws Exception {
+        FastBufferWriter writer = new FastBufferWriter(64);
+        String text = repeat("0123456789", 50);
+
+        writer.write(text, 5, 400);
+        writer.append(text);
+
+        assertEquals(900, writer.getLength());
+        assertNotNull(writer.getFirstBuffer().getNext());
+        assertEquals(text.substring(5, 405) + text, new String(writer.toCharArray()));
+    }
+
+    @Test
+    public void testAppendCharSequences() throws Exception {
+        FastBufferWriter writer = new FastBufferWriter(64);
+        StringBuilder builder = new StringBuilder(repeat("abc", 40));
+        StringBuffer buffer = new StringBuffer(repeat("xyz", 30));
+
+        writer.append(builder);
+        writer.append(buffer, 3, 60);
+        writer.append('!');
+        writer.append(null);
+
+        assertEquals(builder.toString() + buffer.substring(3, 60) + "!null", new String(writer.toCharArray()));
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        FastBufferWriter writer = new FastBufferWriter(64);
+        writer.append(repeat("a", 200));
+        writer.reset();
+        writer.append("b");
+
+        assertEquals(1, writer.getLength());
+        assertEquals("b", new String(writer.toCharArray()));
+    }
+}
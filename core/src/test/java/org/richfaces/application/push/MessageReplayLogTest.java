@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class MessageReplayLogTest {
+    private static final TopicKey NEWS = new TopicKey("news");
+    private static final TopicKey SPORT = new TopicKey("sport");
+
+    @Test
+    public void testSequenceNumbersAreGlobal() {
+        MessageReplayLog log = new MessageReplayLog(5);
+
+        assertEquals(0, log.append(NEWS, "a").getSequenceNumber());
+        assertEquals(1, log.append(SPORT, "b").getSequenceNumber());
+        assertEquals(2, log.append(NEWS, "c").getSequenceNumber());
+    }
+
+    @Test
+    public void testMessagesSince() {
+        MessageReplayLog log = new MessageReplayLog(5);
+        log.append(NEWS, "a");
+        log.append(SPORT, "b");
+        log.append(NEWS, "c");
+
+        List<MessageData> messages = log.getMessagesSince(NEWS, 0);
+        assertEquals(1, messages.size());
+        assertEquals("c", messages.get(0).getSerializedMessage());
+        assertEquals(NEWS, messages.get(0).getTopicKey());
+
+        assertEquals(2, log.getMessagesSince(NEWS, -1).size());
+        assertTrue(log.getMessagesSince(NEWS, 2).isEmpty());
+        assertTrue(log.getMessagesSince(new TopicKey("unknown"), -1).isEmpty());
+    }
+
+    @Test
+    public void testEviction() {
+        MessageReplayLog log = new MessageReplayLog(2);
+        for (int i = 0; i < 5; i++) {
+            log.append(NEWS, "m" + i);
+        }
+
+        List<MessageData> messages = log.getMessagesSince(NEWS, 2);
+        assertEquals(2, messages.size());
+        assertEquals("m3", messages.get(0).getSerializedMessage());
+        assertEquals("m4", messages.get(1).getSerializedMessage());
+
+        // message 2 was evicted, the client which has seen only message 1 can't be brought up to date
+        assertNull(log.getMessagesSince(NEWS, 1));
+    }
+
+    @Test
+    public void testEpoch() {
+        assertFalse(new MessageReplayLog(5).getEpoch().equals(new MessageReplayLog(5).getEpoch()));
+    }
+
+    @Test
+    public void testMaxTopicKeys() {
+        MessageReplayLog log = new MessageReplayLog(5, 1);
+        log.append(NEWS, "a");
+        log.append(SPORT, "b");
+        log.append(SPORT, "c");
+
+        // the log of news was dropped, the client which has seen nothing can't be brought up to date
+        assertNull(log.getMessagesSince(NEWS, -1));
+        assertTrue(log.getMessagesSince(NEWS, 0).isEmpty());
+        assertEquals(2, log.getMessagesSince(SPORT, 0).size());
+
+        log.append(NEWS, "d");
+        assertNull(log.getMessagesSince(SPORT, 1));
+        assertEquals(1, log.getMessagesSince(NEWS, 2).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new MessageReplayLog(0);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.atmosphere.cpr.AtmosphereConfig;
+import org.atmosphere.cpr.AtmosphereResource;
+import org.atmosphere.cpr.AtmosphereResource.TRANSPORT;
+import org.atmosphere.cpr.Broadcaster;
+import org.atmosphere.cpr.BroadcasterFactory;
+import org.atmosphere.cpr.BroadcasterLifeCyclePolicy;
+import org.atmosphere.cpr.Meteor;
+import org.junit.Before;
+import org.junit.Test;
+import org.richfaces.application.push.Session;
+
+public class RequestImplTest {
+    private BroadcasterFactory broadcasterFactory;
+    private Broadcaster sessionBroadcaster;
+    private Session session;
+
+    @Before
+    public void setUp() {
+        broadcasterFactory = mock(BroadcasterFactory.class);
+        sessionBroadcaster = mock(Broadcaster.class);
+        session = mock(Session.class);
+
+        when(session.getId()).thenReturn("abc");
+        when(session.getMaxInactiveInterval()).thenReturn(1000);
+        when(broadcasterFactory.lookup("/richfaces/push/session/abc", true)).thenReturn(sessionBroadcaster);
+    }
+
+    private Meteor createMeteor(TRANSPORT transport) {
+        AtmosphereConfig config = mock(AtmosphereConfig.class);
+        when(config.getBroadcasterFactory()).thenReturn(broadcasterFactory);
+
+        AtmosphereResource resource = mock(AtmosphereResource.class);
+        when(resource.getAtmosphereConfig()).thenReturn(config);
+
+        Meteor meteor = mock(Meteor.class);
+        when(meteor.getAtmosphereResource()).thenReturn(resource);
+        when(meteor.transport()).thenReturn(transport);
+        return meteor;
+    }
+
+    @Test
+    public void testRequestsOfSessionShareBroadcaster() {
+        Meteor first = createMeteor(TRANSPORT.LONG_POLLING);
+        Meteor second = createMeteor(TRANSPORT.LONG_POLLING);
+
+        new RequestImpl(first, session);
+        new RequestImpl(second, session);
+
+        verify(first).setBroadcaster(sessionBroadcaster);
+        verify(second).setBroadcaster(sessionBroadcaster);
+        verify(sessionBroadcaster, times(2)).setBroadcasterLifeCyclePolicy(any(BroadcasterLifeCyclePolicy.class));
+    }
+
+    @Test
+    public void testPollingTransports() {
+        assertTrue(new RequestImpl(createMeteor(TRANSPORT.LONG_POLLING), session).isPolling());
+        assertTrue(new RequestImpl(createMeteor(TRANSPORT.JSONP), session).isPolling());
+    }
+
+    @Test
+    public void testStreamingTransports() {
+        assertFalse(new RequestImpl(createMeteor(TRANSPORT.WEBSOCKET), session).isPolling());
+        assertFalse(new RequestImpl(createMeteor(TRANSPORT.STREAMING), session).isPolling());
+        assertFalse(new RequestImpl(createMeteor(TRANSPORT.SSE), session).isPolling());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.richfaces.application.push.MessageDataSerializer;
+import org.richfaces.application.push.Session;
+import org.richfaces.application.push.SessionSubscriptionEvent;
+import org.richfaces.application.push.SessionUnsubscriptionEvent;
+import org.richfaces.application.push.TopicKey;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public class TopicImplTest {
+    private static final TopicKey NEWS = new TopicKey("news");
+    private static final TopicKey NEWS_SPORT = new TopicKey("news", "sport");
+
+    private TopicsContextImpl topicsContext;
+    private TopicImpl topic;
+    private MessageDataSerializer serializer;
+
+    @Before
+    public void setUp() {
+        topicsContext = new TopicsContextImpl(new ThreadFactoryBuilder().setDaemon(true).build());
+        topic = (TopicImpl) topicsContext.getOrCreateTopic(NEWS);
+        serializer = mock(MessageDataSerializer.class);
+        when(serializer.serialize(any())).thenReturn("'data'");
+        topic.setMessageDataSerializer(serializer);
+    }
+
+    @After
+    public void tearDown() {
+        topicsContext.destroy();
+    }
+
+    @Test
+    public void testUnobservedTopicIsNotSerialized() throws Exception {
+        assertFalse(topicsContext.hasSubscribers(NEWS));
+        assertFalse(topicsContext.hasSubscribers(new TopicKey("weather")));
+
+        topicsContext.publish(NEWS, "data");
+
+        verify(serializer, never()).serialize(any());
+    }
+
+    @Test
+    public void testSubtopicSubscription() throws Exception {
+        Session session = mock(Session.class);
+        topic.publishEvent(new SessionSubscriptionEvent(topic, NEWS_SPORT, session));
+
+        assertTrue(topicsContext.hasSubscribers(NEWS_SPORT));
+        assertFalse(topicsContext.hasSubscribers(NEWS));
+        assertFalse(topicsContext.hasSubscribers(new TopicKey("news", "politics")));
+
+        topicsContext.publish(NEWS, "skipped");
+        verify(serializer, never()).serialize(any());
+
+        topicsContext.publish(NEWS_SPORT, "data");
+        verify(session, timeout(5000)).push(NEWS_SPORT, "'data'");
+    }
+
+    @Test
+    public void testUnsubscribedTopicIsNotObserved() throws Exception {
+        Session session = mock(Session.class);
+        topic.publishEvent(new SessionSubscriptionEvent(topic, NEWS, session));
+        assertTrue(topicsContext.hasSubscribers(NEWS_SPORT));
+
+        topic.publishEvent(new SessionUnsubscriptionEvent(topic, NEWS, session));
+        assertFalse(topicsContext.hasSubscribers(NEWS));
+
+        topicsContext.publish(NEWS, "data");
+        verify(serializer, never()).serialize(any());
+    }
+}
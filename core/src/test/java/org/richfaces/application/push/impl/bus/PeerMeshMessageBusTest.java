@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.bus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.richfaces.application.push.MessageBus;
+import org.richfaces.application.push.Session;
+import org.richfaces.application.push.SessionSubscriptionEvent;
+import org.richfaces.application.push.SessionUnsubscriptionEvent;
+import org.richfaces.application.push.Topic;
+import org.richfaces.application.push.TopicKey;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public class PeerMeshMessageBusTest {
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("push-bus-test-thread-%1$s").build();
+    private static final long TIMEOUT = 5000;
+    private static final String SECRET = "secret";
+
+    private PeerMeshMessageBus busA;
+    private PeerMeshMessageBus busB;
+
+    @Before
+    public void setUp() throws IOException {
+        String addressA = getFreeAddress();
+        String addressB = getFreeAddress();
+        List<String> peers = Arrays.asList(addressA, addressB);
+
+        busA = new PeerMeshMessageBus(addressA, null, peers, SECRET, 10, THREAD_FACTORY);
+        busB = new PeerMeshMessageBus(addressB, null, peers, SECRET, 10, THREAD_FACTORY);
+    }
+
+    @After
+    public void tearDown() {
+        busA.stop();
+        busB.stop();
+    }
+
+    private static String getFreeAddress() throws IOException {
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            return "127.0.0.1:" + socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+
+    private static void awaitInterest(PeerMeshMessageBus bus, PeerMeshMessageBus peer, String topicName, boolean expected)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (bus.isPeerInterested(peer.getNodeId(), topicName) != expected) {
+            assertTrue("interest in " + topicName + " was not propagated", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testMessagesSentOnlyForTopicsOfInterest() throws Exception {
+        final BlockingQueue<Object[]> received = new LinkedBlockingQueue<Object[]>();
+        MessageBus.Receiver receiver = new MessageBus.Receiver() {
+            public void receive(TopicKey key, List<String> serializedMessages) {
+                received.add(new Object[] { key, serializedMessages });
+            }
+        };
+
+        busA.start(receiver);
+        busB.start(receiver);
+
+        busB.addInterest("chat");
+        awaitInterest(busA, busB, "chat", true);
+
+        busA.publish(new TopicKey("news"), "'skipped'");
+        busA.publish(new TopicKey("chat", "room"), "'hello'");
+
+        Object[] batch = received.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals(new TopicKey("chat", "room"), batch[0]);
+        assertEquals(Arrays.asList("'hello'"), batch[1]);
+
+        busB.removeInterest("chat");
+        awaitInterest(busA, busB, "chat", false);
+    }
+
+    @Test
+    public void testInterestsChangedWhilePeerIsDownAreAnnouncedOnConnect() throws Exception {
+        busB.start(mock(MessageBus.Receiver.class));
+        for (int i = 0; i < 20000; i++) {
+            busB.addInterest("news");
+            busB.removeInterest("news");
+        }
+        busB.addInterest("chat");
+
+        busA.start(mock(MessageBus.Receiver.class));
+
+        awaitInterest(busA, busB, "chat", true);
+        assertFalse(busA.isPeerInterested(busB.getNodeId(), "news"));
+    }
+
+    @Test
+    public void testPeerWithWrongSecretIsRejected() throws Exception {
+        busB.stop();
+        busB = new PeerMeshMessageBus(getFreeAddress(), null, Arrays.asList(busA.getNodeId()), "wrong", 10, THREAD_FACTORY);
+
+        busA.start(mock(MessageBus.Receiver.class));
+        busB.start(mock(MessageBus.Receiver.class));
+        busB.addInterest("chat");
+
+        Thread.sleep(500);
+        assertFalse(busA.isPeerInterested(busB.getNodeId(), "chat"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSecretIsRequired() throws Exception {
+        new PeerMeshMessageBus(getFreeAddress(), null, Arrays.<String>asList(), "", 10, THREAD_FACTORY);
+    }
+
+    @Test
+    public void testDeliveryToSubscribedTopicOnOtherNode() throws Exception {
+        BusTopicsContextImpl contextA = new BusTopicsContextImpl(THREAD_FACTORY, busA);
+        BusTopicsContextImpl contextB = new BusTopicsContextImpl(THREAD_FACTORY, busB);
+        contextA.start();
+        contextB.start();
+
+        try {
+            TopicKey key = new TopicKey("chat");
+            Topic topic = contextB.getOrCreateTopic(key);
+            Session session = mock(Session.class);
+            topic.publishEvent(new SessionSubscriptionEvent(topic, key, session));
+            awaitInterest(busA, busB, "chat", true);
+
+            contextA.publish(key, "hello");
+
+            verify(session, timeout((int) TIMEOUT)).push(key, "\"hello\"");
+        } finally {
+            contextA.destroy();
+            contextB.destroy();
+        }
+    }
+
+    @Test
+    public void testInterestWithdrawnWhenLastSessionUnsubscribes() throws Exception {
+        BusTopicsContextImpl contextB = new BusTopicsContextImpl(THREAD_FACTORY, busB);
+        busA.start(mock(MessageBus.Receiver.class));
+        contextB.start();
+
+        try {
+            TopicKey key = new TopicKey("chat");
+            Topic topic = contextB.getOrCreateTopic(key);
+            Session first = mock(Session.class);
+            Session second = mock(Session.class);
+
+            topic.publishEvent(new SessionSubscriptionEvent(topic, key, first));
+            topic.publishEvent(new SessionSubscriptionEvent(topic, key, second));
+            awaitInterest(busA, busB, "chat", true);
+
+            topic.publishEvent(new SessionUnsubscriptionEvent(topic, key, first));
+            topic.publishEvent(new SessionUnsubscriptionEvent(topic, key, second));
+            awaitInterest(busA, busB, "chat", false);
+        } finally {
+            contextB.destroy();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.jms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.Hashtable;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NameParser;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.richfaces.application.push.SessionSubscriptionEvent;
+import org.richfaces.application.push.Topic;
+import org.richfaces.application.push.TopicKey;
+
+/**
+ * Runs {@link JMSTopicsContextImpl} against an embedded ActiveMQ broker.
+ */
+public class JMSTopicsContextImplTest {
+
+    private static final String BROKER_URL = "vm://push-test?create=false";
+    private static final long TIMEOUT = 10;
+
+    private BrokerService broker;
+    private InitialContext initialContext;
+    private Connection producerConnection;
+    private JMSTopicsContextImpl topicsContext;
+    private final AtomicInteger createdThreads = new AtomicInteger();
+
+    private final ThreadFactory threadFactory = new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            createdThreads.incrementAndGet();
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName("push-test");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+
+        Hashtable<String, String> environment = new Hashtable<String, String>();
+        environment.put(Context.INITIAL_CONTEXT_FACTORY, "org.apache.activemq.jndi.ActiveMQInitialContextFactory");
+        environment.put(Context.PROVIDER_URL, BROKER_URL);
+        initialContext = new InitialContext(environment);
+
+        producerConnection = new ActiveMQConnectionFactory(BROKER_URL).createConnection();
+        producerConnection.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (topicsContext != null) {
+            topicsContext.destroy();
+        }
+        producerConnection.close();
+        initialContext.close();
+        broker.stop();
+    }
+
+    private JMSTopicsContextImpl createTopicsContext(boolean sharedConnection, int poolSize, String wildcardTopic)
+            throws Exception {
+        NameParser parser = initialContext.getNameParser("");
+        topicsContext = new JMSTopicsContextImpl(threadFactory, initialContext, parser.parse("ConnectionFactory"),
+                parser.parse("dynamicTopics"), null, null, sharedConnection, poolSize, 10, wildcardTopic);
+        return topicsContext;
+    }
+
+    private BlockingQueue<String> subscribe(TopicKey key) {
+        final BlockingQueue<String> received = new LinkedBlockingQueue<String>();
+        org.richfaces.application.push.Session session = mock(org.richfaces.application.push.Session.class);
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                received.add((String) invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(session).push(any(TopicKey.class), anyString());
+
+        Topic topic = topicsContext.getOrCreateTopic(key);
+        topic.publishEvent(new SessionSubscriptionEvent(topic, key, session));
+        return received;
+    }
+
+    private void send(String destination, String subtopic, String... texts) throws JMSException {
+        Session session = producerConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        try {
+            MessageProducer producer = session.createProducer(session.createTopic(destination));
+            for (String text : texts) {
+                TextMessage message = session.createTextMessage(text);
+                if (subtopic != null) {
+                    message.setStringProperty("rf_push_subtopic", subtopic);
+                }
+                producer.send(message);
+            }
+        } finally {
+            session.close();
+        }
+    }
+
+    private void assertReceived(BlockingQueue<String> received, int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            assertEquals("\"m" + i + "\"", received.poll(TIMEOUT, TimeUnit.SECONDS));
+        }
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    private String[] messages(int count) {
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = "m" + i;
+        }
+        return result;
+    }
+
+    @Test
+    public void testDedicatedConnection() throws Exception {
+        createTopicsContext(false, 0, null);
+        BlockingQueue<String> received = subscribe(new TopicKey("chat"));
+
+        send("chat", null, messages(25));
+
+        assertReceived(received, 25);
+    }
+
+    @Test
+    public void testSharedConnectionBatchesInOrder() throws Exception {
+        createTopicsContext(true, 2, null);
+        BlockingQueue<String> first = subscribe(new TopicKey("first"));
+        BlockingQueue<String> second = subscribe(new TopicKey("second"));
+        BlockingQueue<String> third = subscribe(new TopicKey("third"));
+
+        send("first", null, messages(35));
+        send("second", null, messages(5));
+        send("third", null, messages(1));
+
+        assertReceived(first, 35);
+        assertReceived(second, 5);
+        assertReceived(third, 1);
+    }
+
+    @Test
+    public void testSharedConnectionUsesBoundedThreads() throws Exception {
+        createTopicsContext(true, 3, null);
+        for (int i = 0; i < 20; i++) {
+            topicsContext.getOrCreateTopic(new TopicKey("topic" + i));
+        }
+
+        assertEquals(3, createdThreads.get());
+    }
+
+    @Test
+    public void testSubtopics() throws Exception {
+        createTopicsContext(true, 1, null);
+        BlockingQueue<String> all = subscribe(new TopicKey("news"));
+        BlockingQueue<String> sport = subscribe(new TopicKey("news", "sport"));
+
+        send("news", "sport", messages(3));
+
+        assertReceived(all, 3);
+        assertReceived(sport, 3);
+    }
+
+    @Test
+    public void testWildcardSubscription() throws Exception {
+        createTopicsContext(true, 2, "push.>");
+        BlockingQueue<String> stocks = subscribe(new TopicKey("stocks"));
+        BlockingQueue<String> weather = subscribe(new TopicKey("weather", "prague"));
+
+        send("push.stocks", null, messages(12));
+        send("push.weather", "prague", messages(2));
+        send("push.unknown", null, messages(2));
+
+        assertReceived(stocks, 12);
+        assertReceived(weather, 2);
+    }
+}
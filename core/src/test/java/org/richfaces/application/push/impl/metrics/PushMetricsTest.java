@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.application.push.impl.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.richfaces.application.push.Session;
+import org.richfaces.application.push.TopicKey;
+import org.richfaces.application.push.impl.SessionManagerImpl;
+
+public class PushMetricsTest {
+    private SessionManagerImpl sessionManager;
+    private PushMetrics metrics;
+
+    @Before
+    public void setUp() {
+        sessionManager = mock(SessionManagerImpl.class);
+        metrics = new PushMetrics(sessionManager, "/app");
+    }
+
+    @Test
+    public void testCounters() {
+        Session session = mock(Session.class);
+        metrics.sessionCreated(session);
+        metrics.sessionCreated(session);
+        metrics.sessionExpired(session);
+
+        metrics.messagePublished(new TopicKey("news", "sport"));
+        metrics.messagePublished(new TopicKey("news"));
+        metrics.messagePublished(new TopicKey("chat"));
+        metrics.messageDelivered(new TopicKey("news", "sport"), TimeUnit.MILLISECONDS.toNanos(2));
+        metrics.messageDelivered(new TopicKey("chat"), TimeUnit.MILLISECONDS.toNanos(4));
+
+        assertEquals(2, metrics.getCreatedSessionCount());
+        assertEquals(1, metrics.getExpiredSessionCount());
+        assertEquals(3, metrics.getPublishedMessageCount());
+        assertEquals(2, metrics.getDeliveredMessageCount());
+        assertEquals(3.0, metrics.getMeanDeliveryLatencyMillis(), 0.001);
+        assertEquals(4.0, metrics.getMaxDeliveryLatencyMillis(), 0.001);
+
+        assertEquals(2, metrics.getTopicMetrics("news").getPublishedMessageCount());
+        assertEquals(1, metrics.getTopicMetrics("news").getDeliveredMessageCount());
+        assertEquals(1, metrics.getTopicMetrics("chat").getPublishedMessageCount());
+    }
+
+    @Test
+    public void testHistograms() {
+        Session session = mock(Session.class);
+        metrics.messageQueued(session, 1);
+        metrics.messageQueued(session, 2);
+        metrics.messageQueued(session, 3);
+        metrics.messageQueued(session, 4);
+
+        assertArrayEquals(new long[] { 0, 1, 2, 1 }, metrics.getSessionQueueLengthHistogram());
+
+        metrics.messageDelivered(new TopicKey("news"), 500);
+        assertArrayEquals(new long[] { 1 }, metrics.getDeliveryLatencyHistogram());
+    }
+
+    @Test
+    public void testMBeansRegistration() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        when(sessionManager.getSessionCount()).thenReturn(5);
+
+        metrics.messagePublished(new TopicKey("news"));
+        metrics.register(server);
+        metrics.messagePublished(new TopicKey("chat"));
+
+        ObjectName pushName = new ObjectName("org.richfaces:type=Push,application=\"/app\"");
+        ObjectName chatName = new ObjectName("org.richfaces:type=PushTopic,application=\"/app\",name=\"chat\"");
+        assertEquals(5, server.getAttribute(pushName, "ActiveSessionCount"));
+        assertEquals(1L, server.getAttribute(chatName, "PublishedMessageCount"));
+        assertTrue(server.isRegistered(new ObjectName("org.richfaces:type=PushTopic,application=\"/app\",name=\"news\"")));
+
+        metrics.unregister();
+        assertFalse(server.isRegistered(pushName));
+        assertFalse(server.isRegistered(chatName));
+    }
+}
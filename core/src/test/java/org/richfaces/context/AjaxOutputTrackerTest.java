@@ -0,0 +1,195 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIForm;
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.FacesContext;
+import javax.faces.event.PostAddToViewEvent;
+import javax.faces.event.PreRemoveFromViewEvent;
+import javax.faces.render.RenderKit;
+import javax.inject.Inject;
+
+import org.jboss.test.faces.mockito.runner.FacesMockitoRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+
+@RunWith(FacesMockitoRunner.class)
+public class AjaxOutputTrackerTest {
+
+    private static final String INDEX_ATTRIBUTE_NAME = "org.richfaces.AjaxOutputTracker.INDEX";
+
+    @Inject
+    FacesContext facesContext;
+
+    @Mock
+    RenderKit renderKit;
+
+    private AjaxOutputTracker tracker = new AjaxOutputTracker();
+
+    private UIViewRoot viewRoot;
+
+    private UIForm form;
+
+    @Before
+    public void setUp() {
+        when(facesContext.getAttributes()).thenReturn(new HashMap<Object, Object>());
+        when(facesContext.getRenderKit()).thenReturn(renderKit);
+
+        viewRoot = createViewRoot(new UIViewRoot());
+        form = (UIForm) viewRoot.getChildren().get(0);
+        addOutput(form, "out1", true);
+        addOutput(form, "out2", false);
+        addOutput(viewRoot, "out3", true);
+    }
+
+    private UIViewRoot createViewRoot(UIViewRoot root) {
+        when(facesContext.getViewRoot()).thenReturn(root);
+        UIForm form = new UIForm();
+        form.setId("form");
+        root.getChildren().add(form);
+        return root;
+    }
+
+    private AjaxOutputComponentImpl addOutput(UIComponent parent, String id, boolean ajaxRendered) {
+        AjaxOutputComponentImpl output = new AjaxOutputComponentImpl();
+        output.setId(id);
+        output.setAjaxRendered(ajaxRendered);
+        parent.getChildren().add(output);
+        tracker.processEvent(new PostAddToViewEvent(output));
+        return output;
+    }
+
+    private void startNewRequest() {
+        when(facesContext.getAttributes()).thenReturn(new HashMap<Object, Object>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> getIndex(UIViewRoot root) {
+        return (Set<String>) root.getAttributes().get(INDEX_ATTRIBUTE_NAME);
+    }
+
+    private static Set<String> asSet(String... clientIds) {
+        return new HashSet<String>(Arrays.asList(clientIds));
+    }
+
+    @Test
+    public void testAjaxRenderedClientIds() {
+        Collection<String> clientIds = AjaxOutputTracker.getAjaxRenderedClientIds(facesContext);
+
+        assertEquals(asSet("form:out1", "out3"), new HashSet<String>(clientIds));
+        assertEquals(asSet("form:out1", "form:out2", "out3"), getIndex(viewRoot));
+    }
+
+    @Test
+    public void testAddedOutputIsIndexed() {
+        AjaxOutputTracker.getAjaxRenderedClientIds(facesContext);
+
+        addOutput(form, "out4", true);
+        assertEquals(null, getIndex(viewRoot));
+
+        startNewRequest();
+        assertEquals(asSet("form:out1", "form:out4", "out3"),
+            new HashSet<String>(AjaxOutputTracker.getAjaxRenderedClientIds(facesContext)));
+        assertTrue(getIndex(viewRoot).contains("form:out4"));
+    }
+
+    @Test
+    public void testRemovedOutputIsDroppedFromIndex() {
+        AjaxOutputTracker.getAjaxRenderedClientIds(facesContext);
+
+        UIComponent output = viewRoot.findComponent("form:out1");
+        tracker.processEvent(new PreRemoveFromViewEvent(output));
+        form.getChildren().remove(output);
+
+        assertEquals(asSet("out3"), new HashSet<String>(AjaxOutputTracker.getAjaxRenderedClientIds(facesContext)));
+        assertEquals(asSet("form:out2", "out3"), getIndex(viewRoot));
+    }
+
+    @Test
+    public void testMissingTransientOutputIsDroppedOnPostback() {
+        viewRoot.findComponent("out3").setTransient(true);
+        AjaxOutputTracker.getAjaxRenderedClientIds(facesContext);
+        Set<String> savedIndex = new LinkedHashSet<String>(getIndex(viewRoot));
+
+        // restored view: the transient output is not part of the state and the tracker events are not published
+        startNewRequest();
+        UIViewRoot restoredRoot = createViewRoot(spy(new UIViewRoot()));
+        UIComponent restoredForm = restoredRoot.getChildren().get(0);
+        for (String id : Arrays.asList("out1", "out2")) {
+            AjaxOutputComponentImpl output = new AjaxOutputComponentImpl();
+            output.setId(id);
+            output.setAjaxRendered("out1".equals(id));
+            restoredForm.getChildren().add(output);
+        }
+        restoredRoot.getAttributes().put(INDEX_ATTRIBUTE_NAME, savedIndex);
+
+        assertEquals(asSet("form:out1"), new HashSet<String>(AjaxOutputTracker.getAjaxRenderedClientIds(facesContext)));
+        assertEquals(asSet("form:out1", "form:out2"), getIndex(restoredRoot));
+        assertFalse(getIndex(restoredRoot).contains("out3"));
+    }
+
+    @Test
+    public void testIndexIsResolvedOncePerRequest() {
+        AjaxOutputTracker.getAjaxRenderedClientIds(facesContext);
+        Set<String> savedIndex = new LinkedHashSet<String>(getIndex(viewRoot));
+
+        startNewRequest();
+        UIViewRoot restoredRoot = createViewRoot(spy(new UIViewRoot()));
+        UIComponent restoredForm = restoredRoot.getChildren().get(0);
+        for (String id : Arrays.asList("out1", "out2")) {
+            AjaxOutputComponentImpl output = new AjaxOutputComponentImpl();
+            output.setId(id);
+            output.setAjaxRendered(true);
+            restoredForm.getChildren().add(output);
+        }
+        AjaxOutputComponentImpl output = new AjaxOutputComponentImpl();
+        output.setId("out3");
+        restoredRoot.getChildren().add(output);
+        restoredRoot.getAttributes().put(INDEX_ATTRIBUTE_NAME, savedIndex);
+
+        AjaxOutputTracker.getAjaxRenderedClientIds(facesContext);
+        assertEquals(asSet("form:out1", "form:out2"),
+            new HashSet<String>(AjaxOutputTracker.getAjaxRenderedClientIds(facesContext)));
+
+        verify(restoredRoot, times(3)).findComponent(anyString());
+    }
+}
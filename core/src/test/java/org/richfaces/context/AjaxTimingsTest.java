@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AjaxTimingsTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testHeaderValue() {
+        AjaxTimings timings = new AjaxTimings();
+        timings.addIdResolution(MILLI / 2);
+        timings.addExecute(3 * MILLI);
+        timings.addRegionRender("form:table", 2 * MILLI);
+        timings.addRegionRender("form:out", MILLI / 4);
+        timings.addExtensions(MILLI / 8);
+
+        assertEquals("resolve;dur=0.500, execute;dur=3.000, render;dur=0.000, region;desc=\"form:table\";dur=2.000, "
+            + "region;desc=\"form:out\";dur=0.250, extensions;dur=0.125", timings.toHeaderValue());
+    }
+
+    @Test
+    public void testExecuteHeaderValue() {
+        AjaxTimings timings = new AjaxTimings();
+        timings.addIdResolution(MILLI / 2);
+        timings.addExecute(3 * MILLI);
+        timings.addRegionRender("form:table", 2 * MILLI);
+
+        assertEquals("resolve;dur=0.500, execute;dur=3.000", timings.toExecuteHeaderValue());
+    }
+
+    @Test
+    public void testRegionTimesAreSummedPerClientId() {
+        AjaxTimings timings = new AjaxTimings();
+        timings.addRegionRender("form:table", MILLI);
+        timings.addRegionRender("form:out", MILLI);
+        timings.addRegionRender("form:table", 2 * MILLI);
+
+        assertEquals(Arrays.asList("form:table", "form:out"), Arrays.asList(timings.getRegionRenderNanos().keySet().toArray()));
+        assertEquals(Long.valueOf(3 * MILLI), timings.getRegionRenderNanos().get("form:table"));
+    }
+
+    @Test
+    public void testDescriptionIsQuoted() {
+        AjaxTimings timings = new AjaxTimings();
+        timings.addRegionRender("a\"b", MILLI);
+
+        assertTrue(timings.toHeaderValue().contains("region;desc=\"a\\\"b\";dur=1.000"));
+    }
+
+    @Test
+    public void testRenderExcludesIdResolution() throws Exception {
+        AjaxTimings timings = new AjaxTimings();
+        timings.startRender();
+        Thread.sleep(5);
+        long rendering = timings.getRenderNanos();
+        assertTrue(rendering >= 5 * MILLI);
+
+        timings.addIdResolution(rendering);
+        timings.endRender();
+
+        long render = timings.getRenderNanos();
+        assertTrue(render < 5 * MILLI);
+        assertEquals(render, timings.getRenderNanos());
+    }
+}
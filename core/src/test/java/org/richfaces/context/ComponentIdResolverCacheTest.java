@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIForm;
+import javax.faces.component.UIInput;
+import javax.faces.component.UIOutput;
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.FacesContext;
+import javax.faces.event.PostAddToViewEvent;
+import javax.faces.event.PreRemoveFromViewEvent;
+import javax.faces.render.RenderKit;
+import javax.inject.Inject;
+
+import org.jboss.test.faces.mockito.runner.FacesMockitoRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+
+@RunWith(FacesMockitoRunner.class)
+public class ComponentIdResolverCacheTest {
+
+    @Inject
+    FacesContext facesContext;
+
+    @Mock
+    RenderKit renderKit;
+
+    private ComponentIdResolverCache listener = new ComponentIdResolverCache();
+
+    private UIViewRoot viewRoot;
+
+    private UIForm form;
+
+    private UIInput input;
+
+    @Before
+    public void setUp() {
+        viewRoot = new UIViewRoot();
+        viewRoot.setViewId("/index.xhtml");
+        when(facesContext.getAttributes()).thenReturn(new HashMap<Object, Object>());
+        when(facesContext.getRenderKit()).thenReturn(renderKit);
+        when(facesContext.getViewRoot()).thenReturn(viewRoot);
+
+        form = new UIForm();
+        form.setId("form");
+        viewRoot.getChildren().add(form);
+        input = new UIInput();
+        input.setId("input");
+        form.getChildren().add(input);
+        addOutput(form, "output");
+    }
+
+    private UIComponent addOutput(UIComponent parent, String id) {
+        UIOutput output = new UIOutput();
+        output.setId(id);
+        parent.getChildren().add(output);
+        listener.processEvent(new PostAddToViewEvent(output));
+        return output;
+    }
+
+    private Collection<String> resolve(String... ids) {
+        return ComponentIdResolverCache.resolve(facesContext, input, Arrays.asList(ids));
+    }
+
+    @Test
+    public void testResolvedIdsAreCached() {
+        Collection<String> resolvedIds = resolve("output");
+
+        assertEquals(Collections.singletonList("form:output"), resolvedIds);
+        assertSame(resolvedIds, resolve("output"));
+    }
+
+    @Test
+    public void testCacheIsNotSavedWithView() {
+        resolve("output");
+
+        assertNull(viewRoot.getAttributes().get("org.richfaces.ComponentIdResolverCache"));
+    }
+
+    @Test
+    public void testCacheIsKeptAcrossPostbacks() {
+        Collection<String> resolvedIds = resolve("output");
+
+        // the view map is carried over to the view restored by the next request
+        UIViewRoot restoredViewRoot = new UIViewRoot();
+        restoredViewRoot.setViewId("/index.xhtml");
+        restoredViewRoot.getViewMap().putAll(viewRoot.getViewMap());
+        restoredViewRoot.getChildren().add(form);
+        when(facesContext.getViewRoot()).thenReturn(restoredViewRoot);
+
+        assertSame(resolvedIds, resolve("output"));
+    }
+
+    @Test
+    public void testListenerIsSubscribedOnceCacheIsCreated() {
+        assertTrue(viewRoot.getViewListenersForEventClass(PostAddToViewEvent.class) == null);
+
+        resolve("output");
+        resolve("input");
+
+        assertEquals(1, viewRoot.getViewListenersForEventClass(PostAddToViewEvent.class).size());
+        assertEquals(1, viewRoot.getViewListenersForEventClass(PreRemoveFromViewEvent.class).size());
+    }
+
+    @Test
+    public void testUnrelatedChangeKeepsEntries() {
+        Collection<String> resolvedIds = resolve("output");
+
+        addOutput(form, "other");
+        UIComponent other = form.findComponent("other");
+        listener.processEvent(new PreRemoveFromViewEvent(other));
+        form.getChildren().remove(other);
+
+        assertSame(resolvedIds, resolve("output"));
+    }
+
+    @Test
+    public void testChangeOfReferencedComponentDropsEntry() {
+        Collection<String> resolvedIds = resolve("output");
+
+        UIComponent output = form.findComponent("output");
+        listener.processEvent(new PreRemoveFromViewEvent(output));
+        form.getChildren().remove(output);
+        UIComponent panel = new UIForm();
+        panel.setId("panel");
+        viewRoot.getChildren().add(panel);
+        addOutput(panel, "output");
+
+        Collection<String> newResolvedIds = resolve("output");
+        assertNotSame(resolvedIds, newResolvedIds);
+        assertEquals(Collections.singletonList("panel:output"), newResolvedIds);
+    }
+}
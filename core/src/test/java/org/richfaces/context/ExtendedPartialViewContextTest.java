@@ -0,0 +1,227 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.matches;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.faces.context.PartialResponseWriter;
+import javax.faces.context.PartialViewContext;
+import javax.faces.context.ResponseWriter;
+import javax.faces.event.PhaseId;
+import javax.faces.render.RenderKit;
+import javax.inject.Inject;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+
+import org.jboss.test.faces.mockito.runner.FacesMockitoRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.richfaces.application.CoreConfiguration;
+import org.richfaces.application.ServicesFactory;
+import org.richfaces.application.configuration.ConfigurationService;
+import org.richfaces.javascript.JavaScriptService;
+import org.richfaces.javascript.ScriptsHolder;
+import org.richfaces.renderkit.AjaxConstants;
+import org.richfaces.test.AbstractServicesTest;
+
+import com.sun.faces.renderkit.html_basic.HtmlResponseWriter;
+
+@RunWith(FacesMockitoRunner.class)
+public class ExtendedPartialViewContextTest extends AbstractServicesTest {
+
+    @Inject
+    FacesContext facesContext;
+
+    @Inject
+    ExternalContext externalContext;
+
+    @Mock
+    ConfigurationService configurationService;
+
+    @Mock
+    JavaScriptService javaScriptService;
+
+    @Mock
+    ScriptsHolder scriptsHolder;
+
+    @Mock
+    PartialViewContext wrappedContext;
+
+    @Mock
+    RenderKit renderKit;
+
+    @Mock
+    UIViewRoot viewRoot;
+
+    @Mock
+    ServletContext servletContext;
+
+    private final ByteArrayOutputStream responseBytes = new ByteArrayOutputStream();
+
+    private ExtendedPartialViewContext partialViewContext;
+
+    @Before
+    public void setUp() throws Exception {
+        when(configurationService.getBooleanValue(facesContext, CoreConfiguration.Items.partialResponseCompression)).thenReturn(
+            Boolean.TRUE);
+        when(javaScriptService.getScriptsHolder(facesContext)).thenReturn(scriptsHolder);
+        when(wrappedContext.isAjaxRequest()).thenReturn(true);
+        when(facesContext.getViewRoot()).thenReturn(viewRoot);
+        when(facesContext.getRenderKit()).thenReturn(renderKit);
+        when(renderKit.createResponseWriter(any(Writer.class), eq("text/xml"), eq("UTF-8"))).thenAnswer(new Answer<ResponseWriter>() {
+            public ResponseWriter answer(InvocationOnMock invocation) throws Throwable {
+                return new HtmlResponseWriter((Writer) invocation.getArguments()[0], "text/xml", "UTF-8");
+            }
+        });
+        // the response writer of the JSF implementation reads its configuration from the servlet context
+        when(externalContext.getContext()).thenReturn(servletContext);
+        when(servletContext.getInitParameterNames()).thenReturn(Collections.enumeration(Collections.<String>emptySet()));
+        when(externalContext.getRequestHeaderMap()).thenReturn(Collections.singletonMap("Accept-Encoding", "gzip, deflate"));
+        when(externalContext.getResponseOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                responseBytes.write(b);
+            }
+        });
+        when(externalContext.encodeNamespace(any(String.class))).thenAnswer(new Answer<String>() {
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                return (String) invocation.getArguments()[0];
+            }
+        });
+
+        partialViewContext = new ExtendedPartialViewContext(wrappedContext, facesContext);
+        when(facesContext.getPartialViewContext()).thenReturn(partialViewContext);
+    }
+
+    @After
+    public void tearDown() {
+        partialViewContext.release();
+    }
+
+    @Override
+    protected void configureServices(ServicesFactory injector) {
+        injector.setInstance(ConfigurationService.class, configurationService);
+        injector.setInstance(JavaScriptService.class, javaScriptService);
+    }
+
+    private String decompressResponse() throws IOException {
+        Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(responseBytes.toByteArray())), "UTF-8");
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[1024];
+        for (int read = reader.read(buffer); read >= 0; read = reader.read(buffer)) {
+            result.append(buffer, 0, read);
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void testCompressedPartialResponse() throws Exception {
+        PartialResponseWriter writer = partialViewContext.getPartialResponseWriter();
+        writer.startDocument();
+        writer.startUpdate("form:output");
+        writer.write("<span id=\"form:output\">text</span>");
+        writer.endUpdate();
+        writer.endDocument();
+
+        String response = decompressResponse();
+        assertTrue(response, response.startsWith("<?xml version='1.0' encoding='UTF-8'?>\n<partial-response>"));
+        assertTrue(response, response.contains("<update id=\"form:output\"><![CDATA[<span id=\"form:output\">text</span>]]></update>"));
+        assertTrue(response, response.endsWith("</partial-response>"));
+
+        InOrder order = inOrder(externalContext);
+        order.verify(externalContext).setResponseContentType("text/xml");
+        order.verify(externalContext).setResponseCharacterEncoding("UTF-8");
+        order.verify(externalContext).addResponseHeader("Cache-Control", "no-cache");
+        order.verify(externalContext).setResponseHeader("Content-Encoding", "gzip");
+        order.verify(externalContext).addResponseHeader("Vary", "Accept-Encoding");
+    }
+
+    @Test
+    public void testCompressedStreamIsFinishedOnRelease() throws Exception {
+        PartialResponseWriter writer = partialViewContext.getPartialResponseWriter();
+        writer.startDocument();
+        writer.startUpdate("form:output");
+        writer.write("<span id=\"form:output\">");
+
+        partialViewContext.release();
+        partialViewContext = new ExtendedPartialViewContext(wrappedContext, facesContext);
+
+        String response = decompressResponse();
+        assertTrue(response, response.endsWith("<span id=\"form:output\">"));
+    }
+
+    @Test
+    public void testUncompressedWithoutAcceptEncoding() throws Exception {
+        when(externalContext.getRequestHeaderMap()).thenReturn(Collections.<String, String>emptyMap());
+        PartialResponseWriter wrappedWriter = new PartialResponseWriter(new HtmlResponseWriter(new StringWriter(), "text/xml",
+            "UTF-8"));
+        when(wrappedContext.getPartialResponseWriter()).thenReturn(wrappedWriter);
+
+        partialViewContext.getPartialResponseWriter().startDocument();
+
+        assertEquals(0, responseBytes.size());
+        verify(externalContext, never()).setResponseHeader("Content-Encoding", "gzip");
+    }
+
+    @Test
+    public void testTimingHeaderIsSetBeforeRendering() throws Exception {
+        when(configurationService.getBooleanValue(facesContext, CoreConfiguration.Items.ajaxTimingHeader)).thenReturn(Boolean.TRUE);
+        when(configurationService.getBooleanValue(facesContext, CoreConfiguration.Items.ajaxTimingLog)).thenReturn(Boolean.FALSE);
+        when(externalContext.getRequestParameterMap()).thenReturn(
+            Collections.singletonMap(AjaxConstants.AJAX_COMPONENT_ID_PARAMETER, "form:button"));
+
+        partialViewContext.processPartial(PhaseId.APPLY_REQUEST_VALUES);
+        partialViewContext.processPartial(PhaseId.RENDER_RESPONSE);
+
+        InOrder order = inOrder(externalContext, wrappedContext);
+        order.verify(externalContext).setResponseHeader(eq("X-RF-Timing"),
+            matches("resolve;dur=\\d+\\.\\d{3}, execute;dur=\\d+\\.\\d{3}"));
+        order.verify(wrappedContext).processPartial(PhaseId.RENDER_RESPONSE);
+    }
+}
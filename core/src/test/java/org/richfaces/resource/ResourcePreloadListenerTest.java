@@ -0,0 +1,236 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.resource;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.faces.application.Application;
+import javax.faces.application.Resource;
+import javax.faces.application.ResourceHandler;
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIOutput;
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.faces.context.PartialViewContext;
+import javax.faces.event.PreRenderViewEvent;
+import javax.inject.Inject;
+
+import org.jboss.test.faces.mockito.runner.FacesMockitoRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.richfaces.application.CoreConfiguration;
+import org.richfaces.application.ServicesFactory;
+import org.richfaces.application.configuration.ConfigurationService;
+import org.richfaces.renderkit.html.ResourceLibraryRenderer;
+import org.richfaces.skin.Skin;
+import org.richfaces.skin.SkinFactory;
+import org.richfaces.test.AbstractServicesTest;
+
+@RunWith(FacesMockitoRunner.class)
+public class ResourcePreloadListenerTest extends AbstractServicesTest {
+
+    @Inject
+    FacesContext facesContext;
+
+    @Inject
+    Application application;
+
+    @Inject
+    ExternalContext externalContext;
+
+    @Mock
+    ConfigurationService configurationService;
+
+    @Mock
+    ResourceLibraryFactory resourceLibraryFactory;
+
+    @Mock
+    ResourceLibrary resourceLibrary;
+
+    @Mock
+    PartialViewContext partialViewContext;
+
+    @Mock
+    ResourceHandler resourceHandler;
+
+    @Mock
+    UIViewRoot viewRoot;
+
+    @Mock
+    SkinFactory skinFactory;
+
+    @Mock
+    Skin skin;
+
+    private ResourcePreloadListener listener = new ResourcePreloadListener();
+
+    @Before
+    public void setUp() {
+        when(configurationService.getBooleanValue(facesContext, CoreConfiguration.Items.resourcePreloadHints)).thenReturn(
+            Boolean.TRUE);
+        when(facesContext.getPartialViewContext()).thenReturn(partialViewContext);
+        when(facesContext.getViewRoot()).thenReturn(viewRoot);
+        when(application.getResourceHandler()).thenReturn(resourceHandler);
+        when(externalContext.encodeResourceURL(anyString())).thenAnswer(new Answer<String>() {
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                return (String) invocation.getArguments()[0];
+            }
+        });
+
+        when(viewRoot.getViewId()).thenReturn("/index.xhtml");
+        when(viewRoot.getLocale()).thenReturn(Locale.ENGLISH);
+        when(skinFactory.getSkin(facesContext)).thenReturn(skin);
+        when(skin.getName()).thenReturn("blueSky");
+        List<UIComponent> headResources = Arrays.asList(
+            createComponentResource("base.reslib", "org.richfaces", ResourceLibraryRenderer.RENDERER_TYPE),
+            createComponentResource("skinning.ecss", "org.richfaces", "javax.faces.resource.Stylesheet"),
+            createComponentResource("image.png", null, null));
+        List<UIComponent> bodyResources = Arrays.asList(
+            createComponentResource("component.js", "org.richfaces", "javax.faces.resource.Script"));
+        when(viewRoot.getComponentResources(facesContext, "head")).thenReturn(headResources);
+        when(viewRoot.getComponentResources(facesContext, "body")).thenReturn(bodyResources);
+
+        when(resourceLibraryFactory.getResourceLibrary("base", "org.richfaces")).thenReturn(resourceLibrary);
+        when(resourceLibrary.getResources()).thenReturn(
+            Arrays.asList(ResourceKey.create("jquery.js", null), ResourceKey.create("richfaces.js", "org.richfaces")));
+
+        mockResource("jquery.js", null, "text/javascript", "/app/jquery.js");
+        mockResource("richfaces.js", "org.richfaces", "text/javascript", "/app/packed/packed.js");
+        mockResource("component.js", "org.richfaces", "text/javascript", "/app/packed/packed.js");
+        mockResource("skinning.ecss", "org.richfaces", "text/css", "/app/skinning.css");
+        mockResource("image.png", null, "image/png", "/app/image.png");
+    }
+
+    @Override
+    protected void configureServices(ServicesFactory injector) {
+        injector.setInstance(ConfigurationService.class, configurationService);
+        injector.setInstance(ResourceLibraryFactory.class, resourceLibraryFactory);
+        injector.setInstance(SkinFactory.class, skinFactory);
+    }
+
+    @Test
+    public void testLinkHeader() {
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+
+        verify(externalContext).addResponseHeader("Link", "</app/jquery.js>; rel=preload; as=script, "
+            + "</app/packed/packed.js>; rel=preload; as=script, </app/skinning.css>; rel=preload; as=style");
+    }
+
+    @Test
+    public void testManifestIsCachedPerView() {
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+
+        verify(resourceLibraryFactory, times(1)).getResourceLibrary("base", "org.richfaces");
+        verify(resourceHandler, times(1)).createResource("component.js", "org.richfaces");
+        verify(externalContext, times(2)).addResponseHeader(eq("Link"), anyString());
+    }
+
+    @Test
+    public void testManifestIsCachedPerSkin() {
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+        when(skin.getName()).thenReturn("ruby");
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+
+        verify(resourceHandler, times(2)).createResource("component.js", "org.richfaces");
+    }
+
+    @Test
+    public void testManifestIsCachedPerComponentResources() {
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+
+        // the same number of component resources, e.g. from another branch of c:if
+        List<UIComponent> bodyResources = Arrays.asList(
+            createComponentResource("other.js", "org.richfaces", "javax.faces.resource.Script"));
+        when(viewRoot.getComponentResources(facesContext, "body")).thenReturn(bodyResources);
+        mockResource("other.js", "org.richfaces", "text/javascript", "/app/other.js");
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+
+        verify(externalContext).addResponseHeader("Link", "</app/jquery.js>; rel=preload; as=script, "
+            + "</app/packed/packed.js>; rel=preload; as=script, </app/skinning.css>; rel=preload; as=style, "
+            + "</app/other.js>; rel=preload; as=script");
+    }
+
+    @Test
+    public void testManifestIsCachedPerRenderedState() {
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+        viewRoot.getComponentResources(facesContext, "head").get(0).setRendered(false);
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+
+        verify(externalContext).addResponseHeader("Link", "</app/jquery.js>; rel=preload; as=script, "
+            + "</app/packed/packed.js>; rel=preload; as=script, </app/skinning.css>; rel=preload; as=style");
+        verify(externalContext).addResponseHeader("Link", "</app/skinning.css>; rel=preload; as=style, "
+            + "</app/packed/packed.js>; rel=preload; as=script");
+    }
+
+    @Test
+    public void testAjaxRequest() {
+        when(partialViewContext.isAjaxRequest()).thenReturn(true);
+
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+
+        verify(externalContext, never()).addResponseHeader(eq("Link"), anyString());
+    }
+
+    @Test
+    public void testDisabled() {
+        when(configurationService.getBooleanValue(facesContext, CoreConfiguration.Items.resourcePreloadHints)).thenReturn(
+            Boolean.FALSE);
+
+        listener.processEvent(new PreRenderViewEvent(viewRoot));
+
+        verify(externalContext, never()).addResponseHeader(eq("Link"), anyString());
+        verify(viewRoot, never()).getComponentResources(facesContext, "head");
+    }
+
+    private UIComponent createComponentResource(String name, String library, String rendererType) {
+        UIOutput resource = new UIOutput();
+        resource.setRendererType(rendererType);
+        resource.getAttributes().put("name", name);
+        if (library != null) {
+            resource.getAttributes().put("library", library);
+        }
+        return resource;
+    }
+
+    private void mockResource(String name, String library, String contentType, String requestPath) {
+        Resource resource = mock(Resource.class);
+        when(resource.getContentType()).thenReturn(contentType);
+        when(resource.getRequestPath()).thenReturn(requestPath);
+        when(resourceHandler.createResource(name, library)).thenReturn(resource);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.resource.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.richfaces.application.CoreConfiguration.Items.resourceMappingFile;
+
+import java.util.Set;
+
+import org.jboss.test.faces.mockito.runner.FacesMockitoRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.richfaces.resource.ResourceKey;
+
+import com.google.common.collect.Sets;
+
+@RunWith(FacesMockitoRunner.class)
+public class PropertiesResourceMapperTest extends AbstractResourceMappingTest {
+
+    private static final String MAPPING_FILE = "META-INF/richfaces/aggregated-resource-mappings.properties";
+    private static final String LOCATION = "/context/static/";
+
+    private PropertiesResourceMapper mapper;
+
+    @Before
+    public void initializeMapper() {
+        configure(resourceMappingFile, MAPPING_FILE);
+        facesAttributes.put(ResourceMappingConfiguration.class.getName() + ".location", LOCATION);
+
+        mapper = new PropertiesResourceMapper();
+        mapper.init();
+    }
+
+    @After
+    public void releaseMapper() {
+        mapper.release();
+    }
+
+    @Test
+    public void testRelativeMappings() {
+        assertEquals(keys("packed:first.js", "packed:second.js"), aggregated(LOCATION + "packed/packed.js"));
+        assertEquals(keys("packed:third.js"), aggregated(LOCATION + "packed/other.js"));
+    }
+
+    @Test
+    public void testAbsoluteMappings() {
+        assertEquals(keys("external:first.js", "external:second.js"), aggregated("http://cdn.example.com/packed.js"));
+    }
+
+    @Test
+    public void testSkinDependentMappings() {
+        assertEquals(keys("skinned:first.css", "skinned:second.css"), aggregated(LOCATION + "skin/packed.css"));
+
+        when(skin.getName()).thenReturn("anotherSkin");
+        assertEquals(keys("skinned:first.css", "skinned:second.css"), aggregated(LOCATION + "anotherSkin/packed.css"));
+        assertTrue(aggregated(LOCATION + "skin/packed.css").isEmpty());
+    }
+
+    @Test
+    public void testPathOutsideOfLocation() {
+        assertTrue(aggregated("/another/packed/packed.js").isEmpty());
+        assertTrue(aggregated("packed/packed.js").isEmpty());
+    }
+
+    private Set<ResourceKey> aggregated(String path) {
+        return mapper.getAggregatedResources(new ResourcePath(path));
+    }
+
+    private static Set<ResourceKey> keys(String... keys) {
+        Set<ResourceKey> result = Sets.newHashSet();
+        for (String key : keys) {
+            result.add(ResourceKey.create(key));
+        }
+        return result;
+    }
+}
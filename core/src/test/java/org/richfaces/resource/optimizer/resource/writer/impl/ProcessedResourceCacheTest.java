@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.resource.optimizer.resource.writer.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.Charset;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.richfaces.log.Logger;
+import org.richfaces.log.RichfacesLogger;
+
+public class ProcessedResourceCacheTest {
+
+    private static final Logger LOG = RichfacesLogger.RESOURCE.getLogger();
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    private static final byte[] INPUT = "a { color: red; }".getBytes(UTF_8);
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    @Test
+    public void testKeyDependsOnProcessorOptions() throws Exception {
+        ProcessedResourceCache cache = new ProcessedResourceCache(cacheDir.getRoot(), LOG);
+
+        String key = cache.createKey(new CSSCompressingProcessor(UTF_8), "a.css", false, INPUT);
+
+        assertEquals(key, cache.createKey(new CSSCompressingProcessor(UTF_8), "a.css", false, INPUT));
+        assertFalse(key.equals(cache.createKey(new CSSCompressingProcessor(ISO_8859_1), "a.css", false, INPUT)));
+        assertFalse(key.equals(cache.createKey(new CSSPackagingProcessor(UTF_8), "a.css", false, INPUT)));
+        assertFalse(new JavaScriptCompressingProcessor(UTF_8, LOG).getOptions().equals(
+            new JavaScriptCompressingProcessor(ISO_8859_1, LOG).getOptions()));
+    }
+
+    @Test
+    public void testOutputIsCachedBetweenRuns() throws Exception {
+        ProcessedResourceCache cache = new ProcessedResourceCache(cacheDir.getRoot(), LOG);
+        String key = cache.createKey(new CSSCompressingProcessor(UTF_8), "a.css", false, INPUT);
+        byte[] output = "a{color:red}".getBytes(UTF_8);
+        cache.put(key, output);
+        cache.store();
+
+        ProcessedResourceCache nextRun = new ProcessedResourceCache(cacheDir.getRoot(), LOG);
+        assertArrayEquals(output, nextRun.get(key));
+        assertNull(nextRun.get(nextRun.createKey(new CSSCompressingProcessor(ISO_8859_1), "a.css", false, INPUT)));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat, Inc. and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.richfaces.skin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.richfaces.application.CoreConfiguration.BASE_SKIN_PARAM_NAME;
+import static org.richfaces.application.CoreConfiguration.SKIN_PARAM_NAME;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.faces.FacesException;
+import javax.faces.context.FacesContext;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.richfaces.ContextInitParameter;
+import org.richfaces.ContextInitParameters;
+import org.richfaces.FacesRequestSetupRule;
+
+/**
+ * Test for skins created in the snapshot mode.
+ */
+public class SkinSnapshotTest {
+    private static final String SNAPSHOT_PARAM_NAME = "org.richfaces.skin.snapshot";
+
+    @Rule
+    public FacesRequestSetupRule rule = new FacesRequestSetupRule();
+
+    private Map<String, Object> setBean(FacesContext facesContext, String value) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("bean", value);
+        facesContext.getExternalContext().getRequestMap().put("test", map);
+        return map;
+    }
+
+    @Test
+    @ContextInitParameter(name = SNAPSHOT_PARAM_NAME, value = "true")
+    public void testSnapshotParameters() {
+        FacesContext facesContext = FacesContext.getCurrentInstance();
+        Map<String, Object> bean = setBean(facesContext, "test.value");
+
+        Skin skin = SkinFactory.getInstance(facesContext).getSkin(facesContext, "test");
+
+        assertTrue(skin instanceof SkinSnapshot);
+        assertEquals("string", skin.getParameter(facesContext, "string.property"));
+        assertEquals("base.string", skin.getParameter(facesContext, "base.property"));
+        assertEquals("test.value", skin.getParameter(facesContext, "bind.property"));
+
+        bean.put("bean", "other.value");
+        assertEquals("other.value", skin.getParameter(facesContext, "bind.property"));
+    }
+
+    @Test
+    @ContextInitParameters({ @ContextInitParameter(name = SNAPSHOT_PARAM_NAME, value = "true"),
+            @ContextInitParameter(name = SKIN_PARAM_NAME, value = "style"),
+            @ContextInitParameter(name = BASE_SKIN_PARAM_NAME, value = "style_base") })
+    public void testReferences() {
+        FacesContext facesContext = FacesContext.getCurrentInstance();
+        Skin skin = SkinFactory.getInstance(facesContext).getSkin(facesContext);
+
+        assertEquals("#F5F0E7", skin.getParameter(facesContext, "intermediateTextColor"));
+        assertEquals("10px", skin.getParameter(facesContext, "intermediateTextSize"));
+        assertEquals("#F5F0E7", skin.getParameter(facesContext, "generalTextColor"));
+        assertEquals("white.textcolor", skin.getParameter(facesContext, "additionalTextColor"));
+        assertEquals("default", skin.getParameter(facesContext, "c"));
+    }
+
+    @Test
+    @ContextInitParameters({ @ContextInitParameter(name = SNAPSHOT_PARAM_NAME, value = "true"),
+            @ContextInitParameter(name = SKIN_PARAM_NAME, value = "dynatest"),
+            @ContextInitParameter(name = BASE_SKIN_PARAM_NAME, value = "dynatest_base") })
+    public void testDynamicBaseSkin() {
+        FacesContext facesContext = FacesContext.getCurrentInstance();
+        Map<String, Object> bean = setBean(facesContext, "dynabase1");
+
+        Skin skin = SkinFactory.getInstance(facesContext).getSkin(facesContext);
+
+        assertEquals("default", skin.getParameter(facesContext, "default"));
+        assertEquals("itself", skin.getParameter(facesContext, "selfValue"));
+        assertEquals("#AAA", skin.getParameter(facesContext, "customFormColor"));
+
+        bean.put("bean", "dynabase2");
+        assertEquals("xxx", skin.getParameter(facesContext, "default"));
+        assertEquals("itself", skin.getParameter(facesContext, "selfValue"));
+    }
+
+    @Test
+    @ContextInitParameters({ @ContextInitParameter(name = SNAPSHOT_PARAM_NAME, value = "true"),
+            @ContextInitParameter(name = SKIN_PARAM_NAME, value = "cyclic") })
+    public void testCyclicReferences() {
+        FacesContext facesContext = FacesContext.getCurrentInstance();
+
+        try {
+            SkinFactory.getInstance(facesContext).getSkin(facesContext).getParameter(facesContext, "x");
+            fail();
+        } catch (FacesException e) {
+            // it's ok
+        }
+    }
+
+    @Test
+    @ContextInitParameters({ @ContextInitParameter(name = SNAPSHOT_PARAM_NAME, value = "true"),
+            @ContextInitParameter(name = SKIN_PARAM_NAME, value = "plain") })
+    public void testConstantExpressions() {
+        FacesContext facesContext = FacesContext.getCurrentInstance();
+        Skin skin = SkinFactory.getInstance(facesContext).getSkin(facesContext, "plain");
+
+        assertTrue(skin.containsProperty(Skin.GENERAL_BACKGROUND_COLOR));
+        assertNull(skin.getParameter(facesContext, Skin.GENERAL_BACKGROUND_COLOR));
+    }
+
+    @Test
+    @ContextInitParameter(name = SNAPSHOT_PARAM_NAME, value = "true")
+    public void testHashCode() {
+        FacesContext facesContext = FacesContext.getCurrentInstance();
+        Map<String, Object> bean = setBean(facesContext, "test.value");
+
+        Skin skin = SkinFactory.getInstance(facesContext).getSkin(facesContext, "test");
+        int hash = skin.hashCode(facesContext);
+        assertEquals(hash, skin.hashCode(facesContext));
+
+        bean.put("bean", "other.value");
+        assertFalse(hash == skin.hashCode(facesContext));
+    }
+}